@@ -12,6 +12,10 @@ public class BatchMessage extends Message
      */
     private final List<Message> nestedMessages;
 
+    // The number of nested messages, from the start of the list, that an earlier attempt to send this batch already
+    // delivered. Only the messages after them are sent again when this batch is retried.
+    private int deliveredNestedMessageCount;
+
     /**
      * Creates a batch message
      * This constructor is internal and can only be called within the com.microsoft.azure.sdk.iot.device package.
@@ -30,4 +34,29 @@ public class BatchMessage extends Message
     {
         return this.nestedMessages;
     }
+
+    /**
+     * Gets the nested messages that haven't been delivered yet. A batch that is too large for a single HTTPS request is
+     * sent in several parts, and if one of these parts fails, only the messages of that part and of the parts after it
+     * are sent again when the batch is retried.
+     * @return The nested messages that haven't been delivered yet.
+     */
+    public List<Message> getUndeliveredNestedMessages()
+    {
+        return this.nestedMessages.subList(this.deliveredNestedMessageCount, this.nestedMessages.size());
+    }
+
+    /**
+     * Marks the provided number of nested messages, following the ones that were already delivered, as delivered.
+     * @param count The number of nested messages that were delivered.
+     */
+    public void markNestedMessagesDelivered(int count)
+    {
+        if (count < 0 || this.deliveredNestedMessageCount + count > this.nestedMessages.size())
+        {
+            throw new IllegalArgumentException("count must be between 0 and the number of undelivered nested messages");
+        }
+
+        this.deliveredNestedMessageCount += count;
+    }
 }
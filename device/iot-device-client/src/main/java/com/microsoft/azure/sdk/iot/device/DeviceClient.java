@@ -11,6 +11,7 @@ import com.microsoft.azure.sdk.iot.provisioning.security.SecurityProvider;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * <p>
@@ -197,6 +198,32 @@ public final class DeviceClient extends InternalClient
         log.info("Device client opened successfully");
     }
 
+    /**
+     * Asynchronously starts sending and receiving messages from an IoT hub. If the client is already open, the returned
+     * future is already completed. If the client is already being opened, the returned future completes along with that
+     * open.
+     * <p>
+     * Unlike {@link #open(boolean)}, this method does not block the calling thread while the connection is retried.
+     *
+     * @param withRetry if true, this open call will apply the retry policy to allow for the open call to be retried if
+     * it fails. Both the operation timeout set in {@link #setOperationTimeout(long)} and the retry policy set in
+     * {{@link #setRetryPolicy(RetryPolicy)}} will be respected while retrying to open the connection.
+     * @return a future that completes once the connection is open, or completes exceptionally with an
+     * {@link IotHubClientException} if a connection to an IoT hub cannot be established or if the connection can be
+     * established but the service rejects it for any reason.
+     * @throws UnsupportedOperationException if called on a device that is multiplexed.
+     */
+    @Override
+    public CompletableFuture<Void> openAsync(boolean withRetry)
+    {
+        if (this.deviceClientType == DeviceClientType.USE_MULTIPLEXING_CLIENT)
+        {
+            throw new UnsupportedOperationException(MULTIPLEXING_OPEN_ERROR_MESSAGE);
+        }
+
+        return super.openAsync(withRetry);
+    }
+
     /**
      * Closes the IoT hub client by releasing any resources held by client. When
      * close is called all the messages that were in transit or pending to be
@@ -9,6 +9,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import javax.net.ssl.SSLContext;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -108,6 +109,45 @@ final class DeviceIO implements IotHubConnectionStatusChangeCallback
         }
     }
 
+    /**
+     * Asynchronously starts sending and receiving messages from an IoT Hub. If the client is already open, the returned
+     * future is already completed. If the client is already being opened, the returned future completes along with that
+     * open. Waiting between connection attempts does not hold any thread.
+     *
+     * @return a future that completes once the connection is open, or completes exceptionally with an
+     * {@link IotHubClientException} if the connection could not be opened.
+     */
+    CompletableFuture<Void> openAsync(boolean withRetry)
+    {
+        synchronized (this.stateLock)
+        {
+            CompletableFuture<Void> openFuture = new CompletableFuture<>();
+            if (this.isOpen())
+            {
+                openFuture.complete(null);
+                return openFuture;
+            }
+
+            this.transport.openAsync(withRetry).whenComplete((result, throwable) ->
+            {
+                if (throwable == null)
+                {
+                    openFuture.complete(null);
+                }
+                else if (throwable instanceof TransportException)
+                {
+                    openFuture.completeExceptionally(((TransportException) throwable).toIotHubClientException());
+                }
+                else
+                {
+                    openFuture.completeExceptionally(throwable);
+                }
+            });
+
+            return openFuture;
+        }
+    }
+
     void registerMultiplexedDeviceClient(List<ClientConfiguration> configs, long timeoutMilliseconds) throws InterruptedException, IotHubClientException
     {
         this.transport.registerMultiplexedDeviceClient(configs, timeoutMilliseconds);
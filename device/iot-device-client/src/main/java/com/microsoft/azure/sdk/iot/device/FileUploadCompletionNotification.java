@@ -14,6 +14,8 @@ import com.google.gson.annotations.SerializedName;
  */
 public class FileUploadCompletionNotification
 {
+    private static final Gson gson = new GsonBuilder().disableHtmlEscaping().serializeNulls().create();
+
     private static final String CORRELATION_ID_TAG = "correlationId";
     @Expose
     @SerializedName(CORRELATION_ID_TAG)
@@ -78,7 +80,6 @@ public class FileUploadCompletionNotification
      */
     public String toJson()
     {
-        Gson gson = new GsonBuilder().disableHtmlEscaping().serializeNulls().create();
 
         return gson.toJson(this);
     }
@@ -15,6 +15,8 @@ import lombok.Setter;
  */
 public class FileUploadSasUriRequest
 {
+    private static final Gson gson = new GsonBuilder().disableHtmlEscaping().serializeNulls().create();
+
     private static final String BLOB_NAME_TAG = "blobName";
     @Expose
     @SerializedName(BLOB_NAME_TAG)
@@ -40,7 +42,6 @@ public class FileUploadSasUriRequest
      */
     public String toJson()
     {
-        Gson gson = new GsonBuilder().disableHtmlEscaping().serializeNulls().create();
 
         return gson.toJson(this);
     }
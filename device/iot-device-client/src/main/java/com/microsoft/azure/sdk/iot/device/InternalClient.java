@@ -7,6 +7,7 @@ package com.microsoft.azure.sdk.iot.device;
 
 import com.microsoft.azure.sdk.iot.device.auth.IotHubAuthenticationProvider;
 import com.microsoft.azure.sdk.iot.device.exceptions.IotHubClientException;
+import com.microsoft.azure.sdk.iot.device.transport.IotHubConnectionStatus;
 import com.microsoft.azure.sdk.iot.device.transport.RetryPolicy;
 import com.microsoft.azure.sdk.iot.device.twin.*;
 import com.microsoft.azure.sdk.iot.provisioning.security.SecurityProvider;
@@ -14,6 +15,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
@@ -41,6 +43,7 @@ public class InternalClient
 
     private DeviceTwin twin;
     private DirectMethod method;
+    private TwinMirror twinMirror; // null unless the user opts in
 
     InternalClient(IotHubConnectionString iotHubConnectionString, IotHubClientProtocol protocol, ClientOptions clientOptions)
     {
@@ -162,6 +165,27 @@ public class InternalClient
         this.deviceIO.open(withRetry);
     }
 
+    /**
+     * Asynchronously starts sending and receiving messages from an IoT hub. If the client is already open, the returned
+     * future is already completed. If the client is already being opened, the returned future completes along with that
+     * open.
+     * <p>
+     * Unlike {@link #open(boolean)}, this method does not block the calling thread while the connection is retried.
+     * Each retry is scheduled for when the retry policy's delay has elapsed, so no thread is held while waiting
+     * between attempts.
+     *
+     * @param withRetry if true, this open call will apply the retry policy to allow for the open call to be retried if
+     * it fails. Both the operation timeout set in {@link #setOperationTimeout(long)} and the retry policy set in
+     * {{@link #setRetryPolicy(RetryPolicy)}} will be respected while retrying to open the connection.
+     * @return a future that completes once the connection is open, or completes exceptionally with an
+     * {@link IotHubClientException} if a connection to an IoT hub cannot be established or if the connection can be
+     * established but the service rejects it for any reason.
+     */
+    public CompletableFuture<Void> openAsync(boolean withRetry)
+    {
+        return this.deviceIO.openAsync(withRetry);
+    }
+
     /**
      * Close the client.
      */
@@ -170,6 +194,11 @@ public class InternalClient
         this.deviceIO.close();
         this.method = null;
         this.twin = null;
+
+        if (this.twinMirror != null)
+        {
+            this.twinMirror.invalidate();
+        }
     }
 
     /**
@@ -610,8 +639,13 @@ public class InternalClient
     /**
      * Asynchronously sends a batch of messages to the IoT hub
      *
-     * This operation is only supported over HTTPS. This API call is an all-or-nothing single HTTPS message and the
-     * callback will be triggered once this batch message has been sent.
+     * This operation is only supported over HTTPS. The callback will be triggered once every message of this batch has
+     * been sent, or once sending the batch has failed.
+     *
+     * A batch that is too large for a single HTTPS request is sent in several requests, in order. If one of them fails
+     * and the retry policy allows for another attempt, only the messages that weren't delivered yet are sent again, so
+     * no message is delivered twice. If the batch ultimately fails, the callback reports that failure for the whole batch
+     * even though the messages of the requests that succeeded were delivered.
      *
      * Maximum payload size for HTTPS is 255KB
      *
@@ -675,7 +709,13 @@ public class InternalClient
             throw new IllegalStateException("Open the client connection before using it");
         }
 
-        this.twin = new DeviceTwin(this);
+        if (this.twinMirror != null)
+        {
+            // Updates may have been missed while this client wasn't subscribed
+            this.twinMirror.invalidate();
+        }
+
+        this.twin = new DeviceTwin(this, this.twinMirror);
         this.twin.subscribeToDesiredPropertiesAsync(
             subscriptionAcknowledgedCallback,
             desiredPropertiesSubscriptionCallbackContext,
@@ -761,7 +801,7 @@ public class InternalClient
     {
         if (this.twin == null)
         {
-            this.twin = new DeviceTwin(this);
+            this.twin = new DeviceTwin(this, this.twinMirror);
         }
 
         this.twin.updateReportedPropertiesAsync(reportedProperties, reportedPropertiesUpdateCorrelatingMessageCallback, callbackContext);
@@ -839,12 +879,51 @@ public class InternalClient
 
         if (this.twin == null)
         {
-            this.twin = new DeviceTwin(this);
+            this.twin = new DeviceTwin(this, this.twinMirror);
         }
 
         this.twin.getTwinAsync(twinCallback, callbackContext);
     }
 
+    /**
+     * Keep a local copy of this client's twin and serve {@link #getTwin()} and {@link #getTwinAsync(GetTwinCallback, Object)}
+     * from it rather than asking the service each time.
+     *
+     * <p>
+     * The local copy is seeded by the first getTwin call after this client subscribes to desired properties. After
+     * that, it is kept up to date with the desired property updates this client receives (in $version order) and the
+     * reported property updates this client sends. If a desired property update is missed, the full twin is requested
+     * from the service again, and getTwin calls go to the service until the local copy has caught up. The local copy is
+     * discarded whenever this client's connection is lost or closed.
+     * </p>
+     *
+     * <p>
+     * Desired property updates are still delivered to the callback provided in
+     * {@link #subscribeToDesiredPropertiesAsync(DesiredPropertiesCallback, Object, SubscriptionAcknowledgedCallback, Object)}
+     * exactly as they are without the mirror.
+     * </p>
+     *
+     * <p>
+     * This should be called before subscribing to desired properties.
+     * </p>
+     */
+    public void enableTwinMirror()
+    {
+        if (this.twinMirror != null)
+        {
+            return;
+        }
+
+        this.twinMirror = new TwinMirror();
+
+        if (this.twin != null)
+        {
+            log.debug("Twin mirror was enabled after subscribing to desired properties. It will be used once this client resubscribes.");
+        }
+
+        registerConnectionStatusChangeCallback();
+    }
+
     /**
      * Subscribes to direct methods
      *
@@ -904,10 +983,41 @@ public class InternalClient
 
         if (this.deviceIO != null)
         {
-            this.deviceIO.setConnectionStatusChangeCallback(callback, callbackContext, this.getConfig().getDeviceId());
+            registerConnectionStatusChangeCallback();
         }
     }
 
+    private void registerConnectionStatusChangeCallback()
+    {
+        if (this.deviceIO == null)
+        {
+            return;
+        }
+
+        IotHubConnectionStatusChangeCallback callback = this.connectionStatusChangeCallback;
+        if (this.twinMirror != null)
+        {
+            // Desired property updates may be missed while disconnected, so the twin mirror can't be trusted after
+            // the connection drops
+            final TwinMirror mirror = this.twinMirror;
+            final IotHubConnectionStatusChangeCallback userCallback = this.connectionStatusChangeCallback;
+            callback = connectionStatusChangeContext ->
+            {
+                if (connectionStatusChangeContext.getNewStatus() != IotHubConnectionStatus.CONNECTED)
+                {
+                    mirror.invalidate();
+                }
+
+                if (userCallback != null)
+                {
+                    userCallback.onStatusChanged(connectionStatusChangeContext);
+                }
+            };
+        }
+
+        this.deviceIO.setConnectionStatusChangeCallback(callback, this.connectionStatusChangeCallbackContext, this.getConfig().getDeviceId());
+    }
+
     /**
      * Sets the given retry policy on the underlying transport
      * <a href="https://github.com/Azure/azure-iot-sdk-java/blob/main/device/iot-device-client/devdoc/requirement_docs/com/microsoft/azure/iothub/retryPolicy.md">
@@ -1000,12 +1110,9 @@ public class InternalClient
 
         // Since connection status callbacks can be registered before associating a device client with a multiplexing client, the callback and its
         // context also need to be registered when the device IO is set.
-        if (this.deviceIO != null && this.connectionStatusChangeCallback != null)
+        if (this.deviceIO != null && (this.connectionStatusChangeCallback != null || this.twinMirror != null))
         {
-            this.deviceIO.setConnectionStatusChangeCallback(
-                    this.connectionStatusChangeCallback,
-                    this.connectionStatusChangeCallbackContext,
-                    this.getConfig().getDeviceId());
+            registerConnectionStatusChangeCallback();
         }
     }
 
@@ -221,7 +221,7 @@ public class ModuleClient extends InternalClient
             }
             else
             {
-                sslContext = new IotHubSSLContext().getSSLContext();
+                sslContext = IotHubSSLContext.getSharedDefaultInstance().getSSLContext();
             }
 
             if (clientOptions == null || clientOptions.getSslContext() == null)
@@ -303,7 +303,7 @@ public class ModuleClient extends InternalClient
                 }
                 else
                 {
-                    sslContext = new IotHubSSLContext().getSSLContext();
+                    sslContext = IotHubSSLContext.getSharedDefaultInstance().getSSLContext();
                 }
 
                 IotHubAuthenticationProvider iotHubAuthenticationProvider =
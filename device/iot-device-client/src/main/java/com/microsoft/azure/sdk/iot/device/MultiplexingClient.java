@@ -7,6 +7,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import javax.net.ssl.SSLContext;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import static com.microsoft.azure.sdk.iot.device.ClientConfiguration.DEFAULT_KEEP_ALIVE_INTERVAL_IN_SECONDS;
 
@@ -158,6 +159,32 @@ public class MultiplexingClient
         }
     }
 
+    /**
+     * Asynchronously opens this multiplexing client. This may be done before or after registering any number of device
+     * clients.
+     * <p>
+     * Unlike {@link #open(boolean)}, this method does not block the calling thread while the connection is retried.
+     * Once the returned future completes successfully, all registered device clients were successfully opened.
+     * <p>
+     * If this client is already open, then the returned future is already completed. If this client is already being
+     * opened, then the returned future completes along with that open.
+     * <p>
+     * @param withRetry if true, this open call will apply the current retry policy to allow for the open call to be
+     * retried if it fails.
+     * @return a future that completes once the multiplexed connection is open. It completes exceptionally with an
+     * {@link IotHubClientException} if any IO or authentication errors occur while opening the multiplexed connection,
+     * or with a {@link MultiplexingClientRegistrationException} if one or many of the registered devices failed to
+     * authenticate.
+     */
+    public CompletableFuture<Void> openAsync(boolean withRetry)
+    {
+        synchronized (this.operationLock)
+        {
+            log.info("Opening multiplexing client asynchronously");
+            return this.deviceIO.openAsync(withRetry);
+        }
+    }
+
     /**
      * Close this multiplexing client. This will close all active device sessions as well as the AMQP connection.
      * <p>
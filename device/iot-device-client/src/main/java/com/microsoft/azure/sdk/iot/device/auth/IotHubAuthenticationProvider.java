@@ -38,7 +38,7 @@ public abstract class IotHubAuthenticationProvider
 
         if (sslContext == null)
         {
-            this.iotHubSSLContext = new IotHubSSLContext();
+            this.iotHubSSLContext = IotHubSSLContext.getSharedDefaultInstance();
         }
         else
         {
@@ -60,6 +60,26 @@ public class IotHubSSLContext
         }
     }
 
+    /**
+     * Get the IotHubSSLContext that trusts the certificates stored in your physical device's Trusted Root Certification
+     * Authorities certificate store and that is shared by every client in this process that doesn't provide its own
+     * SSLContext.
+     *
+     * <p>
+     * The TLS sessions negotiated by an SSLContext are cached per SSLContext instance, keyed by the server's host and
+     * port. Sharing this instance allows reconnections, and connections from other clients to the same host, to resume a
+     * previously negotiated TLS session with an abbreviated handshake rather than performing a full handshake each time.
+     * Like the default constructor's SSLContext, this can only be used for connections that use symmetric key
+     * authentication.
+     * </p>
+     *
+     * @return the shared default IotHubSSLContext.
+     */
+    public static IotHubSSLContext getSharedDefaultInstance()
+    {
+        return SharedDefaultInstanceHolder.INSTANCE;
+    }
+
     /**
      * Create an IotHubSSLContext that will use the provided sslContext rather than create one based on your device's
      * Trusted Root Certification Authorities certificate store.
@@ -157,4 +177,10 @@ public class IotHubSSLContext
 
         return trustManagerFactory;
     }
+
+    // Lazily initialized on first use, and thread safe by virtue of class initialization
+    private static final class SharedDefaultInstanceHolder
+    {
+        private static final IotHubSSLContext INSTANCE = new IotHubSSLContext();
+    }
 }
@@ -13,6 +13,8 @@ import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import static org.apache.commons.codec.binary.Base64.encodeBase64;
 
@@ -21,8 +23,18 @@ public class IotHubSasTokenHardwareAuthenticationProvider extends IotHubSasToken
     private static final String TOKEN_SCOPE_FORMAT = "%s/devices/%s";
     private static final String SASTOKEN_FORMAT = "SharedAccessSignature sr=%s&sig=%s&se=%s";
 
+    // Expiry times are rounded down to a multiple of a twentieth of the token lifetime, up to 5 minutes, so that tokens
+    // requested close together are identical and the TPM only has to sign once for all of them
+    private static final long EXPIRY_TIME_BUCKETS_PER_TOKEN_LIFETIME = 20;
+    private static final long MAX_EXPIRY_TIME_BUCKET_SECONDS = 300;
+
     private final SecurityProviderTpm securityProvider;
 
+    private final Object sasTokenCacheLock = new Object();
+    private String cachedTokenScope;
+    private long cachedExpiryTime;
+    private CompletableFuture<String> cachedSasToken;
+
     /**
      * Creates a Sas Token based authentication object that uses the provided security provider to produce sas tokens.
      *
@@ -96,7 +108,77 @@ public class IotHubSasTokenHardwareAuthenticationProvider extends IotHubSasToken
                 throw new IOException("Could not construct token scope");
             }
 
-            Long expiryTimeUTC = (System.currentTimeMillis() / 1000) + secondsToLive;
+            long expiryTimeBucketSeconds = Math.max(1, Math.min(MAX_EXPIRY_TIME_BUCKET_SECONDS, secondsToLive / EXPIRY_TIME_BUCKETS_PER_TOKEN_LIFETIME));
+            long expiryTimeUTC = (System.currentTimeMillis() / 1000) + secondsToLive;
+            expiryTimeUTC -= expiryTimeUTC % expiryTimeBucketSeconds;
+
+            return getSasTokenForExpiryTime(encodedTokenScope, expiryTimeUTC);
+        }
+        catch (UnsupportedEncodingException e)
+        {
+            throw new IOException(e);
+        }
+    }
+
+    private String getSasTokenForExpiryTime(String encodedTokenScope, long expiryTimeUTC) throws IOException
+    {
+        CompletableFuture<String> sasToken;
+        boolean isSigner = false;
+        synchronized (this.sasTokenCacheLock)
+        {
+            if (this.cachedSasToken == null || this.cachedExpiryTime != expiryTimeUTC || !encodedTokenScope.equals(this.cachedTokenScope))
+            {
+                this.cachedSasToken = new CompletableFuture<>();
+                this.cachedTokenScope = encodedTokenScope;
+                this.cachedExpiryTime = expiryTimeUTC;
+                isSigner = true;
+            }
+
+            sasToken = this.cachedSasToken;
+        }
+
+        if (isSigner)
+        {
+            // Callers that asked for the same token while it is being signed wait for this signature instead of
+            // queueing up their own signing commands on the TPM
+            try
+            {
+                sasToken.complete(signSasToken(encodedTokenScope, expiryTimeUTC));
+            }
+            catch (IOException | RuntimeException e)
+            {
+                synchronized (this.sasTokenCacheLock)
+                {
+                    if (this.cachedSasToken == sasToken)
+                    {
+                        this.cachedSasToken = null;
+                    }
+                }
+
+                sasToken.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try
+        {
+            return sasToken.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the security provider to sign the sas token", e);
+        }
+        catch (ExecutionException e)
+        {
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private String signSasToken(String encodedTokenScope, long expiryTimeUTC) throws IOException
+    {
+        try
+        {
             byte[] token = this.securityProvider.signWithIdentity(encodedTokenScope.concat("\n" + expiryTimeUTC).getBytes(StandardCharsets.UTF_8));
             if (token == null || token.length == 0)
             {
@@ -11,6 +11,13 @@ public class IotHubSasTokenSoftwareAuthenticationProvider extends IotHubSasToken
 {
     private final String deviceKey;
 
+    // Signing a token costs a key initialization, an HMAC, a base64 encoding and a url encoding, so the most recently
+    // signed token is reused rather than being re-signed for every request.
+    private final Object sasTokenLock = new Object();
+
+    // The time until which the saved sas token still has a full proactive renewal period left to live
+    private long sasTokenReusableUntilMillis;
+
     /**
      * Constructor that takes a connection string containing a sas token or a device key
      *
@@ -27,7 +34,9 @@ public class IotHubSasTokenSoftwareAuthenticationProvider extends IotHubSasToken
     {
         super(hostname, gatewayHostname, deviceId, moduleId, tokenValidSecs, timeBufferPercentage);
         this.deviceKey = deviceKey;
-        this.sasToken = new IotHubSasToken(hostname, deviceId, deviceKey, sharedAccessToken, moduleId, getExpiryTimeInSeconds());
+        long expiryTime = getExpiryTimeInSeconds();
+        this.sasToken = new IotHubSasToken(hostname, deviceId, deviceKey, sharedAccessToken, moduleId, expiryTime);
+        this.sasTokenReusableUntilMillis = getReusableUntilMillis(expiryTime);
     }
 
     /**
@@ -43,7 +52,9 @@ public class IotHubSasTokenSoftwareAuthenticationProvider extends IotHubSasToken
     {
         super(hostname, gatewayHostname, deviceId, moduleId);
         this.deviceKey = deviceKey;
-        this.sasToken = new IotHubSasToken(hostname, deviceId, deviceKey, sharedAccessToken, moduleId, getExpiryTimeInSeconds());
+        long expiryTime = getExpiryTimeInSeconds();
+        this.sasToken = new IotHubSasToken(hostname, deviceId, deviceKey, sharedAccessToken, moduleId, expiryTime);
+        this.sasTokenReusableUntilMillis = getReusableUntilMillis(expiryTime);
     }
 
     /**
@@ -60,7 +71,9 @@ public class IotHubSasTokenSoftwareAuthenticationProvider extends IotHubSasToken
     {
         super(hostname, gatewayHostname, deviceId, moduleId, sslContext);
         this.deviceKey = deviceKey;
-        this.sasToken = new IotHubSasToken(hostname, deviceId, deviceKey, sharedAccessToken, moduleId, getExpiryTimeInSeconds());
+        long expiryTime = getExpiryTimeInSeconds();
+        this.sasToken = new IotHubSasToken(hostname, deviceId, deviceKey, sharedAccessToken, moduleId, expiryTime);
+        this.sasTokenReusableUntilMillis = getReusableUntilMillis(expiryTime);
     }
 
     /**
@@ -80,7 +93,10 @@ public class IotHubSasTokenSoftwareAuthenticationProvider extends IotHubSasToken
 
         if (this.deviceKey != null)
         {
-            this.sasToken = new IotHubSasToken(this.hostname, this.deviceId, this.deviceKey, null, this.moduleId, getExpiryTimeInSeconds());
+            synchronized (this.sasTokenLock)
+            {
+                renewSasToken();
+            }
         }
     }
 
@@ -91,7 +107,8 @@ public class IotHubSasTokenSoftwareAuthenticationProvider extends IotHubSasToken
     }
 
     /**
-     * Getter for SasToken. If the saved token has expired, this method shall renew it if possible
+     * Getter for SasToken. If the saved token would expire before the next proactive renewal is due, this method shall
+     * renew it if possible. Otherwise the previously signed token is returned.
      *
      * @return The value of SasToken
      */
@@ -100,9 +117,34 @@ public class IotHubSasTokenSoftwareAuthenticationProvider extends IotHubSasToken
     {
         if (this.deviceKey != null)
         {
-            this.sasToken = new IotHubSasToken(this.hostname, this.deviceId, this.deviceKey, null, this.moduleId, getExpiryTimeInSeconds());
+            synchronized (this.sasTokenLock)
+            {
+                if (System.currentTimeMillis() >= this.sasTokenReusableUntilMillis)
+                {
+                    renewSasToken();
+                }
+
+                return this.sasToken.toString().toCharArray();
+            }
         }
 
         return this.sasToken.toString().toCharArray();
     }
+
+    private void renewSasToken()
+    {
+        long expiryTime = getExpiryTimeInSeconds();
+        this.sasToken = new IotHubSasToken(this.hostname, this.deviceId, this.deviceKey, null, this.moduleId, expiryTime);
+        this.sasTokenReusableUntilMillis = getReusableUntilMillis(expiryTime);
+    }
+
+    /**
+     * @param expiryTime the expiry time of a token, in seconds since the UNIX epoch.
+     * @return the time, in milliseconds since the UNIX epoch, after which a token with the provided expiry time would
+     * expire before a proactive renewal scheduled when it is handed out, and so must be re-signed instead of reused.
+     */
+    private long getReusableUntilMillis(long expiryTime)
+    {
+        return expiryTime * 1000L - this.getMillisecondsBeforeProactiveRenewal();
+    }
 }
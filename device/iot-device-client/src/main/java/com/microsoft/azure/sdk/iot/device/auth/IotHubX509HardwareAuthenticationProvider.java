@@ -15,6 +15,7 @@ import java.io.IOException;
 public class IotHubX509HardwareAuthenticationProvider extends IotHubAuthenticationProvider
 {
     private final SecurityProviderX509 securityProviderX509;
+    private SSLContext wrappedSSLContext;
 
     public IotHubX509HardwareAuthenticationProvider(String hostname, String gatewayHostname, String deviceId, String moduleId, SecurityProvider securityProvider)
     {
@@ -32,25 +33,30 @@ public class IotHubX509HardwareAuthenticationProvider extends IotHubAuthenticati
     }
 
     /**
-     * Getter for IotHubSSLContext
+     * Getter for IotHubSSLContext. The security provider caches its SSLContext, so this only wraps a new one when the
+     * security provider rebuilt it because its certificates or key changed.
      * @throws IOException if an error occurs when generating the SSLContext
      * @return The value of IotHubSSLContext
      */
     @Override
     public SSLContext getSSLContext() throws IOException
     {
-        if (this.iotHubSSLContext == null)
+        SSLContext securityProviderSSLContext;
+        try
         {
-            try
-            {
-                //Codes_SRS_IOTHUBX509HARDWAREAUTHENTICATION_34_003: [If this object's ssl context has not been generated yet, this function shall generate it from the saved security provider.]
-                this.iotHubSSLContext = new IotHubSSLContext(securityProviderX509.getSSLContext());
-            }
-            catch (SecurityProviderException e)
-            {
-                //Codes_SRS_IOTHUBX509HARDWAREAUTHENTICATION_34_004: [If the security provider throws a SecurityProviderException while generating an SSLContext, this function shall throw an IOException.]
-                throw new IOException("Failed to get the SSLContext from the security provider", e);
-            }
+            //Codes_SRS_IOTHUBX509HARDWAREAUTHENTICATION_34_003: [If this object's ssl context has not been generated yet, this function shall generate it from the saved security provider.]
+            securityProviderSSLContext = securityProviderX509.getSSLContext();
+        }
+        catch (SecurityProviderException e)
+        {
+            //Codes_SRS_IOTHUBX509HARDWAREAUTHENTICATION_34_004: [If the security provider throws a SecurityProviderException while generating an SSLContext, this function shall throw an IOException.]
+            throw new IOException("Failed to get the SSLContext from the security provider", e);
+        }
+
+        if (this.iotHubSSLContext == null || securityProviderSSLContext != this.wrappedSSLContext)
+        {
+            this.iotHubSSLContext = new IotHubSSLContext(securityProviderSSLContext);
+            this.wrappedSSLContext = securityProviderSSLContext;
         }
 
         //Codes_SRS_IOTHUBX509HARDWAREAUTHENTICATION_34_005: [This function shall return the saved IotHubSSLContext.]
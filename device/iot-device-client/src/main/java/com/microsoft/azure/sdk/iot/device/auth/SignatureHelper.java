@@ -13,6 +13,7 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 
 import static org.apache.commons.codec.binary.Base64.decodeBase64;
 import static org.apache.commons.codec.binary.Base64.encodeBase64;
@@ -30,6 +31,15 @@ final class SignatureHelper
     /** The charset used for the raw and hashed signature. */
     private static final Charset SIGNATURE_CHARSET = StandardCharsets.UTF_8;
 
+    private static final String HMAC_SHA_256 = "HmacSHA256";
+
+    /**
+     * Mac.getInstance does a provider lookup on every call, and Mac instances are not thread safe, so each thread keeps
+     * its own instance along with the key it was last initialized with. Re-signing with the same key (the common case
+     * for a device renewing its own token) skips both the lookup and the key initialization.
+     */
+    private static final ThreadLocal<CachedMac> CACHED_HMAC_SHA_256 = new ThreadLocal<>();
+
     /**
      * Builds the raw signature.
      *
@@ -67,16 +77,10 @@ final class SignatureHelper
     public static byte[] encryptSignatureHmacSha256(byte[] sig,
             byte[] deviceKey)
     {
-        String hmacSha256 = "HmacSHA256";
-
-        SecretKeySpec secretKey = new SecretKeySpec(deviceKey, hmacSha256);
-
         byte[] encryptedSig = null;
         try
         {
-            Mac hMacSha256 = Mac.getInstance(hmacSha256);
-            hMacSha256.init(secretKey);
-            encryptedSig = hMacSha256.doFinal(sig);
+            encryptedSig = getHmacSha256(deviceKey).doFinal(sig);
         }
         catch (NoSuchAlgorithmException | InvalidKeyException e)
         {
@@ -88,6 +92,34 @@ final class SignatureHelper
         return encryptedSig;
     }
 
+    /**
+     * Gets this thread's HMAC-SHA256 instance, initialized with the provided key. The instance is only re-initialized
+     * if the key differs from the one it was last used with.
+     *
+     * @param key the Base64-decoded key to sign with.
+     *
+     * @return an initialized HMAC-SHA256 instance that may only be used by the calling thread.
+     */
+    private static Mac getHmacSha256(byte[] key) throws NoSuchAlgorithmException, InvalidKeyException
+    {
+        CachedMac cachedMac = CACHED_HMAC_SHA_256.get();
+        if (cachedMac == null)
+        {
+            cachedMac = new CachedMac(Mac.getInstance(HMAC_SHA_256));
+            CACHED_HMAC_SHA_256.set(cachedMac);
+        }
+
+        if (cachedMac.key == null || !Arrays.equals(cachedMac.key, key))
+        {
+            // Clear the saved key first so that a failed init can't leave the mac paired with the wrong key
+            cachedMac.key = null;
+            cachedMac.mac.init(new SecretKeySpec(key, HMAC_SHA_256));
+            cachedMac.key = key.clone();
+        }
+
+        return cachedMac.mac;
+    }
+
     /**
      * Encodes the signature using Base64 and then further
      * encodes the resulting string using UTF-8 encoding.
@@ -144,4 +176,15 @@ final class SignatureHelper
     protected SignatureHelper()
     {
     }
+
+    private static final class CachedMac
+    {
+        private final Mac mac;
+        private byte[] key;
+
+        private CachedMac(Mac mac)
+        {
+            this.mac = mac;
+        }
+    }
 }
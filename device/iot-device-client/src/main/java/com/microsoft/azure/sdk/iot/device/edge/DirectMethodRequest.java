@@ -5,7 +5,7 @@
 
 package com.microsoft.azure.sdk.iot.device.edge;
 
-import com.google.gson.GsonBuilder;
+import com.google.gson.Gson;
 import com.google.gson.annotations.Expose;
 import com.google.gson.annotations.SerializedName;
 
@@ -16,6 +16,8 @@ import com.google.gson.annotations.SerializedName;
 @SuppressWarnings({"FieldCanBeLocal", "unused"})
 public class DirectMethodRequest
 {
+    private static final Gson gson = new Gson();
+
     private static final String METHOD_NAME_KEY_NAME = "methodName";
     @Expose(deserialize = false)
     @SerializedName(METHOD_NAME_KEY_NAME)
@@ -78,7 +80,7 @@ public class DirectMethodRequest
      */
     public String toJson()
     {
-        return new GsonBuilder().create().toJson(this);
+        return gson.toJson(this);
     }
 
     //empty constructor for gson
@@ -5,7 +5,7 @@
 
 package com.microsoft.azure.sdk.iot.device.edge;
 
-import com.google.gson.GsonBuilder;
+import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.annotations.Expose;
 import com.google.gson.annotations.SerializedName;
@@ -15,6 +15,8 @@ import lombok.Getter;
 @AllArgsConstructor
 public class DirectMethodResponse
 {
+    private static final Gson gson = new Gson();
+
     private static final String STATUS_KEY_NAME = "status";
     @Expose(serialize = false)
     @SerializedName(STATUS_KEY_NAME)
@@ -34,7 +36,7 @@ public class DirectMethodResponse
 
     public DirectMethodResponse(String json)
     {
-        DirectMethodResponse result = new GsonBuilder().create().fromJson(json, DirectMethodResponse.class);
+        DirectMethodResponse result = gson.fromJson(json, DirectMethodResponse.class);
 
         this.payload = result.payload;
         this.status = result.status;
@@ -66,6 +68,6 @@ public class DirectMethodResponse
      */
     public <T> T getPayload(Class<T> clazz)
     {
-        return new GsonBuilder().create().fromJson(payload, clazz);
+        return gson.fromJson(payload, clazz);
     }
 }
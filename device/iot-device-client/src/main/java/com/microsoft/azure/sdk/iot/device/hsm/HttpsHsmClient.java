@@ -20,7 +20,6 @@ import lombok.extern.slf4j.Slf4j;
 import java.io.*;
 import java.net.*;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 
 @Slf4j
 public class HttpsHsmClient
@@ -35,6 +34,14 @@ public class HttpsHsmClient
 
     private static final String API_VERSION_QUERY_STRING_PREFIX = "api-version=";
 
+    // The HSM may close a connection that has been idle for a while, so older connections are replaced rather than reused
+    private static final long MAX_UNIX_DOMAIN_SOCKET_IDLE_MILLISECONDS = 30 * 1000;
+
+    // Only one request at a time can be in flight on the unix domain socket channel
+    private final Object unixDomainSocketLock = new Object();
+    private boolean isUnixDomainSocketOpen = false;
+    private long unixDomainSocketLastUsedMillis = 0;
+
     /**
      * Client object for sending sign requests to an HSM unit
      * @param baseUrl The base url of the HSM
@@ -81,7 +88,8 @@ public class HttpsHsmClient
         HttpsResponse response = null;
         try
         {
-            response = sendRequestBasedOnScheme(HttpsMethod.POST, body, uri, pathBuilder, API_VERSION_QUERY_STRING_PREFIX + apiVersion);
+            // Sign requests are repeated for as long as the module runs, so the unix domain socket connection is kept open for the next one
+            response = sendRequestBasedOnScheme(HttpsMethod.POST, body, uri, pathBuilder, API_VERSION_QUERY_STRING_PREFIX + apiVersion, true);
         }
         catch (IOException e)
         {
@@ -126,7 +134,7 @@ public class HttpsHsmClient
         HttpsResponse response = null;
         try
         {
-            response = sendRequestBasedOnScheme(HttpsMethod.GET, new byte[0], uri, "/trust-bundle", API_VERSION_QUERY_STRING_PREFIX + apiVersion);
+            response = sendRequestBasedOnScheme(HttpsMethod.GET, new byte[0], uri, "/trust-bundle", API_VERSION_QUERY_STRING_PREFIX + apiVersion, false);
         }
         catch (IOException e)
         {
@@ -160,11 +168,12 @@ public class HttpsHsmClient
      * @param baseUri the base uri to send the request to
      * @param path the relative path of the request
      * @param queryString the query string for the https request. Do not include the ? character
+     * @param keepAlive if true and the request is sent over a unix domain socket, the connection is kept open for later requests
      * @return the http response to the request
      * @throws TransportException if the hsm cannot be reached
      * @throws IOException if the hsm cannot be reached
      */
-    private HttpsResponse sendRequestBasedOnScheme(HttpsMethod httpsMethod, byte[] body, String baseUri, String path, String queryString) throws TransportException, IOException
+    private HttpsResponse sendRequestBasedOnScheme(HttpsMethod httpsMethod, byte[] body, String baseUri, String path, String queryString, boolean keepAlive) throws TransportException, IOException
     {
         URL requestUrl;
         if (this.scheme.equalsIgnoreCase(HTTPS_SCHEME) || this.scheme.equalsIgnoreCase(HTTP_SCHEME))
@@ -223,7 +232,7 @@ public class HttpsHsmClient
             String unixAddressPrefix = UNIX_SCHEME + "://";
             String localUnixSocketPath = baseUri.substring(baseUri.indexOf(unixAddressPrefix) + unixAddressPrefix.length());
 
-            response = sendHttpRequestUsingUnixSocket(httpsRequest, path, queryString, localUnixSocketPath);
+            response = sendHttpRequestUsingUnixSocket(httpsRequest, path, queryString, localUnixSocketPath, keepAlive);
         }
         else
         {
@@ -236,76 +245,108 @@ public class HttpsHsmClient
     /**
      * Send an HTTP request over a unix domain socket
      * @param httpsRequest the request to send
+     * @param keepAlive if true, the connection is left open after the response is read if the HSM allows it, so that it
+     * can be reused by the next request
      * @return the response from the HSM unit
      * @throws IOException If the unix domain socket cannot be reached
      */
-    private HttpsResponse sendHttpRequestUsingUnixSocket(HttpsRequest httpsRequest, String httpRequestPath, String httpRequestQueryString, String unixSocketAddress) throws IOException
+    private HttpsResponse sendHttpRequestUsingUnixSocket(HttpsRequest httpsRequest, String httpRequestPath, String httpRequestQueryString, String unixSocketAddress, boolean keepAlive) throws IOException
     {
         log.debug("Sending data over unix domain socket");
 
-        HttpsResponse response;
-        try
+        byte[] requestBytes = HttpsRequestResponseSerializer.serializeRequest(httpsRequest, httpRequestPath, httpRequestQueryString, unixSocketAddress, keepAlive);
+        if (httpsRequest.getBody() != null)
         {
-            //write to socket
-            byte[] requestBytes = HttpsRequestResponseSerializer.serializeRequest(httpsRequest, httpRequestPath, httpRequestQueryString, unixSocketAddress);
-            unixDomainSocketChannel.open(unixSocketAddress);
+            //append http request body to the request bytes
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            outputStream.write(requestBytes);
+            outputStream.write(httpsRequest.getBody());
+            requestBytes = outputStream.toByteArray();
+        }
 
-            if (httpsRequest.getBody() != null)
+        synchronized (this.unixDomainSocketLock)
+        {
+            boolean isReusingConnection = this.isUnixDomainSocketOpen
+                && System.currentTimeMillis() - this.unixDomainSocketLastUsedMillis < MAX_UNIX_DOMAIN_SOCKET_IDLE_MILLISECONDS;
+
+            if (this.isUnixDomainSocketOpen && !isReusingConnection)
             {
-                //append http request body to the request bytes
-                ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-                outputStream.write(requestBytes);
-                outputStream.write(httpsRequest.getBody());
+                closeUnixDomainSocket();
+            }
 
-                log.trace("Writing {} bytes to unix domain socket", outputStream.size());
-                unixDomainSocketChannel.write(outputStream.toByteArray());
+            try
+            {
+                return exchangeOverUnixSocket(requestBytes, unixSocketAddress, keepAlive);
             }
-            else
+            catch (IOException e)
             {
-                log.trace("Writing {} bytes to unix domain socket", requestBytes.length);
-                unixDomainSocketChannel.write(requestBytes);
+                if (!isReusingConnection)
+                {
+                    throw e;
+                }
+
+                // The HSM may have closed the kept alive connection since it was last used, so retry once on a new connection
+                log.debug("Failed to reuse the open unix domain socket connection, retrying on a new connection", e);
+                return exchangeOverUnixSocket(requestBytes, unixSocketAddress, keepAlive);
             }
+        }
+    }
+
+    private HttpsResponse exchangeOverUnixSocket(byte[] requestBytes, String unixSocketAddress, boolean keepAlive) throws IOException
+    {
+        if (!this.isUnixDomainSocketOpen)
+        {
+            log.trace("Opening unix domain socket");
+            unixDomainSocketChannel.open(unixSocketAddress);
+            this.isUnixDomainSocketOpen = true;
+        }
+
+        boolean keepConnectionOpen = false;
+        try
+        {
+            log.trace("Writing {} bytes to unix domain socket", requestBytes.length);
+            unixDomainSocketChannel.write(requestBytes);
 
-            //read response
-            String responseString = readResponseFromChannel(unixDomainSocketChannel);
-            response = HttpsRequestResponseSerializer.deserializeResponse(new BufferedReader(new StringReader(responseString)));
+            HttpsResponse response = HttpsRequestResponseSerializer.readResponse(unixDomainSocketChannel);
+            log.debug("Read response with status code {} from unix domain socket channel", response.getStatus());
+
+            keepConnectionOpen = keepAlive && isConnectionReusable(response);
+            return response;
         }
         finally
         {
-            log.trace("Closing unix domain socket");
-            unixDomainSocketChannel.close();
+            if (keepConnectionOpen)
+            {
+                this.unixDomainSocketLastUsedMillis = System.currentTimeMillis();
+            }
+            else
+            {
+                closeUnixDomainSocket();
+            }
         }
-
-        return response;
     }
 
-    private String readResponseFromChannel(UnixDomainSocketChannel channel) throws IOException
+    private void closeUnixDomainSocket()
     {
-        log.debug("Reading response from unix domain socket");
+        log.trace("Closing unix domain socket");
+        this.isUnixDomainSocketOpen = false;
 
-        byte[] buf = new byte[400];
-        StringBuilder responseStringBuilder = new StringBuilder();
-        int numRead = channel.read(buf);
-
-        // keep reading from the unix domain socket in chunks until no more bytes are read
-        while (numRead >= 0)
+        try
         {
-            log.trace("Read {} bytes from unix domain socket", numRead);
-
-            // buf may not be filled completely, so take the subArray of bytes sized equal to numRead
-            String readChunk = new String(Arrays.copyOfRange(buf, 0, numRead), StandardCharsets.US_ASCII);
-            log.trace("Read chunk of data from unix domain socket:");
-            log.trace("{}", readChunk);
-            responseStringBuilder.append(readChunk);
-
-            // Read bytes from the channel
-            numRead = channel.read(buf);
+            unixDomainSocketChannel.close();
         }
+        catch (IOException e)
+        {
+            log.debug("Failed to close unix domain socket", e);
+        }
+    }
 
-        String response = responseStringBuilder.toString();
-        log.debug("Read response from unix domain socket channel");
-        log.debug("{}", response);
-
-        return response;
+    private static boolean isConnectionReusable(HttpsResponse response)
+    {
+        // Without a Content-Length or chunked body, the end of the response is only known once the HSM closes the connection
+        String connection = response.getHeaderField(HttpsRequestResponseSerializer.CONNECTION_HEADER);
+        return (connection == null || !connection.trim().equalsIgnoreCase(HttpsRequestResponseSerializer.CONNECTION_CLOSE))
+            && (response.getHeaderField(HttpsRequestResponseSerializer.CONTENT_LENGTH_HEADER) != null
+                || response.getHeaderField(HttpsRequestResponseSerializer.TRANSFER_ENCODING_HEADER) != null);
     }
 }
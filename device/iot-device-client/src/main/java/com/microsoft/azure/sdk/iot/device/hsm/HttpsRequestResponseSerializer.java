@@ -9,6 +9,8 @@ import com.microsoft.azure.sdk.iot.device.transport.https.HttpsRequest;
 import com.microsoft.azure.sdk.iot.device.transport.https.HttpsResponse;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
@@ -24,6 +26,15 @@ class HttpsRequestResponseSerializer
     private static final String VERSION = "1.1";
 
     private static final long MAXIMUM_HEADER_COUNT = 500;
+    private static final int MAXIMUM_LINE_LENGTH = 8 * 1024;
+    private static final int READ_BUFFER_SIZE = 4 * 1024;
+
+    static final String CONNECTION_HEADER = "Connection";
+    static final String CONNECTION_CLOSE = "close";
+    static final String CONNECTION_KEEP_ALIVE = "keep-alive";
+    static final String CONTENT_LENGTH_HEADER = "Content-Length";
+    static final String TRANSFER_ENCODING_HEADER = "Transfer-Encoding";
+    private static final String CHUNKED_TRANSFER_ENCODING = "chunked";
 
     /**
      * Serialize the provided request
@@ -36,6 +47,23 @@ class HttpsRequestResponseSerializer
      * @throws IllegalArgumentException if the provided httpsRequest is null or has a null request url
      */
     public static byte[] serializeRequest(HttpsRequest httpsRequest, String path, String queryString, String host) throws IllegalArgumentException
+    {
+        return serializeRequest(httpsRequest, path, queryString, host, false);
+    }
+
+    /**
+     * Serialize the provided request
+     *
+     * @param httpsRequest the request to be serialized
+     * @param path the path for the request to invoke on (e.g. /trust-bundle)
+     * @param queryString the full querystring associated with the http request. Should not include the '?' character at the beginning
+     * @param host the host that the request is being made to
+     * @param keepAlive if true, the request asks the HSM to keep the connection open after responding so that it can be
+     * used for later requests. Otherwise, the request asks the HSM to close the connection after responding
+     * @return the serialized request
+     * @throws IllegalArgumentException if the provided httpsRequest is null or has a null request url
+     */
+    public static byte[] serializeRequest(HttpsRequest httpsRequest, String path, String queryString, String host, boolean keepAlive) throws IllegalArgumentException
     {
         if (httpsRequest == null)
         {
@@ -58,7 +86,7 @@ class HttpsRequestResponseSerializer
         // <header>: <value>
         // <header>: <value1>; <value2>
 
-        httpsRequest.setHeaderField("Connection", "close");
+        httpsRequest.setHeaderField(CONNECTION_HEADER, keepAlive ? CONNECTION_KEEP_ALIVE : CONNECTION_CLOSE);
 
         String updatedPath = preProcessRequestPath(path);
 
@@ -154,6 +182,126 @@ class HttpsRequestResponseSerializer
         return new HttpsResponse(statusCode, body, headerFields, errorReason);
     }
 
+    /**
+     * Read a single http response from the provided channel. Unlike {@link #deserializeResponse(BufferedReader)}, this
+     * only reads as far as the end of the response body when the body is framed by a Content-Length header or by chunked
+     * transfer encoding, so the channel can be used for another request afterwards. Otherwise, the body is read until
+     * the channel reaches the end of its stream.
+     *
+     * @param channel the channel to read from. Will not be closed by this method
+     * @return the deserialized response
+     * @throws IOException if the channel cannot be read from, or if it does not contain a valid http response
+     */
+    static HttpsResponse readResponse(UnixDomainSocketChannel channel) throws IOException
+    {
+        if (channel == null)
+        {
+            throw new IllegalArgumentException("channel cannot be null");
+        }
+
+        ChannelReader reader = new ChannelReader(channel);
+
+        String statusLine = reader.readLine();
+        if (statusLine == null || statusLine.isEmpty())
+        {
+            throw new EOFException("Response is empty.");
+        }
+
+        // The reason phrase may contain spaces, so only split off the version and the status code
+        String[] statusLineParts = statusLine.split(SP, 3);
+        if (statusLineParts.length != 3)
+        {
+            throw new IOException("Status line is not valid: " + statusLine);
+        }
+
+        if (statusLineParts[0].split(ProtocolVersionSeparator).length != 2)
+        {
+            throw new IOException("Version is not valid " + statusLineParts[0] + ".");
+        }
+
+        int statusCode;
+        try
+        {
+            statusCode = Integer.parseInt(statusLineParts[1]);
+        }
+        catch (NumberFormatException e)
+        {
+            throw new IOException("StatusCode is not valid " + statusLineParts[1] + ".");
+        }
+
+        Map<String, List<String>> headerFields = new HashMap<>();
+        String contentLength = null;
+        boolean isChunked = false;
+        int headerCount = 0;
+        String header = reader.readLine();
+        while (header != null && !header.isEmpty())
+        {
+            if (++headerCount > MAXIMUM_HEADER_COUNT)
+            {
+                throw new IOException("HSM provided too many http headers");
+            }
+
+            int headerSeparatorPosition = header.indexOf(HeaderSeparator);
+            if (headerSeparatorPosition <= 0)
+            {
+                throw new IOException("Header is invalid " + header + ".");
+            }
+
+            String headerName = header.substring(0, headerSeparatorPosition).trim();
+            String headerValue = header.substring(headerSeparatorPosition + 1).trim();
+            if (headerName.equalsIgnoreCase(CONTENT_LENGTH_HEADER))
+            {
+                contentLength = headerValue;
+            }
+            else if (headerName.equalsIgnoreCase(TRANSFER_ENCODING_HEADER))
+            {
+                isChunked = headerValue.toLowerCase().contains(CHUNKED_TRANSFER_ENCODING);
+            }
+
+            List<String> headerValues = headerFields.get(headerName);
+            if (headerValues == null)
+            {
+                headerValues = new ArrayList<>();
+                headerFields.put(headerName, headerValues);
+            }
+
+            headerValues.add(headerValue);
+            header = reader.readLine();
+        }
+
+        if (header == null)
+        {
+            throw new EOFException("Response ended before the end of its headers.");
+        }
+
+        byte[] body;
+        if (isChunked)
+        {
+            body = reader.readChunkedBody();
+        }
+        else if (contentLength != null)
+        {
+            try
+            {
+                body = reader.readFully(Integer.parseInt(contentLength));
+            }
+            catch (NumberFormatException e)
+            {
+                throw new IOException("Content-Length is not valid " + contentLength + ".");
+            }
+        }
+        else if (statusCode == 204 || statusCode == 304 || (statusCode >= 100 && statusCode < 200))
+        {
+            body = new byte[0];
+        }
+        else
+        {
+            body = reader.readToEndOfStream();
+        }
+
+        return new HttpsResponse(statusCode, body, headerFields, statusLineParts[2].getBytes(StandardCharsets.UTF_8));
+    }
+
     private static String preProcessRequestPath(String path)
     {
         return path.replace("[", "").replace("]", "");
@@ -212,4 +360,163 @@ class HttpsRequestResponseSerializer
 
         return bodyString.toString().getBytes(StandardCharsets.UTF_8);
     }
+
+    /**
+     * Reads bytes from a {@link UnixDomainSocketChannel} through a buffer, so that the response can be parsed byte by
+     * byte without a read call on the channel for each byte.
+     */
+    private static class ChannelReader
+    {
+        private final UnixDomainSocketChannel channel;
+        private final byte[] buffer = new byte[READ_BUFFER_SIZE];
+        private int position = 0;
+        private int limit = 0;
+
+        ChannelReader(UnixDomainSocketChannel channel)
+        {
+            this.channel = channel;
+        }
+
+        /**
+         * @return false if the channel reached the end of its stream before any more bytes could be read
+         */
+        private boolean fill() throws IOException
+        {
+            int numRead = 0;
+            while (numRead == 0)
+            {
+                numRead = this.channel.read(this.buffer);
+            }
+
+            if (numRead < 0)
+            {
+                return false;
+            }
+
+            this.position = 0;
+            this.limit = numRead;
+            return true;
+        }
+
+        /**
+         * @return the next line without its line terminator, or null if the channel reached the end of its stream
+         * before any bytes of the line were read
+         */
+        String readLine() throws IOException
+        {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            while (true)
+            {
+                if (this.position == this.limit && !fill())
+                {
+                    if (line.size() == 0)
+                    {
+                        return null;
+                    }
+
+                    break;
+                }
+
+                byte next = this.buffer[this.position++];
+                if (next == '\n')
+                {
+                    break;
+                }
+
+                line.write(next);
+                if (line.size() > MAXIMUM_LINE_LENGTH)
+                {
+                    throw new IOException("HSM provided an http line that was too long");
+                }
+            }
+
+            byte[] lineBytes = line.toByteArray();
+            int length = lineBytes.length > 0 && lineBytes[lineBytes.length - 1] == '\r' ? lineBytes.length - 1 : lineBytes.length;
+            return new String(lineBytes, 0, length, StandardCharsets.US_ASCII);
+        }
+
+        byte[] readFully(int length) throws IOException
+        {
+            if (length < 0)
+            {
+                throw new IOException("Content-Length cannot be negative");
+            }
+
+            byte[] bytes = new byte[length];
+            int offset = 0;
+            while (offset < length)
+            {
+                if (this.position == this.limit && !fill())
+                {
+                    throw new EOFException("Response ended after " + offset + " of " + length + " body bytes.");
+                }
+
+                int count = Math.min(length - offset, this.limit - this.position);
+                System.arraycopy(this.buffer, this.position, bytes, offset, count);
+                this.position += count;
+                offset += count;
+            }
+
+            return bytes;
+        }
+
+        byte[] readChunkedBody() throws IOException
+        {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            while (true)
+            {
+                String chunkSizeLine = readLine();
+                if (chunkSizeLine == null)
+                {
+                    throw new EOFException("Response ended before the end of its chunked body.");
+                }
+
+                // chunk extensions after a ';' are allowed, but have no meaning here
+                int extensionStart = chunkSizeLine.indexOf(';');
+                String chunkSize = (extensionStart >= 0 ? chunkSizeLine.substring(0, extensionStart) : chunkSizeLine).trim();
+
+                int length;
+                try
+                {
+                    length = Integer.parseInt(chunkSize, 16);
+                }
+                catch (NumberFormatException e)
+                {
+                    throw new IOException("Chunk size is not valid " + chunkSizeLine + ".");
+                }
+
+                if (length == 0)
+                {
+                    // skip any trailers, up to the empty line that ends the body
+                    String trailer = readLine();
+                    while (trailer != null && !trailer.isEmpty())
+                    {
+                        trailer = readLine();
+                    }
+
+                    return body.toByteArray();
+                }
+
+                body.write(readFully(length));
+
+                // every chunk is followed by a line terminator
+                readLine();
+            }
+        }
+
+        byte[] readToEndOfStream() throws IOException
+        {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            body.write(this.buffer, this.position, this.limit - this.position);
+            this.position = this.limit;
+
+            while (fill())
+            {
+                body.write(this.buffer, 0, this.limit);
+                this.position = this.limit;
+            }
+
+            return body.toByteArray();
+        }
+    }
 }
@@ -22,6 +22,9 @@ public class IotHubSasTokenHsmAuthenticationProvider extends IotHubSasTokenWithR
     private final SignatureProvider signatureProvider;
     private final String generationId;
 
+    // The time until which the saved sas token still has a full proactive renewal period left to live
+    private long sasTokenReusableUntilMillis;
+
     /**
      * Constructor for a IotHubSasTokenHsmAuthenticationProvider instance
      * @param signatureProvider the signature provider to be used when generating sas tokens
@@ -131,7 +134,7 @@ public class IotHubSasTokenHsmAuthenticationProvider extends IotHubSasTokenWithR
      * @throws IOException If the Hsm unit cannot be reached
      * @throws TransportException If the Hsm unit cannot be reached
      */
-    public void refreshSasToken() throws IOException, TransportException
+    public synchronized void refreshSasToken() throws IOException, TransportException
     {
         this.sasToken = createNewSasToken(
             this.hostname,
@@ -141,6 +144,28 @@ public class IotHubSasTokenHsmAuthenticationProvider extends IotHubSasTokenWithR
             this.generationId,
             this.signatureProvider,
             this.tokenValidSecs);
+
+        this.updateSasTokenReusableUntil();
+    }
+
+    /**
+     * Get the saved sas token if it was created recently enough that it will outlive the next proactive renewal,
+     * otherwise renew it using the HSM unit first
+     * @return the sas token
+     * @throws IOException If the Hsm unit cannot be reached
+     * @throws TransportException If the Hsm unit cannot be reached
+     */
+    @Override
+    public synchronized char[] getSasToken() throws IOException, TransportException
+    {
+        // Every new sas token costs a sign request to the HSM, and callers such as the HTTPS transport ask for a
+        // token on every request, so the saved token is handed out again while it is still fresh
+        if (System.currentTimeMillis() >= this.sasTokenReusableUntilMillis)
+        {
+            this.refreshSasToken();
+        }
+
+        return this.sasToken.toString().toCharArray();
     }
 
     /**
@@ -152,6 +177,12 @@ public class IotHubSasTokenHsmAuthenticationProvider extends IotHubSasTokenWithR
         return true;
     }
 
+    private void updateSasTokenReusableUntil()
+    {
+        long tokenValidMilliseconds = this.tokenValidSecs * 1000;
+        this.sasTokenReusableUntilMillis = System.currentTimeMillis() + tokenValidMilliseconds - this.getMillisecondsBeforeProactiveRenewal();
+    }
+
     private static IotHubSasToken createNewSasToken(
         String hostname,
         String gatewayHostName,
@@ -194,6 +225,7 @@ public class IotHubSasTokenHsmAuthenticationProvider extends IotHubSasTokenWithR
         super(hostname, gatewayHostName, deviceId, moduleId, sharedAccessToken, suggestedTimeToLiveSeconds, timeBufferPercentage);
         this.signatureProvider = signatureProvider;
         this.generationId = generationId;
+        this.updateSasTokenReusableUntil();
     }
 
     private IotHubSasTokenHsmAuthenticationProvider(
@@ -211,5 +243,6 @@ public class IotHubSasTokenHsmAuthenticationProvider extends IotHubSasTokenWithR
         super(hostname, gatewayHostName, deviceId, moduleId, sharedAccessToken, suggestedTimeToLiveSeconds, timeBufferPercentage, sslContext);
         this.signatureProvider = signatureProvider;
         this.generationId = generationId;
+        this.updateSasTokenReusableUntil();
     }
 }
@@ -8,6 +8,9 @@ import java.io.IOException;
 /**
  * The definition for a readable and writable unix domain socket channel that may be needed in module creation depending
  * on the Edge runtime.
+ * <p>
+ * The SDK may keep the channel open across several requests, and may open it again after closing it.
+ * </p>
  * @see <a href="https://github.com/Azure/azure-iot-sdk-java/tree/main/device/iot-device-samples/unix-domain-socket-sample">An example implementation using JNR Unixsocket</a>
  */
 public interface UnixDomainSocketChannel
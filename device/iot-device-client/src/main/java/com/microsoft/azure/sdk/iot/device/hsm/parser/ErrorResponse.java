@@ -5,7 +5,7 @@
 
 package com.microsoft.azure.sdk.iot.device.hsm.parser;
 
-import com.google.gson.GsonBuilder;
+import com.google.gson.Gson;
 import com.google.gson.annotations.Expose;
 import com.google.gson.annotations.SerializedName;
 
@@ -15,6 +15,8 @@ import com.google.gson.annotations.SerializedName;
 @SuppressWarnings("unused") // A number of private members are unused but may be filled in or used by serialization
 public class ErrorResponse
 {
+    private static final Gson gson = new Gson();
+
     private static final String MESSAGE_NAME = "message";
     @Expose
     @SerializedName(MESSAGE_NAME)
@@ -22,7 +24,7 @@ public class ErrorResponse
 
     public static ErrorResponse fromJson(String json)
     {
-        return new GsonBuilder().create().fromJson(json, ErrorResponse.class);
+        return gson.fromJson(json, ErrorResponse.class);
     }
 
     public ErrorResponse()
@@ -5,7 +5,7 @@
 
 package com.microsoft.azure.sdk.iot.device.hsm.parser;
 
-import com.google.gson.GsonBuilder;
+import com.google.gson.Gson;
 import com.google.gson.annotations.Expose;
 import com.google.gson.annotations.SerializedName;
 
@@ -19,6 +19,8 @@ import static org.apache.commons.codec.binary.Base64.encodeBase64String;
 @SuppressWarnings({"FieldCanBeLocal", "unused"}) // A number of private members are unused but may be filled in or used by serialization
 public class SignRequest
 {
+    private static final Gson gson = new Gson();
+
     private static final String KEY_ID_NAME = "keyId";
     @Expose(deserialize = false)
     @SerializedName(KEY_ID_NAME)
@@ -60,7 +62,7 @@ public class SignRequest
 
     public String toJson()
     {
-        return new GsonBuilder().create().toJson(this);
+        return gson.toJson(this);
     }
 
     //empty constructor for Gson to use
@@ -5,7 +5,7 @@
 
 package com.microsoft.azure.sdk.iot.device.hsm.parser;
 
-import com.google.gson.GsonBuilder;
+import com.google.gson.Gson;
 import com.google.gson.annotations.Expose;
 import com.google.gson.annotations.SerializedName;
 import lombok.Getter;
@@ -13,6 +13,8 @@ import lombok.Getter;
 
 public class SignResponse
 {
+    private static final Gson gson = new Gson();
+
     private static final String DIGEST_NAME = "digest";
     @Expose
     @SerializedName(DIGEST_NAME)
@@ -24,6 +26,6 @@ public class SignResponse
 
     public static SignResponse fromJson(String json)
     {
-        return new GsonBuilder().create().fromJson(json, SignResponse.class);
+        return gson.fromJson(json, SignResponse.class);
     }
 }
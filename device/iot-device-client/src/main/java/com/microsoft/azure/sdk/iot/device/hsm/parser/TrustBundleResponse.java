@@ -5,7 +5,7 @@
 
 package com.microsoft.azure.sdk.iot.device.hsm.parser;
 
-import com.google.gson.GsonBuilder;
+import com.google.gson.Gson;
 import com.google.gson.annotations.Expose;
 import com.google.gson.annotations.SerializedName;
 
@@ -15,6 +15,8 @@ import com.google.gson.annotations.SerializedName;
 @SuppressWarnings("unused") // A number of private members are unused but may be filled in or used by serialization
 public class TrustBundleResponse
 {
+    private static final Gson gson = new Gson();
+
     private static final String CERTIFICATE_NAME = "certificate";
     @Expose(serialize = false)
     @SerializedName(CERTIFICATE_NAME)
@@ -27,7 +29,7 @@ public class TrustBundleResponse
      */
     public static TrustBundleResponse fromJson(String json)
     {
-        TrustBundleResponse response = new GsonBuilder().create().fromJson(json, TrustBundleResponse.class);
+        TrustBundleResponse response = gson.fromJson(json, TrustBundleResponse.class);
 
         if (response == null || response.certificates == null || response.certificates.isEmpty())
         {
@@ -0,0 +1,115 @@
+/*
+ *
+ *  Copyright (c) Microsoft. All rights reserved.
+ *  Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ *
+ */
+
+package com.microsoft.azure.sdk.iot.device.transport;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Represents a retry policy that performs exponential backoff with full jitter retries.
+ *
+ * <p>
+ * The delay of the xth retry is chosen uniformly at random between the minimum backoff and the minimum backoff times
+ * 3^(x+1), capped at the maximum backoff. Unlike {@link ExponentialBackoffWithJitter}, where every client on its xth
+ * retry waits for roughly the same amount of time, the delays of clients that lost their connections at the same moment
+ * are spread across the whole range, so their reconnection attempts don't arrive at the service in waves.
+ * </p>
+ *
+ * <p>
+ * This is not decorrelated jitter, where each delay is drawn from a range based on the previous delay. The delay only
+ * depends on the retry count, so a single instance can be shared by any number of concurrent series of retries, such
+ * as those of the devices of a multiplexed connection.
+ * </p>
+ */
+@Slf4j
+public class ExponentialBackoffWithFullJitter implements RetryPolicy
+{
+    private int retryCount = Integer.MAX_VALUE;
+    private long minBackoff = 100;
+    private long maxBackoff = 10*1000; //10 seconds
+    private boolean firstFastRetry = true;
+
+    /**
+     * Constructor with default backoff values and firstFastRetry
+     */
+    public ExponentialBackoffWithFullJitter()
+    {
+        this.logCreation();
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param retryCount the max number of retries allowed in the policies.
+     * @param minBackoff the min interval between each retry.
+     * @param maxBackoff the max interval between each retry.
+     * @param firstFastRetry indicates whether the first retry should be immediate.
+     */
+    public ExponentialBackoffWithFullJitter(int retryCount, long minBackoff, long maxBackoff, boolean firstFastRetry)
+    {
+        if (retryCount <= 0)
+        {
+            throw new IllegalArgumentException("retryCount cannot be less than or equal to 0.");
+        }
+
+        if (minBackoff < 0)
+        {
+            throw new IllegalArgumentException("minBackoff cannot be negative.");
+        }
+
+        if (maxBackoff < minBackoff)
+        {
+            throw new IllegalArgumentException("maxBackoff cannot be less than minBackoff.");
+        }
+
+        this.retryCount = retryCount;
+        this.minBackoff = minBackoff;
+        this.maxBackoff = maxBackoff;
+        this.firstFastRetry = firstFastRetry;
+
+        this.logCreation();
+    }
+
+    /**
+     * Determines whether the operation should be retried and the interval until the next retry.
+     *
+     * @param currentRetryCount the number of retries for the given operation
+     * @param lastException the last exception encountered
+     * @return the retry decision.
+     */
+    public RetryDecision getRetryDecision(int currentRetryCount, TransportException lastException)
+    {
+        if (currentRetryCount == 0 && this.firstFastRetry)
+        {
+            return new RetryDecision(true, 0);
+        }
+
+        if (currentRetryCount >= this.retryCount)
+        {
+            return new RetryDecision(false, 0);
+        }
+
+        // F(x) = rand(Cmin, min(Cmax, Cmin * 3^(x+1))) where x is the xth retry
+        long upperBound = Math.max(this.minBackoff, 1);
+        for (int i = 0; i <= currentRetryCount && upperBound < this.maxBackoff; i++)
+        {
+            upperBound = upperBound > this.maxBackoff / 3 ? this.maxBackoff : upperBound * 3;
+        }
+
+        upperBound = Math.min(upperBound, this.maxBackoff);
+        long backoff = this.minBackoff + ThreadLocalRandom.current().nextLong(upperBound - this.minBackoff + 1);
+
+        return new RetryDecision(true, backoff);
+    }
+
+    private void logCreation()
+    {
+        log.info("NOTE: A new instance of ExponentialBackoffWithFullJitter has been created with the following properties. Retry Count: {}, Min Backoff Interval: {}, Max Backoff Interval: {}, Fast Retry Enabled: {}", this.retryCount, this.minBackoff, this.maxBackoff, this.firstFastRetry);
+    }
+}
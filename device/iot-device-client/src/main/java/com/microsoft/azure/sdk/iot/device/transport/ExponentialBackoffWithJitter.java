@@ -9,7 +9,7 @@ package com.microsoft.azure.sdk.iot.device.transport;
 
 import lombok.extern.slf4j.Slf4j;
 
-import java.security.SecureRandom;
+import java.util.Random;
 
 /**
  * Represents a retry policy that performs exponential backoff with jitter retries.
@@ -23,7 +23,9 @@ public class ExponentialBackoffWithJitter implements RetryPolicy
     private long deltaBackoff = 100;
     private boolean firstFastRetry = true;
 
-    private final SecureRandom random = new SecureRandom();
+    // Jitter only needs to spread out retries, not be unpredictable, so there is no need to draw from the
+    // system's entropy pool through SecureRandom here.
+    private final Random random = new Random();
 
     /**
      * Constructor with default backoff values and firstFastRetry
@@ -43,7 +43,9 @@ public final class IotHubReconnectTask implements Runnable
         {
             try
             {
-                if (!transport.needsReconnect())
+                // Once a reconnection has started, its remaining steps are scheduled on the RetryScheduler, so this
+                // thread waits for the next disconnection event rather than polling while that reconnection is in progress
+                if (!transport.needsReconnect() || transport.isReconnecting())
                 {
                     // IotHubTransport layer will make this semaphore available to acquire only once a disconnection
                     // event occurs. Once it is made available to acquire, this thread will wake up and run the reconnection
@@ -63,16 +65,8 @@ public final class IotHubReconnectTask implements Runnable
                 return;
             }
 
-            try
-            {
-                log.debug("Starting reconnection process");
-                this.transport.reconnect();
-            }
-            catch (InterruptedException e)
-            {
-                // likely means the client is shutting down, and any reconnection attempts should be abandoned
-                log.trace("Interrupted while reconnecting. Thread is now ending.");
-            }
+            log.debug("Starting reconnection process");
+            this.transport.reconnect();
         }
         catch (Throwable e)
         {
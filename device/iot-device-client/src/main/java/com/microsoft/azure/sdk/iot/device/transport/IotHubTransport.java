@@ -44,7 +44,7 @@ public class IotHubTransport implements IotHubListener
 
     // for multiplexing. A particular device can be disconnected retrying while the tcp connection is fine and the other
     // device sessions are open.
-    private final Map<String, MultiplexedDeviceState> multiplexedDeviceConnectionStates = new HashMap<>();
+    private final MultiplexedDeviceStateRegistry multiplexedDeviceConnectionStates = new MultiplexedDeviceStateRegistry();
 
     private final Map<String, Exception> multiplexingDeviceRegistrationFailures = new ConcurrentHashMap<>();
 
@@ -79,9 +79,6 @@ public class IotHubTransport implements IotHubListener
     // Lock on reading and writing on the inProgressPackets map
     final private Object inProgressMessagesLock = new Object();
 
-    // Lock on setting and reading the state of multiplexed devices.
-    final private Object multiplexingDeviceStateLock = new Object();
-
     // Keys are deviceIds. Helps with getting configs based on deviceIds
     private final Map<String, ClientConfiguration> deviceClientConfigs = new ConcurrentHashMap<>();
 
@@ -92,6 +89,10 @@ public class IotHubTransport implements IotHubListener
     // state lock to prevent simultaneous close and reconnect operations. Also prevents multiple reconnect threads from executing at once
     final private Object reconnectionLock = new Object();
 
+    // The reconnection that is currently in progress, or null if there is none. Guarded by the reconnectionLock. Its
+    // steps run on the RetryScheduler, and they stop once this no longer refers to their reconnection.
+    private volatile Reconnection reconnection;
+
     // State lock used to communicate to the IotHubSendTask thread when a message needs to be sent or a callback needs to be invoked.
     // It is this layer's responsibility to notify that task each time a message is queued to send, or when a callback is queued to be invoked.
     private final Semaphore sendThreadSemaphore = new Semaphore(0);
@@ -114,6 +115,13 @@ public class IotHubTransport implements IotHubListener
     // Flag set when close() starts. Acts as a signal to any running reconnection logic to not try again.
     private boolean isClosing;
 
+    // Guards the open that is currently in progress, whose attempts run on the RetryScheduler. Each open, and each
+    // close, starts a new generation so that the remaining attempts of an earlier open stop instead of racing a newer
+    // connection.
+    private final Object openLock = new Object();
+    private CompletableFuture<Void> pendingOpenFuture;
+    private long openGeneration;
+
     // Used to store the CorrelationCallbackMessage for a correlationId
     private final Map<String, CorrelatingMessageCallback> correlationCallbacks = new ConcurrentHashMap<>();
     private final Map<String, Object> correlationCallbackContexts = new ConcurrentHashMap<>();
@@ -137,7 +145,8 @@ public class IotHubTransport implements IotHubListener
         this.protocol = defaultConfig.getProtocol();
         this.hostName = defaultConfig.getIotHubHostname();
         this.deviceClientConfigs.put(defaultConfig.getDeviceId(), defaultConfig);
-        this.multiplexedDeviceConnectionStates.put(defaultConfig.getDeviceId(), new MultiplexedDeviceState(IotHubConnectionStatus.DISCONNECTED));
+        this.multiplexedDeviceConnectionStates.register(defaultConfig.getDeviceId());
+        this.multiplexedDeviceConnectionStates.addTransitionListener(this::onMultiplexedDeviceTransition);
         this.proxySettings = defaultConfig.getProxySettings();
         this.connectionStatus = IotHubConnectionStatus.DISCONNECTED;
         this.isMultiplexing = isMultiplexing;
@@ -162,6 +171,7 @@ public class IotHubTransport implements IotHubListener
         this.deviceIOConnectionStatusChangeCallback = deviceIOConnectionStatusChangeCallback;
         this.isMultiplexing = true;
         this.keepAliveInterval = keepAliveInterval;
+        this.multiplexedDeviceConnectionStates.addTransitionListener(this::onMultiplexedDeviceTransition);
     }
 
     public Semaphore getSendThreadSemaphore()
@@ -201,15 +211,7 @@ public class IotHubTransport implements IotHubListener
             return true;
         }
 
-        for (MultiplexedDeviceState multiplexedDeviceState : this.multiplexedDeviceConnectionStates.values())
-        {
-            if (multiplexedDeviceState.getConnectionStatus() == IotHubConnectionStatus.DISCONNECTED_RETRYING)
-            {
-                return true;
-            }
-        }
-
-        return false;
+        return this.multiplexedDeviceConnectionStates.hasRetryingDevices();
     }
 
     //Renaming it to isOpen would be confusing considering this layer's state is either open/closed/reconnecting
@@ -436,69 +438,155 @@ public class IotHubTransport implements IotHubListener
      */
     public void open(boolean withRetry) throws TransportException, IotHubClientException
     {
-        if (this.connectionStatus == IotHubConnectionStatus.CONNECTED)
+        try
         {
-            return;
+            openAsync(withRetry).get();
         }
-
-        if (this.connectionStatus == IotHubConnectionStatus.DISCONNECTED_RETRYING)
+        catch (InterruptedException e)
         {
-            throw new TransportException("Open cannot be called while transport is reconnecting");
+            throw new TransportException("InterruptedException thrown while waiting for the connection to open", e);
         }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof TransportException)
+            {
+                throw (TransportException) cause;
+            }
+            else if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
 
-        this.isClosing = false;
+            throw new TransportException("Encountered an unexpected exception while opening the connection", cause);
+        }
+    }
 
-        this.taskScheduler = Executors.newScheduledThreadPool(1);
+    /**
+     * Asynchronously establishes a communication channel with an IoT Hub. If a channel is already open, the returned
+     * future is already completed. If a channel is already being opened, the returned future completes along with that
+     * open rather than a second connection being opened.
+     * <p>
+     * The first connection attempt is made on the calling thread. If it fails and the retry policy allows for another
+     * attempt, that attempt is scheduled on a shared timer for when the retry policy's delay has elapsed, so no thread
+     * is held while waiting between attempts.
+     *
+     * @param withRetry if true, this open call will apply the current retry policy to allow for the open call to be
+     * retried if it fails.
+     * @return a future that completes once the connection is open, or completes exceptionally with a
+     * {@link TransportException} if the connection could not be opened.
+     */
+    public CompletableFuture<Void> openAsync(boolean withRetry)
+    {
+        CompletableFuture<Void> openFuture = new CompletableFuture<>();
+        long generation;
 
-        if (withRetry)
+        synchronized (this.openLock)
         {
-            int connectionAttempt = 0;
-            long startTime = System.currentTimeMillis();
+            if (this.connectionStatus == IotHubConnectionStatus.CONNECTED)
+            {
+                openFuture.complete(null);
+                return openFuture;
+            }
 
-            // this loop either ends in throwing an exception when retry expires, or by a break statement upon a successful openConnection() call
-            while (true)
+            if (this.connectionStatus == IotHubConnectionStatus.DISCONNECTED_RETRYING)
             {
-                RetryPolicy retryPolicy = isMultiplexing ?  multiplexingRetryPolicy : this.getDefaultConfig().getRetryPolicy();
+                openFuture.completeExceptionally(new TransportException("Open cannot be called while transport is reconnecting"));
+                return openFuture;
+            }
 
-                try
+            if (this.pendingOpenFuture != null)
+            {
+                log.debug("The connection is already being opened, so this open will complete along with it");
+                this.pendingOpenFuture.whenComplete((result, throwable) ->
+                {
+                    if (throwable == null)
+                    {
+                        openFuture.complete(null);
+                    }
+                    else
+                    {
+                        openFuture.completeExceptionally(throwable);
+                    }
+                });
+
+                return openFuture;
+            }
+
+            this.isClosing = false;
+
+            this.taskScheduler = Executors.newScheduledThreadPool(1);
+
+            generation = ++this.openGeneration;
+            this.pendingOpenFuture = openFuture;
+        }
+
+        attemptOpen(openFuture, generation, withRetry, 0, System.currentTimeMillis());
+        return openFuture;
+    }
+
+    private void attemptOpen(CompletableFuture<Void> openFuture, long generation, boolean withRetry, int connectionAttempt, long startTime)
+    {
+        Throwable openException = null;
+
+        synchronized (this.openLock)
+        {
+            if (generation != this.openGeneration || this.isClosing)
+            {
+                // close() completes the future of the open it abandoned
+                log.trace("Abandoning open attempt since this client was closed or opened again");
+                return;
+            }
+
+            try
+            {
+                openConnection();
+                log.debug("Client connection opened successfully");
+            }
+            catch (TransportException transportException)
+            {
+                if (!withRetry)
                 {
-                    openConnection();
-                    break; // openConnection() only returns without throwing if the connection attempt was successful
+                    openException = transportException;
                 }
-                catch (TransportException transportException)
+                else
                 {
                     log.debug("Encountered an exception while opening the client. Checking the configured retry policy to see if another attempt should be made.", transportException);
+                    RetryPolicy retryPolicy = isMultiplexing ?  multiplexingRetryPolicy : this.getDefaultConfig().getRetryPolicy();
                     RetryDecision retryDecision = retryPolicy.getRetryDecision(connectionAttempt, transportException);
                     if (!retryDecision.shouldRetry())
                     {
-                        throw new TransportException("Retry expired while attempting to open the connection", transportException);
-                    }
-
-                    connectionAttempt++;
-
-                    if (hasOperationTimedOut(startTime))
-                    {
-                        throw new TransportException("Open operation timed out. The nested exception is the most recent exception thrown while attempting to open the connection", transportException);
+                        openException = new TransportException("Retry expired while attempting to open the connection", transportException);
                     }
-
-                    try
+                    else if (hasOperationTimedOut(startTime))
                     {
-                        log.trace("The configured retry policy allows for another attempt. Sleeping for {} milliseconds before the next attempt", retryDecision.getDuration());
-                        Thread.sleep(retryDecision.getDuration());
+                        openException = new TransportException("Open operation timed out. The nested exception is the most recent exception thrown while attempting to open the connection", transportException);
                     }
-                    catch (InterruptedException e)
+                    else
                     {
-                        throw new TransportException("InterruptedException thrown while sleeping between connection attempts", e);
+                        log.trace("The configured retry policy allows for another attempt. Scheduling the next attempt for {} milliseconds from now", retryDecision.getDuration());
+                        RetryScheduler.schedule(() -> attemptOpen(openFuture, generation, true, connectionAttempt + 1, startTime), retryDecision.getDuration());
+                        return;
                     }
                 }
             }
+            catch (RuntimeException e)
+            {
+                openException = e;
+            }
+
+            this.pendingOpenFuture = null;
+        }
+
+        // Completed outside of the open lock since the future's dependents may run on this thread
+        if (openException == null)
+        {
+            openFuture.complete(null);
         }
         else
         {
-            openConnection();
+            openFuture.completeExceptionally(openException);
         }
-
-        log.debug("Client connection opened successfully");
     }
 
     /**
@@ -522,6 +610,20 @@ public class IotHubTransport implements IotHubListener
         // it waits for the reconnection logic to end before it starts.
         this.isClosing = true;
 
+        // Wait until no open attempt is taking place, and stop the attempts of any open that is in progress
+        CompletableFuture<Void> abandonedOpenFuture;
+        synchronized (this.openLock)
+        {
+            this.openGeneration++;
+            abandonedOpenFuture = this.pendingOpenFuture;
+            this.pendingOpenFuture = null;
+        }
+
+        if (abandonedOpenFuture != null)
+        {
+            abandonedOpenFuture.completeExceptionally(new TransportException("The client was closed while its connection was being opened"));
+        }
+
         // Wait until no reconnection logic is taking place
         synchronized (this.reconnectionLock)
         {
@@ -543,6 +645,9 @@ public class IotHubTransport implements IotHubListener
             }
             finally
             {
+                // Abandon the steps of any reconnection that are still scheduled
+                this.reconnection = null;
+
                 this.updateStatus(IotHubConnectionStatus.DISCONNECTED, reason, cause);
 
                 // Notify send thread to finish up so it doesn't survive this close
@@ -559,57 +664,135 @@ public class IotHubTransport implements IotHubListener
         }
     }
 
-    // should only be called from IotHubReconnectTask
-    public void reconnect() throws InterruptedException
+    /**
+     * Starts reconnecting the connection and any multiplexed device sessions that lost connectivity, if that isn't
+     * already in progress. Should only be called from IotHubReconnectTask.
+     * <p>
+     * The first reconnection step runs on the calling thread. Rather than sleeping between attempts, each following
+     * step is scheduled on the shared {@link RetryScheduler} for when the retry policy's delay has elapsed, so no
+     * thread is held while waiting between attempts.
+     */
+    public void reconnect()
     {
         synchronized (this.reconnectionLock)
         {
-            long reconnectionStartTimeMillis = 0;
-            int reconnectionAttempt = 0;
-            String deviceSessionToReconnect = null;
+            if (this.reconnection != null || !needsReconnect())
+            {
+                log.trace("Reconnection logic is already in progress or is no longer needed");
+                return;
+            }
 
             // retry policy to be used for connection level retry, not device session specific retry
             RetryPolicy retryPolicy = isMultiplexing ? multiplexingRetryPolicy : this.getDefaultConfig().getRetryPolicy();
+            this.reconnection = new Reconnection(retryPolicy);
+            continueReconnection(this.reconnection);
+        }
+    }
+
+    /**
+     * @return true if a reconnection is in progress, in which case its remaining steps are scheduled on the
+     * {@link RetryScheduler} and the reconnect thread doesn't need to do anything.
+     */
+    boolean isReconnecting()
+    {
+        return this.reconnection != null;
+    }
+
+    /**
+     * Makes the next attempt of the provided reconnection.
+     * <p>
+     * The reconnection keeps attempting to reconnect the connection and any multiplexed device sessions until they
+     * are all CONNECTED or they reach a DISCONNECTED state due to retry expired, timeout, encountering a non-retryable
+     * exception, etc. This logic will prioritize reconnecting the amqp/mqtt connection before it attempts to reconnect
+     * any multiplexed device sessions. And while it is reconnecting device sessions, it will reconnect them sequentially.
+     */
+    private void continueReconnection(Reconnection reconnection)
+    {
+        synchronized (this.reconnectionLock)
+        {
+            if (this.reconnection != reconnection)
+            {
+                log.trace("Abandoning reconnection logic since this client was closed");
+                return;
+            }
 
-            // keep attempting to reconnect the connection and any multiplexed device sessions until they are all CONNECTED
-            // or they reach a DISCONNECTED state due to retry expired, timeout, encountering a non-retryable exception, etc.
-            // This logic will prioritize reconnecting the amqp/mqtt connection before it attempts to reconnect any multiplexed
-            // device sessions. And while it is reconnecting device sessions, it will reconnect them sequentially.
-            while (needsReconnect())
+            if (!needsReconnect())
             {
-                // If user initiates a close of this client, abandon all reconnection logic
-                if (this.isClosing)
+                log.trace("Finished reconnection logic");
+                this.reconnection = null;
+                return;
+            }
+
+            // If user initiates a close of this client, abandon all reconnection logic
+            if (this.isClosing)
+            {
+                log.trace("Abandoning reconnection logic since this client has started closing");
+                this.reconnection = null;
+                return;
+            }
+
+            // if the connection as a whole is DISCONNECTED_RETRYING (as opposed to one or many multiplexed device
+            // sessions being DISCONNECTED_RETRYING)
+            if (this.connectionStatus == IotHubConnectionStatus.DISCONNECTED_RETRYING)
+            {
+                clearInProgressMessages();
+
+                if (reconnection.startTimeMillis == 0)
                 {
-                    log.trace("Abandoning reconnection logic since this client has started closing");
-                    return;
+                    reconnection.startTimeMillis = System.currentTimeMillis();
                 }
 
-                // if the connection as a whole is DISCONNECTED_RETRYING (as opposed to one or many multiplexed device
-                // sessions being DISCONNECTED_RETRYING)
-                if (this.connectionStatus == IotHubConnectionStatus.DISCONNECTED_RETRYING)
+                singleReconnectAttempt(reconnection);
+                reconnection.attempt++;
+            }
+            else // one or more multiplexed device sessions lost connectivity
+            {
+                // pick one of the DISCONNECTED_RETRYING device sessions to attempt to reconnect
+                reconnection.deviceSessionToReconnect = pickDeviceSessionToReconnect(reconnection.deviceSessionToReconnect);
+
+                if (reconnection.deviceSessionToReconnect != null)
                 {
-                    clearInProgressMessages();
+                    singleDeviceReconnectAttemptAsync(reconnection, reconnection.deviceSessionToReconnect);
+                }
+                else
+                {
+                    scheduleReconnectionStep(reconnection, () -> {}, 0);
+                }
+            }
+        }
+    }
 
-                    if (reconnectionStartTimeMillis == 0)
-                    {
-                        reconnectionStartTimeMillis = System.currentTimeMillis();
-                    }
+    /**
+     * Runs the provided step of the provided reconnection on the {@link RetryScheduler} once the provided delay has
+     * elapsed, and then continues with the next attempt of that reconnection.
+     */
+    private void scheduleReconnectionStep(Reconnection reconnection, Runnable step, long delayMilliseconds)
+    {
+        RetryScheduler.schedule(() ->
+        {
+            synchronized (this.reconnectionLock)
+            {
+                if (this.reconnection != reconnection)
+                {
+                    log.trace("Abandoning reconnection logic since this client was closed");
+                    return;
+                }
 
-                    singleReconnectAttempt(retryPolicy, reconnectionAttempt, reconnectionStartTimeMillis);
-                    reconnectionAttempt++;
+                try
+                {
+                    step.run();
+                    continueReconnection(reconnection);
                 }
-                else // one or more multiplexed device sessions lost connectivity
+                catch (RuntimeException e)
                 {
-                    // pick one of the DISCONNECTED_RETRYING device sessions to attempt to reconnect
-                    deviceSessionToReconnect = pickDeviceSessionToReconnect(deviceSessionToReconnect);
+                    log.warn("Encountered an exception while reconnecting", e);
 
-                    if (deviceSessionToReconnect != null)
-                    {
-                        singleDeviceReconnectAttemptAsync(deviceSessionToReconnect);
-                    }
+                    // Let the reconnect thread start over, as it would have if the exception had been thrown on that thread
+                    this.reconnection = null;
+                    this.reconnectThreadSemaphore.release();
                 }
             }
-        }
+        }, delayMilliseconds);
     }
 
     /**
@@ -654,16 +837,8 @@ public class IotHubTransport implements IotHubListener
         {
             // if the last device session to attempt reconnection has reached a terminal state, pick a new device session
             // from the set of DISCONNECTED_RETRYING device sessions
-            for (String deviceId : this.multiplexedDeviceConnectionStates.keySet())
-            {
-                IotHubConnectionStatus status = this.multiplexedDeviceConnectionStates.get(deviceId).getConnectionStatus();
-                if (status == IotHubConnectionStatus.DISCONNECTED_RETRYING)
-                {
-                    return deviceId;
-                }
-            }
-
-            return null; // no devices are DISCONNECTED_RETRYING
+            // returns null if no devices are DISCONNECTED_RETRYING
+            return this.multiplexedDeviceConnectionStates.getAnyRetryingDeviceId();
         }
 
         // if the previous reconnect attempt hasn't reached a terminal state yet, just continue retrying it
@@ -954,7 +1129,7 @@ public class IotHubTransport implements IotHubListener
         for (ClientConfiguration configToRegister : configs)
         {
             this.deviceClientConfigs.put(configToRegister.getDeviceId(), configToRegister);
-            this.multiplexedDeviceConnectionStates.put(configToRegister.getDeviceId(), new MultiplexedDeviceState(IotHubConnectionStatus.DISCONNECTED));
+            this.multiplexedDeviceConnectionStates.register(configToRegister.getDeviceId());
             if (this.iotHubTransportConnection != null)
             {
                 // Safe cast since amqps and amqps_ws always use this transport connection type.
@@ -970,13 +1145,13 @@ public class IotHubTransport implements IotHubListener
             for (ClientConfiguration newlyRegisteredConfig : configs)
             {
                 String deviceId = newlyRegisteredConfig.getDeviceId();
-                boolean deviceIsNotConnected = multiplexedDeviceConnectionStates.get(deviceId).getConnectionStatus() != IotHubConnectionStatus.CONNECTED;
+                boolean deviceIsNotConnected = multiplexedDeviceConnectionStates.getConnectionStatus(deviceId) != IotHubConnectionStatus.CONNECTED;
                 Exception deviceRegistrationException = multiplexingDeviceRegistrationFailures.remove(deviceId);
                 while (deviceIsNotConnected && deviceRegistrationException == null)
                 {
                     Thread.sleep(100);
 
-                    deviceIsNotConnected = multiplexedDeviceConnectionStates.get(deviceId).getConnectionStatus() != IotHubConnectionStatus.CONNECTED;
+                    deviceIsNotConnected = multiplexedDeviceConnectionStates.getConnectionStatus(deviceId) != IotHubConnectionStatus.CONNECTED;
                     deviceRegistrationException = multiplexingDeviceRegistrationFailures.remove(deviceId);
                     boolean operationHasTimedOut = System.currentTimeMillis() >= timeoutTime;
                     if (operationHasTimedOut)
@@ -1036,7 +1211,8 @@ public class IotHubTransport implements IotHubListener
         {
             for (ClientConfiguration newlyUnregisteredConfig : configs)
             {
-                while (multiplexedDeviceConnectionStates.get(newlyUnregisteredConfig.getDeviceId()).getConnectionStatus() != IotHubConnectionStatus.DISCONNECTED)
+                IotHubConnectionStatus status = multiplexedDeviceConnectionStates.getConnectionStatus(newlyUnregisteredConfig.getDeviceId());
+                while (status != null && status != IotHubConnectionStatus.DISCONNECTED)
                 {
                     //noinspection BusyWait
                     Thread.sleep(100);
@@ -1046,6 +1222,8 @@ public class IotHubTransport implements IotHubListener
                     {
                         throw new IotHubClientException(DEVICE_OPERATION_TIMED_OUT, "Timed out waiting for all device unregistrations to finish.");
                     }
+
+                    status = multiplexedDeviceConnectionStates.getConnectionStatus(newlyUnregisteredConfig.getDeviceId());
                 }
 
                 this.multiplexedDeviceConnectionStates.remove(newlyUnregisteredConfig.getDeviceId());
@@ -1313,58 +1491,63 @@ public class IotHubTransport implements IotHubListener
     // For reconnecting multiplexed devices only. Since this triggers asynchronous functions in the AMQP layer, there
     // is no guarantee that the reconnect worked just because the unregister/register calls return successfully.
     // Still need to check the device connection status before you can report the device to be connected.
-    private void singleDeviceReconnectAttemptAsync(String deviceSessionToReconnect) throws InterruptedException
+    private void singleDeviceReconnectAttemptAsync(Reconnection reconnection, String deviceSessionToReconnect)
     {
         MultiplexedDeviceState multiplexedDeviceState = multiplexedDeviceConnectionStates.get(deviceSessionToReconnect);
-        if (multiplexedDeviceState.getConnectionStatus() == IotHubConnectionStatus.DISCONNECTED_RETRYING)
+        if (multiplexedDeviceState == null || multiplexedDeviceState.getConnectionStatus() != IotHubConnectionStatus.DISCONNECTED_RETRYING)
         {
-            TransportException transportException = getTransportExceptionFromThrowable(multiplexedDeviceState.getLastException());
+            scheduleReconnectionStep(reconnection, () -> {}, 0);
+            return;
+        }
 
-            if (multiplexedDeviceState.getReconnectionAttemptNumber() == 0)
-            {
-                multiplexedDeviceState.setStartReconnectTime(System.currentTimeMillis());
-            }
+        TransportException transportException = getTransportExceptionFromThrowable(multiplexedDeviceState.getLastException());
 
-            if (this.hasOperationTimedOut(multiplexedDeviceState.getStartReconnectTime()))
-            {
-                this.updateStatus(IotHubConnectionStatus.DISCONNECTED, IotHubConnectionStatusChangeReason.RETRY_EXPIRED, transportException, deviceSessionToReconnect);
-                log.debug("Reconnection for device {} was abandoned due to the operation timeout", deviceSessionToReconnect);
-            }
+        if (multiplexedDeviceState.getReconnectionAttemptNumber() == 0)
+        {
+            multiplexedDeviceState.setStartReconnectTime(System.currentTimeMillis());
+        }
 
-            multiplexedDeviceState.incrementReconnectionAttemptNumber();
+        if (this.hasOperationTimedOut(multiplexedDeviceState.getStartReconnectTime()))
+        {
+            this.updateStatus(IotHubConnectionStatus.DISCONNECTED, IotHubConnectionStatusChangeReason.RETRY_EXPIRED, transportException, deviceSessionToReconnect);
+            log.debug("Reconnection for device {} was abandoned due to the operation timeout", deviceSessionToReconnect);
+        }
 
-            ClientConfiguration config = this.getConfig(deviceSessionToReconnect);
+        multiplexedDeviceState.incrementReconnectionAttemptNumber();
 
-            if (config == null)
-            {
-                log.debug("Reconnection for device {} was abandoned because it was unregistered while reconnecting", deviceSessionToReconnect);
-                return;
-            }
+        ClientConfiguration config = this.getConfig(deviceSessionToReconnect);
 
-            RetryPolicy retryPolicy = config.getRetryPolicy();
-            RetryDecision retryDecision = retryPolicy.getRetryDecision(multiplexedDeviceState.getReconnectionAttemptNumber(), transportException);
-            if (!retryDecision.shouldRetry())
-            {
-                this.updateStatus(IotHubConnectionStatus.DISCONNECTED, IotHubConnectionStatusChangeReason.RETRY_EXPIRED, transportException, deviceSessionToReconnect);
-                log.debug("Reconnection for device {} was abandoned due to the retry policy", deviceSessionToReconnect);
-            }
+        if (config == null)
+        {
+            log.debug("Reconnection for device {} was abandoned because it was unregistered while reconnecting", deviceSessionToReconnect);
+            scheduleReconnectionStep(reconnection, () -> {}, 0);
+            return;
+        }
 
-            log.trace("Attempting to reconnect device session: attempt {}", multiplexedDeviceState.getReconnectionAttemptNumber());
+        RetryPolicy retryPolicy = config.getRetryPolicy();
+        RetryDecision retryDecision = retryPolicy.getRetryDecision(multiplexedDeviceState.getReconnectionAttemptNumber(), transportException);
+        if (!retryDecision.shouldRetry())
+        {
+            this.updateStatus(IotHubConnectionStatus.DISCONNECTED, IotHubConnectionStatusChangeReason.RETRY_EXPIRED, transportException, deviceSessionToReconnect);
+            log.debug("Reconnection for device {} was abandoned due to the retry policy", deviceSessionToReconnect);
+        }
 
-            // This call triggers some async amqp logic, so all this function can do is wait for a bit and check the connection
-            // status for this device before retrying.
-            ((AmqpsIotHubConnection) this.iotHubTransportConnection).unregisterMultiplexedDevice(config, true);
-            ((AmqpsIotHubConnection) this.iotHubTransportConnection).registerMultiplexedDevice(config);
+        log.trace("Attempting to reconnect device session: attempt {}", multiplexedDeviceState.getReconnectionAttemptNumber());
 
-            log.trace("Sleeping between device reconnect attempts for device {}", deviceSessionToReconnect);
-            MILLISECONDS.sleep(retryDecision.getDuration());
+        // This call triggers some async amqp logic, so all this function can do is wait for a bit and check the connection
+        // status for this device before retrying.
+        ((AmqpsIotHubConnection) this.iotHubTransportConnection).unregisterMultiplexedDevice(config, true);
+        ((AmqpsIotHubConnection) this.iotHubTransportConnection).registerMultiplexedDevice(config);
 
+        log.trace("Scheduling the next check of the reconnection of device {} for {} milliseconds from now", deviceSessionToReconnect, retryDecision.getDuration());
+        scheduleReconnectionStep(reconnection, () ->
+        {
             if (!transportException.isRetryable())
             {
                 this.updateStatus(IotHubConnectionStatus.DISCONNECTED, this.exceptionToStatusChangeReason(transportException), transportException, deviceSessionToReconnect);
                 log.error("Reconnection for device {} was abandoned due to encountering a non-retryable exception", deviceSessionToReconnect, transportException);
             }
-        }
+        }, retryDecision.getDuration());
     }
 
     private ClientConfiguration getConfig(String deviceId)
@@ -1376,11 +1559,12 @@ public class IotHubTransport implements IotHubListener
     }
 
     /**
-     * Attempts to close and then re-open the iotHubTransportConnection once
+     * Schedules an attempt to close and then re-open the iotHubTransportConnection once the retry policy's delay has
+     * elapsed
      */
-    private void singleReconnectAttempt(RetryPolicy retryPolicy, int reconnectionAttempt, long reconnectionStartTimeMillis) throws InterruptedException
+    private void singleReconnectAttempt(Reconnection reconnection)
     {
-        if (this.hasOperationTimedOut(reconnectionStartTimeMillis))
+        if (this.hasOperationTimedOut(reconnection.startTimeMillis))
         {
             log.debug("Reconnection was abandoned due to the operation timeout");
             this.close(
@@ -1389,39 +1573,60 @@ public class IotHubTransport implements IotHubListener
             return;
         }
 
-        TransportException transportException = getTransportExceptionFromThrowable(this.connectionStatusLastException);
+        TransportException lastTransportException = getTransportExceptionFromThrowable(this.connectionStatusLastException);
 
-        log.trace("Attempting reconnect attempt {}", reconnectionAttempt);
+        log.trace("Attempting reconnect attempt {}", reconnection.attempt);
 
-        RetryDecision retryDecision = retryPolicy.getRetryDecision(reconnectionAttempt, transportException);
+        RetryDecision retryDecision = reconnection.retryPolicy.getRetryDecision(reconnection.attempt, lastTransportException);
         if (!retryDecision.shouldRetry())
         {
             log.debug("Reconnection was abandoned due to the retry policy");
-            this.close(IotHubConnectionStatusChangeReason.RETRY_EXPIRED, transportException);
+            this.close(IotHubConnectionStatusChangeReason.RETRY_EXPIRED, lastTransportException);
             return;
         }
 
-        log.trace("Sleeping between reconnect attempts");
-        MILLISECONDS.sleep(retryDecision.getDuration());
-
-        try
-        {
-            log.trace("Attempting to close and re-open the iot hub transport connection...");
-            this.iotHubTransportConnection.close();
-            this.openConnection();
-            log.trace("Successfully closed and re-opened the iot hub transport connection");
-        }
-        catch (TransportException newTransportException)
+        log.trace("Scheduling the next reconnect attempt for {} milliseconds from now", retryDecision.getDuration());
+        scheduleReconnectionStep(reconnection, () ->
         {
-            checkForUnauthorizedException(newTransportException);
-            log.warn("Failed to close and re-open the iot hub transport connection, checking if another retry attempt should be made", newTransportException);
-            transportException = newTransportException;
-        }
+            TransportException transportException = lastTransportException;
+
+            try
+            {
+                log.trace("Attempting to close and re-open the iot hub transport connection...");
+                this.iotHubTransportConnection.close();
+                this.openConnection();
+                log.trace("Successfully closed and re-opened the iot hub transport connection");
+            }
+            catch (TransportException newTransportException)
+            {
+                checkForUnauthorizedException(newTransportException);
+                log.warn("Failed to close and re-open the iot hub transport connection, checking if another retry attempt should be made", newTransportException);
+                transportException = newTransportException;
+            }
+
+            if (!transportException.isRetryable())
+            {
+                log.error("Reconnection was abandoned due to encountering a non-retryable exception", transportException);
+                this.close(this.exceptionToStatusChangeReason(transportException), transportException);
+            }
+        }, retryDecision.getDuration());
+    }
+
+    /**
+     * The state of one reconnection, from the disconnection event that started it until every connection and device
+     * session that needed reconnecting has reached a terminal state.
+     */
+    private static final class Reconnection
+    {
+        // retry policy to be used for connection level retry, not device session specific retry
+        private final RetryPolicy retryPolicy;
+        private long startTimeMillis = 0;
+        private int attempt = 0;
+        private String deviceSessionToReconnect = null;
 
-        if (!transportException.isRetryable())
+        Reconnection(RetryPolicy retryPolicy)
         {
-            log.error("Reconnection was abandoned due to encountering a non-retryable exception", transportException);
-            this.close(this.exceptionToStatusChangeReason(transportException), transportException);
+            this.retryPolicy = retryPolicy;
         }
     }
 
@@ -1609,12 +1814,7 @@ public class IotHubTransport implements IotHubListener
                 // callback should be fired
                 invokeConnectionStatusChangeCallback(newConnectionStatus, reason, throwable);
 
-                for (ClientConfiguration config : deviceClientConfigs.values())
-                {
-                    MultiplexedDeviceState deviceState = multiplexedDeviceConnectionStates.get(config.getDeviceId());
-                    deviceState.setConnectionStatus(newConnectionStatus);
-                    deviceState.setReconnectionAttemptNumber(0);
-                }
+                this.multiplexedDeviceConnectionStates.setAllConnectionStatuses(newConnectionStatus);
             }
 
             // If multiplexing, fire the multiplexing state callback as long as it was set.
@@ -1627,44 +1827,29 @@ public class IotHubTransport implements IotHubListener
 
     private void updateStatus(IotHubConnectionStatus newConnectionStatus, IotHubConnectionStatusChangeReason reason, Throwable throwable, String deviceId)
     {
-        if (!this.multiplexedDeviceConnectionStates.containsKey(deviceId))
-        {
-            // not tracking the state of this device, likely because it was unregistered. No need to update any status here.
-            return;
-        }
-
-        IotHubConnectionStatus previousStatus = this.multiplexedDeviceConnectionStates.get(deviceId).getConnectionStatus();
-        if (previousStatus == newConnectionStatus)
-        {
-            // new status is the same as the current status, so no need to update anything here.
-            return;
-        }
+        // The registry ignores this update if the device isn't tracked (likely because it was unregistered) or if
+        // the new status is the same as the current status. Otherwise the new state starts with no reconnection
+        // attempts, so when the reconnect thread wakes up it will know that this device session has not attempted any
+        // reconnect attempts yet.
+        this.multiplexedDeviceConnectionStates.transition(deviceId, newConnectionStatus, reason, throwable);
+    }
 
+    // Called by the multiplexed device state registry after it releases the lock for this device. The registry publishes
+    // the transitions of a single device one at a time, so its callbacks are always invoked in the order that its
+    // transitions happened.
+    private void onMultiplexedDeviceTransition(String deviceId, IotHubConnectionStatus previousStatus, IotHubConnectionStatus newStatus, IotHubConnectionStatusChangeReason reason, Throwable throwable)
+    {
         if (throwable == null)
         {
-            log.debug("Updating device {} status to new status {} with reason {}", deviceId, newConnectionStatus, reason);
+            log.debug("Updating device {} status to new status {} with reason {}", deviceId, newStatus, reason);
         }
         else
         {
-            log.warn("Updating device {} status to new status {} with reason {}", deviceId, newConnectionStatus, reason, throwable);
+            log.warn("Updating device {} status to new status {} with reason {}", deviceId, newStatus, reason, throwable);
         }
 
-        synchronized (this.multiplexingDeviceStateLock)
-        {
-            MultiplexedDeviceState deviceState = new MultiplexedDeviceState(newConnectionStatus, throwable);
-
-            if (newConnectionStatus == IotHubConnectionStatus.DISCONNECTED_RETRYING)
-            {
-                // When the reconnect thread wakes up, it will know that this device session has not attempted any
-                // reconnect attempts yet.
-                deviceState.setReconnectionAttemptNumber(0);
-            }
-
-            this.multiplexedDeviceConnectionStates.put(deviceId, deviceState);
-
-            log.debug("Invoking connection status callbacks with new status details");
-            invokeConnectionStatusChangeCallback(newConnectionStatus, previousStatus, reason, throwable, deviceId);
-        }
+        log.debug("Invoking connection status callbacks with new status details");
+        invokeConnectionStatusChangeCallback(newStatus, previousStatus, reason, throwable, deviceId);
     }
 
     private void invokeConnectionStatusChangeCallback(IotHubConnectionStatus status, IotHubConnectionStatusChangeReason reason, Throwable e)
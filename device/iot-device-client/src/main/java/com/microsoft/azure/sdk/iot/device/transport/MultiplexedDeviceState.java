@@ -5,6 +5,11 @@ import lombok.Setter;
 
 /**
  * represents the connection state of a single multiplexed device client.
+ *
+ * <p>
+ * Instances are read without locking by the reconnection logic while the connection status may be updated by
+ * {@link MultiplexedDeviceStateRegistry}, so the fields are volatile.
+ * </p>
  */
 public class MultiplexedDeviceState
 {
@@ -24,7 +29,7 @@ public class MultiplexedDeviceState
      */
     @Getter
     @Setter
-    private IotHubConnectionStatus connectionStatus;
+    private volatile IotHubConnectionStatus connectionStatus;
 
     /**
      * The last thrown exception related to this connection. Used to save the last cause of a disconnection event for
@@ -32,14 +37,14 @@ public class MultiplexedDeviceState
      */
     @Getter
     @Setter
-    private Throwable lastException;
+    private volatile Throwable lastException;
 
     /**
      * The time that this multiplexed device session has started reconnecting, measured in milliseconds since the UNIX epoch
      */
     @Getter
     @Setter
-    private long startReconnectTime;
+    private volatile long startReconnectTime;
 
     /**
      * The current reconnect attempt number for this multiplexed device. Each unsuccessful reconnect attempts will increment
@@ -47,7 +52,7 @@ public class MultiplexedDeviceState
      */
     @Getter
     @Setter
-    private int reconnectionAttemptNumber;
+    private volatile int reconnectionAttemptNumber;
 
     protected void incrementReconnectionAttemptNumber()
     {
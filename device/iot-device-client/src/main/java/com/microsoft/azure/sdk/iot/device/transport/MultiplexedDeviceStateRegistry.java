@@ -0,0 +1,285 @@
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license. See LICENSE file in the project root for full license information.
+
+package com.microsoft.azure.sdk.iot.device.transport;
+
+import com.microsoft.azure.sdk.iot.device.IotHubConnectionStatusChangeReason;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Thread safe registry of the connection states of the devices of a multiplexed connection.
+ *
+ * <p>
+ * State transitions are atomic per device, but rather than every transition contending on a single lock, each device
+ * id maps to one of a fixed set of lock stripes. Devices that land on different stripes can change state in parallel.
+ * Every transition is recorded in a per device queue while the device's stripe is held, and is then published to the
+ * registered {@link TransitionListener}s after the stripe is released. Only one thread publishes the queued transitions
+ * of a given device at a time, so listeners never observe the transitions of a single device out of order, and a slow
+ * listener or one that touches other devices doesn't hold up or deadlock against the devices that share its stripe.
+ * </p>
+ *
+ * <p>
+ * The registry also keeps the set of devices that are currently {@link IotHubConnectionStatus#DISCONNECTED_RETRYING}
+ * so that reconnection logic does not need to scan every registered device to find one that needs reconnecting.
+ * </p>
+ */
+final class MultiplexedDeviceStateRegistry
+{
+    private static final int LOCK_STRIPE_COUNT = 32;
+
+    private final Map<String, MultiplexedDeviceState> states = new ConcurrentHashMap<>();
+    private final Set<String> retryingDeviceIds = ConcurrentHashMap.newKeySet();
+    private final Object[] lockStripes = new Object[LOCK_STRIPE_COUNT];
+    private final CopyOnWriteArrayList<TransitionListener> transitionListeners = new CopyOnWriteArrayList<>();
+    private final Map<String, PendingTransitions> pendingTransitions = new ConcurrentHashMap<>();
+
+    /**
+     * Listener for the state transitions of individual multiplexed devices.
+     */
+    interface TransitionListener
+    {
+        /**
+         * Called each time a registered device moves to a new connection status through
+         * {@link #transition(String, IotHubConnectionStatus, IotHubConnectionStatusChangeReason, Throwable)}. This is
+         * called after the device's lock stripe is released, on the thread that made the transition or on another thread
+         * that is making a transition for the same device at the same time.
+         *
+         * @param deviceId the id of the device whose status changed.
+         * @param previousStatus the status that the device had before this transition.
+         * @param newStatus the status that the device has now.
+         * @param reason the reason for the transition.
+         * @param throwable the exception that caused the transition, if any.
+         */
+        void onTransition(String deviceId, IotHubConnectionStatus previousStatus, IotHubConnectionStatus newStatus, IotHubConnectionStatusChangeReason reason, Throwable throwable);
+    }
+
+    MultiplexedDeviceStateRegistry()
+    {
+        for (int i = 0; i < LOCK_STRIPE_COUNT; i++)
+        {
+            this.lockStripes[i] = new Object();
+        }
+    }
+
+    /**
+     * Add a listener that will be notified of every subsequent device state transition.
+     *
+     * @param listener the listener to add.
+     */
+    void addTransitionListener(TransitionListener listener)
+    {
+        this.transitionListeners.add(listener);
+    }
+
+    /**
+     * Start tracking the provided device with a {@link IotHubConnectionStatus#DISCONNECTED} state, replacing any state
+     * it previously had.
+     *
+     * @param deviceId the id of the device to track.
+     */
+    void register(String deviceId)
+    {
+        synchronized (lockFor(deviceId))
+        {
+            this.states.put(deviceId, new MultiplexedDeviceState(IotHubConnectionStatus.DISCONNECTED));
+            this.retryingDeviceIds.remove(deviceId);
+        }
+    }
+
+    /**
+     * Stop tracking the provided device.
+     *
+     * @param deviceId the id of the device to stop tracking.
+     */
+    void remove(String deviceId)
+    {
+        synchronized (lockFor(deviceId))
+        {
+            this.states.remove(deviceId);
+            this.retryingDeviceIds.remove(deviceId);
+
+            // Transitions that are still being published are kept so that, if the device is registered again, its new
+            // transitions are published after them rather than alongside them
+            PendingTransitions devicePendingTransitions = this.pendingTransitions.get(deviceId);
+            if (devicePendingTransitions != null && devicePendingTransitions.isIdle())
+            {
+                this.pendingTransitions.remove(deviceId);
+            }
+        }
+    }
+
+    /**
+     * @param deviceId the id of the device.
+     * @return the current state of the device, or null if it is not being tracked.
+     */
+    MultiplexedDeviceState get(String deviceId)
+    {
+        return this.states.get(deviceId);
+    }
+
+    /**
+     * @param deviceId the id of the device.
+     * @return the current connection status of the device, or null if it is not being tracked.
+     */
+    IotHubConnectionStatus getConnectionStatus(String deviceId)
+    {
+        MultiplexedDeviceState state = this.states.get(deviceId);
+        return state == null ? null : state.getConnectionStatus();
+    }
+
+    /**
+     * @return true if at least one tracked device is {@link IotHubConnectionStatus#DISCONNECTED_RETRYING}.
+     */
+    boolean hasRetryingDevices()
+    {
+        return !this.retryingDeviceIds.isEmpty();
+    }
+
+    /**
+     * @return the id of a tracked device that is {@link IotHubConnectionStatus#DISCONNECTED_RETRYING}, or null if
+     * there is no such device.
+     */
+    String getAnyRetryingDeviceId()
+    {
+        Iterator<String> iterator = this.retryingDeviceIds.iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    /**
+     * Atomically move the provided device to a new connection status and notify the transition listeners once the
+     * device's lock stripe is released. The device's reconnection attempt count is reset by this transition.
+     *
+     * @param deviceId the id of the device.
+     * @param newStatus the new connection status of the device.
+     * @param reason the reason for the transition.
+     * @param throwable the exception that caused the transition, if any.
+     * @return true if the device's status changed, or false if the device is not tracked or already had the new status.
+     */
+    boolean transition(String deviceId, IotHubConnectionStatus newStatus, IotHubConnectionStatusChangeReason reason, Throwable throwable)
+    {
+        PendingTransitions devicePendingTransitions;
+        synchronized (lockFor(deviceId))
+        {
+            MultiplexedDeviceState previousState = this.states.get(deviceId);
+            if (previousState == null || previousState.getConnectionStatus() == newStatus)
+            {
+                return false;
+            }
+
+            this.states.put(deviceId, new MultiplexedDeviceState(newStatus, throwable));
+            updateRetryingDeviceIds(deviceId, newStatus);
+
+            // Queued while the stripe is held so that the queue order matches the order of this device's transitions
+            IotHubConnectionStatus previousStatus = previousState.getConnectionStatus();
+            devicePendingTransitions = this.pendingTransitions.computeIfAbsent(deviceId, id -> new PendingTransitions());
+            devicePendingTransitions.add(() -> notifyTransitionListeners(deviceId, previousStatus, newStatus, reason, throwable));
+        }
+
+        devicePendingTransitions.publish();
+        return true;
+    }
+
+    private void notifyTransitionListeners(String deviceId, IotHubConnectionStatus previousStatus, IotHubConnectionStatus newStatus, IotHubConnectionStatusChangeReason reason, Throwable throwable)
+    {
+        for (TransitionListener listener : this.transitionListeners)
+        {
+            listener.onTransition(deviceId, previousStatus, newStatus, reason, throwable);
+        }
+    }
+
+    /**
+     * Set the connection status of every tracked device without notifying the transition listeners. Used when the
+     * multiplexed connection as a whole changes state, in which case the caller notifies each device itself.
+     *
+     * @param newStatus the new connection status of every tracked device.
+     */
+    void setAllConnectionStatuses(IotHubConnectionStatus newStatus)
+    {
+        for (String deviceId : this.states.keySet())
+        {
+            synchronized (lockFor(deviceId))
+            {
+                MultiplexedDeviceState state = this.states.get(deviceId);
+                if (state != null)
+                {
+                    state.setConnectionStatus(newStatus);
+                    state.setReconnectionAttemptNumber(0);
+                    updateRetryingDeviceIds(deviceId, newStatus);
+                }
+            }
+        }
+    }
+
+    private void updateRetryingDeviceIds(String deviceId, IotHubConnectionStatus newStatus)
+    {
+        if (newStatus == IotHubConnectionStatus.DISCONNECTED_RETRYING)
+        {
+            this.retryingDeviceIds.add(deviceId);
+        }
+        else
+        {
+            this.retryingDeviceIds.remove(deviceId);
+        }
+    }
+
+    private Object lockFor(String deviceId)
+    {
+        return this.lockStripes[(deviceId.hashCode() & 0x7fffffff) % LOCK_STRIPE_COUNT];
+    }
+
+    /**
+     * The transitions of a single device that have been recorded but not yet published to the listeners.
+     */
+    private static final class PendingTransitions
+    {
+        private final Queue<Runnable> notifications = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean isPublishing = new AtomicBoolean();
+
+        void add(Runnable notification)
+        {
+            this.notifications.add(notification);
+        }
+
+        /**
+         * @return true if there are no queued transitions and no thread is publishing any. Only reliable while the
+         * device's lock stripe is held, since no transition can be queued then.
+         */
+        boolean isIdle()
+        {
+            return this.notifications.isEmpty() && !this.isPublishing.get();
+        }
+
+        /**
+         * Publish the queued transitions, unless another thread is already publishing them, in which case that thread
+         * will also publish the transitions queued by this one.
+         */
+        void publish()
+        {
+            // Checking the queue again after giving up the flag catches any transition that was queued by a thread that
+            // saw the flag set just before this thread gave it up
+            while (!this.notifications.isEmpty() && this.isPublishing.compareAndSet(false, true))
+            {
+                try
+                {
+                    Runnable notification;
+                    while ((notification = this.notifications.poll()) != null)
+                    {
+                        notification.run();
+                    }
+                }
+                finally
+                {
+                    this.isPublishing.set(false);
+                }
+            }
+        }
+    }
+}
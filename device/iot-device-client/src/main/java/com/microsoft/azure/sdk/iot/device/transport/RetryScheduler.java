@@ -0,0 +1,91 @@
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license. See LICENSE file in the project root for full license information.
+
+package com.microsoft.azure.sdk.iot.device.transport;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Process wide scheduler for delayed retry attempts.
+ *
+ * <p>
+ * Rather than each client sleeping a thread for the duration of a {@link RetryDecision}, the retry is registered with a
+ * single shared timer thread. When the delay elapses, the retry is handed to a shared, bounded pool of worker threads so
+ * that a slow connection attempt from one client does not delay the timer for every other client. Threads are only held
+ * while a retry is actually executing, so thousands of clients waiting out their backoff cost no threads at all, and
+ * when more retries are due at once than there are workers, the rest wait in the pool's queue rather than each
+ * starting a thread of its own.
+ * </p>
+ */
+@Slf4j
+final class RetryScheduler
+{
+    private static final String TIMER_THREAD_NAME = "azure-iot-sdk-RetryScheduler";
+    private static final String WORKER_THREAD_NAME_PREFIX = "azure-iot-sdk-RetryWorker-";
+    private static final int WORKER_THREAD_COUNT = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final long WORKER_KEEP_ALIVE_SECONDS = 60;
+
+    private RetryScheduler()
+    {
+    }
+
+    /**
+     * Run the provided task on a shared worker thread once the provided delay has elapsed.
+     *
+     * @param task the task to run.
+     * @param delayMilliseconds the number of milliseconds to wait before running the task.
+     */
+    static void schedule(Runnable task, long delayMilliseconds)
+    {
+        log.trace("Scheduling retry to run in {} milliseconds", delayMilliseconds);
+        ExecutorsHolder.TIMER.schedule(() -> ExecutorsHolder.WORKERS.execute(task), Math.max(0, delayMilliseconds), TimeUnit.MILLISECONDS);
+    }
+
+    // Lazily initialized on first use so that clients that never retry never create these threads
+    private static final class ExecutorsHolder
+    {
+        private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, TIMER_THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        private static final ExecutorService WORKERS = createWorkers();
+
+        private static ExecutorService createWorkers()
+        {
+            ThreadPoolExecutor workers = new ThreadPoolExecutor(
+                WORKER_THREAD_COUNT,
+                WORKER_THREAD_COUNT,
+                WORKER_KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new ThreadFactory()
+                {
+                    private final AtomicInteger threadCount = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(Runnable runnable)
+                    {
+                        Thread thread = new Thread(runnable, WORKER_THREAD_NAME_PREFIX + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+
+            // Idle workers exit, so a process whose clients stopped retrying doesn't keep these threads around
+            workers.allowCoreThreadTimeOut(true);
+            return workers;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ *  Copyright (c) Microsoft. All rights reserved.
+ *  Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+
+package com.microsoft.azure.sdk.iot.device.transport;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.net.ssl.HandshakeCompletedEvent;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process wide counts of the TLS handshakes performed by the MQTT and HTTPS connections of this library.
+ *
+ * <p>
+ * A handshake is counted as resumed when the server accepted a TLS session that was negotiated by an earlier
+ * connection, and as full otherwise. A high proportion of full handshakes after reconnections usually means that
+ * clients are not sharing an SSLContext. See {@link com.microsoft.azure.sdk.iot.device.auth.IotHubSSLContext#getSharedDefaultInstance()}.
+ * </p>
+ */
+@Slf4j
+public final class TlsHandshakeStatistics
+{
+    private static final AtomicLong fullHandshakeCount = new AtomicLong();
+    private static final AtomicLong resumedHandshakeCount = new AtomicLong();
+
+    private TlsHandshakeStatistics()
+    {
+    }
+
+    /**
+     * @return the number of completed TLS handshakes that negotiated a new TLS session.
+     */
+    public static long getFullHandshakeCount()
+    {
+        return fullHandshakeCount.get();
+    }
+
+    /**
+     * @return the number of completed TLS handshakes that resumed a previously negotiated TLS session.
+     */
+    public static long getResumedHandshakeCount()
+    {
+        return resumedHandshakeCount.get();
+    }
+
+    /**
+     * Wrap the provided socket factory so that the handshakes of the sockets it creates are counted.
+     *
+     * @param delegate the socket factory to wrap.
+     * @return a socket factory that creates the same sockets as the provided one.
+     */
+    public static SSLSocketFactory withHandshakeCounting(SSLSocketFactory delegate)
+    {
+        if (delegate instanceof HandshakeCountingSocketFactory)
+        {
+            return delegate;
+        }
+
+        return new HandshakeCountingSocketFactory(delegate);
+    }
+
+    private static Socket listenForHandshake(Socket socket)
+    {
+        if (socket instanceof SSLSocket)
+        {
+            // Any session created before this socket was cannot have been negotiated by this socket's handshake
+            final long socketCreationTimeMillis = System.currentTimeMillis();
+            ((SSLSocket) socket).addHandshakeCompletedListener(event -> onHandshakeCompleted(event, socketCreationTimeMillis));
+        }
+
+        return socket;
+    }
+
+    private static void onHandshakeCompleted(HandshakeCompletedEvent event, long socketCreationTimeMillis)
+    {
+        if (event.getSession().getCreationTime() < socketCreationTimeMillis)
+        {
+            long count = resumedHandshakeCount.incrementAndGet();
+            log.trace("Resumed TLS session with {}, {} resumed handshakes so far", event.getSession().getPeerHost(), count);
+        }
+        else
+        {
+            long count = fullHandshakeCount.incrementAndGet();
+            log.trace("Negotiated new TLS session with {}, {} full handshakes so far", event.getSession().getPeerHost(), count);
+        }
+    }
+
+    private static final class HandshakeCountingSocketFactory extends SSLSocketFactory
+    {
+        private final SSLSocketFactory delegate;
+
+        HandshakeCountingSocketFactory(SSLSocketFactory delegate)
+        {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String[] getDefaultCipherSuites()
+        {
+            return this.delegate.getDefaultCipherSuites();
+        }
+
+        @Override
+        public String[] getSupportedCipherSuites()
+        {
+            return this.delegate.getSupportedCipherSuites();
+        }
+
+        @Override
+        public Socket createSocket() throws IOException
+        {
+            return listenForHandshake(this.delegate.createSocket());
+        }
+
+        @Override
+        public Socket createSocket(Socket socket, String host, int port, boolean autoClose) throws IOException
+        {
+            return listenForHandshake(this.delegate.createSocket(socket, host, port, autoClose));
+        }
+
+        @Override
+        public Socket createSocket(Socket socket, InputStream consumed, boolean autoClose) throws IOException
+        {
+            return listenForHandshake(this.delegate.createSocket(socket, consumed, autoClose));
+        }
+
+        @Override
+        public Socket createSocket(String host, int port) throws IOException
+        {
+            return listenForHandshake(this.delegate.createSocket(host, port));
+        }
+
+        @Override
+        public Socket createSocket(String host, int port, InetAddress localHost, int localPort) throws IOException
+        {
+            return listenForHandshake(this.delegate.createSocket(host, port, localHost, localPort));
+        }
+
+        @Override
+        public Socket createSocket(InetAddress host, int port) throws IOException
+        {
+            return listenForHandshake(this.delegate.createSocket(host, port));
+        }
+
+        @Override
+        public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort) throws IOException
+        {
+            return listenForHandshake(this.delegate.createSocket(address, port, localAddress, localPort));
+        }
+    }
+}
@@ -452,7 +452,7 @@ public final class AmqpsIotHubConnection extends BaseHandler implements IotHubTr
             {
                 // This should only be hit when a user creates a multiplexing client and doesn't specify an SSLContext
                 // that they want to use
-                sslContext = new IotHubSSLContext().getSSLContext();
+                sslContext = IotHubSSLContext.getSharedDefaultInstance().getSSLContext();
             }
 
             if (this.authenticationType == ClientConfiguration.AuthType.SAS_TOKEN)
@@ -465,7 +465,11 @@ public final class AmqpsIotHubConnection extends BaseHandler implements IotHubTr
             domain.setSslContext(sslContext);
             domain.setPeerAuthentication(SslDomain.VerifyMode.VERIFY_PEER);
             domain.init(SslDomain.Mode.CLIENT);
-            transport.ssl(domain);
+
+            // Without peer details, proton-j creates its SSLEngine without a host and port, which prevents the SSLContext
+            // from resuming a previously negotiated TLS session when this connection is re-established.
+            int tlsPort = this.isWebsocketConnection ? WEB_SOCKET_PORT : AMQP_PORT;
+            transport.ssl(domain, Proton.sslPeerDetails(this.hostName, tlsPort));
         }
         catch (IOException e)
         {
@@ -5,18 +5,23 @@ package com.microsoft.azure.sdk.iot.device.transport.https;
 
 import com.microsoft.azure.sdk.iot.device.MessageProperty;
 
-import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
-import static org.apache.commons.codec.binary.Base64.encodeBase64String;
-
 
 /**
  * Builds a batched IoT Hub request body as a JSON array. The batched message
  * has a maximum size of 256 kb.
+ *
+ * <p>
+ * The body is written directly as UTF-8 bytes into a single growable buffer. Message bodies are base64 encoded straight
+ * into that buffer, and property names and values are escaped as JSON strings.
+ * </p>
  */
 final class HttpsBatchMessage implements HttpsMessage
 {
@@ -29,63 +34,85 @@ final class HttpsBatchMessage implements HttpsMessage
      */
     private static final String HTTPS_BATCH_CONTENT_TYPE = "application/vnd.microsoft.iothub.json";
 
-    /**
-     * The charset used to encode IoT Hub messages. The server will interpret
-     * the JSON array using UTF-8 by default according to RFC4627.
-     */
-    private static final Charset BATCH_CHARSET = StandardCharsets.UTF_8;
-
-    private static final String BASE_ENCODED_KEY = "\"base64Encoded\"";
-    private static final String BODY = "\"body\"";
-    private static final String KEY_VALUE_SEPARATOR = ":";
-    private static final String PROPERTIES = "\"properties\"";
+    private static final String BODY_PREFIX = "{\"body\":\"";
+    private static final String BASE_ENCODED_SUFFIX = "\",\"base64Encoded\":true";
+    private static final String PROPERTIES_PREFIX = ",\"properties\":{";
 
-    /** The current batched message body. */
-    private final String batchBody;
+    /** The current batched message body, encoded using UTF-8. */
+    private final byte[] batchBody;
 
     /** The current number of messages in the batch. */
-    private int numMsgs;
+    private final int numMsgs;
 
+    /**
+     * Build a single batch containing every message in the provided list.
+     *
+     * @param messageList the messages to batch.
+     * @throws IllegalArgumentException if the batch would exceed the maximum service-bound message size.
+     */
     public HttpsBatchMessage(List<HttpsSingleMessage> messageList) throws IllegalArgumentException
     {
-        StringBuilder batchBodyBuilder = new StringBuilder();
-        batchBodyBuilder.append('[');
-
-        boolean isSubsequentMessage = false;
+        BatchBodyWriter writer = new BatchBodyWriter();
         for (HttpsSingleMessage message : messageList)
         {
-            if (isSubsequentMessage)
-            {
-                batchBodyBuilder.append(','); // comma to separate each object in the json array
-            }
-
-            addJsonToStringBuilder(message, batchBodyBuilder);
-            this.numMsgs++;
-            isSubsequentMessage = true; // the next message, and all subsequent messages, will need a comma before them
+            writer.writeMessage(message);
+            throwIfBatchTooLarge(writer);
         }
 
-        batchBodyBuilder.append(']');
-
-        this.batchBody = batchBodyBuilder.toString();
+        this.batchBody = writer.finish();
+        this.numMsgs = messageList.size();
+    }
 
-        byte[] newBatchBodyBytes = this.batchBody.getBytes(BATCH_CHARSET);
+    private HttpsBatchMessage(byte[] batchBody, int numMsgs)
+    {
+        this.batchBody = batchBody;
+        this.numMsgs = numMsgs;
+    }
 
-        if (newBatchBodyBytes.length > SERVICEBOUND_MESSAGE_MAX_SIZE_BYTES)
+    /**
+     * Split the provided messages into as few batches as possible while keeping each batch under the maximum
+     * service-bound message size. Messages keep their order, both within and across batches.
+     *
+     * @param messageList the messages to batch.
+     * @return the batches, in the order that they should be sent. Contains one empty batch if the list is empty.
+     * @throws IllegalArgumentException if a single message is too large to be sent even in a batch of its own.
+     */
+    static List<HttpsBatchMessage> createBatches(List<HttpsSingleMessage> messageList) throws IllegalArgumentException
+    {
+        List<HttpsBatchMessage> batches = new ArrayList<>();
+        BatchBodyWriter writer = new BatchBodyWriter();
+        for (HttpsSingleMessage message : messageList)
         {
-            String errMsg = String.format("Service-bound message size (%d bytes) cannot exceed %d bytes.",
-                newBatchBodyBytes.length, SERVICEBOUND_MESSAGE_MAX_SIZE_BYTES);
-            throw new IllegalArgumentException(errMsg);
+            int messageStart = writer.size();
+            writer.writeMessage(message);
+
+            if (writer.closedSize() > SERVICEBOUND_MESSAGE_MAX_SIZE_BYTES && writer.getMessageCount() > 1)
+            {
+                // This message doesn't fit in the current batch, so close that batch without it and start the next
+                // batch with this message instead
+                writer.truncate(messageStart);
+                batches.add(new HttpsBatchMessage(writer.finish(), writer.getMessageCount()));
+
+                writer = new BatchBodyWriter();
+                writer.writeMessage(message);
+            }
+
+            throwIfBatchTooLarge(writer);
         }
+
+        batches.add(new HttpsBatchMessage(writer.finish(), writer.getMessageCount()));
+        return batches;
     }
 
     /**
-     * Returns the current batch body as a UTF-8 encoded byte array.
+     * Returns the current batch body as a UTF-8 encoded byte array. The returned array is shared, so it must not be
+     * modified.
      *
      * @return the current batch body as a UTF-8 encoded byte array.
      */
     public byte[] getBody()
     {
-        return this.batchBody.getBytes(BATCH_CHARSET);
+        return this.batchBody;
     }
 
     /**
@@ -129,43 +156,263 @@ final class HttpsBatchMessage implements HttpsMessage
         return this.numMsgs;
     }
 
+    private static void throwIfBatchTooLarge(BatchBodyWriter writer)
+    {
+        if (writer.closedSize() > SERVICEBOUND_MESSAGE_MAX_SIZE_BYTES)
+        {
+            String errMsg = String.format("Service-bound message size (%d bytes) cannot exceed %d bytes.",
+                writer.closedSize(), SERVICEBOUND_MESSAGE_MAX_SIZE_BYTES);
+            throw new IllegalArgumentException(errMsg);
+        }
+    }
+
     /**
-     * Converts a service-bound message to a JSON object with the correct
-     * format.
-     *
-     * @param msg the message to be converted to a corresponding JSON object.
+     * Writes the JSON array of a batch as UTF-8 bytes into a growable buffer. The opening bracket is written on
+     * construction and the closing bracket by {@link #finish()}.
      */
-    private static void addJsonToStringBuilder(HttpsSingleMessage msg, StringBuilder jsonStringBuilder)
+    private static final class BatchBodyWriter
     {
-        jsonStringBuilder.append('{' + BODY + KEY_VALUE_SEPARATOR);
-        jsonStringBuilder.append('\"').append(encodeBase64String(msg.getBody())).append("\",");
-        jsonStringBuilder.append(BASE_ENCODED_KEY + KEY_VALUE_SEPARATOR);
-        jsonStringBuilder.append(true);
-        MessageProperty[] properties = msg.getProperties();
-        Map<String, String> allProperties = new HashMap<>(msg.getSystemProperties());
-        for (MessageProperty p : properties)
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private static final byte[] BASE64_ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes(StandardCharsets.US_ASCII);
+
+        private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+        private byte[] buffer = new byte[INITIAL_CAPACITY];
+        private int size;
+        private int messageCount;
+
+        BatchBodyWriter()
+        {
+            writeByte('[');
+        }
+
+        /**
+         * @return the number of bytes written so far.
+         */
+        int size()
+        {
+            return this.size;
+        }
+
+        /**
+         * @return the number of bytes that the batch would be once its closing bracket was written.
+         */
+        int closedSize()
+        {
+            return this.size + 1;
+        }
+
+        int getMessageCount()
         {
-            allProperties.put(p.getName(), p.getValue());
+            return this.messageCount;
         }
 
-        int numProperties = allProperties.size();
-        if (numProperties > 0)
+        /**
+         * Discard everything written after the provided position, which must be the size of this writer from just
+         * before the most recent message was written.
+         */
+        void truncate(int position)
         {
-            jsonStringBuilder.append(',');
-            jsonStringBuilder.append(PROPERTIES + KEY_VALUE_SEPARATOR);
-            jsonStringBuilder.append('{');
-            for (String key : allProperties.keySet())
+            this.size = position;
+            this.messageCount--;
+        }
+
+        byte[] finish()
+        {
+            writeByte(']');
+            return Arrays.copyOf(this.buffer, this.size);
+        }
+
+        /**
+         * Converts a service-bound message to a JSON object with the correct format, and appends it to the array.
+         *
+         * @param msg the message to be converted to a corresponding JSON object.
+         */
+        void writeMessage(HttpsSingleMessage msg)
+        {
+            if (this.messageCount > 0)
+            {
+                writeByte(','); // comma to separate each object in the json array
+            }
+
+            writeAscii(BODY_PREFIX);
+            writeBase64(msg.getBody());
+            writeAscii(BASE_ENCODED_SUFFIX);
+
+            // Application properties take precedence over system properties of the same name
+            Map<String, String> allProperties = new LinkedHashMap<>();
+            if (msg.getSystemProperties() != null)
+            {
+                allProperties.putAll(msg.getSystemProperties());
+            }
+
+            if (msg.getProperties() != null)
+            {
+                for (MessageProperty property : msg.getProperties())
+                {
+                    allProperties.put(property.getName(), property.getValue());
+                }
+            }
+
+            if (!allProperties.isEmpty())
+            {
+                writeAscii(PROPERTIES_PREFIX);
+                boolean isSubsequentProperty = false;
+                for (Map.Entry<String, String> property : allProperties.entrySet())
+                {
+                    if (isSubsequentProperty)
+                    {
+                        writeByte(',');
+                    }
+
+                    writeJsonString(property.getKey());
+                    writeByte(':');
+                    writeJsonString(String.valueOf(property.getValue()));
+                    isSubsequentProperty = true;
+                }
+
+                writeByte('}');
+            }
+
+            writeByte('}');
+            this.messageCount++;
+        }
+
+        private void ensureCapacity(int additionalBytes)
+        {
+            int requiredCapacity = this.size + additionalBytes;
+            if (requiredCapacity > this.buffer.length)
+            {
+                this.buffer = Arrays.copyOf(this.buffer, Math.max(requiredCapacity, this.buffer.length * 2));
+            }
+        }
+
+        private void writeByte(int b)
+        {
+            ensureCapacity(1);
+            this.buffer[this.size++] = (byte) b;
+        }
+
+        private void writeAscii(String value)
+        {
+            ensureCapacity(value.length());
+            for (int i = 0; i < value.length(); i++)
             {
-                jsonStringBuilder.append('\"').append(key).append("\":");
-                jsonStringBuilder.append('\"').append(allProperties.get(key)).append("\",");
+                this.buffer[this.size++] = (byte) value.charAt(i);
             }
+        }
 
-            //remove last trailing comma
-            jsonStringBuilder.deleteCharAt(jsonStringBuilder.length()-1);
+        // Standard base64 with padding and no line breaks, the same as commons-codec's encodeBase64String
+        private void writeBase64(byte[] data)
+        {
+            if (data == null)
+            {
+                return;
+            }
+
+            ensureCapacity(((data.length + 2) / 3) * 4);
+
+            int i = 0;
+            for (; i + 2 < data.length; i += 3)
+            {
+                int bits = (data[i] & 0xff) << 16 | (data[i + 1] & 0xff) << 8 | (data[i + 2] & 0xff);
+                this.buffer[this.size++] = BASE64_ALPHABET[bits >>> 18];
+                this.buffer[this.size++] = BASE64_ALPHABET[(bits >>> 12) & 0x3f];
+                this.buffer[this.size++] = BASE64_ALPHABET[(bits >>> 6) & 0x3f];
+                this.buffer[this.size++] = BASE64_ALPHABET[bits & 0x3f];
+            }
 
-            jsonStringBuilder.append('}');
+            int remaining = data.length - i;
+            if (remaining > 0)
+            {
+                int bits = (data[i] & 0xff) << 16 | (remaining == 2 ? (data[i + 1] & 0xff) << 8 : 0);
+                this.buffer[this.size++] = BASE64_ALPHABET[bits >>> 18];
+                this.buffer[this.size++] = BASE64_ALPHABET[(bits >>> 12) & 0x3f];
+                this.buffer[this.size++] = remaining == 2 ? BASE64_ALPHABET[(bits >>> 6) & 0x3f] : (byte) '=';
+                this.buffer[this.size++] = '=';
+            }
+        }
+
+        // Writes the value as a quoted JSON string, escaping it as described in RFC 8259 and encoding it as UTF-8
+        private void writeJsonString(String value)
+        {
+            // Each char takes at most 6 bytes once escaped or encoded, plus the two quotes
+            ensureCapacity(value.length() * 6 + 2);
+
+            this.buffer[this.size++] = '"';
+            for (int i = 0; i < value.length(); i++)
+            {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\')
+                {
+                    this.buffer[this.size++] = '\\';
+                    this.buffer[this.size++] = (byte) c;
+                }
+                else if (c < 0x20)
+                {
+                    writeEscapedControlCharacter(c);
+                }
+                else if (c < 0x80)
+                {
+                    this.buffer[this.size++] = (byte) c;
+                }
+                else if (c < 0x800)
+                {
+                    this.buffer[this.size++] = (byte) (0xc0 | (c >>> 6));
+                    this.buffer[this.size++] = (byte) (0x80 | (c & 0x3f));
+                }
+                else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1)))
+                {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    this.buffer[this.size++] = (byte) (0xf0 | (codePoint >>> 18));
+                    this.buffer[this.size++] = (byte) (0x80 | ((codePoint >>> 12) & 0x3f));
+                    this.buffer[this.size++] = (byte) (0x80 | ((codePoint >>> 6) & 0x3f));
+                    this.buffer[this.size++] = (byte) (0x80 | (codePoint & 0x3f));
+                }
+                else if (Character.isSurrogate(c))
+                {
+                    // Unpaired surrogates can't be encoded, so replace them the same way that String.getBytes does
+                    this.buffer[this.size++] = '?';
+                }
+                else
+                {
+                    this.buffer[this.size++] = (byte) (0xe0 | (c >>> 12));
+                    this.buffer[this.size++] = (byte) (0x80 | ((c >>> 6) & 0x3f));
+                    this.buffer[this.size++] = (byte) (0x80 | (c & 0x3f));
+                }
+            }
+            this.buffer[this.size++] = '"';
         }
 
-        jsonStringBuilder.append('}');
+        private void writeEscapedControlCharacter(char c)
+        {
+            this.buffer[this.size++] = '\\';
+            switch (c)
+            {
+                case '\b':
+                    this.buffer[this.size++] = 'b';
+                    break;
+                case '\f':
+                    this.buffer[this.size++] = 'f';
+                    break;
+                case '\n':
+                    this.buffer[this.size++] = 'n';
+                    break;
+                case '\r':
+                    this.buffer[this.size++] = 'r';
+                    break;
+                case '\t':
+                    this.buffer[this.size++] = 't';
+                    break;
+                default:
+                    this.buffer[this.size++] = 'u';
+                    this.buffer[this.size++] = '0';
+                    this.buffer[this.size++] = '0';
+                    this.buffer[this.size++] = HEX_DIGITS[c >>> 4];
+                    this.buffer[this.size++] = HEX_DIGITS[c & 0xf];
+            }
+        }
     }
 }
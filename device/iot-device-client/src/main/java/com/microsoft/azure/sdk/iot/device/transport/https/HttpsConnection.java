@@ -6,9 +6,11 @@ package com.microsoft.azure.sdk.iot.device.transport.https;
 import com.microsoft.azure.sdk.iot.device.ProxySettings;
 import com.microsoft.azure.sdk.iot.device.transport.TransportException;
 import com.microsoft.azure.sdk.iot.device.transport.HttpProxySocketFactory;
+import com.microsoft.azure.sdk.iot.device.transport.TlsHandshakeStatistics;
 
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocketFactory;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.*;
@@ -375,13 +377,14 @@ public class HttpsConnection
         }
         if (this.connection instanceof HttpsURLConnection)
         {
+            SSLSocketFactory socketFactory = TlsHandshakeStatistics.withHandshakeCounting(sslContext.getSocketFactory());
             if (this.proxySettings != null)
             {
-                ((HttpsURLConnection)this.connection).setSSLSocketFactory(new HttpProxySocketFactory(sslContext.getSocketFactory(), proxySettings));
+                ((HttpsURLConnection)this.connection).setSSLSocketFactory(new HttpProxySocketFactory(socketFactory, proxySettings));
             }
             else
             {
-                ((HttpsURLConnection)this.connection).setSSLSocketFactory(sslContext.getSocketFactory());
+                ((HttpsURLConnection)this.connection).setSSLSocketFactory(socketFactory);
             }
         }
         else
@@ -16,6 +16,7 @@ import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -77,19 +78,21 @@ public class HttpsIotHubConnection implements IotHubTransportConnection
     {
         synchronized (HTTPS_CONNECTION_LOCK)
         {
-            // Here we check if it's a bulk message and serialize it.
-            HttpsMessage httpsMessage;
+            // Here we check if it's a bulk message and serialize it. Batches that are too large for a single request are
+            // split into several requests, which are sent in order. Only the messages that an earlier attempt didn't
+            // deliver are sent.
+            List<? extends HttpsMessage> httpsMessages;
 
             if (message instanceof BatchMessage)
             {
                 try
                 {
                     List<HttpsSingleMessage> httpsMessageList = new ArrayList<>();
-                    for (Message msg : ((BatchMessage)message).getNestedMessages())
+                    for (Message msg : ((BatchMessage)message).getUndeliveredNestedMessages())
                     {
                         httpsMessageList.add(HttpsSingleMessage.parseHttpsMessage(msg));
                     }
-                    httpsMessage = new HttpsBatchMessage(httpsMessageList);
+                    httpsMessages = HttpsBatchMessage.createBatches(httpsMessageList);
                 }
                 catch (IllegalArgumentException e)
                 {
@@ -98,59 +101,28 @@ public class HttpsIotHubConnection implements IotHubTransportConnection
             }
             else
             {
-                httpsMessage = HttpsSingleMessage.parseHttpsMessage(message);
+                httpsMessages = Collections.singletonList(HttpsSingleMessage.parseHttpsMessage(message));
             }
 
-            String iotHubHostname = getHostName();
-            String deviceId = this.config.getDeviceId();
-            String moduleId = this.config.getModuleId();
-
-            IotHubEventUri iotHubEventUri = new IotHubEventUri(iotHubHostname, deviceId, moduleId);
-
-            URL eventUrl = this.buildUrlFromString(HTTPS_HEAD_TAG + iotHubEventUri.toString());
-
-            HttpsRequest request = new HttpsRequest(eventUrl, HttpsMethod.POST, httpsMessage.getBody(), this.config.getProductInfo().getUserAgentString(), config.getProxySettings());
-
-            for (MessageProperty property : httpsMessage.getProperties())
+            HttpsMessage httpsMessage = null;
+            IotHubStatusCode status = IotHubStatusCode.OK;
+            for (int i = 0; i < httpsMessages.size() && status == IotHubStatusCode.OK; i++)
             {
-                request.setHeaderField(property.getName(),
-                        property.getValue());
-            }
-
-            if (message.getContentEncoding() != null)
-            {
-                request.setHeaderField(MessageProperty.IOTHUB_CONTENT_ENCODING, message.getContentEncoding());
-            }
-
-            if (message.getContentType() != null)
-            {
-                request.setHeaderField(MessageProperty.IOTHUB_CONTENT_TYPE, message.getContentType());
-            }
-
-            if (message.getCreationTimeUTC() != null)
-            {
-                request.setHeaderField(MessageProperty.IOTHUB_CREATION_TIME_UTC, message.getCreationTimeUTCString());
-            }
+                httpsMessage = httpsMessages.get(i);
+                if (httpsMessages.size() > 1)
+                {
+                    log.debug("Sending part {} of {} of a batch message that was too large for a single request ({})", i + 1, httpsMessages.size(), message);
+                }
 
-            if (message.isSecurityMessage())
-            {
-                request.setHeaderField(MessageProperty.IOTHUB_SECURITY_INTERFACE_ID, MessageProperty.IOTHUB_SECURITY_INTERFACE_ID_VALUE);
-            }
+                status = sendEventRequest(message, httpsMessage);
 
-            Map<String, String> systemProperties = httpsMessage.getSystemProperties();
-            for (String systemProperty : systemProperties.keySet())
-            {
-                request.setHeaderField(systemProperty, systemProperties.get(systemProperty));
+                if (status == IotHubStatusCode.OK && message instanceof BatchMessage)
+                {
+                    // If a later part fails, the batch is retried without the messages of this part
+                    ((BatchMessage) message).markNestedMessagesDelivered(((HttpsBatchMessage) httpsMessage).numMessages());
+                }
             }
 
-            request.setHeaderField(HTTPS_PROPERTY_IOTHUB_TO_TAG, iotHubEventUri.getPath())
-                    .setHeaderField(HTTPS_PROPERTY_CONTENT_TYPE_TAG, httpsMessage.getContentType());
-
-            log.trace("Sending message using http request ({})", message);
-            HttpsResponse response = this.sendRequest(request);
-            IotHubStatusCode status = IotHubStatusCode.getIotHubStatusCode(response.getStatus());
-            log.trace("Iot Hub responded to http message for iot hub message ({}) with status code {}", message, status);
-
             IotHubTransportMessage transportMessage = new IotHubTransportMessage(httpsMessage.getBody(), message.getMessageType(), message.getMessageId(), message.getCorrelationId(), message.getProperties());
             if (status == IotHubStatusCode.OK)
             {
@@ -164,6 +136,60 @@ public class HttpsIotHubConnection implements IotHubTransportConnection
         }
     }
 
+    private IotHubStatusCode sendEventRequest(Message message, HttpsMessage httpsMessage) throws TransportException
+    {
+        String iotHubHostname = getHostName();
+        String deviceId = this.config.getDeviceId();
+        String moduleId = this.config.getModuleId();
+
+        IotHubEventUri iotHubEventUri = new IotHubEventUri(iotHubHostname, deviceId, moduleId);
+
+        URL eventUrl = this.buildUrlFromString(HTTPS_HEAD_TAG + iotHubEventUri.toString());
+
+        HttpsRequest request = new HttpsRequest(eventUrl, HttpsMethod.POST, httpsMessage.getBody(), this.config.getProductInfo().getUserAgentString(), config.getProxySettings());
+
+        for (MessageProperty property : httpsMessage.getProperties())
+        {
+            request.setHeaderField(property.getName(),
+                    property.getValue());
+        }
+
+        if (message.getContentEncoding() != null)
+        {
+            request.setHeaderField(MessageProperty.IOTHUB_CONTENT_ENCODING, message.getContentEncoding());
+        }
+
+        if (message.getContentType() != null)
+        {
+            request.setHeaderField(MessageProperty.IOTHUB_CONTENT_TYPE, message.getContentType());
+        }
+
+        if (message.getCreationTimeUTC() != null)
+        {
+            request.setHeaderField(MessageProperty.IOTHUB_CREATION_TIME_UTC, message.getCreationTimeUTCString());
+        }
+
+        if (message.isSecurityMessage())
+        {
+            request.setHeaderField(MessageProperty.IOTHUB_SECURITY_INTERFACE_ID, MessageProperty.IOTHUB_SECURITY_INTERFACE_ID_VALUE);
+        }
+
+        Map<String, String> systemProperties = httpsMessage.getSystemProperties();
+        for (String systemProperty : systemProperties.keySet())
+        {
+            request.setHeaderField(systemProperty, systemProperties.get(systemProperty));
+        }
+
+        request.setHeaderField(HTTPS_PROPERTY_IOTHUB_TO_TAG, iotHubEventUri.getPath())
+                .setHeaderField(HTTPS_PROPERTY_CONTENT_TYPE_TAG, httpsMessage.getContentType());
+
+        log.trace("Sending message using http request ({})", message);
+        HttpsResponse response = this.sendRequest(request);
+        IotHubStatusCode status = IotHubStatusCode.getIotHubStatusCode(response.getStatus());
+        log.trace("Iot Hub responded to http message for iot hub message ({}) with status code {}", message, status);
+        return status;
+    }
+
     /**
      * Sends an generic https message.
      *
@@ -199,7 +199,7 @@ public class MqttIotHubConnection implements IotHubTransportConnection, MqttMess
             }
             else if (proxySettings.getProxy().type() == Proxy.Type.HTTP)
             {
-                connectOptions.setSocketFactory(new HttpProxySocketFactory(sslContext.getSocketFactory(), proxySettings));
+                connectOptions.setSocketFactory(new HttpProxySocketFactory(TlsHandshakeStatistics.withHandshakeCounting(sslContext.getSocketFactory()), proxySettings));
             }
             else
             {
@@ -208,7 +208,7 @@ public class MqttIotHubConnection implements IotHubTransportConnection, MqttMess
         }
         else
         {
-            connectOptions.setSocketFactory(sslContext.getSocketFactory());
+            connectOptions.setSocketFactory(TlsHandshakeStatistics.withHandshakeCounting(sslContext.getSocketFactory()));
         }
 
         // these variables are shared between the messaging, twin and method subclients
@@ -19,11 +19,24 @@ import static com.microsoft.azure.sdk.iot.device.IotHubMessageResult.COMPLETE;
 public class DeviceTwin implements MessageCallback
 {
     private final InternalClient client;
+    private final TwinMirror twinMirror; // may be null
 
     private DesiredPropertiesCallback desiredPropertiesCallback;
     private Object desiredPropertiesUpdateCallbackContext; // may be null
 
     public DeviceTwin(InternalClient client)
+    {
+        this(client, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param client the client that this twin belongs to.
+     * @param twinMirror the mirror to keep up to date with the twin and to serve getTwin requests from. May be null if
+     * the client does not mirror its twin.
+     */
+    public DeviceTwin(InternalClient client, TwinMirror twinMirror)
     {
         if (client == null)
         {
@@ -31,6 +44,7 @@ public class DeviceTwin implements MessageCallback
         }
 
         this.client = client;
+        this.twinMirror = twinMirror;
         this.client.getConfig().setDeviceTwinMessageCallback(this, null);
     }
 
@@ -48,6 +62,12 @@ public class DeviceTwin implements MessageCallback
         if (dtMessage.getDeviceOperationType() == DeviceOperations.DEVICE_OPERATION_TWIN_SUBSCRIBE_DESIRED_PROPERTIES_RESPONSE)
         {
             Twin twin = Twin.createFromDesiredPropertyJson(new String(dtMessage.getBytes(), Message.DEFAULT_IOTHUB_MESSAGE_CHARSET));
+
+            if (this.twinMirror != null && this.twinMirror.applyDesiredPropertiesUpdate(twin.getDesiredProperties()))
+            {
+                resynchronizeTwinMirror();
+            }
+
             this.desiredPropertiesCallback.onDesiredPropertiesUpdated(twin, desiredPropertiesUpdateCallbackContext);
         }
 
@@ -65,6 +85,71 @@ public class DeviceTwin implements MessageCallback
 
         Objects.requireNonNull(twinCallback, "Must provide a non-null callback for receiving the twin");
 
+        if (this.twinMirror != null)
+        {
+            Twin mirroredTwin = this.twinMirror.getTwin();
+            if (mirroredTwin != null)
+            {
+                // No request is sent, so there is no message to report on and the only callback to execute is this one
+                log.trace("Serving getTwin request from the twin mirror");
+                twinCallback.onResponseReceived(mirroredTwin, null, callbackContext, IotHubStatusCode.OK, null);
+                return;
+            }
+        }
+
+        sendGetTwinRequest(twinCallback, callbackContext);
+    }
+
+    private void resynchronizeTwinMirror()
+    {
+        log.debug("Getting the full twin to resynchronize the twin mirror");
+        sendGetTwinRequest(new GetTwinCorrelatingMessageCallback()
+        {
+            @Override
+            public void onRequestQueued(Message message, Object callbackContext)
+            {
+                // no action needed, the mirror only cares about the response
+            }
+
+            @Override
+            public void onRequestSent(Message message, Object callbackContext)
+            {
+                // no action needed, the mirror only cares about the response
+            }
+
+            @Override
+            public void onRequestAcknowledged(Message message, Object callbackContext, IotHubClientException e)
+            {
+                if (e != null)
+                {
+                    log.debug("Failed to send the request to resynchronize the twin mirror", e);
+                    twinMirror.onResynchronizationFailed();
+                }
+            }
+
+            @Override
+            public void onResponseReceived(Twin twin, Message message, Object callbackContext, IotHubStatusCode statusCode, IotHubClientException e)
+            {
+                // a successful response has already been given to the mirror before this callback is executed
+                if (e != null || statusCode != IotHubStatusCode.OK)
+                {
+                    log.debug("Failed to get the full twin to resynchronize the twin mirror. Status code {}", statusCode, e);
+                    twinMirror.onResynchronizationFailed();
+                }
+            }
+
+            @Override
+            public void onResponseAcknowledged(Message message, Object callbackContext)
+            {
+                // no action needed, the mirror only cares about the response
+            }
+        }, null);
+    }
+
+    private void sendGetTwinRequest(
+        GetTwinCorrelatingMessageCallback twinCallback,
+        Object callbackContext)
+    {
         IotHubTransportMessage getTwinRequestMessage = new IotHubTransportMessage(new byte[0], MessageType.DEVICE_TWIN);
         getTwinRequestMessage.setRequestId(UUID.randomUUID().toString());
         getTwinRequestMessage.setCorrelationId(getTwinRequestMessage.getRequestId());
@@ -94,7 +179,14 @@ public class DeviceTwin implements MessageCallback
             {
                 int status = Integer.parseInt(((IotHubTransportMessage) message).getStatus());
                 Twin twin = Twin.createFromPropertiesJson(new String(message.getBytes(), Message.DEFAULT_IOTHUB_MESSAGE_CHARSET));
-                twinCallback.onResponseReceived(twin, message, callbackContext, IotHubStatusCode.getIotHubStatusCode(status), e);
+                IotHubStatusCode statusCode = IotHubStatusCode.getIotHubStatusCode(status);
+
+                if (twinMirror != null && e == null && statusCode == IotHubStatusCode.OK)
+                {
+                    twinMirror.setTwin(twin);
+                }
+
+                twinCallback.onResponseReceived(twin, message, callbackContext, statusCode, e);
             }
 
             @Override
@@ -127,6 +219,9 @@ public class DeviceTwin implements MessageCallback
 
         String serializedReportedProperties = reportedProperties.toJsonElement().toString();
 
+        // copied so that changes the user makes to the collection after this call don't leak into the mirror
+        final TwinCollection reportedPropertiesToMirror = this.twinMirror != null ? new TwinCollection(reportedProperties) : null;
+
         IotHubTransportMessage updateReportedPropertiesRequest = new IotHubTransportMessage(serializedReportedProperties.getBytes(StandardCharsets.UTF_8), MessageType.DEVICE_TWIN);
         updateReportedPropertiesRequest.setConnectionDeviceId(this.client.getConfig().getDeviceId());
 
@@ -188,6 +283,11 @@ public class DeviceTwin implements MessageCallback
                     iotHubStatus = IotHubStatusCode.getIotHubStatusCode(Integer.parseInt(status));
                 }
 
+                if (reportedPropertiesToMirror != null && e == null && iotHubStatus == IotHubStatusCode.OK)
+                {
+                    twinMirror.applyReportedPropertiesUpdate(reportedPropertiesToMirror, dtMessage.getVersion());
+                }
+
                 if (reportedPropertiesUpdateCorrelatingMessageCallback != null)
                 {
                     log.trace("Executing twin status callback for device operation twin update reported properties response with status " + iotHubStatus);
@@ -3,7 +3,7 @@
 
 package com.microsoft.azure.sdk.iot.device.twin;
 
-import com.google.gson.GsonBuilder;
+import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
@@ -15,6 +15,8 @@ import lombok.AllArgsConstructor;
 @AllArgsConstructor(access = AccessLevel.PACKAGE)
 public class DirectMethodPayload
 {
+    private static final Gson gson = new Gson();
+
     private JsonElement methodPayload;
 
     /**
@@ -43,6 +45,6 @@ public class DirectMethodPayload
      */
     public <T> T getPayload(Class<T> clazz)
     {
-        return new GsonBuilder().create().fromJson(methodPayload, clazz);
+        return gson.fromJson(methodPayload, clazz);
     }
 }
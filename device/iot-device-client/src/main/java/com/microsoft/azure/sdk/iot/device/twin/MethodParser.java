@@ -25,6 +25,8 @@ import java.util.Set;
  */
 public class MethodParser
 {
+    private static final Gson gson = new Gson();
+
     protected enum Operation
     {
         invoke,
@@ -149,10 +151,9 @@ public class MethodParser
             throw new IllegalArgumentException("Invalid json.");
         }
 
-        JsonParser jsonParser = new JsonParser();
         try
         {
-            JsonElement jsonElement = jsonParser.parse(json);
+            JsonElement jsonElement = JsonParser.parseString(json);
             if (jsonElement instanceof JsonPrimitive || jsonElement instanceof JsonArray)
             {
                 /*
@@ -271,7 +272,7 @@ public class MethodParser
             return new JsonObject();
         }
 
-        JsonElement jsonElement = new JsonParser().parse(json);
+        JsonElement jsonElement = JsonParser.parseString(json);
         return jsonElement;
     }
 
@@ -320,11 +321,10 @@ public class MethodParser
         }
         else
         {
-            JsonParser parser = new JsonParser();
             try
             {
                 String json = payload.toString();
-                JsonElement jsonElement = parser.parse(json);
+                JsonElement jsonElement = JsonParser.parseString(json);
                 if (jsonElement.isJsonNull())
                 {
                     return new JsonPrimitive(json);
@@ -336,7 +336,7 @@ public class MethodParser
             }
             catch (JsonSyntaxException e)
             {
-                return new Gson().toJsonTree(payload);
+                return gson.toJsonTree(payload);
             }
         }
     }
@@ -30,6 +30,8 @@ import java.util.TimeZone;
 @SuppressWarnings("unchecked")
 public class ParserUtility
 {
+    private static final Gson gson = new GsonBuilder().serializeNulls().create();
+
     private static final String DATEFORMAT = "yyyy-MM-dd'T'HH:mm:ss";
     private static final String OFFSETFORMAT = "yyyy-MM-dd'T'HH:mm:ssXXX";
 
@@ -310,7 +312,6 @@ public class ParserUtility
      */
     public static JsonElement mapToJsonElement(Map<String, Object> map) throws IllegalArgumentException
     {
-        Gson gson = new GsonBuilder().serializeNulls().create();
         JsonObject json = new JsonObject();
 
         if (map == null)
@@ -0,0 +1,257 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.azure.sdk.iot.device.twin;
+
+import com.microsoft.azure.sdk.iot.device.InternalClient;
+import com.microsoft.azure.sdk.iot.device.IotHubStatusCode;
+import com.microsoft.azure.sdk.iot.device.exceptions.IotHubClientException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends reported property updates for a client, combining the updates made within a window of time into a single
+ * request.
+ *
+ * <p>
+ * The first update after a request is sent starts a new window. Every update made before the window closes is merged
+ * into the pending request key by key. Later values replace earlier ones, and nested collections are merged rather than
+ * replaced, just as the service would apply the same updates one after the other. When the window closes, the merged
+ * properties are sent as one request and every update that was merged into it is completed with that request's result
+ * and new reported properties version.
+ * </p>
+ *
+ * <p>
+ * This reduces the number of requests made by clients that update their reported properties frequently, which keeps
+ * them from being throttled. The client must have subscribed to desired properties before any updates are sent.
+ * </p>
+ *
+ * <p>
+ * Updates that have their version set are never merged. Any pending updates are sent first and the versioned update
+ * is then sent on its own. The same goes for an update that sets a property to a collection when the pending updates
+ * delete that property, since a single request would merge the collection into the property's current value instead of
+ * replacing it.
+ * </p>
+ *
+ * <p>
+ * This class is thread safe.
+ * </p>
+ */
+@Slf4j
+public final class ReportedPropertiesWriter implements Closeable
+{
+    private static final String THREAD_NAME = "azure-iot-sdk-ReportedPropertiesWriter";
+
+    private final InternalClient client;
+    private final long coalescingWindowMilliseconds;
+    private final ScheduledExecutorService scheduler;
+
+    private final Object pendingUpdateLock = new Object();
+    private TwinCollection pendingUpdate;
+    private List<PendingCallback> pendingCallbacks = new ArrayList<>();
+    private ScheduledFuture<?> scheduledFlush;
+    private boolean isClosed;
+
+    /**
+     * Create a writer that sends the reported property updates of the provided client.
+     *
+     * @param client the client whose reported properties will be updated.
+     * @param coalescingWindowMilliseconds how long to wait after the first update of a request before sending it, to
+     * allow for more updates to be merged into it. Must be greater than 0.
+     */
+    public ReportedPropertiesWriter(InternalClient client, long coalescingWindowMilliseconds)
+    {
+        Objects.requireNonNull(client, "client cannot be null");
+
+        if (coalescingWindowMilliseconds <= 0)
+        {
+            throw new IllegalArgumentException("coalescingWindowMilliseconds must be greater than 0");
+        }
+
+        this.client = client;
+        this.coalescingWindowMilliseconds = coalescingWindowMilliseconds;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Merge the provided reported properties into the next request.
+     *
+     * @param reportedProperties The reported property key/value pairs to add/update in the twin. To delete a particular
+     * reported property, set the value to null.
+     * @param reportedPropertiesCallback The callback to be executed once the request that these properties were sent in
+     * has been acknowledged by the service. May be null.
+     * @param callbackContext The context that will be included in the callback of reportedPropertiesCallback. May be null.
+     * @throws IllegalStateException if this writer has been closed.
+     */
+    public void updateReportedPropertiesAsync(
+        TwinCollection reportedProperties,
+        ReportedPropertiesCallback reportedPropertiesCallback,
+        Object callbackContext)
+            throws IllegalStateException
+    {
+        Objects.requireNonNull(reportedProperties, "Reported properties cannot be null");
+
+        synchronized (this.pendingUpdateLock)
+        {
+            if (this.isClosed)
+            {
+                throw new IllegalStateException("Cannot update reported properties after the writer has been closed");
+            }
+
+            if (reportedProperties.getVersion() != null)
+            {
+                sendPendingUpdate();
+
+                List<PendingCallback> callbacks = new ArrayList<>();
+                callbacks.add(new PendingCallback(reportedPropertiesCallback, callbackContext));
+                send(new TwinCollection(reportedProperties), callbacks);
+                return;
+            }
+
+            if (this.pendingUpdate != null && !Tools.canMergeTwinCollection(this.pendingUpdate, reportedProperties))
+            {
+                // The service would merge a collection into the current value of a property that the pending update
+                // deletes rather than replace it, so the pending update is sent first
+                sendPendingUpdate();
+            }
+
+            if (this.pendingUpdate == null)
+            {
+                TwinCollection update = new TwinCollection();
+                this.pendingUpdate = update;
+                this.scheduledFlush = this.scheduler.schedule(() -> flushWindow(update), this.coalescingWindowMilliseconds, TimeUnit.MILLISECONDS);
+            }
+
+            // Null values are kept since they tell the service to delete the property
+            Tools.mergeTwinCollection(this.pendingUpdate, reportedProperties, false);
+            this.pendingCallbacks.add(new PendingCallback(reportedPropertiesCallback, callbackContext));
+        }
+    }
+
+    /**
+     * Send any pending updates now rather than waiting for the current window to close.
+     */
+    public void flush()
+    {
+        synchronized (this.pendingUpdateLock)
+        {
+            sendPendingUpdate();
+        }
+    }
+
+    // Runs when the window of the provided update closes. The update may have already been sent by flush(), in which
+    // case a later window must not be cut short.
+    private void flushWindow(TwinCollection update)
+    {
+        synchronized (this.pendingUpdateLock)
+        {
+            if (this.pendingUpdate == update)
+            {
+                sendPendingUpdate();
+            }
+        }
+    }
+
+    /**
+     * Send any pending updates and stop accepting new ones.
+     */
+    @Override
+    public void close()
+    {
+        synchronized (this.pendingUpdateLock)
+        {
+            if (this.isClosed)
+            {
+                return;
+            }
+
+            sendPendingUpdate();
+            this.isClosed = true;
+        }
+
+        this.scheduler.shutdownNow();
+    }
+
+    // Must be called while holding pendingUpdateLock so that requests are sent in the order they were merged
+    private void sendPendingUpdate()
+    {
+        if (this.pendingUpdate == null)
+        {
+            return;
+        }
+
+        TwinCollection update = this.pendingUpdate;
+        List<PendingCallback> callbacks = this.pendingCallbacks;
+        this.pendingUpdate = null;
+        this.pendingCallbacks = new ArrayList<>();
+
+        // The window of this update is over, so its scheduled flush doesn't need to run
+        this.scheduledFlush.cancel(false);
+        this.scheduledFlush = null;
+
+        if (update.isEmpty())
+        {
+            // Every merged update was empty, so there is nothing to tell the service
+            log.trace("Skipping empty reported properties update");
+            complete(callbacks, IotHubStatusCode.OK, null, null);
+            return;
+        }
+
+        send(update, callbacks);
+    }
+
+    private void send(TwinCollection update, List<PendingCallback> callbacks)
+    {
+        log.trace("Sending reported properties update that merged {} update(s)", callbacks.size());
+
+        try
+        {
+            this.client.updateReportedPropertiesAsync(
+                update,
+                (statusCode, response, e, context) -> complete(callbacks, statusCode, response, e),
+                null);
+        }
+        catch (RuntimeException e)
+        {
+            log.debug("Failed to send reported properties update", e);
+            complete(callbacks, IotHubStatusCode.ERROR, null, new IotHubClientException(IotHubStatusCode.ERROR, "Failed to send reported properties update", e));
+        }
+    }
+
+    private static void complete(List<PendingCallback> callbacks, IotHubStatusCode statusCode, ReportedPropertiesUpdateResponse response, IotHubClientException e)
+    {
+        for (PendingCallback pendingCallback : callbacks)
+        {
+            if (pendingCallback.callback != null)
+            {
+                pendingCallback.callback.onReportedPropertiesUpdateAcknowledged(statusCode, response, e, pendingCallback.context);
+            }
+        }
+    }
+
+    private static final class PendingCallback
+    {
+        private final ReportedPropertiesCallback callback;
+        private final Object context;
+
+        PendingCallback(ReportedPropertiesCallback callback, Object context)
+        {
+            this.callback = callback;
+            this.context = context;
+        }
+    }
+}
@@ -5,6 +5,8 @@
 
 package com.microsoft.azure.sdk.iot.device.twin;
 
+import java.util.Map;
+
 /**
  * Collection of static helper functions
  */
@@ -27,4 +29,75 @@ class Tools
 
         return retVal;
     }
+
+    /**
+     * Helper function to merge a twin update into a twin collection key by key. Later values replace earlier ones,
+     * except that nested collections are merged rather than replaced. Unchecked casts of Maps to Map&lt;String, Object&gt;
+     * are safe since all json keys are Strings.
+     *
+     * @param target The collection to merge the update into
+     * @param update The update to merge
+     * @param removeNullValues If true, null values remove the property from the target, which is how the service applies
+     * a twin update. If false, null values are kept so that they still tell the service to delete the property once the
+     * merged update is sent. In that case, {@link #canMergeTwinCollection(TwinCollection, Map)} must be checked first.
+     */
+    @SuppressWarnings("unchecked")
+    static void mergeTwinCollection(TwinCollection target, Map<String, Object> update, boolean removeNullValues)
+    {
+        for (Map.Entry<String, Object> entry : update.entrySet())
+        {
+            Object currentValue = target.get(entry.getKey());
+            Object newValue = entry.getValue();
+
+            if (newValue == null && removeNullValues)
+            {
+                target.remove(entry.getKey());
+            }
+            else if (newValue instanceof Map && currentValue instanceof TwinCollection)
+            {
+                mergeTwinCollection((TwinCollection) currentValue, (Map<String, Object>) newValue, removeNullValues);
+            }
+            else
+            {
+                // TwinCollection makes its own copy of Map values
+                target.put(entry.getKey(), newValue);
+            }
+        }
+    }
+
+    /**
+     * Helper function to check if a twin update can be merged into a pending twin update that keeps its null values,
+     * without changing what the service does with them. If the pending update deletes a property and the later update
+     * sets that property to a collection, the merged update would only hold the collection, which the service merges
+     * into the property's current value. Applied one after the other, the updates would replace that value instead.
+     *
+     * @param pendingUpdate The pending update, as merged with removeNullValues set to false
+     * @param update The update to merge into the pending update
+     * @return true if the update can be merged into the pending update
+     */
+    @SuppressWarnings("unchecked")
+    static boolean canMergeTwinCollection(TwinCollection pendingUpdate, Map<String, Object> update)
+    {
+        for (Map.Entry<String, Object> entry : update.entrySet())
+        {
+            if (!(entry.getValue() instanceof Map) || !pendingUpdate.containsKey(entry.getKey()))
+            {
+                continue;
+            }
+
+            Object pendingValue = pendingUpdate.get(entry.getKey());
+            if (pendingValue == null)
+            {
+                return false;
+            }
+
+            if (pendingValue instanceof TwinCollection
+                && !canMergeTwinCollection((TwinCollection) pendingValue, (Map<String, Object>) entry.getValue()))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
 }
@@ -95,6 +95,13 @@ import com.google.gson.annotations.SerializedName;
 @SuppressWarnings("unused") // A number of private members are unused but may be filled in or used by serialization
 public class Twin
 {
+    // Only used to build the json tree in toString(), which is then printed without any pretty printing
+    private static final Gson exposedFieldsGson = new GsonBuilder()
+            .excludeFieldsWithoutExposeAnnotation()
+            .setObjectToNumberStrategy(ToNumberPolicy.LONG_OR_DOUBLE)
+            .disableHtmlEscaping()
+            .create();
+
     // the twin desired properties
     private static final String PROPERTIES_TAG = "properties";
     @Expose(serialize = false)
@@ -206,14 +213,7 @@ public class Twin
     @Override
     public String toString()
     {
-        Gson gson = new GsonBuilder()
-                .excludeFieldsWithoutExposeAnnotation()
-                .setObjectToNumberStrategy(ToNumberPolicy.LONG_OR_DOUBLE)
-                .setPrettyPrinting()
-                .disableHtmlEscaping()
-                .create();
-
-        JsonObject jsonObject = gson.toJsonTree(this).getAsJsonObject();
+        JsonObject jsonObject = exposedFieldsGson.toJsonTree(this).getAsJsonObject();
 
         if (this.properties != null)
         {
@@ -238,21 +238,10 @@ public class Twin
             throw new IllegalArgumentException("JSON with result is null or empty");
         }
 
+        // The twin Gson instance reads each collection directly into the TwinCollection format, with its $version and
+        // $metadata already separated from its properties, so the result doesn't need to be reorganized.
         Gson gson = TwinGsonBuilder.getGson();
-        Twin result = gson.fromJson(json, Twin.class);
-
-        /*
-         * During the deserialization process, the GSON will convert both tags and
-         * properties to a raw Map, which will includes the $version and $metadata
-         * as part of the collection. So, we need to reorganize this map using the
-         * TwinCollection format. This constructor will do that.
-         */
-        if (result.properties != null)
-        {
-            result.properties = new TwinProperties(result.properties.getDesired(), result.properties.getReported());
-        }
-
-        return result;
+        return gson.fromJson(json, Twin.class);
     }
 
     /**
@@ -274,7 +263,7 @@ public class Twin
 
         TwinCollection result = gson.fromJson(json, TwinCollection.class);
 
-        return new Twin(result, null);
+        return createFromCollections(result, null);
     }
 
     /**
@@ -296,7 +285,7 @@ public class Twin
 
         TwinCollection result = gson.fromJson(json, TwinCollection.class);
 
-        return new Twin(null, result);
+        return createFromCollections(null, result);
     }
 
     /**
@@ -318,7 +307,29 @@ public class Twin
         
         TwinProperties result = gson.fromJson(json, TwinProperties.class);
 
-        return new Twin(result.getDesired(), result.getReported());
+        return createFromCollections(result.getDesired(), result.getReported());
+    }
+
+    /**
+     * Factory
+     *
+     * <p> Create a new instance of the Twin from collections that are already organized in the TwinCollection format.
+     *     Unlike {@link #Twin(TwinCollection, TwinCollection)}, this keeps the versions and metadata of the provided
+     *     collections.
+     *
+     * @param desiredProperty the {@link TwinCollection} with the desired properties. It can be {@code null}.
+     * @param reportedProperty the {@link TwinCollection} with the reported properties. It can be {@code null}.
+     * @return The new instance of the {@code Twin}.
+     */
+    static Twin createFromCollections(TwinCollection desiredProperty, TwinCollection reportedProperty)
+    {
+        Twin twin = new Twin();
+        if (desiredProperty != null || reportedProperty != null)
+        {
+            twin.properties = TwinProperties.createFromCollections(desiredProperty, reportedProperty);
+        }
+
+        return twin;
     }
 
     /**
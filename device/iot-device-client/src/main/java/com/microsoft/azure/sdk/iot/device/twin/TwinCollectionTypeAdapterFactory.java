@@ -0,0 +1,125 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.azure.sdk.iot.device.twin;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import com.google.gson.ToNumberPolicy;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Gson type adapter factory that reads {@link TwinCollection}s straight from the json stream.
+ *
+ * <p>
+ * Without it, Gson reads each nested json object into a temporary map that {@link TwinCollection#put(String, Object)}
+ * then copies, and validates the whole collection again on every put. The twin factories then copy the result once
+ * more to pull out the {@code $version} and {@code $metadata}. This adapter builds the final collection, including its
+ * version, in a single pass. The {@code $metadata} is kept as json and only parsed the first time the collection's
+ * metadata is requested, since most callers never look at it.
+ * </p>
+ *
+ * <p>
+ * Only the outermost collection has its {@code $version} and {@code $metadata} pulled out, which matches
+ * {@link TwinCollection#createFromRawCollection(java.util.Map)}. Writing is left to Gson's default map serialization.
+ * </p>
+ */
+class TwinCollectionTypeAdapterFactory implements TypeAdapterFactory
+{
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type)
+    {
+        if (type.getRawType() != TwinCollection.class)
+        {
+            return null;
+        }
+
+        final TypeAdapter<TwinCollection> delegate = gson.getDelegateAdapter(this, TypeToken.get(TwinCollection.class));
+        final TypeAdapter<Object> objectAdapter = gson.getAdapter(Object.class);
+
+        return (TypeAdapter<T>) new TypeAdapter<TwinCollection>()
+        {
+            @Override
+            public void write(JsonWriter out, TwinCollection value) throws IOException
+            {
+                delegate.write(out, value);
+            }
+
+            @Override
+            public TwinCollection read(JsonReader in) throws IOException
+            {
+                if (in.peek() == JsonToken.NULL)
+                {
+                    in.nextNull();
+                    return null;
+                }
+
+                return readCollection(in, null, objectAdapter);
+            }
+        };
+    }
+
+    // metadataOwner is null when reading the outermost collection
+    private static TwinCollection readCollection(JsonReader in, TwinCollection metadataOwner, TypeAdapter<Object> objectAdapter) throws IOException
+    {
+        TwinCollection collection = new TwinCollection();
+        collection.setMetadataOwner(metadataOwner);
+
+        in.beginObject();
+        while (in.hasNext())
+        {
+            String key = in.nextName();
+
+            if (metadataOwner == null && key.equals(TwinCollection.VERSION_TAG))
+            {
+                if (in.peek() != JsonToken.NUMBER)
+                {
+                    throw new IllegalArgumentException("version is not a number");
+                }
+
+                collection.setVersion(ToNumberPolicy.LONG_OR_DOUBLE.readNumber(in).intValue());
+            }
+            else if (metadataOwner == null && key.equals(TwinCollection.METADATA_TAG))
+            {
+                collection.setUnparsedMetadata(JsonParser.parseReader(in).getAsJsonObject());
+            }
+            else
+            {
+                collection.putParsedValue(key, readValue(in, metadataOwner == null ? collection : metadataOwner, objectAdapter));
+            }
+        }
+        in.endObject();
+
+        return collection;
+    }
+
+    private static Object readValue(JsonReader in, TwinCollection metadataOwner, TypeAdapter<Object> objectAdapter) throws IOException
+    {
+        switch (in.peek())
+        {
+            case BEGIN_OBJECT:
+                return readCollection(in, metadataOwner, objectAdapter);
+            case STRING:
+                return in.nextString();
+            case NUMBER:
+                // same number handling as the rest of the twin Gson instance
+                return ToNumberPolicy.LONG_OR_DOUBLE.readNumber(in);
+            case BOOLEAN:
+                return in.nextBoolean();
+            case NULL:
+                in.nextNull();
+                return null;
+            default:
+                // Arrays aren't valid twin values, but they are read the same way Gson would read them otherwise
+                return objectAdapter.read(in);
+        }
+    }
+}
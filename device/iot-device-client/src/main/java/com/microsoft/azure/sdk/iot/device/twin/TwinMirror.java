@@ -0,0 +1,230 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.azure.sdk.iot.device.twin;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * A local copy of a client's twin that is kept up to date with the desired property updates that the client receives
+ * and the reported property updates that the client sends.
+ *
+ * <p>
+ * The mirror is seeded by a full twin from the service. After that, each desired property update is applied in
+ * {@code $version} order. An update whose version is more than one ahead of the mirror's version means that an update
+ * was missed. In that case the mirror holds on to the update and asks the caller to get the full twin again. Until that
+ * happens the mirror does not serve reads, so callers never see a twin that is missing an update.
+ * </p>
+ *
+ * <p>
+ * The {@code $metadata} of a mirrored twin is the metadata of the last full twin retrieved from the service. Properties
+ * changed by later updates do not have their metadata updated.
+ * </p>
+ *
+ * <p>
+ * This class is thread safe.
+ * </p>
+ */
+@Slf4j
+public final class TwinMirror
+{
+    // If this many desired property updates arrive while the mirror is waiting on a missed update, the mirror gives up
+    // on them and waits for the next full twin instead.
+    private static final int MAX_PENDING_DESIRED_PROPERTY_UPDATES = 100;
+
+    private TwinCollection desiredProperties;
+    private TwinCollection reportedProperties;
+    private boolean isResynchronizing;
+
+    // Desired property updates that can't be applied yet, keyed by $version
+    private final SortedMap<Integer, TwinCollection> pendingDesiredPropertyUpdates = new TreeMap<>();
+
+    /**
+     * Get a copy of the mirrored twin.
+     *
+     * @return a copy of the mirrored twin, or null if the mirror has not been seeded with a full twin yet, has been
+     * invalidated, or is missing a desired property update.
+     */
+    public synchronized Twin getTwin()
+    {
+        if (!isSynchronized())
+        {
+            return null;
+        }
+
+        return Twin.createFromCollections(copyOf(this.desiredProperties), copyOf(this.reportedProperties));
+    }
+
+    /**
+     * Replace the mirrored twin with a full twin retrieved from the service. Any desired property updates received
+     * earlier with a newer version than the full twin are applied on top of it.
+     *
+     * @param twin the full twin.
+     */
+    public synchronized void setTwin(Twin twin)
+    {
+        this.isResynchronizing = false;
+
+        if (twin == null || twin.getDesiredProperties() == null || twin.getDesiredProperties().getVersion() == null)
+        {
+            log.debug("Twin mirror could not be seeded because the twin has no desired properties version");
+            discardMirroredTwin();
+            return;
+        }
+
+        this.desiredProperties = copyOf(twin.getDesiredProperties());
+        this.reportedProperties = twin.getReportedProperties() != null ? copyOf(twin.getReportedProperties()) : new TwinCollection();
+
+        // updates that are already included in the full twin
+        this.pendingDesiredPropertyUpdates.headMap(this.desiredProperties.getVersion() + 1).clear();
+        applyPendingDesiredPropertyUpdates();
+
+        log.trace("Twin mirror seeded with desired properties version {}", this.desiredProperties.getVersion());
+    }
+
+    /**
+     * Apply a desired property update received from the service.
+     *
+     * @param desiredPropertiesUpdate the update, including its {@code $version}.
+     * @return true if an update was missed and the caller should get the full twin from the service and pass it to
+     * {@link #setTwin(Twin)}. False otherwise, including when a request for the full twin is already in progress.
+     */
+    public synchronized boolean applyDesiredPropertiesUpdate(TwinCollection desiredPropertiesUpdate)
+    {
+        Integer version = desiredPropertiesUpdate == null ? null : desiredPropertiesUpdate.getVersion();
+        if (version == null)
+        {
+            // without a version, there is no way to tell where this update belongs
+            log.debug("Received a desired property update without a version. Twin mirror will be resynchronized");
+            discardMirroredTwin();
+            return beginResynchronizing();
+        }
+
+        if (this.desiredProperties != null && version <= this.desiredProperties.getVersion())
+        {
+            log.trace("Ignoring desired property update with version {} that the twin mirror already contains", version);
+            return false;
+        }
+
+        this.pendingDesiredPropertyUpdates.put(version, desiredPropertiesUpdate);
+        if (this.pendingDesiredPropertyUpdates.size() > MAX_PENDING_DESIRED_PROPERTY_UPDATES)
+        {
+            discardMirroredTwin();
+            return beginResynchronizing();
+        }
+
+        if (this.desiredProperties == null)
+        {
+            // Not seeded yet. The next full twin will decide which of the pending updates still apply.
+            return false;
+        }
+
+        applyPendingDesiredPropertyUpdates();
+
+        if (!this.pendingDesiredPropertyUpdates.isEmpty())
+        {
+            log.debug("Twin mirror is at desired properties version {} but received version {}. Twin mirror will be resynchronized", this.desiredProperties.getVersion(), version);
+            return beginResynchronizing();
+        }
+
+        return false;
+    }
+
+    /**
+     * Apply a reported property update that the service has acknowledged.
+     *
+     * @param reportedPropertiesUpdate the reported properties that were sent.
+     * @param newVersion the reported properties version that the service returned for the update.
+     */
+    public synchronized void applyReportedPropertiesUpdate(TwinCollection reportedPropertiesUpdate, int newVersion)
+    {
+        if (this.reportedProperties == null)
+        {
+            return;
+        }
+
+        Integer currentVersion = this.reportedProperties.getVersion();
+        if (currentVersion == null || newVersion != currentVersion + 1)
+        {
+            // Another update landed in between, or the service did not apply the update yet (Edgehub doesn't). Either
+            // way the mirror can't tell what the reported properties look like now.
+            log.debug("Twin mirror is at reported properties version {} but the update returned version {}. Twin mirror will be resynchronized", currentVersion, newVersion);
+            discardMirroredTwin();
+            return;
+        }
+
+        // Applies the update with JSON merge patch semantics, which is how the service applies twin updates
+        Tools.mergeTwinCollection(this.reportedProperties, reportedPropertiesUpdate, true);
+        this.reportedProperties.setVersion(newVersion);
+    }
+
+    /**
+     * Mark the end of a request for the full twin that failed, so that the next missed update starts a new one.
+     */
+    public synchronized void onResynchronizationFailed()
+    {
+        this.isResynchronizing = false;
+    }
+
+    /**
+     * Discard the mirrored twin. Reads won't be served by the mirror until it is seeded with a new full twin. This
+     * should be called whenever the client may have missed desired property updates, such as when its connection drops.
+     */
+    public synchronized void invalidate()
+    {
+        discardMirroredTwin();
+
+        // A request for the full twin that was in flight when the connection dropped may never complete, so the next
+        // missed update must be able to start a new one
+        this.isResynchronizing = false;
+    }
+
+    // Unlike invalidate(), this keeps track of any request for the full twin that is in flight, which will seed the
+    // mirror again once it completes
+    private void discardMirroredTwin()
+    {
+        this.desiredProperties = null;
+        this.reportedProperties = null;
+        this.pendingDesiredPropertyUpdates.clear();
+    }
+
+    private boolean isSynchronized()
+    {
+        return this.desiredProperties != null && this.pendingDesiredPropertyUpdates.isEmpty();
+    }
+
+    private boolean beginResynchronizing()
+    {
+        if (this.isResynchronizing)
+        {
+            return false;
+        }
+
+        this.isResynchronizing = true;
+        return true;
+    }
+
+    private void applyPendingDesiredPropertyUpdates()
+    {
+        while (!this.pendingDesiredPropertyUpdates.isEmpty()
+            && this.pendingDesiredPropertyUpdates.firstKey() == this.desiredProperties.getVersion() + 1)
+        {
+            TwinCollection update = this.pendingDesiredPropertyUpdates.remove(this.pendingDesiredPropertyUpdates.firstKey());
+            Tools.mergeTwinCollection(this.desiredProperties, update, true);
+            this.desiredProperties.setVersion(update.getVersion());
+        }
+    }
+
+    private static TwinCollection copyOf(TwinCollection collection)
+    {
+        TwinCollection copy = new TwinCollection(collection);
+
+        // The copy constructor skips the version of empty collections
+        copy.setVersion(collection.getVersion());
+        return copy;
+    }
+}
@@ -231,6 +231,24 @@ public class TwinProperties
         return toJsonElementWithMetadata().toString();
     }
 
+    /**
+     * Factory
+     *
+     * <p> Unlike the constructor, this keeps the provided collections as they are, including their versions and
+     *     metadata, rather than treating them as raw collections.
+     *
+     * @param desired the {@link TwinCollection} with the desired property. It can be {@code null}.
+     * @param reported the {@link TwinCollection} with the reported property. It can be {@code null}.
+     * @return The new instance of the {@code TwinProperties}.
+     */
+    static TwinProperties createFromCollections(TwinCollection desired, TwinCollection reported)
+    {
+        TwinProperties properties = new TwinProperties();
+        properties.desired = desired;
+        properties.reported = reported;
+        return properties;
+    }
+
     /**
      * Empty constructor
      *
@@ -158,6 +158,9 @@ public class IotHubSasTokenHardwareAuthenticationProviderTest
 
         IotHubSasTokenAuthenticationProvider sasAuth = new IotHubSasTokenHardwareAuthenticationProvider(expectedHostname, expectedGatewayHostname, expectedDeviceId, expectedModuleId, mockSecurityProviderTpm);
 
+        //the token signed by the constructor belongs to an earlier expiry time bucket
+        Deencapsulation.setField(sasAuth, "cachedExpiryTime", 0L);
+
         //act
         sasAuth.getSasToken();
     }
@@ -191,6 +194,9 @@ public class IotHubSasTokenHardwareAuthenticationProviderTest
 
         IotHubSasTokenAuthenticationProvider sasAuth = new IotHubSasTokenHardwareAuthenticationProvider(expectedHostname, expectedGatewayHostname, expectedDeviceId, expectedModuleId, mockSecurityProviderTpm);
 
+        //the token signed by the constructor belongs to an earlier expiry time bucket
+        Deencapsulation.setField(sasAuth, "cachedExpiryTime", 0L);
+
         //act
         sasAuth.getSasToken();
     }
@@ -227,8 +233,154 @@ public class IotHubSasTokenHardwareAuthenticationProviderTest
 
         IotHubSasTokenAuthenticationProvider sasAuth = new IotHubSasTokenHardwareAuthenticationProvider(expectedHostname, expectedGatewayHostname, expectedDeviceId, expectedModuleId, mockSecurityProviderTpm);
 
+        //the token signed by the constructor belongs to an earlier expiry time bucket
+        Deencapsulation.setField(sasAuth, "cachedExpiryTime", 0L);
+
+        //act
+        sasAuth.getSasToken();
+    }
+
+    @Test
+    public void getSasTokenReusesSignatureWithinExpiryTimeBucket() throws IOException, SecurityProviderException
+    {
+        //arrange
+        final byte[] tokenBytes = "someToken".getBytes(StandardCharsets.UTF_8);
+        new NonStrictExpectations()
+        {
+            {
+                URLEncoder.encode(anyString, encodingName);
+                result = "someToken";
+
+                mockSecurityProviderTpm.signWithIdentity((byte[]) any);
+                result = tokenBytes;
+            }
+        };
+
+        IotHubSasTokenAuthenticationProvider sasAuth = new IotHubSasTokenHardwareAuthenticationProvider(expectedHostname, expectedGatewayHostname, expectedDeviceId, expectedModuleId, mockSecurityProviderTpm);
+
+        //act
+        sasAuth.getSasToken();
+        sasAuth.getSasToken();
+
+        //assert
+        new Verifications()
+        {
+            {
+                mockSecurityProviderTpm.signWithIdentity((byte[]) any);
+                times = 1;
+            }
+        };
+    }
+
+    @Test
+    public void getSasTokenSignsOnceForConcurrentCallers() throws Exception
+    {
+        //arrange
+        final byte[] tokenBytes = "someToken".getBytes(StandardCharsets.UTF_8);
+        new NonStrictExpectations()
+        {
+            {
+                URLEncoder.encode(anyString, encodingName);
+                result = "someToken";
+
+                mockSecurityProviderTpm.signWithIdentity((byte[]) any);
+                result = new Delegate()
+                {
+                    byte[] signWithIdentity(byte[] data) throws InterruptedException
+                    {
+                        //slow signing, so that the other callers ask for the token while it is being signed
+                        Thread.sleep(100);
+                        return tokenBytes;
+                    }
+                };
+            }
+        };
+
+        final IotHubSasTokenAuthenticationProvider sasAuth = new IotHubSasTokenHardwareAuthenticationProvider(expectedHostname, expectedGatewayHostname, expectedDeviceId, expectedModuleId, mockSecurityProviderTpm);
+        Deencapsulation.setField(sasAuth, "cachedExpiryTime", 0L);
+
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++)
+        {
+            threads[i] = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        sasAuth.getSasToken();
+                    }
+                    catch (IOException e)
+                    {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            });
+        }
+
+        //act
+        for (Thread thread : threads)
+        {
+            thread.start();
+        }
+
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        //assert
+        new Verifications()
+        {
+            {
+                //once by the constructor, then once for all of the concurrent callers
+                mockSecurityProviderTpm.signWithIdentity((byte[]) any);
+                times = 2;
+            }
+        };
+    }
+
+    @Test
+    public void getSasTokenSignsAgainAfterSigningFails() throws IOException, SecurityProviderException
+    {
+        //arrange
+        final byte[] tokenBytes = "someToken".getBytes(StandardCharsets.UTF_8);
+        new NonStrictExpectations()
+        {
+            {
+                URLEncoder.encode(anyString, encodingName);
+                result = "someToken";
+
+                mockSecurityProviderTpm.signWithIdentity((byte[]) any);
+                returns(tokenBytes, new byte[0], tokenBytes);
+            }
+        };
+
+        IotHubSasTokenAuthenticationProvider sasAuth = new IotHubSasTokenHardwareAuthenticationProvider(expectedHostname, expectedGatewayHostname, expectedDeviceId, expectedModuleId, mockSecurityProviderTpm);
+        Deencapsulation.setField(sasAuth, "cachedExpiryTime", 0L);
+
+        try
+        {
+            sasAuth.getSasToken();
+            fail("Expected signing to fail");
+        }
+        catch (IOException expected)
+        {
+            // expected
+        }
+
         //act
         sasAuth.getSasToken();
+
+        //assert
+        new Verifications()
+        {
+            {
+                mockSecurityProviderTpm.signWithIdentity((byte[]) any);
+                times = 3;
+            }
+        };
     }
 
     //Tests_SRS_IOTHUBSASTOKENHARDWAREAUTHENTICATION_34_005: [This function shall return the saved sas token.]
@@ -166,6 +166,34 @@ public class IotHubSasTokenSoftwareIotHubAuthenticationProviderTest
 
     }
 
+    @Test
+    public void getSasTokenRenewsSavedTokenWhenProactiveRenewalIsDue(@Mocked final System mockSystem) throws IOException, TransportException
+    {
+        // With the default token life of 3600 seconds and time buffer of 85%, a renewal is scheduled 3060 seconds after
+        // a token is handed out, and must not be given the same token back
+        final long proactiveRenewalTimeMillis = 3060 * 1000L;
+
+        //assert
+        new Expectations()
+        {
+            {
+                System.currentTimeMillis();
+                result = 0;
+                result = proactiveRenewalTimeMillis;
+                result = proactiveRenewalTimeMillis;
+                new IotHubSasToken(expectedHostname, expectedDeviceId, expectedDeviceKey, null, expectedModuleId, anyLong);
+                result = mockSasToken;
+                times = 2;
+            }
+        };
+
+        //arrange
+        IotHubSasTokenAuthenticationProvider sasAuth = new IotHubSasTokenSoftwareAuthenticationProvider(expectedHostname, expectedGatewayHostname, expectedDeviceId, expectedModuleId, expectedDeviceKey, expectedSasToken);
+
+        //act
+        sasAuth.getSasToken();
+    }
+
     //Tests_SRS_IOTHUBSASTOKENAUTHENTICATION_34_006: [If the saved sas token has not expired and there is a device key present, but this method is called to proactively renew and the token should renew, the saved sas token shall be renewed.]
     @Test
     public void getRenewedSasTokenProactivelyRenews(@Mocked final System mockSystem) throws IOException, TransportException
@@ -199,23 +227,43 @@ public class IotHubSasTokenSoftwareIotHubAuthenticationProviderTest
     }
 
     @Test
-    public void getRenewedSasTokenForciblyRenews(@Mocked final System mockSystem) throws IOException, TransportException
+    public void getSasTokenReusesSavedTokenBeforeRenewalWindow(@Mocked final System mockSystem) throws IOException, TransportException
     {
-        new MockUp<IotHubSasTokenAuthenticationProvider>()
+        //assert
+        new Expectations()
         {
-            @Mock public boolean shouldRefreshToken(boolean proactivelyRenew)
             {
-                return false;
+                System.currentTimeMillis();
+                result = 0;
+                times = 2;
+                new IotHubSasToken(expectedHostname, expectedDeviceId, expectedDeviceKey, null, expectedModuleId, anyLong);
+                result = mockSasToken;
+                times = 1;
             }
         };
 
+        //arrange
+        IotHubSasTokenAuthenticationProvider sasAuth = new IotHubSasTokenSoftwareAuthenticationProvider(expectedHostname, expectedGatewayHostname, expectedDeviceId, expectedModuleId, expectedDeviceKey, expectedSasToken);
+
+        //act
+        sasAuth.getSasToken();
+    }
+
+    @Test
+    public void getSasTokenRenewsSavedTokenInsideRenewalWindow(@Mocked final System mockSystem) throws IOException, TransportException
+    {
+        // With the default token life of 3600 seconds and time buffer of 85%, the token should only be reused during the
+        // first 15% of its life
+        final long timeInsideRenewalWindowMillis = 3061 * 1000L;
+
         //assert
         new Expectations()
         {
             {
                 System.currentTimeMillis();
                 result = 0;
-                times = 2;
+                result = timeInsideRenewalWindowMillis;
+                result = timeInsideRenewalWindowMillis;
                 new IotHubSasToken(expectedHostname, expectedDeviceId, expectedDeviceKey, null, expectedModuleId, anyLong);
                 result = mockSasToken;
                 times = 2;
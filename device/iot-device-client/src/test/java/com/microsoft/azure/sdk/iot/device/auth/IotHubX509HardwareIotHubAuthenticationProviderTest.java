@@ -12,6 +12,7 @@ import com.microsoft.azure.sdk.iot.provisioning.security.exceptions.SecurityProv
 import mockit.Deencapsulation;
 import mockit.Mocked;
 import mockit.NonStrictExpectations;
+import mockit.Verifications;
 import org.junit.Test;
 
 import javax.net.ssl.SSLContext;
@@ -106,4 +107,35 @@ public class IotHubX509HardwareIotHubAuthenticationProviderTest
         SSLContext actualSSLContext = authentication.getSSLContext();
         assertEquals(mockSSLContext, actualSSLContext);
     }
+
+    @Test
+    public void getSSLContextWrapsNewSSLContextWhenSecurityProviderRebuildsIt(@Mocked final SSLContext mockRenewedSSLContext) throws SecurityProviderException, IOException
+    {
+        //arrange
+        IotHubAuthenticationProvider authentication = new IotHubX509HardwareAuthenticationProvider(hostname, gatewayHostname, deviceId, moduleId, mockSecurityProviderX509);
+
+        new NonStrictExpectations()
+        {
+            {
+                mockSecurityProviderX509.getSSLContext();
+                returns(mockSSLContext, mockSSLContext, mockRenewedSSLContext);
+            }
+        };
+
+        //act
+        authentication.getSSLContext();
+        authentication.getSSLContext();
+        authentication.getSSLContext();
+
+        //assert
+        new Verifications()
+        {
+            {
+                new IotHubSSLContext(mockSSLContext);
+                times = 1;
+                new IotHubSSLContext(mockRenewedSSLContext);
+                times = 1;
+            }
+        };
+    }
 }
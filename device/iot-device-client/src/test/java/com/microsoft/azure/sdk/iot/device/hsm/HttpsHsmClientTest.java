@@ -240,7 +240,7 @@ public class HttpsHsmClientTest
                 new HttpsRequest((URL) any, HttpsMethod.POST, expectedJson.getBytes(StandardCharsets.UTF_8), anyString);
                 result = mockedHttpsRequest;
 
-                HttpsRequestResponseSerializer.serializeRequest(mockedHttpsRequest, anyString, anyString, anyString);
+                HttpsRequestResponseSerializer.serializeRequest(mockedHttpsRequest, anyString, anyString, anyString, true);
                 result = expectedMetaData;
 
                 mockedHttpsRequest.setHeaderField(anyString, anyString);
@@ -251,13 +251,7 @@ public class HttpsHsmClientTest
 
                 mockedUnixDomainSocketChannel.open(anyString);
 
-                mockedUnixDomainSocketChannel.read((byte[]) any);
-                result = 100;
-
-                mockedUnixDomainSocketChannel.read((byte[]) any);
-                result = -1;
-
-                HttpsRequestResponseSerializer.deserializeResponse((BufferedReader) any);
+                HttpsRequestResponseSerializer.readResponse(mockedUnixDomainSocketChannel);
                 result = mockedHttpsResponse;
 
                 mockedHttpsResponse.getStatus();
@@ -275,21 +269,173 @@ public class HttpsHsmClientTest
         new Verifications()
         {
             {
-                HttpsRequestResponseSerializer.serializeRequest(mockedHttpsRequest, anyString, anyString, anyString);
+                HttpsRequestResponseSerializer.serializeRequest(mockedHttpsRequest, anyString, anyString, anyString, true);
                 times = 1;
 
-                HttpsRequestResponseSerializer.deserializeResponse((BufferedReader) any);
+                HttpsRequestResponseSerializer.readResponse(mockedUnixDomainSocketChannel);
                 times = 1;
 
                 mockedUnixDomainSocketChannel.write((byte[]) any);
                 times = 1;
 
+                // the response did not say where its body ends, so the connection can't be reused
+                mockedUnixDomainSocketChannel.close();
+                times = 1;
+
                 mockedHttpsRequest.send();
                 times = 0;
             }
         };
     }
 
+    @Test
+    public void signKeepsUnixDomainSocketOpenBetweenRequests(@Mocked final URI mockedURI) throws IOException, TransportException, URISyntaxException
+    {
+        //arrange
+        unixSignExpectations(mockedURI);
+        new NonStrictExpectations()
+        {
+            {
+                HttpsRequestResponseSerializer.readResponse(mockedUnixDomainSocketChannel);
+                result = mockedHttpsResponse;
+
+                mockedHttpsResponse.getHeaderField("Content-Length");
+                result = "5";
+            }
+        };
+
+        HttpsHsmClient client = new HttpsHsmClient(expectedBaseUrl, mockedUnixDomainSocketChannel);
+        Deencapsulation.setField(client, "scheme", expectedSchemeUnix);
+
+        //act
+        client.sign(expectedApiVersion, expectedName, mockedSignRequest, expectedGenId);
+        client.sign(expectedApiVersion, expectedName, mockedSignRequest, expectedGenId);
+
+        //assert
+        new Verifications()
+        {
+            {
+                mockedUnixDomainSocketChannel.open(anyString);
+                times = 1;
+
+                mockedUnixDomainSocketChannel.write((byte[]) any);
+                times = 2;
+
+                mockedUnixDomainSocketChannel.close();
+                times = 0;
+            }
+        };
+    }
+
+    @Test
+    public void signRetriesOnNewUnixDomainSocketIfKeptAliveConnectionFails(@Mocked final URI mockedURI) throws IOException, TransportException, URISyntaxException
+    {
+        //arrange
+        unixSignExpectations(mockedURI);
+        new NonStrictExpectations()
+        {
+            {
+                HttpsRequestResponseSerializer.readResponse(mockedUnixDomainSocketChannel);
+                result = mockedHttpsResponse;
+                result = new EOFException("Response is empty.");
+                result = mockedHttpsResponse;
+
+                mockedHttpsResponse.getHeaderField("Content-Length");
+                result = "5";
+            }
+        };
+
+        HttpsHsmClient client = new HttpsHsmClient(expectedBaseUrl, mockedUnixDomainSocketChannel);
+        Deencapsulation.setField(client, "scheme", expectedSchemeUnix);
+
+        //act
+        client.sign(expectedApiVersion, expectedName, mockedSignRequest, expectedGenId);
+        client.sign(expectedApiVersion, expectedName, mockedSignRequest, expectedGenId);
+
+        //assert
+        new Verifications()
+        {
+            {
+                mockedUnixDomainSocketChannel.open(anyString);
+                times = 2;
+
+                mockedUnixDomainSocketChannel.write((byte[]) any);
+                times = 3;
+
+                mockedUnixDomainSocketChannel.close();
+                times = 1;
+            }
+        };
+    }
+
+    @Test
+    public void signClosesUnixDomainSocketIfHsmClosesConnection(@Mocked final URI mockedURI) throws IOException, TransportException, URISyntaxException
+    {
+        //arrange
+        unixSignExpectations(mockedURI);
+        new NonStrictExpectations()
+        {
+            {
+                HttpsRequestResponseSerializer.readResponse(mockedUnixDomainSocketChannel);
+                result = mockedHttpsResponse;
+
+                mockedHttpsResponse.getHeaderField("Content-Length");
+                result = "5";
+
+                mockedHttpsResponse.getHeaderField("Connection");
+                result = "close";
+            }
+        };
+
+        HttpsHsmClient client = new HttpsHsmClient(expectedBaseUrl, mockedUnixDomainSocketChannel);
+        Deencapsulation.setField(client, "scheme", expectedSchemeUnix);
+
+        //act
+        client.sign(expectedApiVersion, expectedName, mockedSignRequest, expectedGenId);
+        client.sign(expectedApiVersion, expectedName, mockedSignRequest, expectedGenId);
+
+        //assert
+        new Verifications()
+        {
+            {
+                mockedUnixDomainSocketChannel.open(anyString);
+                times = 2;
+
+                mockedUnixDomainSocketChannel.close();
+                times = 2;
+            }
+        };
+    }
+
+    private void unixSignExpectations(final URI mockedURI) throws URISyntaxException, IOException
+    {
+        new NonStrictExpectations()
+        {
+            {
+                new URI(expectedBaseUrl);
+                result = mockedURI;
+
+                mockedURI.getScheme();
+                result = expectedSchemeUnix;
+
+                mockedSignRequest.toJson();
+                result = "some json";
+
+                new HttpsRequest((URL) any, HttpsMethod.POST, (byte[]) any, anyString);
+                result = mockedHttpsRequest;
+
+                HttpsRequestResponseSerializer.serializeRequest(mockedHttpsRequest, anyString, anyString, anyString, true);
+                result = "some headers and such".getBytes(StandardCharsets.UTF_8);
+
+                mockedHttpsRequest.getBody();
+                result = "http request's body".getBytes(StandardCharsets.UTF_8);
+
+                mockedHttpsResponse.getStatus();
+                result = 200;
+            }
+        };
+    }
+
     // Tests_SRS_HSMHTTPCLIENT_34_005: [If the response from the http call is not 200, this function shall throw an HsmException.]
     @Test
     public void signThrowsIfResponseIsNot200(@Mocked final URI mockedURI) throws UnsupportedEncodingException, MalformedURLException, TransportException, URISyntaxException
@@ -14,6 +14,7 @@ import mockit.*;
 import org.junit.Test;
 
 import java.io.BufferedReader;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.StringReader;
 import java.io.UnsupportedEncodingException;
@@ -28,6 +29,8 @@ import java.util.List;
 import java.util.Map;
 
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
 
 public class HttpsRequestResponseSerializerTest
 {
@@ -341,4 +344,184 @@ public class HttpsRequestResponseSerializerTest
         //act
         HttpsRequestResponseSerializer.deserializeResponse(new BufferedReader(new StringReader(stringToDeserialize)));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void serializeWithKeepAliveAsksHsmToKeepConnectionOpen() throws MalformedURLException, UnsupportedEncodingException, URISyntaxException
+    {
+        //arrange
+        uriExpectations();
+        final HttpsRequest httpsRequest = new HttpsRequest(mockedURL, HttpsMethod.POST, new byte[0], "");
+
+        //act
+        HttpsRequestResponseSerializer.serializeRequest(httpsRequest, "/modules/testModule/sign", "api-version=2018-06-28", "localhost:8081", true);
+
+        //assert
+        new Verifications()
+        {
+            {
+                httpsRequest.setHeaderField("Connection", "keep-alive");
+                times = 1;
+            }
+        };
+    }
+
+    @Test
+    public void readResponseStopsAtEndOfContentLengthBody() throws IOException
+    {
+        //arrange
+        final byte[] expectedBody = "{\"digest\":\"abc\"}".getBytes(StandardCharsets.UTF_8);
+        final Map<String, List<String>> expectedHeaders = new HashMap<>();
+        expectedHeaders.put("Content-Length", singletonList(String.valueOf(expectedBody.length)));
+        expectedHeaders.put("Content-Type", singletonList("application/json"));
+
+        // no end of stream follows the response, as the connection is kept open for the next request
+        FakeUnixDomainSocketChannel channel = new FakeUnixDomainSocketChannel(
+                "HTTP/1.1 200 OK\r\n" +
+                "Content-Length: " + expectedBody.length + "\r\n" +
+                "Content-Type: application/json\r\n" +
+                "\r\n" +
+                new String(expectedBody, StandardCharsets.UTF_8));
+
+        //act
+        HttpsRequestResponseSerializer.readResponse(channel);
+
+        //assert
+        assertFalse(channel.readPastEnd);
+        new Verifications()
+        {
+            {
+                new HttpsResponse(200, expectedBody, expectedHeaders, "OK".getBytes(StandardCharsets.UTF_8));
+                times = 1;
+            }
+        };
+    }
+
+    @Test
+    public void readResponseDecodesChunkedBody() throws IOException
+    {
+        //arrange
+        final byte[] expectedBody = "testing chunks".getBytes(StandardCharsets.UTF_8);
+        final Map<String, List<String>> expectedHeaders = new HashMap<>();
+        expectedHeaders.put("Transfer-Encoding", singletonList("chunked"));
+
+        FakeUnixDomainSocketChannel channel = new FakeUnixDomainSocketChannel(
+                "HTTP/1.1 200 OK\r\n" +
+                "Transfer-Encoding: chunked\r\n" +
+                "\r\n" +
+                "7\r\ntesting\r\n" +
+                "7;ext=1\r\n chunks\r\n" +
+                "0\r\n" +
+                "\r\n");
+
+        //act
+        HttpsRequestResponseSerializer.readResponse(channel);
+
+        //assert
+        assertFalse(channel.readPastEnd);
+        new Verifications()
+        {
+            {
+                new HttpsResponse(200, expectedBody, expectedHeaders, "OK".getBytes(StandardCharsets.UTF_8));
+                times = 1;
+            }
+        };
+    }
+
+    @Test
+    public void readResponseReadsUntilEndOfStreamWithoutContentLength() throws IOException
+    {
+        //arrange
+        final byte[] expectedBody = "some body\r\nwith lines".getBytes(StandardCharsets.UTF_8);
+        final Map<String, List<String>> expectedHeaders = new HashMap<>();
+
+        FakeUnixDomainSocketChannel channel = new FakeUnixDomainSocketChannel(
+                "HTTP/1.1 404 Not Found\r\n" +
+                "\r\n" +
+                new String(expectedBody, StandardCharsets.UTF_8));
+
+        //act
+        HttpsRequestResponseSerializer.readResponse(channel);
+
+        //assert
+        assertTrue(channel.readPastEnd);
+        new Verifications()
+        {
+            {
+                new HttpsResponse(404, expectedBody, expectedHeaders, "Not Found".getBytes(StandardCharsets.UTF_8));
+                times = 1;
+            }
+        };
+    }
+
+    @Test (expected = EOFException.class)
+    public void readResponseThrowsForEmptyResponse() throws IOException
+    {
+        HttpsRequestResponseSerializer.readResponse(new FakeUnixDomainSocketChannel(""));
+    }
+
+    @Test (expected = EOFException.class)
+    public void readResponseThrowsForTruncatedBody() throws IOException
+    {
+        HttpsRequestResponseSerializer.readResponse(new FakeUnixDomainSocketChannel("HTTP/1.1 200 OK\r\nContent-Length: 10\r\n\r\nshort"));
+    }
+
+    @Test (expected = IOException.class)
+    public void readResponseThrowsForHeaderWithoutSeparator() throws IOException
+    {
+        HttpsRequestResponseSerializer.readResponse(new FakeUnixDomainSocketChannel("HTTP/1.1 200 OK\r\nheader\r\n\r\n"));
+    }
+
+    private static List<String> singletonList(String value)
+    {
+        List<String> values = new ArrayList<>();
+        values.add(value);
+        return values;
+    }
+
+    /**
+     * Hands out the provided response a few bytes at a time, so that the response is split across several reads
+     */
+    private static class FakeUnixDomainSocketChannel implements UnixDomainSocketChannel
+    {
+        private static final int MAX_BYTES_PER_READ = 7;
+
+        private final byte[] response;
+        private int position = 0;
+        boolean readPastEnd = false;
+
+        FakeUnixDomainSocketChannel(String response)
+        {
+            this.response = response.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void open(String address)
+        {
+        }
+
+        @Override
+        public void write(byte[] output)
+        {
+        }
+
+        @Override
+        public int read(byte[] inputBuffer)
+        {
+            if (position == response.length)
+            {
+                readPastEnd = true;
+                return -1;
+            }
+
+            int count = Math.min(Math.min(MAX_BYTES_PER_READ, inputBuffer.length), response.length - position);
+            System.arraycopy(response, position, inputBuffer, 0, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+}
@@ -175,6 +175,59 @@ public class IotHubSasTokenHsmAuthenticationProviderTest
         auth.refreshSasToken();
     }
 
+    @Test
+    public void getSasTokenReusesSasTokenUntilRenewalWindow() throws TransportException, IOException
+    {
+        //arrange
+        final long[] currentTimeMillis = {0};
+        new MockUp<System>()
+        {
+            @Mock long currentTimeMillis()
+            {
+                return currentTimeMillis[0];
+            }
+        };
+        new NonStrictExpectations()
+        {
+            {
+                mockedSignatureProvider.sign("module", anyString, anyString);
+                result = expectedSignature;
+
+                mockedIotHubSasTokenAuthenticationProvider.getMillisecondsBeforeProactiveRenewal();
+                result = 42000;
+
+                mockedIotHubSasToken.toString();
+                result = expectedSharedAccessToken;
+            }
+        };
+
+        IotHubSasTokenHsmAuthenticationProvider auth = IotHubSasTokenHsmAuthenticationProvider.create(mockedSignatureProvider, expectedDeviceId, expectedModuleId, expectedHostname, "", "gen1", expectedTimeToLive, expectedBufferPercent);
+        Deencapsulation.setField(auth, "hostname", expectedHostname);
+        Deencapsulation.setField(auth, "gatewayHostname", "");
+        Deencapsulation.setField(auth, "deviceId", expectedDeviceId);
+        Deencapsulation.setField(auth, "moduleId", expectedModuleId);
+        Deencapsulation.setField(auth, "tokenValidSecs", 60L);
+
+        // a token that lives for 60 seconds and is renewed after 42 seconds can be handed out again for 18 seconds
+        auth.refreshSasToken();
+
+        //act
+        currentTimeMillis[0] = 17999;
+        auth.getSasToken();
+        currentTimeMillis[0] = 18000;
+        auth.getSasToken();
+
+        //assert
+        new Verifications()
+        {
+            {
+                // once by create, once by refreshSasToken and once by the second getSasToken call
+                mockedSignatureProvider.sign("module", anyString, anyString);
+                times = 3;
+            }
+        };
+    }
+
     // Tests_SRS_MODULEAUTHENTICATIONWITHHSM_34_002: [If the provided signature provider is null, this function shall throw an IllegalArgumentException.]
     @Test (expected = IllegalArgumentException.class)
     public void staticConstructorThrowsForNullSignatureProvider() throws IOException, TransportException
@@ -0,0 +1,126 @@
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license. See LICENSE file in the project root for full license information.
+
+package com.microsoft.azure.sdk.iot.device.transport;
+
+import mockit.Deencapsulation;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ExponentialBackoffWithFullJitterTest
+{
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorThrowsWithZeroRetryCount()
+    {
+        //act
+        new ExponentialBackoffWithFullJitter(0, 100, 10 * 1000, true);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorThrowsWithMaxBackoffLessThanMinBackoff()
+    {
+        //act
+        new ExponentialBackoffWithFullJitter(10, 1000, 100, true);
+    }
+
+    @Test
+    public void constructorHaveDefaultValues()
+    {
+        //act
+        final RetryPolicy policy = new ExponentialBackoffWithFullJitter();
+
+        // assert
+        assertEquals(Integer.MAX_VALUE, (int) Deencapsulation.getField(policy, "retryCount"));
+        assertEquals(100L, (long) Deencapsulation.getField(policy, "minBackoff"));
+        assertEquals(10 * 1000L, (long) Deencapsulation.getField(policy, "maxBackoff"));
+        assertTrue((boolean) Deencapsulation.getField(policy, "firstFastRetry"));
+    }
+
+    @Test
+    public void firstRetryIsImmediateWithFirstFastRetry()
+    {
+        //arrange
+        final RetryPolicy policy = new ExponentialBackoffWithFullJitter(10, 100, 10 * 1000, true);
+
+        //act
+        RetryDecision decision = policy.getRetryDecision(0, null);
+
+        //assert
+        assertTrue(decision.shouldRetry());
+        assertEquals(0, decision.getDuration());
+    }
+
+    @Test
+    public void retryDurationStaysWithinBounds()
+    {
+        //arrange
+        final long minBackoff = 100;
+        final long maxBackoff = 5 * 1000;
+        final RetryPolicy policy = new ExponentialBackoffWithFullJitter(Integer.MAX_VALUE, minBackoff, maxBackoff, false);
+        long upperBound = minBackoff;
+
+        for (int retryCount = 0; retryCount < 1000; retryCount++)
+        {
+            upperBound = Math.min(maxBackoff, upperBound * 3);
+
+            //act
+            RetryDecision decision = policy.getRetryDecision(retryCount, null);
+
+            //assert
+            assertTrue(decision.shouldRetry());
+            assertTrue(decision.getDuration() >= minBackoff);
+            assertTrue(decision.getDuration() <= upperBound);
+        }
+    }
+
+    @Test
+    public void retryDurationIsNotAffectedByOtherSeriesOfRetries()
+    {
+        //arrange
+        final RetryPolicy policy = new ExponentialBackoffWithFullJitter(Integer.MAX_VALUE, 100, 10 * 1000, true);
+
+        for (int i = 0; i < 100; i++)
+        {
+            // another series of retries that is far along and one that is just starting
+            policy.getRetryDecision(20, null);
+            policy.getRetryDecision(0, null);
+
+            //act
+            RetryDecision decision = policy.getRetryDecision(1, null);
+
+            //assert
+            assertTrue(decision.getDuration() >= 100);
+            assertTrue(decision.getDuration() <= 100 * 9);
+        }
+    }
+
+    @Test
+    public void retryDurationDoesNotOverflowWithLargeMaxBackoff()
+    {
+        //arrange
+        final RetryPolicy policy = new ExponentialBackoffWithFullJitter(Integer.MAX_VALUE, 100, Long.MAX_VALUE - 1, false);
+
+        for (int retryCount = 0; retryCount < 200; retryCount++)
+        {
+            //act
+            RetryDecision decision = policy.getRetryDecision(retryCount, null);
+
+            //assert
+            assertTrue(decision.getDuration() >= 100);
+        }
+    }
+
+    @Test
+    public void noRetryOnceRetryCountIsReached()
+    {
+        //arrange
+        final RetryPolicy policy = new ExponentialBackoffWithFullJitter(3, 100, 10 * 1000, false);
+
+        //act
+        RetryDecision decision = policy.getRetryDecision(3, null);
+
+        //assert
+        assertFalse(decision.shouldRetry());
+    }
+}
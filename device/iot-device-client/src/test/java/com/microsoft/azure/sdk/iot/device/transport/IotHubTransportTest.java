@@ -18,6 +18,7 @@ import org.junit.Test;
 import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.microsoft.azure.sdk.iot.device.IotHubConnectionStatusChangeReason.*;
 import static com.microsoft.azure.sdk.iot.device.transport.IotHubConnectionStatus.*;
@@ -2799,4 +2800,102 @@ public class IotHubTransportTest
             assertFalse(transportException instanceof ProtocolException);
         }
     }
+
+    @Test
+    public void openAsyncWhileOpenIsInProgressCompletesWithThatOpen()
+    {
+        //arrange
+        final List<Runnable> scheduledRetries = new ArrayList<>();
+        final AtomicInteger openConnectionCount = new AtomicInteger();
+        openWithRetryExpectations(scheduledRetries, openConnectionCount);
+
+        IotHubTransport transport = new IotHubTransport(mockedConfig, mockedIotHubConnectionStatusChangeCallback, false);
+
+        //act
+        CompletableFuture<Void> firstOpenFuture = transport.openAsync(true);
+        CompletableFuture<Void> secondOpenFuture = transport.openAsync(true);
+
+        //assert
+        assertEquals(1, openConnectionCount.get());
+        assertEquals(1, scheduledRetries.size());
+        assertFalse(firstOpenFuture.isDone());
+        assertFalse(secondOpenFuture.isDone());
+
+        scheduledRetries.get(0).run();
+
+        assertEquals(2, openConnectionCount.get());
+        assertTrue(firstOpenFuture.isDone() && !firstOpenFuture.isCompletedExceptionally());
+        assertTrue(secondOpenFuture.isDone() && !secondOpenFuture.isCompletedExceptionally());
+    }
+
+    @Test
+    public void openRetryScheduledBeforeCloseDoesNotOpenConnection()
+    {
+        //arrange
+        final List<Runnable> scheduledRetries = new ArrayList<>();
+        final AtomicInteger openConnectionCount = new AtomicInteger();
+        openWithRetryExpectations(scheduledRetries, openConnectionCount);
+
+        IotHubTransport transport = new IotHubTransport(mockedConfig, mockedIotHubConnectionStatusChangeCallback, false);
+        CompletableFuture<Void> abandonedOpenFuture = transport.openAsync(true);
+        transport.close(CLIENT_CLOSE, null);
+        CompletableFuture<Void> openFuture = transport.openAsync(true);
+
+        //act
+        scheduledRetries.get(0).run();
+
+        //assert
+        assertTrue(abandonedOpenFuture.isCompletedExceptionally());
+        assertTrue(openFuture.isDone() && !openFuture.isCompletedExceptionally());
+        assertEquals(2, openConnectionCount.get());
+    }
+
+    // The first connection attempt fails and the retries that the retry policy allows for are saved instead of being
+    // run, so that the tests can decide when each of them runs
+    private void openWithRetryExpectations(final List<Runnable> scheduledRetries, final AtomicInteger openConnectionCount)
+    {
+        new NonStrictExpectations()
+        {
+            {
+                mockedConfig.getDeviceId();
+                result = "someDeviceId";
+
+                mockedConfig.getRetryPolicy();
+                result = mockedRetryPolicy;
+
+                mockedRetryPolicy.getRetryDecision(anyInt, (TransportException) any);
+                result = mockedRetryDecision;
+
+                mockedRetryDecision.getDuration();
+                result = 0;
+
+                mockedRetryDecision.shouldRetry();
+                result = true;
+            }
+        };
+
+        new MockUp<RetryScheduler>()
+        {
+            @Mock void schedule(Runnable task, long delayMilliseconds)
+            {
+                scheduledRetries.add(task);
+            }
+        };
+
+        new MockUp<IotHubTransport>()
+        {
+            @Mock void openConnection() throws TransportException
+            {
+                if (openConnectionCount.incrementAndGet() == 1)
+                {
+                    throw new ProtocolException("mock exception");
+                }
+            }
+
+            @Mock boolean hasOperationTimedOut(long time)
+            {
+                return false;
+            }
+        };
+    }
 }
@@ -0,0 +1,250 @@
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license. See LICENSE file in the project root for full license information.
+
+package com.microsoft.azure.sdk.iot.device.transport;
+
+import com.microsoft.azure.sdk.iot.device.IotHubConnectionStatusChangeReason;
+import mockit.Deencapsulation;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class MultiplexedDeviceStateRegistryTest
+{
+    private static final String DEVICE_ID = "someDevice";
+    private static final String OTHER_DEVICE_ID = "someOtherDevice";
+
+    @Test
+    public void registerTracksDeviceAsDisconnected()
+    {
+        //arrange
+        MultiplexedDeviceStateRegistry registry = new MultiplexedDeviceStateRegistry();
+
+        //act
+        registry.register(DEVICE_ID);
+
+        //assert
+        assertEquals(IotHubConnectionStatus.DISCONNECTED, registry.getConnectionStatus(DEVICE_ID));
+        assertNull(registry.getConnectionStatus(OTHER_DEVICE_ID));
+        assertFalse(registry.hasRetryingDevices());
+    }
+
+    @Test
+    public void transitionNotifiesListenersWithPreviousStatus()
+    {
+        //arrange
+        MultiplexedDeviceStateRegistry registry = new MultiplexedDeviceStateRegistry();
+        final List<IotHubConnectionStatus> previousStatuses = new ArrayList<>();
+        final List<IotHubConnectionStatus> newStatuses = new ArrayList<>();
+        registry.addTransitionListener((deviceId, previousStatus, newStatus, reason, throwable) ->
+        {
+            previousStatuses.add(previousStatus);
+            newStatuses.add(newStatus);
+        });
+        registry.register(DEVICE_ID);
+
+        //act
+        boolean changed = registry.transition(DEVICE_ID, IotHubConnectionStatus.CONNECTED, IotHubConnectionStatusChangeReason.CONNECTION_OK, null);
+
+        //assert
+        assertTrue(changed);
+        assertEquals(IotHubConnectionStatus.CONNECTED, registry.getConnectionStatus(DEVICE_ID));
+        assertEquals(1, newStatuses.size());
+        assertEquals(IotHubConnectionStatus.DISCONNECTED, previousStatuses.get(0));
+        assertEquals(IotHubConnectionStatus.CONNECTED, newStatuses.get(0));
+    }
+
+    @Test
+    public void transitionNotifiesListenersAfterReleasingDeviceLock()
+    {
+        //arrange
+        final MultiplexedDeviceStateRegistry registry = new MultiplexedDeviceStateRegistry();
+        final List<IotHubConnectionStatus> newStatuses = new ArrayList<>();
+        registry.register(DEVICE_ID);
+        registry.addTransitionListener((deviceId, previousStatus, newStatus, reason, throwable) ->
+        {
+            newStatuses.add(newStatus);
+
+            if (newStatus == IotHubConnectionStatus.CONNECTED)
+            {
+                // would deadlock if the listener was called while this thread held the device's lock stripe
+                Thread otherThread = new Thread(() -> registry.transition(DEVICE_ID, IotHubConnectionStatus.DISCONNECTED_RETRYING, IotHubConnectionStatusChangeReason.NO_NETWORK, null));
+                otherThread.start();
+                try
+                {
+                    otherThread.join();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        //act
+        registry.transition(DEVICE_ID, IotHubConnectionStatus.CONNECTED, IotHubConnectionStatusChangeReason.CONNECTION_OK, null);
+
+        //assert
+        assertEquals(IotHubConnectionStatus.DISCONNECTED_RETRYING, registry.getConnectionStatus(DEVICE_ID));
+        assertEquals(2, newStatuses.size());
+        assertEquals(IotHubConnectionStatus.CONNECTED, newStatuses.get(0));
+        assertEquals(IotHubConnectionStatus.DISCONNECTED_RETRYING, newStatuses.get(1));
+    }
+
+    @Test
+    public void transitionsOfOneDeviceAreNotifiedInOrder()
+    {
+        //arrange
+        final MultiplexedDeviceStateRegistry registry = new MultiplexedDeviceStateRegistry();
+        final List<IotHubConnectionStatus> newStatuses = new ArrayList<>();
+        registry.register(DEVICE_ID);
+        registry.addTransitionListener((deviceId, previousStatus, newStatus, reason, throwable) ->
+        {
+            if (newStatus == IotHubConnectionStatus.CONNECTED)
+            {
+                // a transition made while another one of the same device is being published is published after it
+                registry.transition(DEVICE_ID, IotHubConnectionStatus.DISCONNECTED_RETRYING, IotHubConnectionStatusChangeReason.NO_NETWORK, null);
+            }
+
+            newStatuses.add(newStatus);
+        });
+
+        //act
+        registry.transition(DEVICE_ID, IotHubConnectionStatus.CONNECTED, IotHubConnectionStatusChangeReason.CONNECTION_OK, null);
+
+        //assert
+        assertEquals(2, newStatuses.size());
+        assertEquals(IotHubConnectionStatus.CONNECTED, newStatuses.get(0));
+        assertEquals(IotHubConnectionStatus.DISCONNECTED_RETRYING, newStatuses.get(1));
+    }
+
+    @Test
+    public void transitionsOfReregisteredDeviceAreNotifiedAfterThoseMadeBeforeRemoval()
+    {
+        //arrange
+        final MultiplexedDeviceStateRegistry registry = new MultiplexedDeviceStateRegistry();
+        final List<IotHubConnectionStatus> newStatuses = new ArrayList<>();
+        registry.register(DEVICE_ID);
+        registry.addTransitionListener((deviceId, previousStatus, newStatus, reason, throwable) ->
+        {
+            if (newStatus == IotHubConnectionStatus.CONNECTED)
+            {
+                // the device is removed and registered again while its earlier transition is still being published
+                registry.remove(DEVICE_ID);
+                registry.register(DEVICE_ID);
+                registry.transition(DEVICE_ID, IotHubConnectionStatus.DISCONNECTED_RETRYING, IotHubConnectionStatusChangeReason.NO_NETWORK, null);
+            }
+
+            newStatuses.add(newStatus);
+        });
+
+        //act
+        registry.transition(DEVICE_ID, IotHubConnectionStatus.CONNECTED, IotHubConnectionStatusChangeReason.CONNECTION_OK, null);
+
+        //assert
+        assertEquals(2, newStatuses.size());
+        assertEquals(IotHubConnectionStatus.CONNECTED, newStatuses.get(0));
+        assertEquals(IotHubConnectionStatus.DISCONNECTED_RETRYING, newStatuses.get(1));
+    }
+
+    @Test
+    public void removeDropsIdleTransitionQueueOfDevice()
+    {
+        //arrange
+        MultiplexedDeviceStateRegistry registry = new MultiplexedDeviceStateRegistry();
+        registry.register(DEVICE_ID);
+        registry.transition(DEVICE_ID, IotHubConnectionStatus.CONNECTED, IotHubConnectionStatusChangeReason.CONNECTION_OK, null);
+
+        //act
+        registry.remove(DEVICE_ID);
+
+        //assert
+        Map<String, ?> pendingTransitions = Deencapsulation.getField(registry, "pendingTransitions");
+        assertTrue(pendingTransitions.isEmpty());
+    }
+
+    @Test
+    public void transitionIgnoresUnchangedStatusAndUntrackedDevices()
+    {
+        //arrange
+        MultiplexedDeviceStateRegistry registry = new MultiplexedDeviceStateRegistry();
+        final List<String> notifiedDeviceIds = new ArrayList<>();
+        registry.addTransitionListener((deviceId, previousStatus, newStatus, reason, throwable) -> notifiedDeviceIds.add(deviceId));
+        registry.register(DEVICE_ID);
+
+        //act
+        boolean sameStatusChanged = registry.transition(DEVICE_ID, IotHubConnectionStatus.DISCONNECTED, IotHubConnectionStatusChangeReason.CLIENT_CLOSE, null);
+        boolean untrackedDeviceChanged = registry.transition(OTHER_DEVICE_ID, IotHubConnectionStatus.CONNECTED, IotHubConnectionStatusChangeReason.CONNECTION_OK, null);
+
+        //assert
+        assertFalse(sameStatusChanged);
+        assertFalse(untrackedDeviceChanged);
+        assertTrue(notifiedDeviceIds.isEmpty());
+        assertNull(registry.get(OTHER_DEVICE_ID));
+    }
+
+    @Test
+    public void retryingDevicesAreTrackedAcrossTransitions()
+    {
+        //arrange
+        MultiplexedDeviceStateRegistry registry = new MultiplexedDeviceStateRegistry();
+        registry.register(DEVICE_ID);
+        registry.register(OTHER_DEVICE_ID);
+
+        //act
+        registry.transition(DEVICE_ID, IotHubConnectionStatus.DISCONNECTED_RETRYING, IotHubConnectionStatusChangeReason.NO_NETWORK, null);
+
+        //assert
+        assertTrue(registry.hasRetryingDevices());
+        assertEquals(DEVICE_ID, registry.getAnyRetryingDeviceId());
+
+        //act
+        registry.transition(DEVICE_ID, IotHubConnectionStatus.CONNECTED, IotHubConnectionStatusChangeReason.CONNECTION_OK, null);
+
+        //assert
+        assertFalse(registry.hasRetryingDevices());
+        assertNull(registry.getAnyRetryingDeviceId());
+    }
+
+    @Test
+    public void removeStopsTrackingRetryingDevice()
+    {
+        //arrange
+        MultiplexedDeviceStateRegistry registry = new MultiplexedDeviceStateRegistry();
+        registry.register(DEVICE_ID);
+        registry.transition(DEVICE_ID, IotHubConnectionStatus.DISCONNECTED_RETRYING, IotHubConnectionStatusChangeReason.NO_NETWORK, null);
+
+        //act
+        registry.remove(DEVICE_ID);
+
+        //assert
+        assertNull(registry.get(DEVICE_ID));
+        assertFalse(registry.hasRetryingDevices());
+    }
+
+    @Test
+    public void setAllConnectionStatusesUpdatesEveryDeviceWithoutNotifying()
+    {
+        //arrange
+        MultiplexedDeviceStateRegistry registry = new MultiplexedDeviceStateRegistry();
+        final List<String> notifiedDeviceIds = new ArrayList<>();
+        registry.addTransitionListener((deviceId, previousStatus, newStatus, reason, throwable) -> notifiedDeviceIds.add(deviceId));
+        registry.register(DEVICE_ID);
+        registry.register(OTHER_DEVICE_ID);
+        registry.get(DEVICE_ID).setReconnectionAttemptNumber(3);
+
+        //act
+        registry.setAllConnectionStatuses(IotHubConnectionStatus.DISCONNECTED_RETRYING);
+
+        //assert
+        assertEquals(IotHubConnectionStatus.DISCONNECTED_RETRYING, registry.getConnectionStatus(DEVICE_ID));
+        assertEquals(IotHubConnectionStatus.DISCONNECTED_RETRYING, registry.getConnectionStatus(OTHER_DEVICE_ID));
+        assertEquals(0, registry.get(DEVICE_ID).getReconnectionAttemptNumber());
+        assertTrue(registry.hasRetryingDevices());
+        assertTrue(notifiedDeviceIds.isEmpty());
+    }
+}
@@ -3,6 +3,10 @@
 
 package com.microsoft.azure.sdk.iot.device.transport.https;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.microsoft.azure.sdk.iot.device.Message;
 import com.microsoft.azure.sdk.iot.device.MessageProperty;
 import mockit.Mocked;
 import mockit.NonStrictExpectations;
@@ -11,6 +15,7 @@ import org.junit.Test;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -20,6 +25,7 @@ import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 /** Unit tests for HttpsBatchMessage.
  *  Coverage 100% method, 100% line
@@ -323,4 +329,79 @@ public class HttpsBatchMessageTest
 
         assertThat(httpsBatchMessageSizeLimitVerified, is(true));
     }
+
+    @Test
+    public void escapesPropertiesAsJsonStrings()
+    {
+        Message message = new Message("test-msg-body");
+        message.setProperty("quote\"key", "back\\slash\nnew line \u00e9\u4e2d\ud83d\ude00");
+
+        List<HttpsSingleMessage> messageList = new ArrayList<>();
+        messageList.add(HttpsSingleMessage.parseHttpsMessage(message));
+        HttpsBatchMessage batchMsg = new HttpsBatchMessage(messageList);
+
+        JsonObject properties = JsonParser.parseString(new String(batchMsg.getBody(), UTF8))
+            .getAsJsonArray().get(0).getAsJsonObject().getAsJsonObject("properties");
+        assertThat(properties.get("iothub-app-quote\"key").getAsString(), is("back\\slash\nnew line \u00e9\u4e2d\ud83d\ude00"));
+    }
+
+    @Test
+    public void encodesBodiesOfEveryLengthAsBase64()
+    {
+        List<HttpsSingleMessage> messageList = new ArrayList<>();
+        for (int length = 0; length < 8; length++)
+        {
+            byte[] body = new byte[length];
+            Arrays.fill(body, (byte) (0xf0 + length));
+            messageList.add(HttpsSingleMessage.parseHttpsMessage(new Message(body)));
+        }
+
+        HttpsBatchMessage batchMsg = new HttpsBatchMessage(messageList);
+
+        JsonArray batch = JsonParser.parseString(new String(batchMsg.getBody(), UTF8)).getAsJsonArray();
+        assertThat(batch.size(), is(messageList.size()));
+        for (int i = 0; i < messageList.size(); i++)
+        {
+            assertThat(batch.get(i).getAsJsonObject().get("body").getAsString(), is(encodeBase64String(messageList.get(i).getBody())));
+        }
+    }
+
+    @Test
+    public void createBatchesSplitsOversizedBatchesInOrder()
+    {
+        List<HttpsSingleMessage> messageList = new ArrayList<>();
+        for (int i = 0; i < 5; i++)
+        {
+            Message message = new Message(new byte[60 * 1024]);
+            message.setMessageId(String.valueOf(i));
+            messageList.add(HttpsSingleMessage.parseHttpsMessage(message));
+        }
+
+        List<HttpsBatchMessage> batches = HttpsBatchMessage.createBatches(messageList);
+
+        assertThat(batches.size(), is(2));
+        int expectedMessageId = 0;
+        for (HttpsBatchMessage batch : batches)
+        {
+            assertTrue(batch.getBody().length <= 255 * 1024 - 1);
+            JsonArray messages = JsonParser.parseString(new String(batch.getBody(), UTF8)).getAsJsonArray();
+            assertThat(messages.size(), is(batch.numMessages()));
+            for (int i = 0; i < messages.size(); i++)
+            {
+                String messageId = messages.get(i).getAsJsonObject().getAsJsonObject("properties").get("iothub-messageid").getAsString();
+                assertThat(messageId, is(String.valueOf(expectedMessageId++)));
+            }
+        }
+        assertThat(expectedMessageId, is(messageList.size()));
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void createBatchesThrowsIfSingleMessageTooLarge()
+    {
+        List<HttpsSingleMessage> messageList = new ArrayList<>();
+        messageList.add(HttpsSingleMessage.parseHttpsMessage(new Message(new byte[10])));
+        messageList.add(HttpsSingleMessage.parseHttpsMessage(new Message(new byte[255 * 1024])));
+
+        HttpsBatchMessage.createBatches(messageList);
+    }
 }
@@ -6,6 +6,7 @@ package com.microsoft.azure.sdk.iot.device.transport.https;
 import com.microsoft.azure.sdk.iot.device.ProxySettings;
 import com.microsoft.azure.sdk.iot.device.transport.TransportException;
 import com.microsoft.azure.sdk.iot.device.transport.HttpProxySocketFactory;
+import com.microsoft.azure.sdk.iot.device.transport.TlsHandshakeStatistics;
 import mockit.*;
 import org.junit.Assert;
 import org.junit.Test;
@@ -419,7 +420,7 @@ public class HttpsConnectionTest
 
     //Tests_SRS_HTTPSCONNECTION_25_024: [**The function shall set the the SSL context with the given value.**]**
     @Test
-    public void setSSLContextSetsContext(@Mocked final SSLContext mockedContext) throws IOException, TransportException
+    public void setSSLContextSetsContext(@Mocked final SSLContext mockedContext, @Mocked final SSLSocketFactory mockedSocketFactory, @Mocked final SSLSocketFactory mockedCountingSocketFactory, @Mocked final TlsHandshakeStatistics mockedTlsHandshakeStatistics) throws IOException, TransportException
     {
         final HttpsMethod httpsMethod = HttpsMethod.POST;
         final String field = "test-field";
@@ -434,6 +435,10 @@ public class HttpsConnectionTest
                 result = mockUrlConn;
                 mockUrlConn.getRequestMethod();
                 result = httpsMethod.name();
+                mockedContext.getSocketFactory();
+                result = mockedSocketFactory;
+                TlsHandshakeStatistics.withHandshakeCounting(mockedSocketFactory);
+                result = mockedCountingSocketFactory;
             }
         };
         final HttpsConnection conn = new HttpsConnection(mockUrl, httpsMethod);
@@ -443,14 +448,14 @@ public class HttpsConnectionTest
         new Verifications()
         {
             {
-                mockUrlConn.setSSLSocketFactory(mockedContext.getSocketFactory());
+                mockUrlConn.setSSLSocketFactory(mockedCountingSocketFactory);
                 times = 1;
             }
         };
     }
 
     @Test
-    public void setSSLContextSetsContextWithProxy(@Mocked final SSLContext mockedContext, @Mocked final SSLSocketFactory mockedSocketFactory, @Mocked final HttpProxySocketFactory mockedHttpProxySocketFactory) throws IOException, TransportException
+    public void setSSLContextSetsContextWithProxy(@Mocked final SSLContext mockedContext, @Mocked final SSLSocketFactory mockedSocketFactory, @Mocked final SSLSocketFactory mockedCountingSocketFactory, @Mocked final TlsHandshakeStatistics mockedTlsHandshakeStatistics, @Mocked final HttpProxySocketFactory mockedHttpProxySocketFactory) throws IOException, TransportException
     {
         final HttpsMethod httpsMethod = HttpsMethod.POST;
         new NonStrictExpectations()
@@ -464,7 +469,9 @@ public class HttpsConnectionTest
                 result = httpsMethod.name();
                 mockedContext.getSocketFactory();
                 result = mockedSocketFactory;
-                new HttpProxySocketFactory(mockedSocketFactory, mockProxySettings);
+                TlsHandshakeStatistics.withHandshakeCounting(mockedSocketFactory);
+                result = mockedCountingSocketFactory;
+                new HttpProxySocketFactory(mockedCountingSocketFactory, mockProxySettings);
                 result = mockedHttpProxySocketFactory;
             }
         };
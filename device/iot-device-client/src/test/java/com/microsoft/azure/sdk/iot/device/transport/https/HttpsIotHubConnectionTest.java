@@ -16,6 +16,7 @@ import org.junit.Test;
 import javax.net.ssl.SSLContext;
 import java.io.IOException;
 import java.net.URL;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -477,6 +478,45 @@ public class HttpsIotHubConnectionTest
         assertThat(iotHubStatusCode, is(status));
     }
 
+    @Test
+    public void sendBatchMessageMarksOnlyTheDeliveredPartsWhenALaterPartFails(@Mocked final IotHubEventUri mockUri,
+                                                                               @Mocked final HttpsBatchMessage mockBatch) throws TransportException
+    {
+        final List<Message> nestedMessages = Arrays.asList(new Message("a"), new Message("b"), new Message("c"));
+        final BatchMessage batchMessage = Deencapsulation.newInstance(BatchMessage.class, new Class[] {List.class}, nestedMessages);
+        new NonStrictExpectations()
+        {
+            {
+                HttpsBatchMessage.createBatches((List<HttpsSingleMessage>) any);
+                result = Arrays.asList(mockBatch, mockBatch);
+                mockBatch.numMessages();
+                result = 2;
+                new HttpsRequest((URL) any, HttpsMethod.POST, (byte[]) any, anyString, null);
+                result = mockRequest;
+                mockRequest.send();
+                result = mockResponse;
+                mockResponse.getStatus();
+                returns(200, 500);
+            }
+        };
+
+        HttpsIotHubConnection conn = new HttpsIotHubConnection(mockConfig);
+        conn.setListener(mockedListener);
+
+        IotHubStatusCode iotHubStatusCode = conn.sendMessage(batchMessage);
+
+        assertThat(iotHubStatusCode, is(IotHubStatusCode.getIotHubStatusCode(500)));
+        assertEquals(1, batchMessage.getUndeliveredNestedMessages().size());
+        assertSame(nestedMessages.get(2), batchMessage.getUndeliveredNestedMessages().get(0));
+        new Verifications()
+        {
+            {
+                mockedListener.onMessageSent((Message) any, anyString, (TransportException) any);
+                times = 0;
+            }
+        };
+    }
+
     // Tests_SRS_HTTPSIOTHUBCONNECTION_11_012: [If the IoT Hub could not be reached, the function shall throw a TransportException.]
     @Test(expected = TransportException.class)
     public void sendEventThrowsProtocolConnectionExceptionIfRequestFails(@Mocked final IotHubEventUri mockUri) throws TransportException
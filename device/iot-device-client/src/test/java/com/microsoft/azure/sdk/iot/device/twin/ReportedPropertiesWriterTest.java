@@ -0,0 +1,277 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.azure.sdk.iot.device.twin;
+
+import com.microsoft.azure.sdk.iot.device.InternalClient;
+import com.microsoft.azure.sdk.iot.device.IotHubStatusCode;
+import mockit.Deencapsulation;
+import mockit.Mocked;
+import mockit.Verifications;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.junit.Assert.*;
+
+public class ReportedPropertiesWriterTest
+{
+    // long enough that the window never closes on its own during a test
+    private static final long COALESCING_WINDOW_MILLISECONDS = 60 * 60 * 1000;
+
+    @Mocked
+    InternalClient mockedInternalClient;
+
+    @Test (expected = IllegalArgumentException.class)
+    public void constructorThrowsForNonPositiveWindow()
+    {
+        new ReportedPropertiesWriter(mockedInternalClient, 0);
+    }
+
+    @Test
+    public void updatesWithinWindowAreSentAsOneRequest()
+    {
+        //arrange
+        ReportedPropertiesWriter writer = new ReportedPropertiesWriter(mockedInternalClient, COALESCING_WINDOW_MILLISECONDS);
+
+        TwinCollection firstUpdate = new TwinCollection();
+        firstUpdate.put("temperature", 20);
+        Map<String, Object> firstLocation = new HashMap<>();
+        firstLocation.put("latitude", 1);
+        firstLocation.put("longitude", 2);
+        firstUpdate.put("location", firstLocation);
+
+        TwinCollection secondUpdate = new TwinCollection();
+        secondUpdate.put("temperature", 25);
+        secondUpdate.put("humidity", null);
+        Map<String, Object> secondLocation = new HashMap<>();
+        secondLocation.put("longitude", 3);
+        secondUpdate.put("location", secondLocation);
+
+        //act
+        writer.updateReportedPropertiesAsync(firstUpdate, null, null);
+        writer.updateReportedPropertiesAsync(secondUpdate, null, null);
+        writer.flush();
+
+        //assert
+        final List<TwinCollection> sentUpdates = new ArrayList<>();
+        new Verifications()
+        {
+            {
+                mockedInternalClient.updateReportedPropertiesAsync(withCapture(sentUpdates), (ReportedPropertiesCallback) any, any);
+                times = 1;
+            }
+        };
+
+        TwinCollection sentUpdate = sentUpdates.get(0);
+        assertEquals(25, sentUpdate.get("temperature"));
+        assertTrue(sentUpdate.containsKey("humidity"));
+        assertNull(sentUpdate.get("humidity"));
+        TwinCollection sentLocation = (TwinCollection) sentUpdate.get("location");
+        assertEquals(1, sentLocation.get("latitude"));
+        assertEquals(3, sentLocation.get("longitude"));
+    }
+
+    @Test
+    public void everyMergedCallerIsCompletedWithTheRequestResult()
+    {
+        //arrange
+        ReportedPropertiesWriter writer = new ReportedPropertiesWriter(mockedInternalClient, COALESCING_WINDOW_MILLISECONDS);
+        final List<Object> completedContexts = new ArrayList<>();
+        final List<Integer> completedVersions = new ArrayList<>();
+        ReportedPropertiesCallback callback = (statusCode, response, e, context) ->
+        {
+            completedContexts.add(context);
+            completedVersions.add(response.getVersion());
+        };
+
+        TwinCollection update = new TwinCollection();
+        update.put("temperature", 20);
+        writer.updateReportedPropertiesAsync(update, callback, "first");
+        writer.updateReportedPropertiesAsync(update, callback, "second");
+        writer.flush();
+
+        final List<ReportedPropertiesCallback> sentCallbacks = new ArrayList<>();
+        new Verifications()
+        {
+            {
+                mockedInternalClient.updateReportedPropertiesAsync((TwinCollection) any, withCapture(sentCallbacks), any);
+                times = 1;
+            }
+        };
+
+        //act
+        sentCallbacks.get(0).onReportedPropertiesUpdateAcknowledged(IotHubStatusCode.OK, new ReportedPropertiesUpdateResponse(7), null, null);
+
+        //assert
+        assertEquals(2, completedContexts.size());
+        assertEquals("first", completedContexts.get(0));
+        assertEquals("second", completedContexts.get(1));
+        assertEquals(7, (int) completedVersions.get(0));
+        assertEquals(7, (int) completedVersions.get(1));
+    }
+
+    @Test
+    public void versionedUpdatesAreNotMerged()
+    {
+        //arrange
+        ReportedPropertiesWriter writer = new ReportedPropertiesWriter(mockedInternalClient, COALESCING_WINDOW_MILLISECONDS);
+
+        TwinCollection update = new TwinCollection();
+        update.put("temperature", 20);
+
+        TwinCollection versionedUpdate = new TwinCollection();
+        versionedUpdate.put("temperature", 25);
+        versionedUpdate.setVersion(3);
+
+        //act
+        writer.updateReportedPropertiesAsync(update, null, null);
+        writer.updateReportedPropertiesAsync(versionedUpdate, null, null);
+
+        //assert
+        final List<TwinCollection> sentUpdates = new ArrayList<>();
+        new Verifications()
+        {
+            {
+                mockedInternalClient.updateReportedPropertiesAsync(withCapture(sentUpdates), (ReportedPropertiesCallback) any, any);
+                times = 2;
+            }
+        };
+
+        assertEquals(20, sentUpdates.get(0).get("temperature"));
+        assertEquals(25, sentUpdates.get(1).get("temperature"));
+        assertEquals(3, (int) sentUpdates.get(1).getVersion());
+    }
+
+    @Test
+    public void flushCancelsTheScheduledFlushOfItsWindow()
+    {
+        //arrange
+        ReportedPropertiesWriter writer = new ReportedPropertiesWriter(mockedInternalClient, COALESCING_WINDOW_MILLISECONDS);
+
+        TwinCollection update = new TwinCollection();
+        update.put("temperature", 20);
+        writer.updateReportedPropertiesAsync(update, null, null);
+        ScheduledFuture<?> scheduledFlush = Deencapsulation.getField(writer, "scheduledFlush");
+
+        //act
+        writer.flush();
+
+        //assert
+        assertTrue(scheduledFlush.isCancelled());
+    }
+
+    @Test
+    public void scheduledFlushOfEarlierWindowDoesNotSendLaterWindow()
+    {
+        //arrange
+        ReportedPropertiesWriter writer = new ReportedPropertiesWriter(mockedInternalClient, COALESCING_WINDOW_MILLISECONDS);
+
+        TwinCollection firstUpdate = new TwinCollection();
+        firstUpdate.put("temperature", 20);
+        writer.updateReportedPropertiesAsync(firstUpdate, null, null);
+        TwinCollection firstWindow = Deencapsulation.getField(writer, "pendingUpdate");
+        writer.flush();
+
+        TwinCollection secondUpdate = new TwinCollection();
+        secondUpdate.put("temperature", 25);
+        writer.updateReportedPropertiesAsync(secondUpdate, null, null);
+
+        //act
+        Deencapsulation.invoke(writer, "flushWindow", firstWindow);
+
+        //assert
+        new Verifications()
+        {
+            {
+                mockedInternalClient.updateReportedPropertiesAsync((TwinCollection) any, (ReportedPropertiesCallback) any, any);
+                times = 1;
+            }
+        };
+    }
+
+    @Test
+    public void nestedSetAfterDeleteOfSameKeyIsSentSeparately()
+    {
+        //arrange
+        ReportedPropertiesWriter writer = new ReportedPropertiesWriter(mockedInternalClient, COALESCING_WINDOW_MILLISECONDS);
+
+        TwinCollection deleteUpdate = new TwinCollection();
+        deleteUpdate.put("location", null);
+
+        TwinCollection nestedUpdate = new TwinCollection();
+        Map<String, Object> location = new HashMap<>();
+        location.put("latitude", 1);
+        nestedUpdate.put("location", location);
+
+        //act
+        writer.updateReportedPropertiesAsync(deleteUpdate, null, null);
+        writer.updateReportedPropertiesAsync(nestedUpdate, null, null);
+        writer.flush();
+
+        //assert
+        final List<TwinCollection> sentUpdates = new ArrayList<>();
+        new Verifications()
+        {
+            {
+                mockedInternalClient.updateReportedPropertiesAsync(withCapture(sentUpdates), (ReportedPropertiesCallback) any, any);
+                times = 2;
+            }
+        };
+
+        assertTrue(sentUpdates.get(0).containsKey("location"));
+        assertNull(sentUpdates.get(0).get("location"));
+        assertEquals(1, ((TwinCollection) sentUpdates.get(1).get("location")).get("latitude"));
+    }
+
+    @Test
+    public void nestedSetAfterNestedDeleteOfSameKeyIsSentSeparately()
+    {
+        //arrange
+        ReportedPropertiesWriter writer = new ReportedPropertiesWriter(mockedInternalClient, COALESCING_WINDOW_MILLISECONDS);
+
+        TwinCollection deleteUpdate = new TwinCollection();
+        Map<String, Object> deletedAddress = new HashMap<>();
+        deletedAddress.put("address", null);
+        deleteUpdate.put("location", deletedAddress);
+
+        TwinCollection nestedUpdate = new TwinCollection();
+        Map<String, Object> address = new HashMap<>();
+        address.put("city", "Redmond");
+        Map<String, Object> location = new HashMap<>();
+        location.put("address", address);
+        nestedUpdate.put("location", location);
+
+        //act
+        writer.updateReportedPropertiesAsync(deleteUpdate, null, null);
+        writer.updateReportedPropertiesAsync(nestedUpdate, null, null);
+        writer.flush();
+
+        //assert
+        new Verifications()
+        {
+            {
+                mockedInternalClient.updateReportedPropertiesAsync((TwinCollection) any, (ReportedPropertiesCallback) any, any);
+                times = 2;
+            }
+        };
+    }
+
+    @Test (expected = IllegalStateException.class)
+    public void updateAfterCloseThrows()
+    {
+        //arrange
+        ReportedPropertiesWriter writer = new ReportedPropertiesWriter(mockedInternalClient, COALESCING_WINDOW_MILLISECONDS);
+        writer.close();
+
+        TwinCollection update = new TwinCollection();
+        update.put("temperature", 20);
+
+        //act
+        writer.updateReportedPropertiesAsync(update, null, null);
+    }
+}
@@ -0,0 +1,216 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.azure.sdk.iot.device.twin;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TwinMirrorTest
+{
+    private static TwinCollection desiredUpdate(int version, String key, Object value)
+    {
+        TwinCollection update = new TwinCollection();
+        update.put(key, value);
+        update.setVersion(version);
+        return update;
+    }
+
+    private static TwinMirror seededMirror(int desiredVersion, int reportedVersion)
+    {
+        TwinCollection desired = new TwinCollection();
+        desired.put("temperature", 20);
+        desired.put("mode", "auto");
+        desired.setVersion(desiredVersion);
+
+        TwinCollection reported = new TwinCollection();
+        reported.put("firmware", "1.0");
+        reported.setVersion(reportedVersion);
+
+        TwinMirror mirror = new TwinMirror();
+        mirror.setTwin(Twin.createFromCollections(desired, reported));
+        return mirror;
+    }
+
+    @Test
+    public void getTwinReturnsNullBeforeSeeding()
+    {
+        //arrange
+        TwinMirror mirror = new TwinMirror();
+
+        //act
+        boolean shouldResynchronize = mirror.applyDesiredPropertiesUpdate(desiredUpdate(2, "temperature", 25));
+
+        //assert
+        assertFalse(shouldResynchronize);
+        assertNull(mirror.getTwin());
+    }
+
+    @Test
+    public void inOrderDesiredUpdatesAreApplied()
+    {
+        //arrange
+        TwinMirror mirror = seededMirror(4, 1);
+
+        //act
+        boolean shouldResynchronize = mirror.applyDesiredPropertiesUpdate(desiredUpdate(5, "temperature", 25));
+        boolean shouldResynchronize2 = mirror.applyDesiredPropertiesUpdate(desiredUpdate(6, "mode", null));
+
+        //assert
+        assertFalse(shouldResynchronize);
+        assertFalse(shouldResynchronize2);
+        Twin twin = mirror.getTwin();
+        assertEquals(6, (int) twin.getDesiredProperties().getVersion());
+        assertEquals(25, twin.getDesiredProperties().get("temperature"));
+        assertFalse(twin.getDesiredProperties().containsKey("mode"));
+        assertEquals("1.0", twin.getReportedProperties().get("firmware"));
+    }
+
+    @Test
+    public void staleDesiredUpdatesAreIgnored()
+    {
+        //arrange
+        TwinMirror mirror = seededMirror(4, 1);
+
+        //act
+        boolean shouldResynchronize = mirror.applyDesiredPropertiesUpdate(desiredUpdate(4, "temperature", 25));
+
+        //assert
+        assertFalse(shouldResynchronize);
+        assertEquals(20, mirror.getTwin().getDesiredProperties().get("temperature"));
+    }
+
+    @Test
+    public void versionGapRequestsResynchronizationOnce()
+    {
+        //arrange
+        TwinMirror mirror = seededMirror(4, 1);
+
+        //act
+        boolean shouldResynchronize = mirror.applyDesiredPropertiesUpdate(desiredUpdate(6, "temperature", 25));
+        boolean shouldResynchronize2 = mirror.applyDesiredPropertiesUpdate(desiredUpdate(7, "temperature", 30));
+
+        //assert
+        assertTrue(shouldResynchronize);
+        assertFalse(shouldResynchronize2);
+        assertNull(mirror.getTwin());
+    }
+
+    @Test
+    public void missedUpdateArrivingLateClosesGap()
+    {
+        //arrange
+        TwinMirror mirror = seededMirror(4, 1);
+        mirror.applyDesiredPropertiesUpdate(desiredUpdate(6, "temperature", 30));
+
+        //act
+        mirror.applyDesiredPropertiesUpdate(desiredUpdate(5, "temperature", 25));
+
+        //assert
+        Twin twin = mirror.getTwin();
+        assertNotNull(twin);
+        assertEquals(6, (int) twin.getDesiredProperties().getVersion());
+        assertEquals(30, twin.getDesiredProperties().get("temperature"));
+    }
+
+    @Test
+    public void fullTwinAppliesNewerPendingUpdates()
+    {
+        //arrange
+        TwinMirror mirror = seededMirror(4, 1);
+        mirror.applyDesiredPropertiesUpdate(desiredUpdate(6, "mode", "manual"));
+        mirror.applyDesiredPropertiesUpdate(desiredUpdate(7, "temperature", 30));
+
+        TwinCollection desired = new TwinCollection();
+        desired.put("temperature", 25);
+        desired.put("mode", "manual");
+        desired.setVersion(6);
+
+        //act
+        mirror.setTwin(Twin.createFromCollections(desired, new TwinCollection()));
+
+        //assert
+        Twin twin = mirror.getTwin();
+        assertNotNull(twin);
+        assertEquals(7, (int) twin.getDesiredProperties().getVersion());
+        assertEquals(30, twin.getDesiredProperties().get("temperature"));
+        assertEquals("manual", twin.getDesiredProperties().get("mode"));
+    }
+
+    @Test
+    public void reportedUpdateWithNextVersionIsApplied()
+    {
+        //arrange
+        TwinMirror mirror = seededMirror(4, 1);
+        TwinCollection reportedUpdate = new TwinCollection();
+        reportedUpdate.put("firmware", "2.0");
+
+        //act
+        mirror.applyReportedPropertiesUpdate(reportedUpdate, 2);
+
+        //assert
+        Twin twin = mirror.getTwin();
+        assertEquals(2, (int) twin.getReportedProperties().getVersion());
+        assertEquals("2.0", twin.getReportedProperties().get("firmware"));
+    }
+
+    @Test
+    public void reportedUpdateWithUnexpectedVersionInvalidatesMirror()
+    {
+        //arrange
+        TwinMirror mirror = seededMirror(4, 1);
+        TwinCollection reportedUpdate = new TwinCollection();
+        reportedUpdate.put("firmware", "2.0");
+
+        //act
+        mirror.applyReportedPropertiesUpdate(reportedUpdate, 3);
+
+        //assert
+        assertNull(mirror.getTwin());
+    }
+
+    @Test
+    public void returnedTwinIsACopy()
+    {
+        //arrange
+        TwinMirror mirror = seededMirror(4, 1);
+
+        //act
+        mirror.getTwin().getDesiredProperties().put("temperature", 100);
+
+        //assert
+        assertEquals(20, mirror.getTwin().getDesiredProperties().get("temperature"));
+    }
+
+    @Test
+    public void invalidateDiscardsMirroredTwin()
+    {
+        //arrange
+        TwinMirror mirror = seededMirror(4, 1);
+
+        //act
+        mirror.invalidate();
+
+        //assert
+        assertNull(mirror.getTwin());
+    }
+
+    @Test
+    public void invalidateAllowsNewResynchronization()
+    {
+        //arrange
+        TwinMirror mirror = seededMirror(4, 1);
+        assertTrue(mirror.applyDesiredPropertiesUpdate(desiredUpdate(6, "temperature", 25)));
+        TwinCollection updateWithoutVersion = new TwinCollection();
+        updateWithoutVersion.put("temperature", 30);
+
+        //act
+        // the connection drops before the request for the full twin completes
+        mirror.invalidate();
+        boolean shouldResynchronize = mirror.applyDesiredPropertiesUpdate(updateWithoutVersion);
+
+        //assert
+        assertTrue(shouldResynchronize);
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ *
+ *  Copyright (c) Microsoft. All rights reserved.
+ *  Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ *
+ */
+
+package com.microsoft.azure.sdk.iot.provisioning.device;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import static org.apache.commons.codec.binary.Hex.encodeHexString;
+
+/**
+ * A {@link ProvisioningRegistrationCache} that stores each registration result as a json file in a directory, so that
+ * results survive the process restarting.
+ *
+ * <p>
+ * Each file is named after a hash of the global endpoint, id scope and registration id that it belongs to, and is
+ * replaced atomically when it is rewritten, so several processes may share the same directory. Files that can't be read or parsed are
+ * treated as if there were no stored result.
+ * </p>
+ */
+@Slf4j
+public final class FileProvisioningRegistrationCache implements ProvisioningRegistrationCache
+{
+    private static final String FILE_EXTENSION = ".json";
+    private static final String TEMPORARY_FILE_EXTENSION = ".tmp";
+
+    private static final Gson gson = new Gson();
+
+    private final Path directory;
+
+    /**
+     * Construct a cache that stores its registration results in the provided directory. The directory is created the
+     * first time a result is stored, if it doesn't exist yet.
+     * @param directory the directory to store registration results in. Cannot be {@code null}.
+     */
+    public FileProvisioningRegistrationCache(Path directory)
+    {
+        if (directory == null)
+        {
+            throw new IllegalArgumentException("directory cannot be null");
+        }
+
+        this.directory = directory;
+    }
+
+    /**
+     * Construct a cache that stores its registration results in the provided directory. The directory is created the
+     * first time a result is stored, if it doesn't exist yet.
+     * @param directoryPath the path of the directory to store registration results in. Cannot be {@code null} or empty.
+     */
+    public FileProvisioningRegistrationCache(String directoryPath)
+    {
+        this(directoryPath == null || directoryPath.isEmpty() ? null : Paths.get(directoryPath));
+    }
+
+    @Override
+    public ProvisioningDeviceClientRegistrationResult get(String globalEndpoint, String idScope, String registrationId)
+    {
+        Path file = getFile(globalEndpoint, idScope, registrationId);
+        try
+        {
+            CacheEntry entry = gson.fromJson(new String(Files.readAllBytes(file), StandardCharsets.UTF_8), CacheEntry.class);
+
+            // The file name is only a hash of the key, so check that the entry really belongs to this key
+            if (entry == null
+                || !globalEndpoint.equals(entry.globalEndpoint)
+                || !idScope.equals(entry.idScope)
+                || !registrationId.equals(entry.registrationId))
+            {
+                log.debug("Ignoring cached registration result in {} since it does not belong to registration id {}", file, registrationId);
+                return null;
+            }
+
+            return entry.registrationResult;
+        }
+        catch (NoSuchFileException e)
+        {
+            return null;
+        }
+        catch (IOException | JsonParseException e)
+        {
+            log.warn("Failed to read cached registration result from {}, ignoring it", file, e);
+            return null;
+        }
+    }
+
+    @Override
+    public void put(String globalEndpoint, String idScope, String registrationId, ProvisioningDeviceClientRegistrationResult registrationResult)
+    {
+        if (registrationResult == null)
+        {
+            throw new IllegalArgumentException("registrationResult cannot be null");
+        }
+
+        Path file = getFile(globalEndpoint, idScope, registrationId);
+        byte[] json = gson.toJson(new CacheEntry(globalEndpoint, idScope, registrationId, registrationResult)).getBytes(StandardCharsets.UTF_8);
+
+        Path temporaryFile = null;
+        try
+        {
+            Files.createDirectories(this.directory);
+
+            // The temporary file gets a unique name so that processes writing the same entry at once don't collide
+            temporaryFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), TEMPORARY_FILE_EXTENSION);
+            Files.write(temporaryFile, json);
+
+            try
+            {
+                Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            catch (AtomicMoveNotSupportedException e)
+            {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        catch (IOException e)
+        {
+            // Failing to cache a result only means that the next process start registers with the service again
+            log.warn("Failed to cache registration result in {}", file, e);
+
+            if (temporaryFile != null)
+            {
+                try
+                {
+                    Files.deleteIfExists(temporaryFile);
+                }
+                catch (IOException deleteException)
+                {
+                    log.debug("Failed to delete temporary file {}", temporaryFile, deleteException);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void remove(String globalEndpoint, String idScope, String registrationId)
+    {
+        Path file = getFile(globalEndpoint, idScope, registrationId);
+        try
+        {
+            Files.deleteIfExists(file);
+        }
+        catch (IOException e)
+        {
+            log.warn("Failed to remove cached registration result {}", file, e);
+        }
+    }
+
+    private Path getFile(String globalEndpoint, String idScope, String registrationId)
+    {
+        if (globalEndpoint == null || globalEndpoint.isEmpty())
+        {
+            throw new IllegalArgumentException("globalEndpoint cannot be null or empty");
+        }
+
+        if (idScope == null || idScope.isEmpty())
+        {
+            throw new IllegalArgumentException("idScope cannot be null or empty");
+        }
+
+        if (registrationId == null || registrationId.isEmpty())
+        {
+            throw new IllegalArgumentException("registrationId cannot be null or empty");
+        }
+
+        try
+        {
+            // Hashing the key keeps characters that aren't allowed in file names out of the file name
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(globalEndpoint.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '/');
+            digest.update(idScope.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '/');
+            digest.update(registrationId.getBytes(StandardCharsets.UTF_8));
+            return this.directory.resolve(encodeHexString(digest.digest()) + FILE_EXTENSION);
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class CacheEntry
+    {
+        private final String globalEndpoint;
+        private final String idScope;
+        private final String registrationId;
+        private final ProvisioningDeviceClientRegistrationResult registrationResult;
+
+        CacheEntry(String globalEndpoint, String idScope, String registrationId, ProvisioningDeviceClientRegistrationResult registrationResult)
+        {
+            this.globalEndpoint = globalEndpoint;
+            this.idScope = idScope;
+            this.registrationId = registrationId;
+            this.registrationResult = registrationResult;
+        }
+    }
+}
@@ -13,6 +13,8 @@ import com.microsoft.azure.sdk.iot.provisioning.device.internal.task.Provisionin
 import com.microsoft.azure.sdk.iot.provisioning.device.internal.contract.ProvisioningDeviceClientContract;
 import com.microsoft.azure.sdk.iot.provisioning.device.internal.exceptions.ProvisioningDeviceClientException;
 import com.microsoft.azure.sdk.iot.provisioning.security.SecurityProvider;
+import com.microsoft.azure.sdk.iot.provisioning.security.SecurityProviderTpm;
+import com.microsoft.azure.sdk.iot.provisioning.security.exceptions.SecurityProviderException;
 import com.microsoft.azure.sdk.iot.provisioning.device.AdditionalData;
 import lombok.extern.slf4j.Slf4j;
 
@@ -28,6 +30,7 @@ public class ProvisioningDeviceClient
     private final ProvisioningDeviceClientConfig provisioningDeviceClientConfig;
     private final ProvisioningDeviceClientContract provisioningDeviceClientContract;
     private final ExecutorService executor;
+    private final ProvisioningRegistrationCache registrationCache;
 
     /**
      * Creates an instance of ProvisioningDeviceClient
@@ -40,10 +43,44 @@ public class ProvisioningDeviceClient
      */
     public static ProvisioningDeviceClient create(String globalEndpoint, String idScope, ProvisioningDeviceClientTransportProtocol protocol, SecurityProvider securityProvider) throws ProvisioningDeviceClientException
     {
-        return new ProvisioningDeviceClient(globalEndpoint, idScope, protocol, securityProvider);
+        return new ProvisioningDeviceClient(globalEndpoint, idScope, protocol, securityProvider, null);
     }
 
-    private ProvisioningDeviceClient(String globalEndpoint, String idScope, ProvisioningDeviceClientTransportProtocol protocol, SecurityProvider securityProvider) throws ProvisioningDeviceClientException
+    /**
+     * Creates an instance of ProvisioningDeviceClient that stores the result of a successful registration in the provided
+     * cache, and that returns the stored result from {@link #registerDevice(ProvisioningDeviceClientRegistrationCallback, Object)}
+     * instead of registering with the service again.
+     *
+     * <p>
+     * This client doesn't connect to the assigned IoT hub, so it can't tell when a stored result has gone stale. If the
+     * device client fails to open against the stored IoT hub with an IotHubClientException whose status code is
+     * UNAUTHORIZED or NOT_FOUND, the device was most likely reassigned or deleted. In that case call
+     * {@link #clearCachedRegistration()} and then register again to get the device's current assignment.
+     * </p>
+     *
+     * <p>
+     * Registrations that use a {@link SecurityProviderTpm} are never cached, since the authentication key returned by
+     * the service during registration has to be activated on the TPM each time.
+     * </p>
+     * @param globalEndpoint global endpoint for the service to connect to. Cannot be {@code null}.
+     * @param idScope IdScope for the instance of the service hosted by you. Cannot be {@code null}.
+     * @param protocol Protocol to communicate with the service onto. Cannot be {@code null}.
+     * @param securityProvider Security Provider for X509 or TPM flow. Cannot be {@code null}.
+     * @param registrationCache The cache to store registration results in. Cannot be {@code null}.
+     * @return An instance of ProvisioningDeviceClient
+     * @throws ProvisioningDeviceClientException if any of the underlying API calls fail to process.
+     */
+    public static ProvisioningDeviceClient create(String globalEndpoint, String idScope, ProvisioningDeviceClientTransportProtocol protocol, SecurityProvider securityProvider, ProvisioningRegistrationCache registrationCache) throws ProvisioningDeviceClientException
+    {
+        if (registrationCache == null)
+        {
+            throw new IllegalArgumentException("registration cache cannot be null");
+        }
+
+        return new ProvisioningDeviceClient(globalEndpoint, idScope, protocol, securityProvider, registrationCache);
+    }
+
+    private ProvisioningDeviceClient(String globalEndpoint, String idScope, ProvisioningDeviceClientTransportProtocol protocol, SecurityProvider securityProvider, ProvisioningRegistrationCache registrationCache) throws ProvisioningDeviceClientException
     {
         if (globalEndpoint == null || globalEndpoint.isEmpty())
         {
@@ -82,6 +119,9 @@ public class ProvisioningDeviceClient
         //SRS_ProvisioningDeviceClient_25_007: [ The constructor shall create an executor service with fixed thread pool of size 1. ]
         this.executor = Executors.newFixedThreadPool(MAX_THREADS_TO_RUN);
 
+        // The service returns the TPM authentication key as part of each registration, so TPM registrations can't be skipped
+        this.registrationCache = securityProvider instanceof SecurityProviderTpm ? null : registrationCache;
+
         log.debug("Initialized a ProvisioningDeviceClient instance using SDK version {}", SDKUtils.PROVISIONING_DEVICE_CLIENT_VERSION);
     }
 
@@ -100,13 +140,7 @@ public class ProvisioningDeviceClient
             throw new IllegalArgumentException("registration callback cannot be null");
         }
 
-        //SRS_ProvisioningDeviceClient_25_009: [ This method shall set the config with the callback. ]
-        this.provisioningDeviceClientConfig.setRegistrationCallback(provisioningDeviceClientRegistrationCallback, context);
-
-        //SRS_ProvisioningDeviceClient_25_010: [ This method shall start the executor with the ProvisioningTask. ]
-        log.debug("Starting provisioning thread...");
-        Callable<Object> provisioningTask = new ProvisioningTask(this.provisioningDeviceClientConfig, this.provisioningDeviceClientContract);
-        executor.submit(provisioningTask);
+        startRegistration(provisioningDeviceClientRegistrationCallback, context);
     }
 
     /**
@@ -127,15 +161,78 @@ public class ProvisioningDeviceClient
 
         this.provisioningDeviceClientConfig.setPayload(additionalData.getProvisioningPayload());
 
-        //SRS_ProvisioningDeviceClient_25_009: [ This method shall set the config with the callback. ]
-        this.provisioningDeviceClientConfig.setRegistrationCallback(provisioningDeviceClientRegistrationCallback, context);
+        startRegistration(provisioningDeviceClientRegistrationCallback, context);
+    }
+
+    /**
+     * Removes the registration result stored for this device, if this client was created with a registration cache, so
+     * that the next call to registerDevice registers with the service again. Call this when the device client fails to
+     * open against the IoT hub from the stored result with an IotHubClientException whose status code is UNAUTHORIZED
+     * or NOT_FOUND, since the device may have been reassigned to another IoT hub or deleted.
+     * @throws ProvisioningDeviceClientException if the registration id can't be retrieved from the security provider.
+     */
+    public void clearCachedRegistration() throws ProvisioningDeviceClientException
+    {
+        if (this.registrationCache != null)
+        {
+            this.registrationCache.remove(
+                this.provisioningDeviceClientConfig.getProvisioningServiceGlobalEndpoint(),
+                this.provisioningDeviceClientConfig.getIdScope(),
+                getRegistrationId());
+        }
+    }
+
+    private void startRegistration(final ProvisioningDeviceClientRegistrationCallback provisioningDeviceClientRegistrationCallback, final Object context) throws ProvisioningDeviceClientException
+    {
+        if (this.registrationCache == null)
+        {
+            //SRS_ProvisioningDeviceClient_25_009: [ This method shall set the config with the callback. ]
+            this.provisioningDeviceClientConfig.setRegistrationCallback(provisioningDeviceClientRegistrationCallback, context);
+        }
+        else
+        {
+            final String globalEndpoint = this.provisioningDeviceClientConfig.getProvisioningServiceGlobalEndpoint();
+            final String idScope = this.provisioningDeviceClientConfig.getIdScope();
+            final String registrationId = getRegistrationId();
+            final ProvisioningDeviceClientRegistrationResult cachedResult = this.registrationCache.get(globalEndpoint, idScope, registrationId);
+            if (cachedResult != null)
+            {
+                // Still report the result from the executor so the callback runs on the same thread as a real registration
+                log.debug("Using cached registration result for registration id {}, skipping registration with the service", registrationId);
+                executor.submit(() -> provisioningDeviceClientRegistrationCallback.run(cachedResult, null, context));
+                return;
+            }
+
+            this.provisioningDeviceClientConfig.setRegistrationCallback((registrationResult, e, callbackContext) ->
+            {
+                if (e == null && registrationResult != null
+                        && registrationResult.getProvisioningDeviceClientStatus() == ProvisioningDeviceClientStatus.PROVISIONING_DEVICE_STATUS_ASSIGNED)
+                {
+                    this.registrationCache.put(globalEndpoint, idScope, registrationId, registrationResult);
+                }
+
+                provisioningDeviceClientRegistrationCallback.run(registrationResult, e, callbackContext);
+            }, context);
+        }
 
         //SRS_ProvisioningDeviceClient_25_010: [ This method shall start the executor with the ProvisioningTask. ]
         log.debug("Starting provisioning thread...");
-        ProvisioningTask provisioningTask = new ProvisioningTask(this.provisioningDeviceClientConfig, this.provisioningDeviceClientContract);
+        Callable<Object> provisioningTask = new ProvisioningTask(this.provisioningDeviceClientConfig, this.provisioningDeviceClientContract);
         executor.submit(provisioningTask);
     }
 
+    private String getRegistrationId() throws ProvisioningDeviceClientException
+    {
+        try
+        {
+            return this.provisioningDeviceClientConfig.getSecurityProvider().getRegistrationId();
+        }
+        catch (SecurityProviderException e)
+        {
+            throw new ProvisioningDeviceClientException(e);
+        }
+    }
+
     /**
      * Closes all the executors opened by the client if they have not already closed.
      */
@@ -0,0 +1,408 @@
+/*
+ *
+ *  Copyright (c) Microsoft. All rights reserved.
+ *  Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ *
+ */
+
+package com.microsoft.azure.sdk.iot.provisioning.device;
+
+import com.microsoft.azure.sdk.iot.provisioning.device.internal.ProvisioningDeviceClientConfig;
+import com.microsoft.azure.sdk.iot.provisioning.device.internal.contract.ProvisioningDeviceClientContract;
+import com.microsoft.azure.sdk.iot.provisioning.device.internal.exceptions.ProvisioningDeviceClientException;
+import com.microsoft.azure.sdk.iot.provisioning.device.internal.exceptions.ProvisioningDeviceConnectionException;
+import com.microsoft.azure.sdk.iot.provisioning.device.internal.task.ProvisioningTask;
+import com.microsoft.azure.sdk.iot.provisioning.security.SecurityProvider;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registers many devices with the device provisioning service concurrently, sharing a single pool of threads between
+ * all of the registrations.
+ *
+ * <p>
+ * Each {@link ProvisioningDeviceClient} starts its own threads for each registration and holds them while it waits for
+ * the service to assign the device. This engine instead runs every registration on a fixed pool of worker threads,
+ * and schedules each poll for the status of a registration on a single shared timer once the retry-after interval
+ * requested by the service has elapsed, so no thread is held between polls. This makes it suitable for provisioning
+ * thousands of devices at a time, such as on a factory line or in a device simulator.
+ * </p>
+ *
+ * <p>
+ * The service binds each AMQP and MQTT connection to the registration id that it authenticated with, so connections
+ * can't be shared between devices. Each registration opens one connection, which is reused for its registration
+ * request and all of its status polls. The network threads of these connections are shared between all registrations
+ * instead of being started for each connection. Devices whose security provider uses the default SSLContext share the
+ * process-wide one returned by {@link SecurityProvider#getSSLContext()}, so that their connections can resume an
+ * earlier TLS session with the service instead of each performing a full handshake.
+ * </p>
+ */
+@Slf4j
+public final class ProvisioningEngine implements Closeable
+{
+    private static final String WORKER_THREAD_NAME_PREFIX = "azure-iot-sdk-ProvisioningEngineWorker-";
+    private static final String SCHEDULER_THREAD_NAME = "azure-iot-sdk-ProvisioningEngineScheduler";
+
+    private final String globalEndpoint;
+    private final String idScope;
+    private final ProvisioningDeviceClientTransportProtocol protocol;
+    private final int maxConcurrentRegistrations;
+
+    private final ExecutorService workers;
+    private final ScheduledExecutorService scheduler;
+
+    private final Queue<QueuedRegistration> queuedRegistrations = new ConcurrentLinkedQueue<>();
+    private final Map<CompletableFuture<ProvisioningDeviceClientRegistrationResult>, ProvisioningDeviceClientContract> activeRegistrations = new ConcurrentHashMap<>();
+    private final AtomicInteger activeRegistrationCount = new AtomicInteger();
+    private volatile boolean isClosed;
+
+    private final AtomicLong firstRegistrationStartNanos = new AtomicLong(-1);
+    private final LongAdder assignedRegistrationCount = new LongAdder();
+    private final LongAdder failedRegistrationCount = new LongAdder();
+    private final StageLatency registerStageLatency = new StageLatency();
+    private final StageLatency assignmentStageLatency = new StageLatency();
+    private final StageLatency totalLatency = new StageLatency();
+
+    /**
+     * Creates an instance of ProvisioningEngine with the default options.
+     * @param globalEndpoint global endpoint for the service to connect to. Cannot be {@code null}.
+     * @param idScope IdScope for the instance of the service hosted by you. Cannot be {@code null}.
+     * @param protocol Protocol to communicate with the service onto. Cannot be {@code null}.
+     */
+    public ProvisioningEngine(String globalEndpoint, String idScope, ProvisioningDeviceClientTransportProtocol protocol)
+    {
+        this(globalEndpoint, idScope, protocol, ProvisioningEngineOptions.builder().build());
+    }
+
+    /**
+     * Creates an instance of ProvisioningEngine.
+     * @param globalEndpoint global endpoint for the service to connect to. Cannot be {@code null}.
+     * @param idScope IdScope for the instance of the service hosted by you. Cannot be {@code null}.
+     * @param protocol Protocol to communicate with the service onto. Cannot be {@code null}.
+     * @param options The connection and concurrency options for this engine. Cannot be {@code null}.
+     */
+    public ProvisioningEngine(String globalEndpoint, String idScope, ProvisioningDeviceClientTransportProtocol protocol, ProvisioningEngineOptions options)
+    {
+        if (globalEndpoint == null || globalEndpoint.isEmpty())
+        {
+            throw new IllegalArgumentException("global endpoint cannot be null or empty");
+        }
+
+        if (idScope == null || idScope.isEmpty())
+        {
+            throw new IllegalArgumentException("scope id cannot be null or empty");
+        }
+
+        if (protocol == null)
+        {
+            throw new IllegalArgumentException("protocol cannot be null");
+        }
+
+        if (options == null)
+        {
+            throw new IllegalArgumentException("options cannot be null");
+        }
+
+        if (options.getMaxConcurrentRegistrations() < 1)
+        {
+            throw new IllegalArgumentException("maxConcurrentRegistrations must be greater than 0");
+        }
+
+        this.globalEndpoint = globalEndpoint;
+        this.idScope = idScope;
+        this.protocol = protocol;
+        this.maxConcurrentRegistrations = options.getMaxConcurrentRegistrations();
+
+        this.workers = Executors.newFixedThreadPool(this.maxConcurrentRegistrations, new ThreadFactory()
+        {
+            private final AtomicInteger threadCount = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable)
+            {
+                Thread thread = new Thread(runnable, WORKER_THREAD_NAME_PREFIX + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, SCHEDULER_THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Register a device with the service. The registration starts as soon as fewer than the maximum number of concurrent
+     * registrations are in progress.
+     * @param securityProvider Security Provider for X509, TPM or symmetric key flow. Cannot be {@code null}.
+     * @return a future that completes with the registration result once the device has been assigned to an IoT hub, or
+     * completes exceptionally if the registration fails.
+     */
+    public CompletableFuture<ProvisioningDeviceClientRegistrationResult> registerDevice(SecurityProvider securityProvider)
+    {
+        return registerDevice(securityProvider, null);
+    }
+
+    /**
+     * Register a device with the service. The registration starts as soon as fewer than the maximum number of concurrent
+     * registrations are in progress.
+     * @param securityProvider Security Provider for X509, TPM or symmetric key flow. Cannot be {@code null}.
+     * @param additionalData Additional data for device registration. May be {@code null}.
+     * @return a future that completes with the registration result once the device has been assigned to an IoT hub, or
+     * completes exceptionally if the registration fails.
+     */
+    public CompletableFuture<ProvisioningDeviceClientRegistrationResult> registerDevice(SecurityProvider securityProvider, AdditionalData additionalData)
+    {
+        if (securityProvider == null)
+        {
+            throw new IllegalArgumentException("Security provider cannot be null");
+        }
+
+        if (this.isClosed)
+        {
+            throw new IllegalStateException("Cannot register devices after the provisioning engine has been closed");
+        }
+
+        CompletableFuture<ProvisioningDeviceClientRegistrationResult> result = new CompletableFuture<>();
+        this.queuedRegistrations.add(new QueuedRegistration(securityProvider, additionalData, result));
+        this.startQueuedRegistrations();
+        return result;
+    }
+
+    /**
+     * @return a snapshot of the progress and latencies of the registrations made by this engine so far.
+     */
+    public ProvisioningEngineStatistics getStatistics()
+    {
+        long assignedCount = this.assignedRegistrationCount.sum();
+        long failedCount = this.failedRegistrationCount.sum();
+
+        double registrationsPerSecond = 0;
+        long firstStartNanos = this.firstRegistrationStartNanos.get();
+        if (firstStartNanos >= 0)
+        {
+            long elapsedNanos = System.nanoTime() - firstStartNanos;
+            if (elapsedNanos > 0)
+            {
+                registrationsPerSecond = (assignedCount + failedCount) * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+            }
+        }
+
+        return new ProvisioningEngineStatistics(
+            this.queuedRegistrations.size(),
+            this.activeRegistrationCount.get(),
+            assignedCount,
+            failedCount,
+            registrationsPerSecond,
+            this.registerStageLatency.getAverageMilliseconds(),
+            this.registerStageLatency.getMaxMilliseconds(),
+            this.assignmentStageLatency.getAverageMilliseconds(),
+            this.assignmentStageLatency.getMaxMilliseconds(),
+            this.totalLatency.getAverageMilliseconds(),
+            this.totalLatency.getMaxMilliseconds());
+    }
+
+    /**
+     * Stop this engine's threads and close the connections of any registrations that are still in progress. Any
+     * registrations that haven't finished yet complete exceptionally.
+     */
+    @Override
+    public void close()
+    {
+        this.isClosed = true;
+        this.workers.shutdownNow();
+        this.scheduler.shutdownNow();
+
+        ProvisioningDeviceClientException closedException = new ProvisioningDeviceClientException("The provisioning engine was closed before the registration finished");
+
+        QueuedRegistration queuedRegistration = this.queuedRegistrations.poll();
+        while (queuedRegistration != null)
+        {
+            queuedRegistration.result.completeExceptionally(closedException);
+            queuedRegistration = this.queuedRegistrations.poll();
+        }
+
+        for (Map.Entry<CompletableFuture<ProvisioningDeviceClientRegistrationResult>, ProvisioningDeviceClientContract> activeRegistration : this.activeRegistrations.entrySet())
+        {
+            activeRegistration.getKey().completeExceptionally(closedException);
+
+            try
+            {
+                activeRegistration.getValue().close();
+            }
+            catch (ProvisioningDeviceConnectionException e)
+            {
+                log.warn("Failed to close the connection of an unfinished registration", e);
+            }
+        }
+    }
+
+    private void startQueuedRegistrations()
+    {
+        while (!this.isClosed)
+        {
+            int activeCount = this.activeRegistrationCount.get();
+            if (activeCount >= this.maxConcurrentRegistrations)
+            {
+                // The registration that finishes next will start the next queued registration
+                return;
+            }
+
+            if (!this.activeRegistrationCount.compareAndSet(activeCount, activeCount + 1))
+            {
+                continue;
+            }
+
+            QueuedRegistration queuedRegistration = this.queuedRegistrations.poll();
+            if (queuedRegistration == null)
+            {
+                this.activeRegistrationCount.decrementAndGet();
+
+                // Another thread may have queued a registration after the poll, but seen no free slot before the
+                // decrement, so check again before giving up
+                if (this.queuedRegistrations.isEmpty())
+                {
+                    return;
+                }
+
+                continue;
+            }
+
+            this.startRegistration(queuedRegistration);
+        }
+    }
+
+    private void startRegistration(QueuedRegistration queuedRegistration)
+    {
+        long startNanos = System.nanoTime();
+        this.firstRegistrationStartNanos.compareAndSet(-1, startNanos);
+
+        CompletableFuture<ProvisioningDeviceClientRegistrationResult> result = queuedRegistration.result;
+        try
+        {
+            ProvisioningDeviceClientConfig config = new ProvisioningDeviceClientConfig();
+            config.setProvisioningServiceGlobalEndpoint(this.globalEndpoint);
+            config.setIdScope(this.idScope);
+            config.setProtocol(this.protocol);
+            config.setSecurityProvider(queuedRegistration.securityProvider);
+            if (queuedRegistration.additionalData != null)
+            {
+                config.setPayload(queuedRegistration.additionalData.getProvisioningPayload());
+            }
+
+            config.setRegistrationCallback((registrationResult, exception, context) -> this.onRegistrationResult(registrationResult, exception, result), null);
+
+            ProvisioningDeviceClientContract contract = ProvisioningDeviceClientContract.createProvisioningContract(config);
+            ProvisioningTask task = new ProvisioningTask(config, contract, this.workers, this.scheduler);
+
+            this.activeRegistrations.put(result, contract);
+            task.runAsync().whenComplete((ignored, throwable) -> this.onRegistrationFinished(task, result, startNanos));
+        }
+        catch (Exception e)
+        {
+            // Includes the executor rejecting the registration because this engine was closed concurrently. The caller
+            // is already looping over the queue, so the next registration isn't started from here.
+            this.onRegistrationResult(null, e, result);
+            this.releaseRegistration(null, result, startNanos);
+        }
+    }
+
+    private void onRegistrationResult(ProvisioningDeviceClientRegistrationResult registrationResult, Exception exception, CompletableFuture<ProvisioningDeviceClientRegistrationResult> result)
+    {
+        if (exception == null
+            && registrationResult != null
+            && registrationResult.getProvisioningDeviceClientStatus() == ProvisioningDeviceClientStatus.PROVISIONING_DEVICE_STATUS_ASSIGNED)
+        {
+            this.assignedRegistrationCount.increment();
+            result.complete(registrationResult);
+        }
+        else
+        {
+            this.failedRegistrationCount.increment();
+            result.completeExceptionally(exception != null
+                ? exception
+                : new ProvisioningDeviceClientException("Registration finished without the device being assigned"));
+        }
+    }
+
+    private void onRegistrationFinished(ProvisioningTask task, CompletableFuture<ProvisioningDeviceClientRegistrationResult> result, long startNanos)
+    {
+        this.releaseRegistration(task, result, startNanos);
+        this.startQueuedRegistrations();
+    }
+
+    private void releaseRegistration(ProvisioningTask task, CompletableFuture<ProvisioningDeviceClientRegistrationResult> result, long startNanos)
+    {
+        if (task != null)
+        {
+            this.registerStageLatency.record(task.getRegisterStageDurationMillis());
+            this.assignmentStageLatency.record(task.getStatusStageDurationMillis());
+        }
+
+        this.totalLatency.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        this.activeRegistrations.remove(result);
+        this.activeRegistrationCount.decrementAndGet();
+    }
+
+    private static final class QueuedRegistration
+    {
+        private final SecurityProvider securityProvider;
+        private final AdditionalData additionalData;
+        private final CompletableFuture<ProvisioningDeviceClientRegistrationResult> result;
+
+        QueuedRegistration(SecurityProvider securityProvider, AdditionalData additionalData, CompletableFuture<ProvisioningDeviceClientRegistrationResult> result)
+        {
+            this.securityProvider = securityProvider;
+            this.additionalData = additionalData;
+            this.result = result;
+        }
+    }
+
+    private static final class StageLatency
+    {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalMilliseconds = new LongAdder();
+        private final AtomicLong maxMilliseconds = new AtomicLong();
+
+        void record(long durationMilliseconds)
+        {
+            if (durationMilliseconds < 0)
+            {
+                // the stage never finished
+                return;
+            }
+
+            this.count.increment();
+            this.totalMilliseconds.add(durationMilliseconds);
+            this.maxMilliseconds.accumulateAndGet(durationMilliseconds, Math::max);
+        }
+
+        double getAverageMilliseconds()
+        {
+            long count = this.count.sum();
+            return count == 0 ? 0 : (double) this.totalMilliseconds.sum() / count;
+        }
+
+        long getMaxMilliseconds()
+        {
+            return this.maxMilliseconds.get();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ *
+ *  Copyright (c) Microsoft. All rights reserved.
+ *  Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ *
+ */
+
+package com.microsoft.azure.sdk.iot.provisioning.device;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * The optional parameters that can be configured for a {@link ProvisioningEngine} instance.
+ */
+@Builder
+public final class ProvisioningEngineOptions
+{
+    static final int DEFAULT_MAX_CONCURRENT_REGISTRATIONS = 16;
+
+    /**
+     * The maximum number of registrations that may be in progress at a time. Registrations beyond this limit are
+     * queued until an earlier registration finishes. This is also the number of worker threads that the engine uses,
+     * since opening a connection and sending the initial registration request blocks a thread. Registrations that are
+     * only waiting to poll the service for their status again don't hold a thread. The default value is 16.
+     */
+    @Getter
+    @Builder.Default
+    private final int maxConcurrentRegistrations = DEFAULT_MAX_CONCURRENT_REGISTRATIONS;
+}
@@ -0,0 +1,83 @@
+/*
+ *
+ *  Copyright (c) Microsoft. All rights reserved.
+ *  Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ *
+ */
+
+package com.microsoft.azure.sdk.iot.provisioning.device;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A snapshot of the progress and performance of a {@link ProvisioningEngine}.
+ *
+ * <p>
+ * Each registration goes through two stages. The register stage covers opening the connection to the service and
+ * getting a response to the initial registration request. The assignment stage covers polling the service for the
+ * status of the registration until it reaches a terminal status. Registrations that fail during a stage are not
+ * included in the latencies of that stage.
+ * </p>
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public final class ProvisioningEngineStatistics
+{
+    /**
+     * The number of registrations waiting for an earlier registration to finish before they can start.
+     */
+    private final long queuedRegistrationCount;
+
+    /**
+     * The number of registrations that have started but not yet finished.
+     */
+    private final long activeRegistrationCount;
+
+    /**
+     * The number of registrations that finished with the device assigned to an IoT hub.
+     */
+    private final long assignedRegistrationCount;
+
+    /**
+     * The number of registrations that finished without the device being assigned to an IoT hub.
+     */
+    private final long failedRegistrationCount;
+
+    /**
+     * The number of registrations that finished per second, measured from when the first registration started.
+     */
+    private final double registrationsPerSecond;
+
+    /**
+     * The average time taken by the register stage, in milliseconds.
+     */
+    private final double averageRegisterMilliseconds;
+
+    /**
+     * The longest time taken by the register stage, in milliseconds.
+     */
+    private final long maxRegisterMilliseconds;
+
+    /**
+     * The average time taken by the assignment stage, in milliseconds.
+     */
+    private final double averageAssignmentMilliseconds;
+
+    /**
+     * The longest time taken by the assignment stage, in milliseconds.
+     */
+    private final long maxAssignmentMilliseconds;
+
+    /**
+     * The average time from a registration starting until it finished, in milliseconds. Time spent queued is not
+     * included.
+     */
+    private final double averageTotalMilliseconds;
+
+    /**
+     * The longest time from a registration starting until it finished, in milliseconds.
+     */
+    private final long maxTotalMilliseconds;
+}
@@ -0,0 +1,47 @@
+/*
+ *
+ *  Copyright (c) Microsoft. All rights reserved.
+ *  Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ *
+ */
+
+package com.microsoft.azure.sdk.iot.provisioning.device;
+
+/**
+ * Stores the results of successful registrations so that a device that has already been assigned to an IoT hub does
+ * not need to register with the device provisioning service again each time its process starts.
+ *
+ * <p>
+ * Results are keyed by the global endpoint, id scope and registration id that they were registered with. Implementations must be thread
+ * safe. See {@link FileProvisioningRegistrationCache} for an implementation that persists results to disk.
+ * </p>
+ */
+public interface ProvisioningRegistrationCache
+{
+    /**
+     * Get a previously stored registration result.
+     * @param globalEndpoint the global endpoint of the device provisioning service that the device registered with.
+     * @param idScope the id scope that the device registered with.
+     * @param registrationId the registration id of the device.
+     * @return the stored registration result, or {@code null} if there is none.
+     */
+    ProvisioningDeviceClientRegistrationResult get(String globalEndpoint, String idScope, String registrationId);
+
+    /**
+     * Store the result of a successful registration, replacing any result previously stored for the same device.
+     * @param globalEndpoint the global endpoint of the device provisioning service that the device registered with.
+     * @param idScope the id scope that the device registered with.
+     * @param registrationId the registration id of the device.
+     * @param registrationResult the result of the registration.
+     */
+    void put(String globalEndpoint, String idScope, String registrationId, ProvisioningDeviceClientRegistrationResult registrationResult);
+
+    /**
+     * Remove a stored registration result, if there is one. This should be done when the device fails to connect to its
+     * assigned IoT hub with an authentication or not found error, since the device may have been reassigned or deleted.
+     * @param globalEndpoint the global endpoint of the device provisioning service that the device registered with.
+     * @param idScope the id scope that the device registered with.
+     * @param registrationId the registration id of the device.
+     */
+    void remove(String globalEndpoint, String idScope, String registrationId);
+}
@@ -13,6 +13,8 @@ import com.microsoft.azure.sdk.iot.provisioning.device.internal.task.ContractSta
 import com.microsoft.azure.sdk.iot.provisioning.device.internal.task.ResponseData;
 
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implementation of a SaslHandler that is designed to handle Sasl negotiation using TPM authentication against the Device Provisioning Service
@@ -25,7 +27,6 @@ class AmqpsProvisioningSaslHandler implements SaslHandler
     private final static byte INTERMEDIATE_SEGMENT_CONTROL_BYTE = (byte) 0x80;
     private final static byte FINAL_SEGMENT_CONTROL_BYTE = (byte) 0xC1;
     private final static long MAX_MILLISECONDS_TIMEOUT_FOR_SAS_TOKEN_WAIT = 60*1000; // 1 minute
-    private final static long WAIT_INTERVALS = 4*1000; // 4 second wait intervals when waiting and checking for sas token
 
     private final String idScope;
     private final String registrationId;
@@ -35,7 +36,8 @@ class AmqpsProvisioningSaslHandler implements SaslHandler
     private ChallengeState challengeState;
     private final ResponseCallback responseCallback;
     private final Object authorizationCallbackContext;
-    private String sasToken;
+    private volatile String sasToken;
+    private final CountDownLatch sasTokenLatch = new CountDownLatch(1);
 
     /**
      * Tracks the state of the TPM Provisioning sasl negotiation
@@ -236,6 +238,7 @@ class AmqpsProvisioningSaslHandler implements SaslHandler
     public void setSasToken(String sasToken)
     {
         this.sasToken = sasToken;
+        this.sasTokenLatch.countDown();
     }
 
     private byte[] handleFirstChallenge(byte[] challengeData)
@@ -279,24 +282,21 @@ class AmqpsProvisioningSaslHandler implements SaslHandler
         
         this.challengeState = ChallengeState.WAITING_TO_SEND_SAS_TOKEN;
 
-        long millisecondsElapsed = 0;
-        long waitTimeStart = System.currentTimeMillis();
-        while (this.sasToken == null && millisecondsElapsed < MAX_MILLISECONDS_TIMEOUT_FOR_SAS_TOKEN_WAIT)
+        // The sas token is signed from the nonce on another thread, which hands it over through setSasToken
+        boolean isSasTokenSet = this.sasToken != null;
+        if (!isSasTokenSet)
         {
             try
             {
-                //noinspection BusyWait
-                Thread.sleep(WAIT_INTERVALS);
+                isSasTokenSet = this.sasTokenLatch.await(MAX_MILLISECONDS_TIMEOUT_FOR_SAS_TOKEN_WAIT, TimeUnit.MILLISECONDS);
             }
             catch (InterruptedException e)
             {
                 throw new ProvisioningDeviceClientException(e);
             }
-
-            millisecondsElapsed = System.currentTimeMillis() - waitTimeStart;
         }
 
-        if (millisecondsElapsed >= MAX_MILLISECONDS_TIMEOUT_FOR_SAS_TOKEN_WAIT)
+        if (!isSasTokenSet)
         {
             throw new ProvisioningDeviceSecurityException("Sasl negotiation failed: Sas token was never supplied to finish negotiation");
         }
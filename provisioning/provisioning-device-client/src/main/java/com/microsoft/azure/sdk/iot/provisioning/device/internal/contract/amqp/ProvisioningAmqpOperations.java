@@ -7,20 +7,24 @@ import com.microsoft.azure.sdk.iot.provisioning.device.internal.exceptions.Provi
 import com.microsoft.azure.sdk.iot.provisioning.device.internal.exceptions.ProvisioningDeviceTransportException;
 import com.microsoft.azure.sdk.iot.provisioning.device.internal.task.ContractState;
 import com.microsoft.azure.sdk.iot.provisioning.device.internal.task.ResponseData;
-import com.microsoft.azure.sdk.iot.provisioning.device.internal.ObjectLock;
 import com.microsoft.azure.sdk.iot.provisioning.device.transport.amqp.AmqpDeviceOperations;
 import com.microsoft.azure.sdk.iot.provisioning.device.transport.amqp.AmqpListener;
 import com.microsoft.azure.sdk.iot.provisioning.device.transport.amqp.AmqpMessage;
 import com.microsoft.azure.sdk.iot.provisioning.device.transport.amqp.AmqpsConnection;
 import com.microsoft.azure.sdk.iot.provisioning.device.transport.amqp.SaslHandler;
+import lombok.extern.slf4j.Slf4j;
 
 import javax.net.ssl.SSLContext;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Queue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
+@Slf4j
 class ProvisioningAmqpOperations extends AmqpDeviceOperations implements AmqpListener
 {
     private static final String AMQP_ADDRESS_FMT = "/%s/registrations/%s";
@@ -36,13 +40,13 @@ class ProvisioningAmqpOperations extends AmqpDeviceOperations implements AmqpLis
     private static final long MAX_WAIT_TO_OPEN_AMQP_CONNECTION = 60 * 1000; //1 minute timeout
 
     private AmqpsConnection amqpConnection;
-    private final Queue<AmqpMessage> receivedMessages = new LinkedBlockingQueue<>();
-    private final ObjectLock receiveLock = new ObjectLock();
+
+    // Only one request is in flight on a connection at a time, so the next message from the service is its response
+    private final AtomicReference<CompletableFuture<AmqpMessage>> pendingResponse = new AtomicReference<>();
 
     private Map<String, Object> messageAppProperties;
     private final String idScope;
     private final String hostName;
-    private String messageSendFailedExceptionMessage;
 
     /**
      * Constructor for ProvisioningAmqpOperation that handle the AMQP transport for provisioning
@@ -95,11 +99,30 @@ class ProvisioningAmqpOperations extends AmqpDeviceOperations implements AmqpLis
         }
     }
 
-    private void retrieveAmqpMessage(ResponseCallback responseCallback, Object callbackContext) throws ProvisioningDeviceClientException
+    private void sendAmqpMessageAndWaitForResponse(String msgType, String operationId, byte[] msgBody, String sendFailedMessage,
+                                                   ResponseCallback responseCallback, Object callbackContext) throws ProvisioningDeviceClientException
     {
-        if (this.receivedMessages.size() > 0)
+        CompletableFuture<AmqpMessage> response = new CompletableFuture<>();
+        this.pendingResponse.set(response);
+
+        try
         {
-            AmqpMessage message = this.receivedMessages.remove();
+            this.sendAmqpMessage(msgType, operationId, msgBody);
+
+            AmqpMessage message;
+            try
+            {
+                message = response.get(MAX_WAIT_TO_SEND_MSG, TimeUnit.MILLISECONDS);
+            }
+            catch (TimeoutException e)
+            {
+                log.debug("Provisioning service did not reply to the {} message in time", msgType);
+                return;
+            }
+            catch (ExecutionException e)
+            {
+                throw new ProvisioningDeviceClientException(sendFailedMessage + e.getCause().getMessage());
+            }
 
             // Need to keep property around to get the retry-after value
             this.messageAppProperties = message.getApplicationProperty();
@@ -109,6 +132,14 @@ class ProvisioningAmqpOperations extends AmqpDeviceOperations implements AmqpLis
                 responseCallback.run(new ResponseData(msgData, ContractState.DPS_REGISTRATION_RECEIVED, 0), callbackContext);
             }
         }
+        catch (InterruptedException e)
+        {
+            throw new ProvisioningDeviceClientException("Provisioning service failed to reply is allotted time.");
+        }
+        finally
+        {
+            this.pendingResponse.compareAndSet(response, null);
+        }
     }
 
     /**
@@ -222,28 +253,10 @@ class ProvisioningAmqpOperations extends AmqpDeviceOperations implements AmqpLis
         }
 
         // SRS_ProvisioningAmqpOperations_07_016: [This method shall send the Operation Status AMQP Provisioning message.]
-        this.sendAmqpMessage(AMQP_OPERATION_STATUS, operationId, null);
-
-        try
-        {
-            // SRS_ProvisioningAmqpOperations_07_017: [This method shall wait for the response of this message for MAX_WAIT_TO_SEND_MSG and call the responseCallback with the reply.]
-            synchronized (this.receiveLock)
-            {
-                this.receiveLock.waitLock(MAX_WAIT_TO_SEND_MSG);
-            }
-
-            if (this.messageSendFailedExceptionMessage != null)
-            {
-                throw new ProvisioningDeviceClientException("Failed to send amqp message to check provisioning status: " + messageSendFailedExceptionMessage);
-            }
-
-            this.retrieveAmqpMessage(responseCallback, callbackContext);
-        }
-        catch (InterruptedException e)
-        {
-            // SRS_ProvisioningAmqpOperations_07_018: [This method shall throw ProvisioningDeviceClientException if any failure is encountered.]
-            throw new ProvisioningDeviceClientException("Provisioning service failed to reply is allotted time.");
-        }
+        // SRS_ProvisioningAmqpOperations_07_017: [This method shall wait for the response of this message for MAX_WAIT_TO_SEND_MSG and call the responseCallback with the reply.]
+        // SRS_ProvisioningAmqpOperations_07_018: [This method shall throw ProvisioningDeviceClientException if any failure is encountered.]
+        this.sendAmqpMessageAndWaitForResponse(AMQP_OPERATION_STATUS, operationId, null,
+            "Failed to send amqp message to check provisioning status: ", responseCallback, callbackContext);
     }
 
     /**
@@ -262,50 +275,26 @@ class ProvisioningAmqpOperations extends AmqpDeviceOperations implements AmqpLis
         }
 
         //wait for AMQP connection to be opened
-        long millisecondsElapsed = 0;
-        long waitStartTime = System.currentTimeMillis();
+        boolean isConnected;
         try
         {
-            while (!this.amqpConnection.isConnected() && millisecondsElapsed < MAX_WAIT_TO_OPEN_AMQP_CONNECTION)
-            {
-                //noinspection BusyWait
-                Thread.sleep(1000);
-                millisecondsElapsed = System.currentTimeMillis() - waitStartTime;
-            }
+            isConnected = this.amqpConnection.waitForOpen(MAX_WAIT_TO_OPEN_AMQP_CONNECTION);
         }
         catch (Exception e)
         {
             throw new ProvisioningDeviceClientException("Provisioning device client encountered an exception while waiting for amqps connection to open.", e);
         }
 
-        if (millisecondsElapsed >= MAX_WAIT_TO_OPEN_AMQP_CONNECTION)
+        if (!isConnected)
         {
             throw new ProvisioningDeviceClientException("Provisioning device client timed out while waiting for amqps connection to open.");
         }
 
         // SRS_ProvisioningAmqpOperations_07_010: [This method shall send the Register AMQP Provisioning message.]
-        this.sendAmqpMessage(AMQP_REGISTER_DEVICE, null, msgBody);
-
-        try
-        {
-            // SRS_ProvisioningAmqpOperations_07_011: [This method shall wait for the response of this message for MAX_WAIT_TO_SEND_MSG and call the responseCallback with the reply.]
-            synchronized (this.receiveLock)
-            {
-                this.receiveLock.waitLock(MAX_WAIT_TO_SEND_MSG);
-            }
-
-            if (this.messageSendFailedExceptionMessage != null)
-            {
-                throw new ProvisioningDeviceClientException("Failed to send amqp message to register device: " + messageSendFailedExceptionMessage);
-            }
-
-            this.retrieveAmqpMessage(responseCallback, callbackContext);
-        }
-        catch (InterruptedException e)
-        {
-            // SRS_ProvisioningAmqpOperations_07_012: [This method shall throw ProvisioningDeviceClientException if any failure is encountered.]
-            throw new ProvisioningDeviceClientException("Provisioning service failed to reply is allotted time.");
-        }
+        // SRS_ProvisioningAmqpOperations_07_011: [This method shall wait for the response of this message for MAX_WAIT_TO_SEND_MSG and call the responseCallback with the reply.]
+        // SRS_ProvisioningAmqpOperations_07_012: [This method shall throw ProvisioningDeviceClientException if any failure is encountered.]
+        this.sendAmqpMessageAndWaitForResponse(AMQP_REGISTER_DEVICE, null, msgBody,
+            "Failed to send amqp message to register device: ", responseCallback, callbackContext);
     }
 
     /**
@@ -323,21 +312,20 @@ class ProvisioningAmqpOperations extends AmqpDeviceOperations implements AmqpLis
      */
     public void messageReceived(AmqpMessage message)
     {
-        // SRS_ProvisioningAmqpOperations_07_013: [This method shall add the message to a message queue.]
-        this.receivedMessages.add(message);
-        synchronized (this.receiveLock)
+        // SRS_ProvisioningAmqpOperations_07_013: [This method shall complete the pending request with the message.]
+        CompletableFuture<AmqpMessage> response = this.pendingResponse.get();
+        if (response == null || !response.complete(message))
         {
-            // SRS_ProvisioningAmqpOperations_07_014: [This method shall then Notify the receiveLock.]
-            this.receiveLock.notifyLock();
+            log.warn("Amqp message received from the provisioning service while no request was waiting for a response, ignoring it");
         }
     }
 
     public void messageSendFailed(String exceptionMessage)
     {
-        messageSendFailedExceptionMessage = exceptionMessage;
-        synchronized (this.receiveLock)
+        CompletableFuture<AmqpMessage> response = this.pendingResponse.get();
+        if (response != null)
         {
-            this.receiveLock.notifyLock();
+            response.completeExceptionally(new IOException(exceptionMessage));
         }
     }
 
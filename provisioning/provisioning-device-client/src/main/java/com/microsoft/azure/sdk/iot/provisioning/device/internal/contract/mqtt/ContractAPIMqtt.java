@@ -3,7 +3,6 @@
 
 package com.microsoft.azure.sdk.iot.provisioning.device.internal.contract.mqtt;
 
-import com.microsoft.azure.sdk.iot.provisioning.device.internal.ObjectLock;
 import com.microsoft.azure.sdk.iot.provisioning.device.internal.ProvisioningDeviceClientConfig;
 import com.microsoft.azure.sdk.iot.provisioning.device.internal.SDKUtils;
 import com.microsoft.azure.sdk.iot.provisioning.device.internal.contract.ProvisioningDeviceClientContract;
@@ -17,19 +16,27 @@ import com.microsoft.azure.sdk.iot.provisioning.device.transport.mqtt.MqttConnec
 import com.microsoft.azure.sdk.iot.provisioning.device.transport.mqtt.MqttListener;
 import com.microsoft.azure.sdk.iot.provisioning.device.transport.mqtt.MqttMessage;
 import com.microsoft.azure.sdk.iot.provisioning.device.transport.mqtt.MqttQos;
+import lombok.extern.slf4j.Slf4j;
 
 import javax.net.ssl.SSLContext;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.util.Queue;
-import java.util.concurrent.LinkedBlockingQueue;
-
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
 public class ContractAPIMqtt extends ProvisioningDeviceClientContract implements MqttListener
 {
     private static final String MQTT_USERNAME_FMT = "%s/registrations/%s/api-version=%s&ClientVersion=%s";
     private static final String MQTT_PROVISIONING_TOPIC_NAME = "$dps/registrations/res/#";
     private static final String MQTT_REGISTER_MESSAGE_FMT = "$dps/registrations/PUT/iotdps-register/?$rid=%d";
     private static final String MQTT_STATUS_MESSAGE_FMT = "$dps/registrations/GET/iotdps-get-operationstatus/?$rid=%d&operationId=%s";
+    private static final String REQUEST_ID_PROPERTY = "$rid=";
 
     private static final int MAX_WAIT_TO_SEND_MSG = 60 * 1000; // 1 minute timeout
 
@@ -40,8 +47,8 @@ public class ContractAPIMqtt extends ProvisioningDeviceClientContract implements
     private int packetId;
     private final boolean useWebSockets;
 
-    private final ObjectLock receiveLock = new ObjectLock();
-    private final Queue<MqttMessage> receivedMessages = new LinkedBlockingQueue<>();
+    // The requests that are waiting for a response, by the request id that the service echoes back in the response topic
+    private final Map<Integer, CompletableFuture<MqttMessage>> pendingResponses = new ConcurrentHashMap<>();
 
     private Throwable lostConnection = null;
 
@@ -88,35 +95,71 @@ public class ContractAPIMqtt extends ProvisioningDeviceClientContract implements
         this.packetId = 1;
     }
 
-    private void executeProvisioningMessage(String topic, byte[] body, ResponseCallback responseCallback, Object callbackContext) throws IOException, ProvisioningDeviceClientException
+    private void executeProvisioningMessage(int requestId, String topic, byte[] body, ResponseCallback responseCallback, Object callbackContext) throws IOException, ProvisioningDeviceClientException
     {
-        // Send the message
-        this.mqttConnection.publishMessage(topic, MqttQos.DELIVER_AT_MOST_ONCE, body);
+        // Registered before sending, so that a response that arrives before the publish call returns isn't missed
+        CompletableFuture<MqttMessage> response = new CompletableFuture<>();
+        this.pendingResponses.put(requestId, response);
 
         try
         {
-            // SRS_ProvisioningAmqpOperations_07_011: [This method shall wait for the response of this message for MAX_WAIT_TO_SEND_MSG and call the responseCallback with the reply.]
-            synchronized (this.receiveLock)
-            {
-                this.receiveLock.waitLock(MAX_WAIT_TO_SEND_MSG);
-            }
-            if (this.receivedMessages.size() > 0)
-            {
+            // Send the message
+            this.mqttConnection.publishMessage(topic, MqttQos.DELIVER_AT_MOST_ONCE, body);
 
-                MqttMessage message = this.receivedMessages.remove();
-                responseCallback.run(new ResponseData(message.getPayload(), ContractState.DPS_REGISTRATION_RECEIVED, 0), callbackContext);
-            }
-            else
-            {
-                throw new ProvisioningDeviceClientException("Invalid message received.");
-            }
+            // SRS_ProvisioningAmqpOperations_07_011: [This method shall wait for the response of this message for MAX_WAIT_TO_SEND_MSG and call the responseCallback with the reply.]
+            MqttMessage message = response.get(MAX_WAIT_TO_SEND_MSG, TimeUnit.MILLISECONDS);
+            responseCallback.run(new ResponseData(message.getPayload(), ContractState.DPS_REGISTRATION_RECEIVED, 0), callbackContext);
+        }
+        catch (TimeoutException e)
+        {
+            throw new ProvisioningDeviceClientException("Provisioning service failed to reply is allotted time.");
+        }
+        catch (ExecutionException e)
+        {
+            throw new ProvisioningDeviceConnectionException("Mqtt connection was lost while waiting for a response", e.getCause());
         }
         catch (InterruptedException e)
         {
             // SRS_ProvisioningAmqpOperations_07_012: [This method shall throw ProvisioningDeviceClientException if any failure is encountered.]
             throw new ProvisioningDeviceClientException("Provisioning service failed to reply is allotted time.");
         }
+        finally
+        {
+            this.pendingResponses.remove(requestId);
+        }
+    }
+
+    /**
+     * @return the request id in the provided response topic, or null if the topic doesn't have a valid request id.
+     */
+    private static Integer parseRequestId(String mqttTopic)
+    {
+        if (mqttTopic == null)
+        {
+            return null;
+        }
 
+        int requestIdStart = mqttTopic.indexOf(REQUEST_ID_PROPERTY);
+        if (requestIdStart < 0)
+        {
+            return null;
+        }
+
+        requestIdStart += REQUEST_ID_PROPERTY.length();
+        int requestIdEnd = requestIdStart;
+        while (requestIdEnd < mqttTopic.length() && Character.isDigit(mqttTopic.charAt(requestIdEnd)))
+        {
+            requestIdEnd++;
+        }
+
+        try
+        {
+            return Integer.parseInt(mqttTopic.substring(requestIdStart, requestIdEnd));
+        }
+        catch (NumberFormatException e)
+        {
+            return null;
+        }
     }
 
     private void processRetryAfterValue(String mqttTopic)
@@ -253,13 +296,14 @@ public class ContractAPIMqtt extends ProvisioningDeviceClientContract implements
 
         try
         {
-            String topic = String.format(MQTT_REGISTER_MESSAGE_FMT, this.packetId++);
+            int requestId = this.packetId++;
+            String topic = String.format(MQTT_REGISTER_MESSAGE_FMT, requestId);
 
             //SRS_ContractAPIMqtt_07_026: [ This method shall build the required Json input using parser. ]
             byte[] payload = new DeviceRegistrationParser(requestData.getRegistrationId(), requestData.getPayload()).toJson().getBytes(StandardCharsets.UTF_8);
 
             // SRS_ContractAPIMqtt_07_005: [This method shall send an MQTT message with the property of iotdps-register.]
-            this.executeProvisioningMessage(topic, payload, responseCallback, callbackContext);
+            this.executeProvisioningMessage(requestId, topic, payload, responseCallback, callbackContext);
         }
         catch (IOException ex)
         {
@@ -307,10 +351,11 @@ public class ContractAPIMqtt extends ProvisioningDeviceClientContract implements
 
         try
         {
-            String topic = String.format(MQTT_STATUS_MESSAGE_FMT, this.packetId++, operationId);
+            int requestId = this.packetId++;
+            String topic = String.format(MQTT_STATUS_MESSAGE_FMT, requestId, operationId);
 
             // SRS_ContractAPIAmqp_07_005: [This method shall send an AMQP message with the property of iotdps-register.]
-            this.executeProvisioningMessage(topic, null, responseCallback, callbackContext);
+            this.executeProvisioningMessage(requestId, topic, null, responseCallback, callbackContext);
         }
         catch (IOException ex)
         {
@@ -365,12 +410,30 @@ public class ContractAPIMqtt extends ProvisioningDeviceClientContract implements
     {
         processRetryAfterValue(message.getTopic());
 
-        // SRS_ProvisioningAmqpOperations_07_013: [This method shall add the message to a message queue.]
-        this.receivedMessages.add(message);
-        synchronized (this.receiveLock)
+        // SRS_ProvisioningAmqpOperations_07_013: [This method shall complete the pending request that the message is the response to.]
+        CompletableFuture<MqttMessage> response = null;
+        Integer requestId = parseRequestId(message.getTopic());
+        if (requestId != null)
         {
-            // SRS_ProvisioningAmqpOperations_07_014: [This method shall then Notify the receiveLock.]
-            this.receiveLock.notifyLock();
+            response = this.pendingResponses.get(requestId);
+        }
+        else
+        {
+            // Without a request id, the message can only be matched to a request if there is just one waiting
+            Iterator<CompletableFuture<MqttMessage>> pendingResponses = this.pendingResponses.values().iterator();
+            if (pendingResponses.hasNext())
+            {
+                response = pendingResponses.next();
+                if (pendingResponses.hasNext())
+                {
+                    response = null;
+                }
+            }
+        }
+
+        if (response == null || !response.complete(message))
+        {
+            log.warn("Mqtt message received from the provisioning service that doesn't match any pending request, ignoring it");
         }
     }
 
@@ -378,5 +441,12 @@ public class ContractAPIMqtt extends ProvisioningDeviceClientContract implements
     public void connectionLost(Throwable throwable)
     {
         lostConnection = throwable;
+
+        // Fail the pending requests now, since their responses will never arrive on this connection
+        Throwable cause = throwable != null ? throwable : new IOException("Mqtt connection lost");
+        for (CompletableFuture<MqttMessage> response : this.pendingResponses.values())
+        {
+            response.completeExceptionally(cause);
+        }
     }
 }
@@ -47,8 +47,17 @@ public class ProvisioningTask implements Callable<Object>
     @SuppressWarnings("unused") // Used in a number of methods to report state, may be used for expansion
     private ProvisioningDeviceClientStatus dpsStatus = null;
 
+    // The executor that this task owns, or null if this task runs on a shared executor instead
     private final ExecutorService executor;
 
+    private final Executor sharedExecutor;
+    private final ScheduledExecutorService sharedScheduler;
+
+    // Set by the thread that finishes each stage, and read once the registration callback has been invoked
+    private volatile long registerStageDurationNanos = -1;
+    private volatile long statusStageDurationNanos = -1;
+    private volatile boolean registrationCallbackInvoked;
+
     /**
      * Constructor for creating a provisioning task
      * @param provisioningDeviceClientConfig Config that contains details pertaining to Service
@@ -58,6 +67,29 @@ public class ProvisioningTask implements Callable<Object>
     public ProvisioningTask(ProvisioningDeviceClientConfig provisioningDeviceClientConfig,
                             ProvisioningDeviceClientContract provisioningDeviceClientContract) throws ProvisioningDeviceClientException
     {
+        this(provisioningDeviceClientConfig, provisioningDeviceClientContract, null, null);
+    }
+
+    /**
+     * Constructor for creating a provisioning task that doesn't start any threads of its own. Instead, it runs on the
+     * provided executor and schedules its status polls on the provided scheduler, both of which may be shared with
+     * many other tasks. Tasks created this way should be run with {@link #runAsync()}.
+     * @param provisioningDeviceClientConfig Config that contains details pertaining to Service
+     * @param provisioningDeviceClientContract Contract with the service over the specified protocol
+     * @param sharedExecutor The executor to run the registration and each status poll on. Cannot be {@code null}.
+     * @param sharedScheduler The scheduler to wait for the service's retry-after interval between status polls on. Cannot be {@code null}.
+     * @throws ProvisioningDeviceClientException If any of the input parameters are invalid then this exception is thrown
+     */
+    public ProvisioningTask(ProvisioningDeviceClientConfig provisioningDeviceClientConfig,
+                            ProvisioningDeviceClientContract provisioningDeviceClientContract,
+                            Executor sharedExecutor,
+                            ScheduledExecutorService sharedScheduler) throws ProvisioningDeviceClientException
+    {
+        if ((sharedExecutor == null) != (sharedScheduler == null))
+        {
+            throw new ProvisioningDeviceClientException(new IllegalArgumentException("A shared executor and a shared scheduler must be provided together"));
+        }
+
         if (provisioningDeviceClientContract == null)
         {
             throw new ProvisioningDeviceClientException(new IllegalArgumentException("DPS Transport cannot be null"));
@@ -89,14 +121,18 @@ public class ProvisioningTask implements Callable<Object>
         }
 
         this.authorization = new Authorization();
+        this.sharedExecutor = sharedExecutor;
+        this.sharedScheduler = sharedScheduler;
+
         //SRS_ProvisioningTask_25_015: [ Constructor shall start the executor with a fixed thread pool of size 2.]
-        this.executor = Executors.newFixedThreadPool(MAX_THREADS_TO_RUN);
+        this.executor = sharedExecutor == null ? Executors.newFixedThreadPool(MAX_THREADS_TO_RUN) : null;
     }
 
     private void invokeRegistrationCallback(RegistrationResult registrationInfo, Exception e) throws ProvisioningDeviceClientException
     {
         if (this.provisioningDeviceClientRegistrationCallback != null)
         {
+            this.registrationCallbackInvoked = true;
             this.provisioningDeviceClientRegistrationCallback.run(registrationInfo, e, this.dpsRegistrationCallbackContext);
         }
         else
@@ -106,14 +142,23 @@ public class ProvisioningTask implements Callable<Object>
     }
 
     private RegistrationOperationStatusParser invokeRegister() throws InterruptedException, ExecutionException, TimeoutException,
-                                                                      ProvisioningDeviceClientException
+                                                                      ProvisioningDeviceClientException, SecurityProviderException
     {
         RegisterTask registerTask = new RegisterTask(this.provisioningDeviceClientConfig, securityProvider,
                                                      provisioningDeviceClientContract, authorization);
-        FutureTask<RegistrationOperationStatusParser> futureRegisterTask = new FutureTask<>(registerTask);
-        executor.submit(futureRegisterTask);
-        RegistrationOperationStatusParser registrationOperationStatusParser = futureRegisterTask.get(MAX_TIME_TO_WAIT_FOR_REGISTRATION,
-                                                                                                      TimeUnit.MILLISECONDS);
+        RegistrationOperationStatusParser registrationOperationStatusParser;
+        if (this.executor != null)
+        {
+            FutureTask<RegistrationOperationStatusParser> futureRegisterTask = new FutureTask<>(registerTask);
+            executor.submit(futureRegisterTask);
+            registrationOperationStatusParser = futureRegisterTask.get(MAX_TIME_TO_WAIT_FOR_REGISTRATION, TimeUnit.MILLISECONDS);
+        }
+        else
+        {
+            // Already running on a thread of the shared executor, so there is no need to hand off to another thread
+            registrationOperationStatusParser = registerTask.authenticateWithDPS();
+        }
+
        if (registrationOperationStatusParser == null)
         {
             this.dpsStatus = PROVISIONING_DEVICE_STATUS_ERROR;
@@ -141,7 +186,6 @@ public class ProvisioningTask implements Callable<Object>
     private RegistrationOperationStatusParser invokeStatus(String operationId) throws TimeoutException, InterruptedException, ExecutionException,
                                                                                       ProvisioningDeviceClientException
     {
-        Thread.sleep(provisioningDeviceClientContract.getRetryValue());
         StatusTask statusTask = new StatusTask(
                 securityProvider,
                 provisioningDeviceClientContract,
@@ -149,9 +193,17 @@ public class ProvisioningTask implements Callable<Object>
                 operationId,
                 this.authorization);
 
-        FutureTask<RegistrationOperationStatusParser> futureStatusTask = new FutureTask<>(statusTask);
-        executor.submit(futureStatusTask);
-        RegistrationOperationStatusParser statusRegistrationOperationStatusParser =  futureStatusTask.get(MAX_TIME_TO_WAIT_FOR_STATUS_UPDATE, TimeUnit.MILLISECONDS);
+        RegistrationOperationStatusParser statusRegistrationOperationStatusParser;
+        if (this.executor != null)
+        {
+            FutureTask<RegistrationOperationStatusParser> futureStatusTask = new FutureTask<>(statusTask);
+            executor.submit(futureStatusTask);
+            statusRegistrationOperationStatusParser = futureStatusTask.get(MAX_TIME_TO_WAIT_FOR_STATUS_UPDATE, TimeUnit.MILLISECONDS);
+        }
+        else
+        {
+            statusRegistrationOperationStatusParser = statusTask.getRegistrationStatus(operationId, this.authorization);
+        }
 
         if (statusRegistrationOperationStatusParser == null)
         {
@@ -179,95 +231,102 @@ public class ProvisioningTask implements Callable<Object>
             throws TimeoutException, InterruptedException, ExecutionException, ProvisioningDeviceClientException, SecurityProviderException
 
     {
-        boolean isContinue = false;
         RegistrationOperationStatusParser statusRegistrationOperationStatusParser = registrationOperationStatusParser;
-        ProvisioningStatus nextStatus = ProvisioningStatus.fromString(registrationOperationStatusParser.getStatus());
-        log.info("Current provisioning status: {}", nextStatus);
+        log.info("Current provisioning status: {}", ProvisioningStatus.fromString(registrationOperationStatusParser.getStatus()));
         // continue invoking for status until a terminal state is reached
-        do
+        while (!this.handleStatus(statusRegistrationOperationStatusParser, registrationOperationStatusParser))
         {
-            if (nextStatus == null)
-            {
-                throw new ProvisioningDeviceClientException("Did not receive a valid status");
-            }
-
-            switch (nextStatus)
-            {
-                case UNASSIGNED:
-                    //intended fall through
-                case ASSIGNING:
-                    log.trace("Polling device provisioning service for status of registration...");
-                    statusRegistrationOperationStatusParser = this.invokeStatus(registrationOperationStatusParser.getOperationId());
-                    nextStatus = ProvisioningStatus.fromString(statusRegistrationOperationStatusParser.getStatus());
-                    isContinue = true;
-                    break;
-                case ASSIGNED:
-                    this.dpsStatus = PROVISIONING_DEVICE_STATUS_ASSIGNED;
-                    DeviceRegistrationResultParser registrationStatus = statusRegistrationOperationStatusParser.getRegistrationState();
-
-                    if (registrationStatus == null
-                            || registrationStatus.getAssignedHub() == null
-                            || registrationStatus.getAssignedHub().isEmpty()
-                            || registrationStatus.getDeviceId() == null
-                            || registrationStatus.getDeviceId().isEmpty())
-                    {
-                        //Codes_SRS_ProvisioningTask_34_018: [Upon reaching the terminal state ASSIGNED, if the registration status json is missing an assigned hub or device id, this function shall throw a ProvisioningDeviceClientException.]
-                        throw new ProvisioningDeviceClientException("Could not retrieve Assigned Hub or Device ID and status changed to Assigned");
-                    }
-
-                    RegistrationResult registrationInfo = new RegistrationResult(
-                                                            registrationStatus.getAssignedHub(),
-                                                            registrationStatus.getDeviceId(),
-                                                            registrationStatus.getPayload(), PROVISIONING_DEVICE_STATUS_ASSIGNED);
+            log.trace("Polling device provisioning service for status of registration...");
+            Thread.sleep(provisioningDeviceClientContract.getRetryValue());
+            statusRegistrationOperationStatusParser = this.invokeStatus(registrationOperationStatusParser.getOperationId());
+        }
+    }
 
-                    registrationInfo.setRegistrationId(registrationStatus.getRegistrationId());
-                    registrationInfo.setStatus(registrationStatus.getStatus());
-                    registrationInfo.setSubstatus(ProvisioningDeviceClientSubstatus.fromString(registrationStatus.getSubstatus()));
-                    registrationInfo.setCreatedDateTimeUtc(registrationStatus.getCreatedDateTimeUtc());
-                    registrationInfo.setLastUpdatesDateTimeUtc(registrationStatus.getLastUpdatesDateTimeUtc());
-                    registrationInfo.setETag(registrationStatus.getETag());
+    /**
+     * Handles the most recent status of the registration, invoking the registration callback if it is a terminal status.
+     * @param statusRegistrationOperationStatusParser the most recent status of the registration.
+     * @param registrationOperationStatusParser the response to the initial registration request.
+     * @return {@code true} if a terminal status was reached, or {@code false} if the status should be polled again.
+     */
+    private boolean handleStatus(RegistrationOperationStatusParser statusRegistrationOperationStatusParser, RegistrationOperationStatusParser registrationOperationStatusParser)
+            throws ProvisioningDeviceClientException, SecurityProviderException
+    {
+        ProvisioningStatus status = ProvisioningStatus.fromString(statusRegistrationOperationStatusParser.getStatus());
+        if (status == null)
+        {
+            throw new ProvisioningDeviceClientException("Did not receive a valid status");
+        }
 
-                    if (this.securityProvider instanceof SecurityProviderTpm)
+        switch (status)
+        {
+            case UNASSIGNED:
+                //intended fall through
+            case ASSIGNING:
+                return false;
+            case ASSIGNED:
+                this.dpsStatus = PROVISIONING_DEVICE_STATUS_ASSIGNED;
+                DeviceRegistrationResultParser registrationStatus = statusRegistrationOperationStatusParser.getRegistrationState();
+
+                if (registrationStatus == null
+                        || registrationStatus.getAssignedHub() == null
+                        || registrationStatus.getAssignedHub().isEmpty()
+                        || registrationStatus.getDeviceId() == null
+                        || registrationStatus.getDeviceId().isEmpty())
+                {
+                    //Codes_SRS_ProvisioningTask_34_018: [Upon reaching the terminal state ASSIGNED, if the registration status json is missing an assigned hub or device id, this function shall throw a ProvisioningDeviceClientException.]
+                    throw new ProvisioningDeviceClientException("Could not retrieve Assigned Hub or Device ID and status changed to Assigned");
+                }
+
+                RegistrationResult registrationInfo = new RegistrationResult(
+                                                        registrationStatus.getAssignedHub(),
+                                                        registrationStatus.getDeviceId(),
+                                                        registrationStatus.getPayload(), PROVISIONING_DEVICE_STATUS_ASSIGNED);
+
+                registrationInfo.setRegistrationId(registrationStatus.getRegistrationId());
+                registrationInfo.setStatus(registrationStatus.getStatus());
+                registrationInfo.setSubstatus(ProvisioningDeviceClientSubstatus.fromString(registrationStatus.getSubstatus()));
+                registrationInfo.setCreatedDateTimeUtc(registrationStatus.getCreatedDateTimeUtc());
+                registrationInfo.setLastUpdatesDateTimeUtc(registrationStatus.getLastUpdatesDateTimeUtc());
+                registrationInfo.setETag(registrationStatus.getETag());
+
+                if (this.securityProvider instanceof SecurityProviderTpm)
+                {
+                    if (registrationStatus.getTpm() == null
+                            || registrationStatus.getTpm().getAuthenticationKey() == null
+                            || registrationStatus.getTpm().getAuthenticationKey().isEmpty())
                     {
-                        if (registrationStatus.getTpm() == null
-                                || registrationStatus.getTpm().getAuthenticationKey() == null
-                                || registrationStatus.getTpm().getAuthenticationKey().isEmpty())
-                        {
-                            //Codes_SRS_ProvisioningTask_34_017: [Upon reaching the terminal state ASSIGNED, if the saved security client is an instance of SecurityClientTpm and if the registration status json does not contain an authentication key, this function shall throw a ProvisioningDeviceClientException.]
-                            throw new ProvisioningDeviceClientException("Could not retrieve Authentication key when status was assigned");
-                        }
-
-                        //Codes_SRS_ProvisioningTask_34_016: [Upon reaching the terminal state ASSIGNED, if the saved security client is an instance of SecurityClientTpm, the security client shall decrypt and store the authentication key from the statusResponseParser.]
-                        String authenticationKey = registrationStatus.getTpm().getAuthenticationKey();
-                        ((SecurityProviderTpm) this.securityProvider).activateIdentityKey(decodeBase64(authenticationKey.getBytes(StandardCharsets.UTF_8)));
+                        //Codes_SRS_ProvisioningTask_34_017: [Upon reaching the terminal state ASSIGNED, if the saved security client is an instance of SecurityClientTpm and if the registration status json does not contain an authentication key, this function shall throw a ProvisioningDeviceClientException.]
+                        throw new ProvisioningDeviceClientException("Could not retrieve Authentication key when status was assigned");
                     }
-                    log.info("Device provisioning service assigned the device successfully");
-                    this.invokeRegistrationCallback(registrationInfo, null);
-                    isContinue = false;
-                    break;
-                case FAILED:
-                    this.dpsStatus = PROVISIONING_DEVICE_STATUS_FAILED;
-                    String errorMessage = statusRegistrationOperationStatusParser.getRegistrationState().getErrorMessage();
-                    ProvisioningDeviceHubException dpsHubException = new ProvisioningDeviceHubException(errorMessage);
-                    dpsHubException.setErrorCode(registrationOperationStatusParser.getRegistrationState().getErrorCode());
-                    registrationInfo = new RegistrationResult(null, null, null, PROVISIONING_DEVICE_STATUS_FAILED);
-                    log.error("Device provisioning service failed to provision the device, finished with status FAILED: {}", errorMessage);
-                    this.invokeRegistrationCallback(registrationInfo, dpsHubException);
-                    isContinue = false;
-                    break;
-                case DISABLED:
-                    this.dpsStatus = PROVISIONING_DEVICE_STATUS_DISABLED;
-                    String disabledErrorMessage = statusRegistrationOperationStatusParser.getRegistrationState().getErrorMessage();
-                    dpsHubException = new ProvisioningDeviceHubException(disabledErrorMessage);
-                    dpsHubException.setErrorCode(registrationOperationStatusParser.getRegistrationState().getErrorCode());
-                    registrationInfo = new RegistrationResult(null, null, null, PROVISIONING_DEVICE_STATUS_DISABLED);
-                    log.error("Device provisioning service failed to provision the device, finished with status DISABLED: {}", disabledErrorMessage);
-                    this.invokeRegistrationCallback(registrationInfo, dpsHubException);
-                    isContinue = false;
-                    break;
-            }
+
+                    //Codes_SRS_ProvisioningTask_34_016: [Upon reaching the terminal state ASSIGNED, if the saved security client is an instance of SecurityClientTpm, the security client shall decrypt and store the authentication key from the statusResponseParser.]
+                    String authenticationKey = registrationStatus.getTpm().getAuthenticationKey();
+                    ((SecurityProviderTpm) this.securityProvider).activateIdentityKey(decodeBase64(authenticationKey.getBytes(StandardCharsets.UTF_8)));
+                }
+                log.info("Device provisioning service assigned the device successfully");
+                this.invokeRegistrationCallback(registrationInfo, null);
+                return true;
+            case FAILED:
+                this.dpsStatus = PROVISIONING_DEVICE_STATUS_FAILED;
+                String errorMessage = statusRegistrationOperationStatusParser.getRegistrationState().getErrorMessage();
+                ProvisioningDeviceHubException dpsHubException = new ProvisioningDeviceHubException(errorMessage);
+                dpsHubException.setErrorCode(registrationOperationStatusParser.getRegistrationState().getErrorCode());
+                registrationInfo = new RegistrationResult(null, null, null, PROVISIONING_DEVICE_STATUS_FAILED);
+                log.error("Device provisioning service failed to provision the device, finished with status FAILED: {}", errorMessage);
+                this.invokeRegistrationCallback(registrationInfo, dpsHubException);
+                return true;
+            case DISABLED:
+                this.dpsStatus = PROVISIONING_DEVICE_STATUS_DISABLED;
+                String disabledErrorMessage = statusRegistrationOperationStatusParser.getRegistrationState().getErrorMessage();
+                dpsHubException = new ProvisioningDeviceHubException(disabledErrorMessage);
+                dpsHubException.setErrorCode(registrationOperationStatusParser.getRegistrationState().getErrorCode());
+                registrationInfo = new RegistrationResult(null, null, null, PROVISIONING_DEVICE_STATUS_DISABLED);
+                log.error("Device provisioning service failed to provision the device, finished with status DISABLED: {}", disabledErrorMessage);
+                this.invokeRegistrationCallback(registrationInfo, dpsHubException);
+                return true;
         }
-        while (isContinue);
+
+        return true;
     }
 
     // this thread will continue to run until DPS status is assigned and registered or exit on error
@@ -350,6 +409,139 @@ public class ProvisioningTask implements Callable<Object>
         return null;
     }
 
+    /**
+     * Runs the same state machine as {@link #call()}, but on the shared executor that this task was constructed with.
+     * Rather than sleeping between status polls, each poll is scheduled on the shared scheduler to run once the
+     * retry-after interval requested by the service has elapsed, so no thread is held while the service is assigning
+     * the device.
+     *
+     * <p>
+     * Unlike {@link #call()}, every exception, including those thrown by the registration callback, is reported through
+     * the registration callback unless it has already been invoked.
+     * </p>
+     *
+     * @return a future that completes once this task has finished, after the registration callback has been invoked.
+     */
+    public CompletableFuture<Void> runAsync()
+    {
+        if (this.sharedExecutor == null)
+        {
+            throw new IllegalStateException("Only tasks that were constructed with a shared executor can be run asynchronously");
+        }
+
+        CompletableFuture<Void> completion = new CompletableFuture<>();
+        this.sharedExecutor.execute(() -> this.runAsyncStep(completion, () ->
+        {
+            long registerStageStartNanos = System.nanoTime();
+
+            log.info("Opening the connection to device provisioning service...");
+            provisioningDeviceClientContract.open(new RequestData(securityProvider.getRegistrationId(), securityProvider.getSSLContext(), securityProvider instanceof SecurityProviderX509, provisioningDeviceClientConfig.getPayload()));
+
+            log.info("Connection to device provisioning service opened successfully, sending initial device registration message");
+            RegistrationOperationStatusParser registrationOperationStatusParser = this.invokeRegister();
+            this.registerStageDurationNanos = System.nanoTime() - registerStageStartNanos;
+
+            log.info("Current provisioning status: {}", ProvisioningStatus.fromString(registrationOperationStatusParser.getStatus()));
+            this.continueAsync(registrationOperationStatusParser, registrationOperationStatusParser, System.nanoTime(), completion);
+        }));
+
+        return completion;
+    }
+
+    /**
+     * @return the time taken to open the connection and get a response to the initial registration request, or -1 if
+     * that stage hasn't finished.
+     */
+    public long getRegisterStageDurationMillis()
+    {
+        long durationNanos = this.registerStageDurationNanos;
+        return durationNanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(durationNanos);
+    }
+
+    /**
+     * @return the time taken from the response to the initial registration request until the service reported a
+     * terminal status, or -1 if that stage hasn't finished.
+     */
+    public long getStatusStageDurationMillis()
+    {
+        long durationNanos = this.statusStageDurationNanos;
+        return durationNanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(durationNanos);
+    }
+
+    private void continueAsync(
+        RegistrationOperationStatusParser statusRegistrationOperationStatusParser,
+        RegistrationOperationStatusParser registrationOperationStatusParser,
+        long statusStageStartNanos,
+        CompletableFuture<Void> completion) throws ProvisioningDeviceClientException, SecurityProviderException
+    {
+        if (this.handleStatus(statusRegistrationOperationStatusParser, registrationOperationStatusParser))
+        {
+            this.statusStageDurationNanos = System.nanoTime() - statusStageStartNanos;
+            this.closeAsync(completion);
+            return;
+        }
+
+        int retryAfterMilliseconds = provisioningDeviceClientContract.getRetryValue();
+        log.trace("Polling device provisioning service for status of registration in {} milliseconds...", retryAfterMilliseconds);
+        this.sharedScheduler.schedule(
+            () -> this.sharedExecutor.execute(() -> this.runAsyncStep(completion, () ->
+            {
+                RegistrationOperationStatusParser nextStatus = this.invokeStatus(registrationOperationStatusParser.getOperationId());
+                this.continueAsync(nextStatus, registrationOperationStatusParser, statusStageStartNanos, completion);
+            })),
+            retryAfterMilliseconds,
+            TimeUnit.MILLISECONDS);
+    }
+
+    private void runAsyncStep(CompletableFuture<Void> completion, AsyncStep step)
+    {
+        try
+        {
+            step.run();
+        }
+        catch (Exception e)
+        {
+            if (this.registrationCallbackInvoked)
+            {
+                log.warn("Encountered an exception after the registration callback was invoked", e);
+            }
+            else
+            {
+                this.dpsStatus = PROVISIONING_DEVICE_STATUS_ERROR;
+                try
+                {
+                    invokeRegistrationCallback(new RegistrationResult(null, null, null, PROVISIONING_DEVICE_STATUS_ERROR), e);
+                }
+                catch (Exception callbackException)
+                {
+                    log.warn("Registration callback threw an exception", callbackException);
+                }
+            }
+
+            this.closeAsync(completion);
+        }
+    }
+
+    private void closeAsync(CompletableFuture<Void> completion)
+    {
+        try
+        {
+            provisioningDeviceClientContract.close();
+        }
+        catch (ProvisioningDeviceConnectionException e)
+        {
+            log.warn("Failed to close the connection to device provisioning service", e);
+        }
+
+        completion.complete(null);
+    }
+
+    @FunctionalInterface
+    private interface AsyncStep
+    {
+        void run() throws Exception;
+    }
+
     /**
      * This method shall shutdown the existing threads if not already done so.
      */
@@ -275,7 +275,7 @@ class RegisterTask implements Callable<RegistrationOperationStatusParser>
         }
     }
 
-    private RegistrationOperationStatusParser authenticateWithDPS() throws ProvisioningDeviceClientException, SecurityProviderException
+    RegistrationOperationStatusParser authenticateWithDPS() throws ProvisioningDeviceClientException, SecurityProviderException
     {
         if (securityProvider.getRegistrationId() == null)
         {
@@ -100,7 +100,7 @@ class StatusTask implements Callable<RegistrationOperationStatusParser>
         this.authorization = authorization;
     }
 
-    private RegistrationOperationStatusParser getRegistrationStatus(String operationId, Authorization authorization) throws ProvisioningDeviceClientException
+    RegistrationOperationStatusParser getRegistrationStatus(String operationId, Authorization authorization) throws ProvisioningDeviceClientException
     {
         try
         {
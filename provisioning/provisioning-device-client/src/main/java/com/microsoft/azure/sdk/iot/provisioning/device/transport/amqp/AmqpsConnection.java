@@ -33,12 +33,21 @@ public class AmqpsConnection extends ErrorLoggingBaseHandlerWithCleanup
 
     private static final int AMQP_PORT = 5671;
     private static final int AMQP_WEB_SOCKET_PORT = 443;
-    private static final int THREAD_POOL_MAX_NUMBER = 1;
     private static final String WEB_SOCKET_PATH = "/$iothub/websocket";
     private static final String WEB_SOCKET_SUB_PROTOCOL = "AMQPWSB10";
     private static final String WEB_SOCKET_QUERY = "iothub-no-client-cert=true";
     private static final int MAX_MESSAGE_PAYLOAD_SIZE = 256 * 1024; //max message size is 256 kb, so amqp websocket layer should buffer at most that much space
 
+    // The reactor of each connection runs on a thread of this pool for as long as the connection is open. Idle threads
+    // are kept for a while, so that connections opened one after the other, such as when many devices are registered,
+    // reuse them instead of each starting a new thread.
+    private static final ExecutorService REACTOR_RUNNER_POOL = Executors.newCachedThreadPool(runnable ->
+    {
+        Thread thread = new Thread(runnable, "azure-iot-sdk-ReactorRunner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private int linkCredit;
 
     private long nextTag;
@@ -51,7 +60,7 @@ public class AmqpsConnection extends ErrorLoggingBaseHandlerWithCleanup
 
     private Connection connection;
     private Session session;
-    private ExecutorService executorService;
+    private Future<Object> reactorRunnerFuture;
 
     private final AmqpDeviceOperations amqpDeviceOperations;
 
@@ -154,6 +163,24 @@ public class AmqpsConnection extends ErrorLoggingBaseHandlerWithCleanup
         return this.isOpen;
     }
 
+    /**
+     * Waits for a connection started by {@link #openAmqpAsync()} to open.
+     * @param timeoutMillis The maximum time to wait, in milliseconds.
+     * @return true if the connection is open, false if it didn't open within the timeout.
+     * @throws Exception If opening the connection failed, such as when the sasl negotiation failed.
+     */
+    public boolean waitForOpen(long timeoutMillis) throws Exception
+    {
+        if (!this.isConnected())
+        {
+            // The latch is also released when the transport fails, so a failed connection doesn't wait for the full timeout
+            //noinspection ResultOfMethodCallIgnored
+            this.openLatch.await(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+
+        return this.isConnected();
+    }
+
     /**
      * Opens the connection.
      * @throws IOException If connection could not be opened.
@@ -208,18 +235,13 @@ public class AmqpsConnection extends ErrorLoggingBaseHandlerWithCleanup
     {
         this.openLatch = new CountDownLatch(1);
 
-        if (executorService == null)
-        {
-            executorService = Executors.newFixedThreadPool(THREAD_POOL_MAX_NUMBER);
-        }
-
         log.debug("Starting amqp reactor thread...");
         AmqpReactor amqpReactor = new AmqpReactor(this.reactor);
 
         String reactorRunnerPrefix = this.hostName + "-Cxn" + this.connectionId;
 
-        ReactorRunner reactorRunner = new ReactorRunner(amqpReactor, reactorRunnerPrefix, "ConnectionOwner");
-        executorService.submit(reactorRunner);
+        ReactorRunner reactorRunner = new ReactorRunner(amqpReactor, reactorRunnerPrefix, "ConnectionOwner", this.openLatch);
+        this.reactorRunnerFuture = REACTOR_RUNNER_POOL.submit(reactorRunner);
     }
 
     /**
@@ -251,7 +273,12 @@ public class AmqpsConnection extends ErrorLoggingBaseHandlerWithCleanup
             {
                 synchronized (closeLock)
                 {
-                    closeLock.waitLock(MAX_WAIT_TO_OPEN_CLOSE_CONNECTION);
+                    // The reactor is cleared just before the lock is notified, so there is nothing to wait for if it
+                    // has already finished
+                    if (this.reactor != null)
+                    {
+                        closeLock.waitLock(MAX_WAIT_TO_OPEN_CLOSE_CONNECTION);
+                    }
                 }
             }
             catch (InterruptedException e)
@@ -259,25 +286,22 @@ public class AmqpsConnection extends ErrorLoggingBaseHandlerWithCleanup
                 throw new IOException("Waited too long for the connection to close.", e);
             }
 
-            if (this.executorService != null)
+            if (this.reactorRunnerFuture != null)
             {
-                this.executorService.shutdown();
+                // The pool is shared with other connections, so only this connection's reactor runner is waited for
                 try
                 {
-                    // Wait a while for existing tasks to terminate
-                    if (!this.executorService.awaitTermination(MAX_WAIT_TO_TERMINATE_EXECUTOR, TimeUnit.SECONDS))
-                    {
-                        this.executorService.shutdownNow(); // Cancel currently executing tasks
-                        // Wait a while for tasks to respond to being cancelled
-                        if (!this.executorService.awaitTermination(MAX_WAIT_TO_TERMINATE_EXECUTOR, TimeUnit.SECONDS))
-                        {
-                            log.info("Pool did not terminate");
-                        }
-                    }
+                    this.reactorRunnerFuture.get(MAX_WAIT_TO_TERMINATE_EXECUTOR, TimeUnit.SECONDS);
                 }
-                catch (InterruptedException ie)
+                catch (InterruptedException e)
                 {
-                    this.executorService.shutdownNow();
+                    Thread.currentThread().interrupt();
+                    this.reactorRunnerFuture.cancel(true);
+                }
+                catch (ExecutionException | TimeoutException e)
+                {
+                    log.info("Amqp reactor did not stop cleanly", e);
+                    this.reactorRunnerFuture.cancel(true);
                 }
             }
             this.isOpen = false;
@@ -299,6 +323,10 @@ public class AmqpsConnection extends ErrorLoggingBaseHandlerWithCleanup
     {
         super.onReactorFinal(event);
         this.reactor = null;
+
+        // The connection can't open anymore once its reactor has stopped, such as when the host refused the connection
+        this.openLatch.countDown();
+
         synchronized (closeLock)
         {
             closeLock.notifyLock();
@@ -525,6 +553,9 @@ public class AmqpsConnection extends ErrorLoggingBaseHandlerWithCleanup
     {
         super.onTransportError(event);
         this.isOpen = false;
+
+        // Wake up anyone waiting for the connection to open, so they see the error instead of waiting for the timeout
+        this.openLatch.countDown();
     }
 
     @Override
@@ -543,18 +574,21 @@ public class AmqpsConnection extends ErrorLoggingBaseHandlerWithCleanup
         private final AmqpReactor amqpReactor;
         private final String threadPostFix;
         private final String threadPreFix;
+        private final CountDownLatch openLatch;
 
-        ReactorRunner(AmqpReactor reactor, String threadPrefix, String threadPostFix)
+        ReactorRunner(AmqpReactor reactor, String threadPrefix, String threadPostFix, CountDownLatch openLatch)
         {
             this.amqpReactor = reactor;
             this.threadPostFix = threadPostFix;
             this.threadPreFix = threadPrefix;
+            this.openLatch = openLatch;
         }
 
         @Override
         public Object call()
         {
             String threadName = threadPreFix + "-" + THREAD_NAME + "-" + this.threadPostFix;
+            String pooledThreadName = Thread.currentThread().getName();
             Thread.currentThread().setName(threadName);
             log.trace("Amqp reactor thread {} has started", threadName);
 
@@ -567,6 +601,15 @@ public class AmqpsConnection extends ErrorLoggingBaseHandlerWithCleanup
                 log.error("Encountered an exception while running the AMQP reactor", e);
                 throw e;
             }
+            finally
+            {
+                // The reactor may stop without reaching onReactorFinal, such as when the host address can't be
+                // resolved, so release anyone still waiting for the connection to open
+                this.openLatch.countDown();
+
+                // The thread goes back to the shared pool, where it may run the reactor of another connection next
+                Thread.currentThread().setName(pooledThreadName);
+            }
 
             log.trace("Amqp reactor thread {} has finished", threadName);
 
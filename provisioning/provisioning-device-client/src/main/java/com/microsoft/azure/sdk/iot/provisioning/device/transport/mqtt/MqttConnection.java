@@ -11,11 +11,14 @@ import org.eclipse.paho.client.mqttv3.MqttAsyncClient;
 import org.eclipse.paho.client.mqttv3.MqttCallback;
 import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
 import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.ScheduledExecutorPingSender;
 import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
 
 import javax.net.ssl.SSLContext;
 import java.io.IOException;
 import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 import static com.microsoft.azure.sdk.iot.provisioning.device.transport.mqtt.MqttMessage.retrieveQosValue;
 
@@ -33,6 +36,15 @@ public class MqttConnection implements MqttCallback
     private static final boolean SET_CLEAN_SESSION = false;
     private static final int SUBSCRIBE_REQUEST_MAX_WAIT_TIME_MILLISECONDS = 60 * 1000; // 1 minute
 
+    // Paho starts a keep alive timer thread for each connection by default. Sending the pings of all connections from
+    // one shared thread instead saves a thread per connection when many devices are registered at the same time.
+    private static final ScheduledExecutorService PING_SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable ->
+    {
+        Thread thread = new Thread(runnable, "azure-iot-sdk-MqttPingSender");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private final MqttListener mqttListener;
     private final String connectionId;
     private final String hostName;
@@ -76,7 +88,7 @@ public class MqttConnection implements MqttCallback
             }
             this.hostName = hostname;
             this.mqttListener = listener;
-            this.mqttAsyncClient = new MqttAsyncClient(serverUri, clientId, new MemoryPersistence());
+            this.mqttAsyncClient = new MqttAsyncClient(serverUri, clientId, new MemoryPersistence(), new ScheduledExecutorPingSender(PING_SCHEDULER));
             this.connectionOptions = new MqttConnectOptions();
             this.mqttAsyncClient.setCallback(this);
             this.updateConnectionOptions(userName, password, sslContext);
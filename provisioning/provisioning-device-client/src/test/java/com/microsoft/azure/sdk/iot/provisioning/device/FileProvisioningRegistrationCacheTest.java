@@ -0,0 +1,166 @@
+/*
+ *
+ *  Copyright (c) Microsoft. All rights reserved.
+ *  Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ *
+ */
+
+package com.microsoft.azure.sdk.iot.provisioning.device;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for FileProvisioningRegistrationCache
+ */
+public class FileProvisioningRegistrationCacheTest
+{
+    private static final String GLOBAL_ENDPOINT = "global.azure-devices-provisioning.net";
+    private static final String ID_SCOPE = "0ne00000000";
+    private static final String REGISTRATION_ID = "someRegistrationId";
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        directory = Files.createTempDirectory("registrationCache");
+    }
+
+    @After
+    public void tearDown()
+    {
+        File[] files = directory.toFile().listFiles();
+        if (files != null)
+        {
+            for (File file : files)
+            {
+                file.delete();
+            }
+        }
+
+        directory.toFile().delete();
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void constructorThrowsOnNullDirectory()
+    {
+        new FileProvisioningRegistrationCache((String) null);
+    }
+
+    @Test
+    public void getReturnsNullWhenNothingStored()
+    {
+        FileProvisioningRegistrationCache cache = new FileProvisioningRegistrationCache(directory);
+
+        assertNull(cache.get(GLOBAL_ENDPOINT, ID_SCOPE, REGISTRATION_ID));
+    }
+
+    @Test
+    public void getReturnsStoredResultFromNewInstance()
+    {
+        // arrange
+        new FileProvisioningRegistrationCache(directory).put(GLOBAL_ENDPOINT, ID_SCOPE, REGISTRATION_ID, createAssignedResult("someHub.azure-devices.net"));
+
+        // act
+        ProvisioningDeviceClientRegistrationResult result = new FileProvisioningRegistrationCache(directory).get(GLOBAL_ENDPOINT, ID_SCOPE, REGISTRATION_ID);
+
+        // assert
+        assertNotNull(result);
+        assertEquals("someHub.azure-devices.net", result.getIothubUri());
+        assertEquals("someDeviceId", result.getDeviceId());
+        assertEquals(REGISTRATION_ID, result.getRegistrationId());
+        assertEquals("someETag", result.getETag());
+        assertEquals(ProvisioningDeviceClientStatus.PROVISIONING_DEVICE_STATUS_ASSIGNED, result.getProvisioningDeviceClientStatus());
+    }
+
+    @Test
+    public void putReplacesStoredResult()
+    {
+        FileProvisioningRegistrationCache cache = new FileProvisioningRegistrationCache(directory);
+        cache.put(GLOBAL_ENDPOINT, ID_SCOPE, REGISTRATION_ID, createAssignedResult("oldHub.azure-devices.net"));
+
+        cache.put(GLOBAL_ENDPOINT, ID_SCOPE, REGISTRATION_ID, createAssignedResult("newHub.azure-devices.net"));
+
+        assertEquals("newHub.azure-devices.net", cache.get(GLOBAL_ENDPOINT, ID_SCOPE, REGISTRATION_ID).getIothubUri());
+        assertEquals(1, directory.toFile().listFiles().length);
+    }
+
+    @Test
+    public void resultsAreKeyedByGlobalEndpointIdScopeAndRegistrationId()
+    {
+        FileProvisioningRegistrationCache cache = new FileProvisioningRegistrationCache(directory);
+
+        cache.put(GLOBAL_ENDPOINT, ID_SCOPE, REGISTRATION_ID, createAssignedResult("someHub.azure-devices.net"));
+
+        assertNull(cache.get("other.azure-devices-provisioning.net", ID_SCOPE, REGISTRATION_ID));
+        assertNull(cache.get(GLOBAL_ENDPOINT, "0ne11111111", REGISTRATION_ID));
+        assertNull(cache.get(GLOBAL_ENDPOINT, ID_SCOPE, "otherRegistrationId"));
+    }
+
+    @Test
+    public void removeDeletesStoredResult()
+    {
+        FileProvisioningRegistrationCache cache = new FileProvisioningRegistrationCache(directory);
+        cache.put(GLOBAL_ENDPOINT, ID_SCOPE, REGISTRATION_ID, createAssignedResult("someHub.azure-devices.net"));
+
+        cache.remove(GLOBAL_ENDPOINT, ID_SCOPE, REGISTRATION_ID);
+
+        assertNull(cache.get(GLOBAL_ENDPOINT, ID_SCOPE, REGISTRATION_ID));
+    }
+
+    @Test
+    public void putLeavesNoTemporaryFiles()
+    {
+        FileProvisioningRegistrationCache cache = new FileProvisioningRegistrationCache(directory);
+
+        cache.put(GLOBAL_ENDPOINT, ID_SCOPE, REGISTRATION_ID, createAssignedResult("someHub.azure-devices.net"));
+        cache.put(GLOBAL_ENDPOINT, ID_SCOPE, "otherRegistrationId", createAssignedResult("someHub.azure-devices.net"));
+
+        File[] files = directory.toFile().listFiles();
+        assertEquals(2, files.length);
+        for (File file : files)
+        {
+            assertTrue(file.getName().endsWith(".json"));
+        }
+    }
+
+    @Test
+    public void getReturnsNullForCorruptFile() throws IOException
+    {
+        // arrange
+        FileProvisioningRegistrationCache cache = new FileProvisioningRegistrationCache(directory);
+        cache.put(GLOBAL_ENDPOINT, ID_SCOPE, REGISTRATION_ID, createAssignedResult("someHub.azure-devices.net"));
+        File storedFile = directory.toFile().listFiles()[0];
+        Files.write(storedFile.toPath(), "{not json".getBytes(StandardCharsets.UTF_8));
+
+        // act
+        ProvisioningDeviceClientRegistrationResult result = cache.get(GLOBAL_ENDPOINT, ID_SCOPE, REGISTRATION_ID);
+
+        // assert
+        assertNull(result);
+    }
+
+    private static ProvisioningDeviceClientRegistrationResult createAssignedResult(String iothubUri)
+    {
+        ProvisioningDeviceClientRegistrationResult result = new ProvisioningDeviceClientRegistrationResult();
+        result.iothubUri = iothubUri;
+        result.deviceId = "someDeviceId";
+        result.registrationId = REGISTRATION_ID;
+        result.eTag = "someETag";
+        result.provisioningDeviceClientStatus = ProvisioningDeviceClientStatus.PROVISIONING_DEVICE_STATUS_ASSIGNED;
+        return result;
+    }
+}
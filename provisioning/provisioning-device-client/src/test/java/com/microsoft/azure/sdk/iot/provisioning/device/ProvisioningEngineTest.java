@@ -0,0 +1,140 @@
+/*
+ *
+ *  Copyright (c) Microsoft. All rights reserved.
+ *  Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ *
+ */
+
+package com.microsoft.azure.sdk.iot.provisioning.device;
+
+import com.microsoft.azure.sdk.iot.provisioning.security.SecurityProviderSymmetricKey;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for ProvisioningEngine
+ */
+public class ProvisioningEngineTest
+{
+    // Nothing listens on this port, so every registration fails as soon as it tries to connect
+    private static final String UNREACHABLE_GLOBAL_ENDPOINT = "127.0.0.1:1";
+    private static final String ID_SCOPE = "0ne00000000";
+
+    @Test (expected = IllegalArgumentException.class)
+    public void constructorThrowsOnNullGlobalEndpoint()
+    {
+        new ProvisioningEngine(null, ID_SCOPE, ProvisioningDeviceClientTransportProtocol.HTTPS);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void constructorThrowsOnNonPositiveMaxConcurrentRegistrations()
+    {
+        ProvisioningEngineOptions options = ProvisioningEngineOptions.builder().maxConcurrentRegistrations(0).build();
+        new ProvisioningEngine(UNREACHABLE_GLOBAL_ENDPOINT, ID_SCOPE, ProvisioningDeviceClientTransportProtocol.HTTPS, options);
+    }
+
+    @Test (expected = IllegalStateException.class)
+    public void registerDeviceThrowsAfterClose()
+    {
+        ProvisioningEngine engine = new ProvisioningEngine(UNREACHABLE_GLOBAL_ENDPOINT, ID_SCOPE, ProvisioningDeviceClientTransportProtocol.HTTPS);
+        engine.close();
+
+        engine.registerDevice(createSecurityProvider(0));
+    }
+
+    @Test
+    public void failedRegistrationsCompleteExceptionallyAndAreCounted() throws Exception
+    {
+        // arrange
+        final int registrationCount = 20;
+        ProvisioningEngineOptions options = ProvisioningEngineOptions.builder().maxConcurrentRegistrations(3).build();
+        ProvisioningEngine engine = new ProvisioningEngine(UNREACHABLE_GLOBAL_ENDPOINT, ID_SCOPE, ProvisioningDeviceClientTransportProtocol.HTTPS, options);
+
+        try
+        {
+            // act
+            List<CompletableFuture<ProvisioningDeviceClientRegistrationResult>> results = new ArrayList<>();
+            for (int i = 0; i < registrationCount; i++)
+            {
+                results.add(engine.registerDevice(createSecurityProvider(i)));
+            }
+
+            // assert
+            for (CompletableFuture<ProvisioningDeviceClientRegistrationResult> result : results)
+            {
+                try
+                {
+                    result.get(30, TimeUnit.SECONDS);
+                    fail("Registration against an unreachable endpoint should not succeed");
+                }
+                catch (ExecutionException expected)
+                {
+                    // expected
+                }
+            }
+
+            // the statistics are updated just after each result completes
+            long deadline = System.currentTimeMillis() + 5000;
+            while (engine.getStatistics().getActiveRegistrationCount() > 0 && System.currentTimeMillis() < deadline)
+            {
+                Thread.sleep(10);
+            }
+
+            ProvisioningEngineStatistics statistics = engine.getStatistics();
+            assertEquals(registrationCount, statistics.getFailedRegistrationCount());
+            assertEquals(0, statistics.getAssignedRegistrationCount());
+            assertEquals(0, statistics.getQueuedRegistrationCount());
+            assertEquals(0, statistics.getActiveRegistrationCount());
+            assertTrue(statistics.getRegistrationsPerSecond() > 0);
+        }
+        finally
+        {
+            engine.close();
+        }
+    }
+
+    @Test
+    public void closeCompletesQueuedRegistrationsExceptionally() throws Exception
+    {
+        // arrange
+        ProvisioningEngineOptions options = ProvisioningEngineOptions.builder().maxConcurrentRegistrations(1).build();
+        ProvisioningEngine engine = new ProvisioningEngine(UNREACHABLE_GLOBAL_ENDPOINT, ID_SCOPE, ProvisioningDeviceClientTransportProtocol.HTTPS, options);
+        List<CompletableFuture<ProvisioningDeviceClientRegistrationResult>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++)
+        {
+            results.add(engine.registerDevice(createSecurityProvider(i)));
+        }
+
+        // act
+        engine.close();
+
+        // assert
+        for (CompletableFuture<ProvisioningDeviceClientRegistrationResult> result : results)
+        {
+            try
+            {
+                result.get(5, TimeUnit.SECONDS);
+                fail("Registration should not succeed after the engine was closed");
+            }
+            catch (ExecutionException expected)
+            {
+                // expected
+            }
+        }
+    }
+
+    private static SecurityProviderSymmetricKey createSecurityProvider(int index)
+    {
+        return new SecurityProviderSymmetricKey("someSymmetricKey".getBytes(StandardCharsets.UTF_8), "registration-" + index);
+    }
+}
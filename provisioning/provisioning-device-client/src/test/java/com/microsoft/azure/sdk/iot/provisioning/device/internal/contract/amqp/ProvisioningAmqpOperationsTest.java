@@ -11,10 +11,11 @@ import com.microsoft.azure.sdk.iot.provisioning.device.transport.amqp.AmqpListen
 import com.microsoft.azure.sdk.iot.provisioning.device.transport.amqp.AmqpMessage;
 import com.microsoft.azure.sdk.iot.provisioning.device.transport.amqp.AmqpsConnection;
 import com.microsoft.azure.sdk.iot.provisioning.device.transport.amqp.SaslHandler;
-import com.microsoft.azure.sdk.iot.provisioning.device.internal.ObjectLock;
 import com.microsoft.azure.sdk.iot.provisioning.device.internal.contract.ResponseCallback;
 import com.microsoft.azure.sdk.iot.provisioning.device.internal.exceptions.ProvisioningDeviceClientException;
 import com.microsoft.azure.sdk.iot.provisioning.device.internal.exceptions.ProvisioningDeviceConnectionException;
+import com.microsoft.azure.sdk.iot.provisioning.device.internal.task.ResponseData;
+import mockit.Delegate;
 import mockit.Deencapsulation;
 import mockit.Mocked;
 import mockit.NonStrictExpectations;
@@ -26,7 +27,9 @@ import org.junit.runner.RunWith;
 
 import javax.net.ssl.SSLContext;
 import java.io.IOException;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.*;
 
@@ -54,22 +57,16 @@ public class ProvisioningAmqpOperationsTest
     @Mocked
     private AmqpMessage mockedAmqpMessage;
 
-    @Mocked
-    private final LinkedBlockingQueue<AmqpMessage> mockedQueueMessage = new LinkedBlockingQueue<>();
-
     @Mocked
     private byte[] mockedData;
 
     @Mocked
     private Binary mockedBinaryData;
 
-    @Mocked
-    private final ObjectLock mockedObjectLock = new ObjectLock();
-
     @Mocked
     private SaslHandler mockedSaslHandler;
 
-    private void setupSendReceiveMocks() throws Exception
+    private void setupSendReceiveMocks(final ProvisioningAmqpOperations provisioningAmqpOperations, final String sendFailedMessage) throws Exception
     {
         new NonStrictExpectations()
         {
@@ -77,15 +74,24 @@ public class ProvisioningAmqpOperationsTest
                 new AmqpMessage();
                 result = mockedAmqpMessage;
 
-                mockedAmqpConnection.sendAmqpMessage(mockedAmqpMessage);
-
-                mockedObjectLock.waitLock(anyLong);
-
-                mockedQueueMessage.size();
-                result = 1;
-
-                mockedQueueMessage.remove();
-                result = mockedAmqpMessage;
+                mockedAmqpConnection.sendAmqpMessage((AmqpMessage) any);
+                result = new Delegate()
+                {
+                    boolean sendAmqpMessage(AmqpMessage message)
+                    {
+                        //the service replies to the message, or rejects it, as soon as it is sent
+                        if (sendFailedMessage == null)
+                        {
+                            provisioningAmqpOperations.messageReceived(mockedAmqpMessage);
+                        }
+                        else
+                        {
+                            provisioningAmqpOperations.messageSendFailed(sendFailedMessage);
+                        }
+
+                        return true;
+                    }
+                };
 
                 mockedAmqpMessage.getAmqpBody();
                 result = mockedData;
@@ -373,12 +379,19 @@ public class ProvisioningAmqpOperationsTest
         };
         provisioningAmqpOperations.open(TEST_REGISTRATION_ID, mockedSSLContext, null, false);
 
-        setupSendReceiveMocks();
+        setupSendReceiveMocks(provisioningAmqpOperations, null);
 
         //act
         provisioningAmqpOperations.sendStatusMessage(TEST_OPERATION_ID, mockedResponseCallback, null);
 
         //assert
+        new Verifications()
+        {
+            {
+                mockedResponseCallback.run((ResponseData) any, null);
+                times = 1;
+            }
+        };
     }
 
     @Test (expected = ProvisioningDeviceClientException.class)
@@ -395,9 +408,7 @@ public class ProvisioningAmqpOperationsTest
         };
         provisioningAmqpOperations.open(TEST_REGISTRATION_ID, mockedSSLContext, null, false);
 
-        setupSendReceiveMocks();
-
-        Deencapsulation.setField(provisioningAmqpOperations, "messageSendFailedExceptionMessage", "someError");
+        setupSendReceiveMocks(provisioningAmqpOperations, "someError");
 
         //act
         provisioningAmqpOperations.sendStatusMessage(TEST_OPERATION_ID, mockedResponseCallback, null);
@@ -405,7 +416,7 @@ public class ProvisioningAmqpOperationsTest
 
     // SRS_ProvisioningAmqpOperations_07_018: [This method shall throw ProvisioningDeviceClientException if any failure is encountered.]
     @Test (expected = ProvisioningDeviceClientException.class)
-    public void sendStatusMessageThrowsOnWaitLock() throws Exception
+    public void sendStatusMessageThrowsOnInterruptedWait() throws Exception
     {
         //arrange
         ProvisioningAmqpOperations provisioningAmqpOperations = new ProvisioningAmqpOperations(TEST_SCOPE_ID, TEST_HOST_NAME);
@@ -424,17 +435,30 @@ public class ProvisioningAmqpOperationsTest
                 new AmqpMessage();
                 result = mockedAmqpMessage;
 
-                mockedAmqpConnection.sendAmqpMessage(mockedAmqpMessage);
-
-                mockedObjectLock.waitLock(anyLong);
-                result = new InterruptedException();
+                mockedAmqpConnection.sendAmqpMessage((AmqpMessage) any);
+                result = new Delegate()
+                {
+                    boolean sendAmqpMessage(AmqpMessage message)
+                    {
+                        //interrupts the wait for the response
+                        Thread.currentThread().interrupt();
+                        return true;
+                    }
+                };
             }
         };
 
-        //act
-        provisioningAmqpOperations.sendStatusMessage(TEST_OPERATION_ID, mockedResponseCallback, null);
-
-        //assert
+        try
+        {
+            //act
+            provisioningAmqpOperations.sendStatusMessage(TEST_OPERATION_ID, mockedResponseCallback, null);
+        }
+        finally
+        {
+            //clear the interrupt so that it doesn't leak into other tests
+            //noinspection ResultOfMethodCallIgnored
+            Thread.interrupted();
+        }
     }
 
     // SRS_ProvisioningAmqpOperations_07_018: [This method shall throw ProvisioningDeviceClientException if any failure is encountered.]
@@ -499,7 +523,7 @@ public class ProvisioningAmqpOperationsTest
             {
                 mockedAmqpConnection.sendAmqpMessage(mockedAmqpMessage);
 
-                mockedAmqpConnection.isConnected();
+                mockedAmqpConnection.waitForOpen(anyLong);
                 result = new InterruptedException();
             }
         };
@@ -522,18 +546,25 @@ public class ProvisioningAmqpOperationsTest
             {
                 mockedAmqpConnection.setListener((AmqpListener)any);
                 mockedAmqpConnection.open();
-                mockedAmqpConnection.isConnected();
+                mockedAmqpConnection.waitForOpen(anyLong);
                 result = true;
             }
         };
         provisioningAmqpOperations.open(TEST_REGISTRATION_ID, mockedSSLContext, null, false);
 
-        setupSendReceiveMocks();
+        setupSendReceiveMocks(provisioningAmqpOperations, null);
 
         //act
         provisioningAmqpOperations.sendRegisterMessage(mockedResponseCallback, null, null);
 
         //assert
+        new Verifications()
+        {
+            {
+                mockedResponseCallback.run((ResponseData) any, null);
+                times = 1;
+            }
+        };
     }
 
     @Test (expected = ProvisioningDeviceClientException.class)
@@ -546,15 +577,13 @@ public class ProvisioningAmqpOperationsTest
             {
                 mockedAmqpConnection.setListener((AmqpListener)any);
                 mockedAmqpConnection.open();
-                mockedAmqpConnection.isConnected();
+                mockedAmqpConnection.waitForOpen(anyLong);
                 result = true;
             }
         };
         provisioningAmqpOperations.open(TEST_REGISTRATION_ID, mockedSSLContext, null, false);
 
-        setupSendReceiveMocks();
-
-        Deencapsulation.setField(provisioningAmqpOperations, "messageSendFailedExceptionMessage", "someError");
+        setupSendReceiveMocks(provisioningAmqpOperations, "someError");
 
         //act
         provisioningAmqpOperations.sendRegisterMessage(mockedResponseCallback, null, null);
@@ -563,25 +592,35 @@ public class ProvisioningAmqpOperationsTest
     }
 
 
-    // SRS_ProvisioningAmqpOperations_07_013: [This method shall add the message to a message queue.]
-    // SRS_ProvisioningAmqpOperations_07_014: [This method shall then Notify the receiveLock.]
+    // SRS_ProvisioningAmqpOperations_07_013: [This method shall complete the pending request with the message.]
     @Test
-    public void MessageReceivedSucceeds() throws ProvisioningDeviceClientException, IOException, InterruptedException
+    public void MessageReceivedSucceeds() throws Exception
     {
         //arrange
         ProvisioningAmqpOperations provisioningAmqpOperations = new ProvisioningAmqpOperations(TEST_SCOPE_ID, TEST_HOST_NAME);
+        CompletableFuture<AmqpMessage> pendingResponse = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<AmqpMessage>> pendingResponseReference = Deencapsulation.getField(provisioningAmqpOperations, "pendingResponse");
+        pendingResponseReference.set(pendingResponse);
 
         //act
         provisioningAmqpOperations.messageReceived(mockedAmqpMessage);
 
         //assert
-        new Verifications()
-        {
-            {
-                mockedObjectLock.notifyLock();
-                times = 1;
-            }
-        };
+        assertEquals(mockedAmqpMessage, pendingResponse.get(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void messageReceivedWithoutPendingRequestIsIgnored() throws ProvisioningDeviceClientException
+    {
+        //arrange
+        ProvisioningAmqpOperations provisioningAmqpOperations = new ProvisioningAmqpOperations(TEST_SCOPE_ID, TEST_HOST_NAME);
+
+        //act
+        provisioningAmqpOperations.messageReceived(mockedAmqpMessage);
+
+        //assert
+        AtomicReference<CompletableFuture<AmqpMessage>> pendingResponseReference = Deencapsulation.getField(provisioningAmqpOperations, "pendingResponse");
+        assertNull(pendingResponseReference.get());
     }
 
     // SRS_ProvisioningAmqpOperations_34_020: [If the provided sasl handler is null, this function shall open the underlying amqpConnection synchronously.]
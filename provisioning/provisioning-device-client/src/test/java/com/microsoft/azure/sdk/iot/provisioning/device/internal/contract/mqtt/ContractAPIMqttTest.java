@@ -10,7 +10,6 @@ package com.microsoft.azure.sdk.iot.provisioning.device.internal.contract.mqtt;
 import com.microsoft.azure.sdk.iot.provisioning.device.transport.mqtt.MqttConnection;
 import com.microsoft.azure.sdk.iot.provisioning.device.transport.mqtt.MqttMessage;
 import com.microsoft.azure.sdk.iot.provisioning.device.transport.mqtt.MqttQos;
-import com.microsoft.azure.sdk.iot.provisioning.device.internal.ObjectLock;
 import com.microsoft.azure.sdk.iot.provisioning.device.internal.ProvisioningDeviceClientConfig;
 import com.microsoft.azure.sdk.iot.provisioning.device.internal.contract.ResponseCallback;
 import com.microsoft.azure.sdk.iot.provisioning.device.internal.exceptions.ProvisioningDeviceClientException;
@@ -30,8 +29,11 @@ import javax.net.ssl.SSLContext;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 /*
  * Unit tests for ContractAPIMqtt
@@ -64,9 +66,6 @@ public class ContractAPIMqttTest
     @Mocked
     MessageImpl mockedMessage;
 
-    @Mocked
-    ObjectLock mockedObjectLock;
-
     @Mocked
     Map<String, Object> mockedHashMap;
 
@@ -422,7 +421,7 @@ public class ContractAPIMqttTest
     public void authenticateWithProvisioningServiceWithX509Succeeds() throws ProvisioningDeviceClientException, IOException, InterruptedException
     {
         //arrange
-        ContractAPIMqtt contractAPIMqtt = createContractClass();
+        final ContractAPIMqtt contractAPIMqtt = createContractClass();
 
         new Expectations()
         {
@@ -440,10 +439,17 @@ public class ContractAPIMqttTest
                 result = "{ \"registration\":\"" + TEST_REGISTRATION_ID + "\" }";
 
                 mockedMqttConnection.publishMessage(anyString, (MqttQos) any, (byte[])any);
+                result = new Delegate()
+                {
+                    void publishMessage(String topic, MqttQos qos, byte[] message)
+                    {
+                        //the service replies as soon as the request is published
+                        contractAPIMqtt.messageReceived(mockedMqttMessage);
+                    }
+                };
             }
         };
         openContractAPI(contractAPIMqtt);
-        contractAPIMqtt.messageReceived(mockedMqttMessage);
 
         //act
         contractAPIMqtt.authenticateWithProvisioningService(mockedRequestData, mockedResponseCallback, null);
@@ -486,10 +492,37 @@ public class ContractAPIMqttTest
     }
 
     @Test
-    public void authenticateWithProvisioningServiceWithPayloadSucceeds() throws ProvisioningDeviceClientException, IOException, InterruptedException
+    public void messageReceivedCompletesRequestWithMatchingRequestId() throws Exception
     {
         //arrange
         ContractAPIMqtt contractAPIMqtt = createContractClass();
+        CompletableFuture<MqttMessage> firstResponse = new CompletableFuture<>();
+        CompletableFuture<MqttMessage> secondResponse = new CompletableFuture<>();
+        Map<Integer, CompletableFuture<MqttMessage>> pendingResponses = Deencapsulation.getField(contractAPIMqtt, "pendingResponses");
+        pendingResponses.put(1, firstResponse);
+        pendingResponses.put(2, secondResponse);
+
+        new NonStrictExpectations()
+        {
+            {
+                mockedMqttMessage.getTopic();
+                result = "$dps/registrations/res/202/?$rid=2&retry-after=3";
+            }
+        };
+
+        //act
+        contractAPIMqtt.messageReceived(mockedMqttMessage);
+
+        //assert
+        assertFalse(firstResponse.isDone());
+        assertEquals(mockedMqttMessage, secondResponse.get(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void authenticateWithProvisioningServiceWithPayloadSucceeds() throws ProvisioningDeviceClientException, IOException, InterruptedException
+    {
+        //arrange
+        final ContractAPIMqtt contractAPIMqtt = createContractClass();
 
         new Expectations()
         {
@@ -510,10 +543,17 @@ public class ContractAPIMqttTest
                 result = "{ \"registration\":\"" + TEST_REGISTRATION_ID + "\", \"payload\": \"{\"a\":\"b\"}\" }";
 
                 mockedMqttConnection.publishMessage(anyString, (MqttQos) any, (byte[])any);
+                result = new Delegate()
+                {
+                    void publishMessage(String topic, MqttQos qos, byte[] message)
+                    {
+                        //the service replies as soon as the request is published
+                        contractAPIMqtt.messageReceived(mockedMqttMessage);
+                    }
+                };
             }
         };
         openContractAPI(contractAPIMqtt);
-        contractAPIMqtt.messageReceived(mockedMqttMessage);
 
         //act
         contractAPIMqtt.authenticateWithProvisioningService(mockedRequestData, mockedResponseCallback, null);
@@ -547,8 +587,6 @@ public class ContractAPIMqttTest
 
                 mockedMqttConnection.publishMessage(anyString, (MqttQos) any, null);
 
-                mockedObjectLock.waitLock(anyInt);
-
                 mockedRequestData.isX509();
                 result = false;
 
@@ -580,7 +618,7 @@ public class ContractAPIMqttTest
     {
         //arrange
         final String expectedSasToken = "asdf";
-        ContractAPIMqtt contractAPIMqtt = createContractClass();
+        final ContractAPIMqtt contractAPIMqtt = createContractClass();
 
         new Expectations()
         {
@@ -607,11 +645,18 @@ public class ContractAPIMqttTest
                 result = "{ \"registration\":\"" + TEST_REGISTRATION_ID + "\" }";
 
                 mockedMqttConnection.publishMessage(anyString, (MqttQos) any, (byte[])any);
+                result = new Delegate()
+                {
+                    void publishMessage(String topic, MqttQos qos, byte[] message)
+                    {
+                        //the service replies as soon as the request is published
+                        contractAPIMqtt.messageReceived(mockedMqttMessage);
+                    }
+                };
             }
         };
 
         openContractAPI(contractAPIMqtt);
-        contractAPIMqtt.messageReceived(mockedMqttMessage);
 
         //act
         contractAPIMqtt.authenticateWithProvisioningService(mockedRequestData, mockedResponseCallback, null);
@@ -749,7 +794,7 @@ public class ContractAPIMqttTest
     public void getRegistrationStatusSuccess() throws ProvisioningDeviceClientException, IOException, InterruptedException
     {
         //arrange
-        ContractAPIMqtt contractAPIMqtt = createContractClass();
+        final ContractAPIMqtt contractAPIMqtt = createContractClass();
 
         new NonStrictExpectations()
         {
@@ -761,8 +806,14 @@ public class ContractAPIMqttTest
                 result = true;
 
                 mockedMqttConnection.publishMessage(anyString, (MqttQos) any, null);
-
-                mockedObjectLock.waitLock(anyInt);
+                result = new Delegate()
+                {
+                    void publishMessage(String topic, MqttQos qos, byte[] message)
+                    {
+                        //the service replies as soon as the request is published
+                        contractAPIMqtt.messageReceived(mockedMqttMessage);
+                    }
+                };
 
                 mockedRequestData.isX509();
                 result = true;
@@ -771,8 +822,6 @@ public class ContractAPIMqttTest
 
         openContractAPI(contractAPIMqtt);
 
-        contractAPIMqtt.messageReceived(mockedMqttMessage);
-
         //act
         contractAPIMqtt.getRegistrationStatus(mockedRequestData, mockedResponseCallback, null);
 
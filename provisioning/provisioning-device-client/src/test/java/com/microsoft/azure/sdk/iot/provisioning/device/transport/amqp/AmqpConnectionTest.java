@@ -45,7 +45,7 @@ public class AmqpConnectionTest
     private AmqpReactor mockedAmqpReactor;
 
     @Mocked
-    private ExecutorService mockedExecutorService;
+    private Future<Object> mockedReactorRunnerFuture;
 
     @Mocked
     private AmqpDeviceOperations mockedProvisionOperations;
@@ -192,7 +192,7 @@ public class AmqpConnectionTest
     }
 
     @Test
-    public void closeThrowOnShutdown() throws IOException, InterruptedException
+    public void closeSucceedsWhenReactorRunnerDoesNotFinish() throws Exception
     {
         AmqpsConnection amqpsConnection = new AmqpsConnection(TEST_HOST_NAME, mockedProvisionOperations, null, null,  false);
 
@@ -200,19 +200,15 @@ public class AmqpConnectionTest
         Deencapsulation.setField(amqpsConnection, "session", mockedSession);
         Deencapsulation.setField(amqpsConnection, "connection", mockedConnection);
         Deencapsulation.setField(amqpsConnection, "reactor", mockedReactor);
-        Deencapsulation.setField(amqpsConnection, "executorService", mockedExecutorService);
+        Deencapsulation.setField(amqpsConnection, "reactorRunnerFuture", mockedReactorRunnerFuture);
 
         new NonStrictExpectations()
         {
             {
                 mockedObjectLock.waitLock(anyLong);
 
-                mockedExecutorService.shutdown();
-
-                mockedExecutorService.awaitTermination(anyLong, (TimeUnit) any);
-                result = new InterruptedException();
-
-                mockedExecutorService.shutdownNow();
+                mockedReactorRunnerFuture.get(anyLong, (TimeUnit) any);
+                result = new TimeoutException();
             }
         };
 
@@ -220,6 +216,14 @@ public class AmqpConnectionTest
         amqpsConnection.close();
 
         //assert
+        new Verifications()
+        {
+            {
+                mockedReactorRunnerFuture.cancel(true);
+                times = 1;
+            }
+        };
+        assertEquals(false, Deencapsulation.getField(amqpsConnection, "isOpen"));
     }
 
     @Test
@@ -231,7 +235,7 @@ public class AmqpConnectionTest
         Deencapsulation.setField(amqpsConnection, "session", mockedSession);
         Deencapsulation.setField(amqpsConnection, "connection", mockedConnection);
         Deencapsulation.setField(amqpsConnection, "reactor", mockedReactor);
-        Deencapsulation.setField(amqpsConnection, "executorService", mockedExecutorService);
+        Deencapsulation.setField(amqpsConnection, "reactorRunnerFuture", mockedReactorRunnerFuture);
 
         new NonStrictExpectations()
         {
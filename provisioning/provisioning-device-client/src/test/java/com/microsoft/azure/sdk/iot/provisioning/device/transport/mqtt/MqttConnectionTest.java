@@ -184,7 +184,7 @@ public class MqttConnectionTest
         new NonStrictExpectations()
         {
             {
-                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any);
+                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any, (MqttPingSender)any);
                 result = mockedMqttAsyncClient;
 
                 new MqttConnectOptions();
@@ -205,7 +205,7 @@ public class MqttConnectionTest
         new NonStrictExpectations()
         {
             {
-                new MqttAsyncClient(WEB_SOCKET_URI_NAME, TEST_CLIENT_ID, (MemoryPersistence)any);
+                new MqttAsyncClient(WEB_SOCKET_URI_NAME, TEST_CLIENT_ID, (MemoryPersistence)any, (MqttPingSender)any);
                 result = mockedMqttAsyncClient;
 
                 new MqttConnectOptions();
@@ -226,7 +226,7 @@ public class MqttConnectionTest
         new NonStrictExpectations()
         {
             {
-                new MqttAsyncClient(WEB_SOCKET_URI_NAME, TEST_CLIENT_ID, (MemoryPersistence)any);
+                new MqttAsyncClient(WEB_SOCKET_URI_NAME, TEST_CLIENT_ID, (MemoryPersistence)any, (MqttPingSender)any);
                 result = new MqttException(0);
             }
         };
@@ -256,7 +256,7 @@ public class MqttConnectionTest
         new NonStrictExpectations()
         {
             {
-                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any);
+                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any, (MqttPingSender)any);
                 result = mockedMqttAsyncClient;
 
                 new MqttConnectOptions();
@@ -287,7 +287,7 @@ public class MqttConnectionTest
         new NonStrictExpectations()
         {
             {
-                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any);
+                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any, (MqttPingSender)any);
                 result = mockedMqttAsyncClient;
             }
         };
@@ -307,7 +307,7 @@ public class MqttConnectionTest
         new NonStrictExpectations()
         {
             {
-                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any);
+                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any, (MqttPingSender)any);
                 result = mockedMqttAsyncClient;
 
                 new MqttConnectOptions();
@@ -342,7 +342,7 @@ public class MqttConnectionTest
         new NonStrictExpectations()
         {
             {
-                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any);
+                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any, (MqttPingSender)any);
                 result = mockedMqttAsyncClient;
 
                 new MqttConnectOptions();
@@ -377,7 +377,7 @@ public class MqttConnectionTest
         new NonStrictExpectations()
         {
             {
-                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any);
+                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any, (MqttPingSender)any);
                 result = mockedMqttAsyncClient;
 
                 new MqttConnectOptions();
@@ -410,7 +410,7 @@ public class MqttConnectionTest
         new NonStrictExpectations()
         {
             {
-                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any);
+                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any, (MqttPingSender)any);
                 result = mockedMqttAsyncClient;
 
                 new MqttConnectOptions();
@@ -445,7 +445,7 @@ public class MqttConnectionTest
         new NonStrictExpectations()
         {
             {
-                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any);
+                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any, (MqttPingSender)any);
                 result = mockedMqttAsyncClient;
 
                 new MqttConnectOptions();
@@ -478,7 +478,7 @@ public class MqttConnectionTest
         new NonStrictExpectations()
         {
             {
-                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any);
+                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any, (MqttPingSender)any);
                 result = mockedMqttAsyncClient;
 
                 new MqttConnectOptions();
@@ -519,7 +519,7 @@ public class MqttConnectionTest
         new NonStrictExpectations()
         {
             {
-                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any);
+                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any, (MqttPingSender)any);
                 result = mockedMqttAsyncClient;
 
                 new MqttConnectOptions();
@@ -561,7 +561,7 @@ public class MqttConnectionTest
         new NonStrictExpectations()
         {
             {
-                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any);
+                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any, (MqttPingSender)any);
                 result = mockedMqttAsyncClient;
 
                 new MqttConnectOptions();
@@ -596,7 +596,7 @@ public class MqttConnectionTest
         new NonStrictExpectations()
         {
             {
-                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any);
+                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any, (MqttPingSender)any);
                 result = mockedMqttAsyncClient;
 
                 new MqttConnectOptions();
@@ -629,7 +629,7 @@ public class MqttConnectionTest
         new NonStrictExpectations()
         {
             {
-                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any);
+                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any, (MqttPingSender)any);
                 result = mockedMqttAsyncClient;
 
                 new MqttConnectOptions();
@@ -659,7 +659,7 @@ public class MqttConnectionTest
         new NonStrictExpectations()
         {
             {
-                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any);
+                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any, (MqttPingSender)any);
                 result = mockedMqttAsyncClient;
 
                 new MqttConnectOptions();
@@ -689,7 +689,7 @@ public class MqttConnectionTest
         new NonStrictExpectations()
         {
             {
-                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any);
+                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any, (MqttPingSender)any);
                 result = mockedMqttAsyncClient;
 
                 new MqttConnectOptions();
@@ -724,7 +724,7 @@ public class MqttConnectionTest
         new NonStrictExpectations()
         {
             {
-                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any);
+                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any, (MqttPingSender)any);
                 result = mockedMqttAsyncClient;
 
                 new MqttConnectOptions();
@@ -757,7 +757,7 @@ public class MqttConnectionTest
         new NonStrictExpectations()
         {
             {
-                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any);
+                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any, (MqttPingSender)any);
                 result = mockedMqttAsyncClient;
 
                 new MqttConnectOptions();
@@ -787,7 +787,7 @@ public class MqttConnectionTest
         new NonStrictExpectations()
         {
             {
-                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any);
+                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any, (MqttPingSender)any);
                 result = mockedMqttAsyncClient;
 
                 new MqttConnectOptions();
@@ -819,7 +819,7 @@ public class MqttConnectionTest
         new NonStrictExpectations()
         {
             {
-                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any);
+                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any, (MqttPingSender)any);
                 result = mockedMqttAsyncClient;
 
                 new MqttConnectOptions();
@@ -849,7 +849,7 @@ public class MqttConnectionTest
         new NonStrictExpectations()
         {
             {
-                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any);
+                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any, (MqttPingSender)any);
                 result = mockedMqttAsyncClient;
 
                 new MqttConnectOptions();
@@ -878,7 +878,7 @@ public class MqttConnectionTest
         new NonStrictExpectations()
         {
             {
-                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any);
+                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any, (MqttPingSender)any);
                 result = mockedMqttAsyncClient;
 
                 new MqttConnectOptions();
@@ -906,7 +906,7 @@ public class MqttConnectionTest
         new NonStrictExpectations()
         {
             {
-                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any);
+                new MqttAsyncClient(anyString, TEST_CLIENT_ID, (MemoryPersistence)any, (MqttPingSender)any);
                 result = mockedMqttAsyncClient;
 
                 new MqttConnectOptions();
@@ -7,14 +7,32 @@ import com.microsoft.azure.sdk.iot.provisioning.service.transport.https.HttpMeth
 import com.microsoft.azure.sdk.iot.provisioning.service.transport.https.HttpResponse;
 import com.microsoft.azure.sdk.iot.provisioning.service.configs.*;
 import com.microsoft.azure.sdk.iot.provisioning.service.contract.ContractApiHttp;
+import com.microsoft.azure.sdk.iot.provisioning.service.exceptions.ProvisioningServiceClientBadFormatException;
+import com.microsoft.azure.sdk.iot.provisioning.service.exceptions.ProvisioningServiceClientBadUsageException;
 import com.microsoft.azure.sdk.iot.provisioning.service.exceptions.ProvisioningServiceClientException;
+import com.microsoft.azure.sdk.iot.provisioning.service.exceptions.ProvisioningServiceClientNotFoundException;
+import com.microsoft.azure.sdk.iot.provisioning.service.exceptions.ProvisioningServiceClientPreconditionFailedException;
 import com.microsoft.azure.sdk.iot.provisioning.service.exceptions.ProvisioningServiceClientServiceException;
+import com.microsoft.azure.sdk.iot.provisioning.service.exceptions.ProvisioningServiceClientTooManyRequestsException;
+import com.microsoft.azure.sdk.iot.provisioning.service.exceptions.ProvisioningServiceClientTransientException;
 import com.microsoft.azure.sdk.iot.provisioning.service.exceptions.ProvisioningServiceClientTransportException;
+import com.microsoft.azure.sdk.iot.provisioning.service.exceptions.ProvisioningServiceClientUnathorizedException;
+import lombok.extern.slf4j.Slf4j;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * IndividualEnrollment Manager
@@ -25,6 +43,7 @@ import java.util.Map;
  * @see <a href="https://docs.microsoft.com/en-us/azure/iot-dps/">Azure IoT Hub Device Provisioning Service</a>
  * @see <a href="https://docs.microsoft.com/en-us/rest/api/iot-dps/deviceenrollment">Device Enrollment</a>
  */
+@Slf4j
 class IndividualEnrollmentManager
 {
     private final ContractApiHttp contractApiHttp;
@@ -33,6 +52,13 @@ class IndividualEnrollmentManager
     private static final String CONDITION_KEY = "If-Match";
     private static final String ATTESTATION_MECHANISM = "attestationmechanism";
 
+    // The most enrollments that the service accepts in a single bulk operation request
+    private static final int MAX_ENROLLMENTS_PER_BULK_REQUEST = 10;
+    private static final int MAX_BULK_REQUEST_ATTEMPTS = 5;
+    private static final long BULK_REQUEST_INITIAL_RETRY_DELAY_MILLISECONDS = 1000;
+    private static final long BULK_REQUEST_MAX_RETRY_DELAY_MILLISECONDS = 30000;
+    private static final String BULK_OPERATION_THREAD_NAME_PREFIX = "azure-iot-sdk-BulkEnrollmentOperation-";
+
     /**
      * PRIVATE CONSTRUCTOR
      *
@@ -165,6 +191,176 @@ class IndividualEnrollmentManager
         return new BulkEnrollmentOperationResult(new String(body, StandardCharsets.UTF_8));
     }
 
+    /**
+     * Run a bulk individualEnrollment operation over any number of individualEnrollments, split into as many requests as needed.
+     *
+     * @see ProvisioningServiceClient#runBulkEnrollmentOperation(BulkOperationMode, Iterator, int)
+     *
+     * @param bulkOperationMode the {@link BulkOperationMode} that defines the single operation to do over the individualEnrollments. It cannot be {@code null}.
+     * @param individualEnrollments the iterator of {@link IndividualEnrollment} that contains the description of each individualEnrollment. It cannot be {@code null}.
+     * @param maxConcurrency the maximum number of requests to send at a time. It must be greater than 0.
+     * @return An {@link BulkEnrollmentOperationResult} with the combined result of all the requests.
+     * @throws IllegalArgumentException if the provided parameters are not correct.
+     * @throws InterruptedException if this thread is interrupted while waiting for the requests to complete.
+     */
+    BulkEnrollmentOperationResult bulkOperation(
+            final BulkOperationMode bulkOperationMode,
+            Iterator<IndividualEnrollment> individualEnrollments,
+            int maxConcurrency) throws InterruptedException
+    {
+        if (bulkOperationMode == null)
+        {
+            throw new IllegalArgumentException("bulkOperationMode cannot be null.");
+        }
+        if (individualEnrollments == null)
+        {
+            throw new IllegalArgumentException("individualEnrollments cannot be null.");
+        }
+        if (maxConcurrency < 1)
+        {
+            throw new IllegalArgumentException("maxConcurrency must be greater than 0.");
+        }
+
+        final List<BulkEnrollmentOperationError> errors = Collections.synchronizedList(new ArrayList<>());
+        final AtomicBoolean isSuccessful = new AtomicBoolean(true);
+
+        // Each request holds a permit from when its enrollments are read until it completes, so no more than
+        // maxConcurrency chunks of the iterator are held in memory at a time
+        final Semaphore availableRequests = new Semaphore(maxConcurrency);
+        ExecutorService executor = createBulkOperationExecutor(maxConcurrency);
+        try
+        {
+            while (individualEnrollments.hasNext())
+            {
+                availableRequests.acquire();
+
+                final List<IndividualEnrollment> chunk = new ArrayList<>(MAX_ENROLLMENTS_PER_BULK_REQUEST);
+                while (chunk.size() < MAX_ENROLLMENTS_PER_BULK_REQUEST && individualEnrollments.hasNext())
+                {
+                    chunk.add(individualEnrollments.next());
+                }
+
+                executor.execute(() ->
+                {
+                    try
+                    {
+                        BulkEnrollmentOperationResult result = bulkOperationWithRetry(bulkOperationMode, chunk);
+                        if (!Boolean.TRUE.equals(result.getSuccessful()))
+                        {
+                            isSuccessful.set(false);
+                            errors.addAll(result.getErrors());
+                        }
+                    }
+                    catch (ProvisioningServiceClientException | RuntimeException e)
+                    {
+                        log.warn("Bulk enrollment operation request for {} enrollments failed", chunk.size(), e);
+                        isSuccessful.set(false);
+                        addErrors(errors, chunk, getErrorCode(e), e.getMessage());
+                    }
+                    catch (InterruptedException e)
+                    {
+                        Thread.currentThread().interrupt();
+                        isSuccessful.set(false);
+                        addErrors(errors, chunk, 0, "Interrupted before the request could be completed");
+                    }
+                    finally
+                    {
+                        availableRequests.release();
+                    }
+                });
+            }
+
+            // wait for the requests that are still in progress
+            availableRequests.acquire(maxConcurrency);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        return new BulkEnrollmentOperationResult(isSuccessful.get(), errors);
+    }
+
+    private BulkEnrollmentOperationResult bulkOperationWithRetry(BulkOperationMode bulkOperationMode, List<IndividualEnrollment> individualEnrollments)
+            throws ProvisioningServiceClientException, InterruptedException
+    {
+        long retryDelayMilliseconds = BULK_REQUEST_INITIAL_RETRY_DELAY_MILLISECONDS;
+        for (int attempt = 1; ; attempt++)
+        {
+            try
+            {
+                return bulkOperation(bulkOperationMode, individualEnrollments);
+            }
+            catch (ProvisioningServiceClientTooManyRequestsException | ProvisioningServiceClientTransientException e)
+            {
+                if (attempt >= MAX_BULK_REQUEST_ATTEMPTS)
+                {
+                    throw e;
+                }
+
+                // Jitter the delay so that throttled requests don't all retry at the same time
+                long delayMilliseconds = retryDelayMilliseconds / 2 + ThreadLocalRandom.current().nextLong(retryDelayMilliseconds / 2 + 1);
+                log.debug("Bulk enrollment operation request failed on attempt {}, retrying in {} milliseconds", attempt, delayMilliseconds, e);
+                Thread.sleep(delayMilliseconds);
+                retryDelayMilliseconds = Math.min(retryDelayMilliseconds * 2, BULK_REQUEST_MAX_RETRY_DELAY_MILLISECONDS);
+            }
+        }
+    }
+
+    private static void addErrors(List<BulkEnrollmentOperationError> errors, List<IndividualEnrollment> individualEnrollments, int errorCode, String errorStatus)
+    {
+        for (IndividualEnrollment individualEnrollment : individualEnrollments)
+        {
+            errors.add(new BulkEnrollmentOperationError(individualEnrollment.getRegistrationId(), errorCode, errorStatus));
+        }
+    }
+
+    // The http status code that the exception was created from, or 0 if the request did not get a response
+    private static int getErrorCode(Exception e)
+    {
+        if (e instanceof ProvisioningServiceClientBadFormatException)
+        {
+            return 400;
+        }
+        else if (e instanceof ProvisioningServiceClientUnathorizedException)
+        {
+            return 401;
+        }
+        else if (e instanceof ProvisioningServiceClientNotFoundException)
+        {
+            return 404;
+        }
+        else if (e instanceof ProvisioningServiceClientPreconditionFailedException)
+        {
+            return 412;
+        }
+        else if (e instanceof ProvisioningServiceClientTooManyRequestsException)
+        {
+            return 429;
+        }
+        else if (e instanceof ProvisioningServiceClientBadUsageException)
+        {
+            return 400;
+        }
+        else if (e instanceof ProvisioningServiceClientTransientException)
+        {
+            return 500;
+        }
+
+        return 0;
+    }
+
+    private static ExecutorService createBulkOperationExecutor(int threadCount)
+    {
+        AtomicInteger createdThreadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(threadCount, runnable ->
+        {
+            Thread thread = new Thread(runnable, BULK_OPERATION_THREAD_NAME_PREFIX + createdThreadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     /**
      * Get individualEnrollment information.
      *
@@ -15,6 +15,8 @@ import com.microsoft.azure.sdk.iot.provisioning.service.exceptions.ProvisioningS
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
 /**
  * Device Provisioning Service Client.
@@ -78,6 +80,7 @@ import java.util.Collection;
 @Slf4j
 public final class ProvisioningServiceClient
 {
+    private static final int DEFAULT_BULK_OPERATION_MAX_CONCURRENCY = 5;
 
     private final IndividualEnrollmentManager individualEnrollmentManager;
     private final EnrollmentGroupManager enrollmentGroupManager;
@@ -314,6 +317,55 @@ public final class ProvisioningServiceClient
         return individualEnrollmentManager.bulkOperation(bulkOperationMode, individualEnrollments);
     }
 
+    /**
+     * Create, update or delete any number of individual Device Enrollments.
+     *
+     * <p> This API works like {@link #runBulkEnrollmentOperation(BulkOperationMode, Collection)}, but reads the
+     *     individualEnrollments from an iterator, so they don't all need to be in memory at once, and sends them in as
+     *     many requests as the service limits require. Up to 5 requests are sent at a time. See
+     *     {@link #runBulkEnrollmentOperation(BulkOperationMode, Iterator, int)} for how the requests are sent.
+     *
+     * @param bulkOperationMode the {@link BulkOperationMode} that defines the single operation to do over the individualEnrollments. It cannot be {@code null}.
+     * @param individualEnrollments the iterator of {@link IndividualEnrollment} that contains the description of each individualEnrollment. It cannot be {@code null}.
+     * @return A {@link BulkEnrollmentOperationResult} object with the combined result of all the requests.
+     * @throws IllegalArgumentException if the provided parameters are not correct.
+     * @throws InterruptedException if this thread is interrupted while waiting for the requests to complete.
+     */
+    public BulkEnrollmentOperationResult runBulkEnrollmentOperation(
+            BulkOperationMode bulkOperationMode, Iterator<IndividualEnrollment> individualEnrollments)
+            throws InterruptedException
+    {
+        return runBulkEnrollmentOperation(bulkOperationMode, individualEnrollments, DEFAULT_BULK_OPERATION_MAX_CONCURRENCY);
+    }
+
+    /**
+     * Create, update or delete any number of individual Device Enrollments.
+     *
+     * <p> This API works like {@link #runBulkEnrollmentOperation(BulkOperationMode, Collection)}, but reads the
+     *     individualEnrollments from an iterator, so they don't all need to be in memory at once, and sends them in as
+     *     many requests as the service limits require. Use {@code stream.iterator()} to run the operation over a
+     *     {@code Stream}.
+     *
+     * <p> Up to {@code maxConcurrency} requests are sent at a time, and the iterator is only read as fast as the
+     *     requests complete. Requests that are throttled by the service or that fail with a transient error are
+     *     retried with an exponential back-off. Unlike a single bulk operation, the operation is not atomic: if a
+     *     request still fails, the enrollments in it are reported in the errors of the result with the Http status
+     *     code of the failure, or 0 if no response was received, and the other requests are not affected.
+     *
+     * @param bulkOperationMode the {@link BulkOperationMode} that defines the single operation to do over the individualEnrollments. It cannot be {@code null}.
+     * @param individualEnrollments the iterator of {@link IndividualEnrollment} that contains the description of each individualEnrollment. It cannot be {@code null}.
+     * @param maxConcurrency the maximum number of requests to send at a time. It must be greater than 0.
+     * @return A {@link BulkEnrollmentOperationResult} object with the combined result of all the requests.
+     * @throws IllegalArgumentException if the provided parameters are not correct.
+     * @throws InterruptedException if this thread is interrupted while waiting for the requests to complete.
+     */
+    public BulkEnrollmentOperationResult runBulkEnrollmentOperation(
+            BulkOperationMode bulkOperationMode, Iterator<IndividualEnrollment> individualEnrollments, int maxConcurrency)
+            throws InterruptedException
+    {
+        return individualEnrollmentManager.bulkOperation(bulkOperationMode, individualEnrollments, maxConcurrency);
+    }
+
     /**
      * Retrieve the individualEnrollment information.
      *
@@ -559,6 +611,24 @@ public final class ProvisioningServiceClient
         return individualEnrollmentManager.createQuery(querySpecification, pageSize);
     }
 
+    /**
+     * Stream the individualEnrollments that match a query.
+     *
+     * <p> This works like iterating over a {@link #createIndividualEnrollmentQuery(QuerySpecification, int)} query,
+     *     but returns the individualEnrollments themselves, and requests the next page of the query from the Device
+     *     Provisioning Service while the current page is consumed. Close the stream if it is not consumed to the end.
+     *
+     * @param querySpecification the {@link QuerySpecification} with the SQL query. It cannot be {@code null}.
+     * @param pageSize the {@code int} with the maximum number of items per page. It cannot be negative. The Device
+     *                 Provisioning Service will use its own default pageSize if it is <b>0</b>.
+     * @return A {@code Stream} with the {@link IndividualEnrollment} that match the query.
+     * @throws IllegalArgumentException if the provided parameter is not correct.
+     */
+    public Stream<IndividualEnrollment> streamIndividualEnrollments(QuerySpecification querySpecification, int pageSize)
+    {
+        return individualEnrollmentManager.createQuery(querySpecification, pageSize).stream(IndividualEnrollment.class);
+    }
+
     /**
      * Create or update an enrollment group record.
      *
@@ -874,6 +944,24 @@ public final class ProvisioningServiceClient
         return enrollmentGroupManager.createQuery(querySpecification, pageSize);
     }
 
+    /**
+     * Stream the enrollmentGroups that match a query.
+     *
+     * <p> This works like iterating over a {@link #createEnrollmentGroupQuery(QuerySpecification, int)} query,
+     *     but returns the enrollmentGroups themselves, and requests the next page of the query from the Device
+     *     Provisioning Service while the current page is consumed. Close the stream if it is not consumed to the end.
+     *
+     * @param querySpecification the {@link QuerySpecification} with the SQL query. It cannot be {@code null}.
+     * @param pageSize the {@code int} with the maximum number of items per page. It cannot be negative. The Device
+     *                 Provisioning Service will use its own default pageSize if it is <b>0</b>.
+     * @return A {@code Stream} with the {@link EnrollmentGroup} that match the query.
+     * @throws IllegalArgumentException if the provided parameter is not correct.
+     */
+    public Stream<EnrollmentGroup> streamEnrollmentGroups(QuerySpecification querySpecification, int pageSize)
+    {
+        return enrollmentGroupManager.createQuery(querySpecification, pageSize).stream(EnrollmentGroup.class);
+    }
+
     /**
      * Retrieve the registration status information.
      *
@@ -1097,4 +1185,24 @@ public final class ProvisioningServiceClient
     {
         return registrationStatusManager.createEnrollmentGroupQuery(querySpecification, enrollmentGroupId, pageSize);
     }
+
+    /**
+     * Stream the device registration states of an enrollmentGroup that match a query.
+     *
+     * <p> This works like iterating over a
+     *     {@link #createEnrollmentGroupRegistrationStateQuery(QuerySpecification, String, int)} query, but returns
+     *     the registration states themselves, and requests the next page of the query from the Device Provisioning
+     *     Service while the current page is consumed. Close the stream if it is not consumed to the end.
+     *
+     * @param querySpecification the {@link QuerySpecification} with the SQL query. It cannot be {@code null}.
+     * @param enrollmentGroupId the {@code String} that identifies the enrollmentGroup. It cannot be {@code null} or empty.
+     * @param pageSize the {@code int} with the maximum number of items per page. It cannot be negative. The Device
+     *                 Provisioning Service will use its own default pageSize if it is <b>0</b>.
+     * @return A {@code Stream} with the {@link DeviceRegistrationState} that match the query.
+     * @throws IllegalArgumentException if the provided parameter is not correct.
+     */
+    public Stream<DeviceRegistrationState> streamEnrollmentGroupRegistrationStates(QuerySpecification querySpecification, String enrollmentGroupId, int pageSize)
+    {
+        return registrationStatusManager.createEnrollmentGroupQuery(querySpecification, enrollmentGroupId, pageSize).stream(DeviceRegistrationState.class);
+    }
 }
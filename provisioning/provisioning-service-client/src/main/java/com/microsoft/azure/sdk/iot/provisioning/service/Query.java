@@ -3,6 +3,10 @@
 
 package com.microsoft.azure.sdk.iot.provisioning.service;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
 import com.microsoft.azure.sdk.iot.provisioning.service.transport.https.HttpMethod;
 import com.microsoft.azure.sdk.iot.provisioning.service.transport.https.HttpResponse;
 import com.microsoft.azure.sdk.iot.provisioning.service.configs.QueryResult;
@@ -10,8 +14,18 @@ import com.microsoft.azure.sdk.iot.provisioning.service.configs.QuerySpecificati
 import com.microsoft.azure.sdk.iot.provisioning.service.contract.ContractApiHttp;
 import com.microsoft.azure.sdk.iot.provisioning.service.exceptions.ProvisioningServiceClientException;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * The query iterator.
@@ -67,6 +81,9 @@ public class Query implements Iterator<QueryResult>
     private static final String PAGE_SIZE_KEY = "x-ms-max-item-count";
     private static final String PATH_SEPARATOR = "/";
     private static final String PATH_QUERY = "query";
+    private static final String PREFETCH_THREAD_NAME = "azure-iot-sdk-ProvisioningQueryPrefetch";
+
+    private static final Gson gson = new GsonBuilder().excludeFieldsWithoutExposeAnnotation().disableHtmlEscaping().create();
 
     private final String querySpecificationJson;
     private int pageSize;
@@ -161,25 +178,10 @@ public class Query implements Iterator<QueryResult>
             throw new NoSuchElementException("There are no more pending elements");
         }
 
-        Map<String, String> headerParameters = new HashMap<>();
-        if (pageSize != 0)
-        {
-            headerParameters.put(PAGE_SIZE_KEY, Integer.toString(pageSize));
-        }
-        if (!Tools.isNullOrEmpty(this.continuationToken))
-        {
-            headerParameters.put(CONTINUATION_TOKEN_KEY, this.continuationToken);
-        }
-
         HttpResponse httpResponse;
         try
         {
-            httpResponse =
-                    contractApiHttp.request(
-                            HttpMethod.POST,
-                            queryPath,
-                            headerParameters,
-                            querySpecificationJson);
+            httpResponse = requestPage(this.pageSize, this.continuationToken);
         }
         catch (ProvisioningServiceClientException e)
         {
@@ -203,6 +205,37 @@ public class Query implements Iterator<QueryResult>
         return new QueryResult(type, bodyStr, this.continuationToken);
     }
 
+    /**
+     * Return the items of the remaining pages of the query as a stream.
+     *
+     * <p> While the items of a page are consumed, the next page is already being requested from the Device Provisioning
+     *     Service, and the items of each page are only deserialized as they are consumed. The stream takes over the
+     *     remaining pages of this query, so {@link #hasNext()} returns {@code false} afterwards. Close the stream if
+     *     it is not consumed to the end, to stop requesting pages.
+     *
+     * <p> A failed request for a page is thrown from the stream operation that needed the page, as an
+     *     {@code IllegalArgumentException} caused by the {@link ProvisioningServiceClientException}, in the same way
+     *     as {@link #next()}.
+     *
+     * @param itemType the {@code Class} of the items returned by this query. It cannot be {@code null}.
+     * @param <T> the type of the items returned by this query.
+     * @return A sequential {@code Stream} with the items of the query.
+     * @throws IllegalArgumentException if the provided itemType is {@code null}.
+     */
+    <T> Stream<T> stream(Class<T> itemType)
+    {
+        if (itemType == null)
+        {
+            throw new IllegalArgumentException("itemType cannot be null.");
+        }
+
+        StreamingIterator<T> items = new StreamingIterator<>(itemType, this.pageSize, this.hasNext ? this.continuationToken : null, this.hasNext);
+        this.hasNext = false;
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(items, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(items::close);
+    }
+
     /**
      * Return the next page of result for the query using a new continuationToken.
      *
@@ -251,4 +284,159 @@ public class Query implements Iterator<QueryResult>
 
         this.pageSize = pageSize;
     }
+
+    private HttpResponse requestPage(int pageSize, String continuationToken) throws ProvisioningServiceClientException
+    {
+        Map<String, String> headerParameters = new HashMap<>();
+        if (pageSize != 0)
+        {
+            headerParameters.put(PAGE_SIZE_KEY, Integer.toString(pageSize));
+        }
+        if (!Tools.isNullOrEmpty(continuationToken))
+        {
+            headerParameters.put(CONTINUATION_TOKEN_KEY, continuationToken);
+        }
+
+        return contractApiHttp.request(
+                HttpMethod.POST,
+                queryPath,
+                headerParameters,
+                querySpecificationJson);
+    }
+
+    /**
+     * Iterates over the items of the pages of a query, requesting each page while the items of the previous page are
+     * consumed.
+     */
+    private final class StreamingIterator<T> implements Iterator<T>
+    {
+        private final Class<T> itemType;
+        private final int pageSize;
+        private ExecutorService prefetchExecutor;
+        private Future<HttpResponse> nextPage;
+        private JsonReader currentPage;
+        private T nextItem;
+
+        StreamingIterator(Class<T> itemType, int pageSize, String continuationToken, boolean hasMorePages)
+        {
+            this.itemType = itemType;
+            this.pageSize = pageSize;
+
+            if (hasMorePages)
+            {
+                // The thread stops when it has been idle for a second, so a stream that is abandoned without being
+                // closed does not keep it alive
+                this.prefetchExecutor = new ThreadPoolExecutor(0, 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable ->
+                {
+                    Thread thread = new Thread(runnable, PREFETCH_THREAD_NAME);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                this.nextPage = this.prefetchExecutor.submit(() -> requestPage(pageSize, continuationToken));
+            }
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            try
+            {
+                while (this.nextItem == null)
+                {
+                    if (this.currentPage != null && this.currentPage.hasNext())
+                    {
+                        this.nextItem = gson.fromJson(this.currentPage, this.itemType);
+                    }
+                    else if (this.nextPage != null)
+                    {
+                        openNextPage();
+                    }
+                    else
+                    {
+                        close();
+                        return false;
+                    }
+                }
+            }
+            catch (IOException e)
+            {
+                close();
+                throw new JsonSyntaxException(e);
+            }
+            catch (RuntimeException e)
+            {
+                close();
+                throw e;
+            }
+
+            return true;
+        }
+
+        @Override
+        public T next()
+        {
+            if (!hasNext())
+            {
+                throw new NoSuchElementException("There are no more pending elements");
+            }
+
+            T item = this.nextItem;
+            this.nextItem = null;
+            return item;
+        }
+
+        private void openNextPage() throws IOException
+        {
+            HttpResponse httpResponse;
+            try
+            {
+                httpResponse = this.nextPage.get();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the next page of the query", e);
+            }
+            catch (ExecutionException e)
+            {
+                if (e.getCause() instanceof RuntimeException)
+                {
+                    throw (RuntimeException) e.getCause();
+                }
+
+                throw new IllegalArgumentException(e.getCause());
+            }
+
+            // Request the page after this one before deserializing this one
+            final String continuationToken = httpResponse.getHeaderFields().get(CONTINUATION_TOKEN_KEY);
+            this.nextPage = continuationToken == null
+                    ? null
+                    : this.prefetchExecutor.submit(() -> requestPage(this.pageSize, continuationToken));
+
+            byte[] body = httpResponse.getBody();
+            if (body == null)
+            {
+                throw new IllegalArgumentException("Http response for next cannot contains a null body");
+            }
+
+            this.currentPage = new JsonReader(new StringReader(new String(body, StandardCharsets.UTF_8)));
+            this.currentPage.beginArray();
+        }
+
+        void close()
+        {
+            if (this.nextPage != null)
+            {
+                this.nextPage.cancel(true);
+                this.nextPage = null;
+            }
+
+            if (this.prefetchExecutor != null)
+            {
+                this.prefetchExecutor.shutdownNow();
+            }
+
+            this.currentPage = null;
+        }
+    }
 }
@@ -69,6 +69,30 @@ public class BulkEnrollmentOperationError
      @Getter
     private String errorStatus;
 
+    /**
+     * CONSTRUCTOR
+     *
+     * <p> This constructor creates an error for an enrollment that the SDK could not get a result for from the
+     *     provisioning service, such as an enrollment in a bulk operation request that failed as a whole.
+     *
+     * @param registrationId the {@code String} with the registrationId of the enrollment. It cannot be {@code null} or empty.
+     * @param errorCode the {@code Integer} with the error code. It cannot be {@code null}.
+     * @param errorStatus the {@code String} with the description of the error. It can be {@code null}.
+     * @throws IllegalArgumentException If one of the provided parameters is not valid.
+     */
+    public BulkEnrollmentOperationError(String registrationId, Integer errorCode, String errorStatus)
+    {
+        if (registrationId == null || registrationId.isEmpty())
+        {
+            throw new IllegalArgumentException("registrationId cannot be null or empty");
+        }
+
+        this.registrationId = registrationId;
+        this.errorCode = errorCode;
+        this.errorStatus = errorStatus;
+        validateError();
+    }
+
     /**
      * Validate the parameters stored in the class as result of the deserialization.
      *
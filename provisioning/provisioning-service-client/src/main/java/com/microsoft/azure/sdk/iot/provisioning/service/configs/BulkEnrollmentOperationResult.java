@@ -90,6 +90,27 @@ public class BulkEnrollmentOperationResult
         this.errors = result.errors;
     }
 
+    /**
+     * CONSTRUCTOR
+     *
+     * <p> This constructor creates an instance that combines the results of several bulk operation requests, such as
+     *     the requests sent by {@link ProvisioningServiceClient#runBulkEnrollmentOperation(BulkOperationMode, java.util.Iterator, int)}.
+     *
+     * @param isSuccessful the {@code boolean} that is {@code true} only if every request was successful.
+     * @param errors the {@code Collection} of {@link BulkEnrollmentOperationError} with the errors of all the requests. It cannot be {@code null}.
+     * @throws IllegalArgumentException If the provided errors is {@code null}.
+     */
+    public BulkEnrollmentOperationResult(boolean isSuccessful, Collection<BulkEnrollmentOperationError> errors)
+    {
+        if (errors == null)
+        {
+            throw new IllegalArgumentException("errors cannot be null");
+        }
+
+        this.isSuccessful = isSuccessful;
+        this.errors = errors.toArray(new BulkEnrollmentOperationError[0]);
+    }
+
     /**
      * Getter for the Bulk Operation successful.
      *
@@ -14,6 +14,7 @@ import org.junit.Test;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Map;
 
@@ -458,6 +459,169 @@ public class IndividualEnrollmentManagerTest
         // assert
     }
 
+    @Test (expected = IllegalArgumentException.class)
+    public void chunkedBulkOperationThrowsOnNullEnrollments()
+    {
+        // arrange
+        IndividualEnrollmentManager individualEnrollmentManager = createIndividualEnrollmentManager();
+
+        // act
+        Deencapsulation.invoke(
+                individualEnrollmentManager, "bulkOperation",
+                new Class[] {BulkOperationMode.class, Iterator.class, int.class}, BulkOperationMode.CREATE, null, 5);
+
+        // assert
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void chunkedBulkOperationThrowsOnNonPositiveMaxConcurrency(
+            @Mocked final IndividualEnrollment mockedIndividualEnrollment)
+    {
+        // arrange
+        final Collection<IndividualEnrollment> individualEnrollments = new LinkedList<>();
+        individualEnrollments.add(mockedIndividualEnrollment);
+        IndividualEnrollmentManager individualEnrollmentManager = createIndividualEnrollmentManager();
+
+        // act
+        Deencapsulation.invoke(
+                individualEnrollmentManager, "bulkOperation",
+                new Class[] {BulkOperationMode.class, Iterator.class, int.class}, BulkOperationMode.CREATE, individualEnrollments.iterator(), 0);
+
+        // assert
+    }
+
+    @Test
+    public void chunkedBulkOperationSplitsEnrollmentsIntoRequestsOfTen(
+            @Mocked final IndividualEnrollment mockedIndividualEnrollment,
+            @Mocked final BulkEnrollmentOperation mockedBulkOperation) throws ProvisioningServiceClientException
+    {
+        // arrange
+        final String bulkEnrollmentPath = "enrollments";
+        final String bulkEnrollmentPayload = "validJson";
+        final Collection<IndividualEnrollment> individualEnrollments = new LinkedList<>();
+        for (int i = 0; i < 25; i++)
+        {
+            individualEnrollments.add(mockedIndividualEnrollment);
+        }
+        IndividualEnrollmentManager individualEnrollmentManager = createIndividualEnrollmentManager();
+        new NonStrictExpectations()
+        {
+            {
+                BulkEnrollmentOperation.toJson(BulkOperationMode.CREATE, (Collection<IndividualEnrollment>) any);
+                result = bulkEnrollmentPayload;
+                mockedContractApiHttp.request(HttpMethod.POST, bulkEnrollmentPath, null, bulkEnrollmentPayload);
+                result = mockedHttpResponse;
+                mockedHttpResponse.getBody();
+                result = "{\"isSuccessful\":true}".getBytes(StandardCharsets.UTF_8);
+            }
+        };
+
+        // act
+        BulkEnrollmentOperationResult bulkEnrollmentOperationResult = Deencapsulation.invoke(
+                individualEnrollmentManager, "bulkOperation",
+                new Class[] {BulkOperationMode.class, Iterator.class, int.class}, BulkOperationMode.CREATE, individualEnrollments.iterator(), 2);
+
+        // assert
+        assertTrue(bulkEnrollmentOperationResult.getSuccessful());
+        assertTrue(bulkEnrollmentOperationResult.getErrors().isEmpty());
+        new Verifications()
+        {
+            {
+                mockedContractApiHttp.request(HttpMethod.POST, bulkEnrollmentPath, null, bulkEnrollmentPayload);
+                times = 3;
+            }
+        };
+    }
+
+    @Test
+    public void chunkedBulkOperationRetriesThrottledRequest(
+            @Mocked final IndividualEnrollment mockedIndividualEnrollment,
+            @Mocked final BulkEnrollmentOperation mockedBulkOperation) throws ProvisioningServiceClientException
+    {
+        // arrange
+        final String bulkEnrollmentPath = "enrollments";
+        final String bulkEnrollmentPayload = "validJson";
+        final Collection<IndividualEnrollment> individualEnrollments = new LinkedList<>();
+        individualEnrollments.add(mockedIndividualEnrollment);
+        IndividualEnrollmentManager individualEnrollmentManager = createIndividualEnrollmentManager();
+        new NonStrictExpectations()
+        {
+            {
+                BulkEnrollmentOperation.toJson(BulkOperationMode.CREATE, (Collection<IndividualEnrollment>) any);
+                result = bulkEnrollmentPayload;
+                mockedContractApiHttp.request(HttpMethod.POST, bulkEnrollmentPath, null, bulkEnrollmentPayload);
+                result = new ProvisioningServiceClientTooManyRequestsException();
+                result = mockedHttpResponse;
+                mockedHttpResponse.getBody();
+                result = "{\"isSuccessful\":true}".getBytes(StandardCharsets.UTF_8);
+            }
+        };
+
+        // act
+        BulkEnrollmentOperationResult bulkEnrollmentOperationResult = Deencapsulation.invoke(
+                individualEnrollmentManager, "bulkOperation",
+                new Class[] {BulkOperationMode.class, Iterator.class, int.class}, BulkOperationMode.CREATE, individualEnrollments.iterator(), 1);
+
+        // assert
+        assertTrue(bulkEnrollmentOperationResult.getSuccessful());
+        new Verifications()
+        {
+            {
+                mockedContractApiHttp.request(HttpMethod.POST, bulkEnrollmentPath, null, bulkEnrollmentPayload);
+                times = 2;
+            }
+        };
+    }
+
+    @Test
+    public void chunkedBulkOperationReportsEachEnrollmentOfFailedRequest(
+            @Mocked final IndividualEnrollment mockedIndividualEnrollment,
+            @Mocked final BulkEnrollmentOperation mockedBulkOperation) throws ProvisioningServiceClientException
+    {
+        // arrange
+        final String bulkEnrollmentPath = "enrollments";
+        final String bulkEnrollmentPayload = "validJson";
+        final Collection<IndividualEnrollment> individualEnrollments = new LinkedList<>();
+        for (int i = 0; i < 3; i++)
+        {
+            individualEnrollments.add(mockedIndividualEnrollment);
+        }
+        IndividualEnrollmentManager individualEnrollmentManager = createIndividualEnrollmentManager();
+        new NonStrictExpectations()
+        {
+            {
+                mockedIndividualEnrollment.getRegistrationId();
+                result = "validRegistrationId";
+                BulkEnrollmentOperation.toJson(BulkOperationMode.CREATE, (Collection<IndividualEnrollment>) any);
+                result = bulkEnrollmentPayload;
+                mockedContractApiHttp.request(HttpMethod.POST, bulkEnrollmentPath, null, bulkEnrollmentPayload);
+                result = new ProvisioningServiceClientNotFoundException();
+            }
+        };
+
+        // act
+        BulkEnrollmentOperationResult bulkEnrollmentOperationResult = Deencapsulation.invoke(
+                individualEnrollmentManager, "bulkOperation",
+                new Class[] {BulkOperationMode.class, Iterator.class, int.class}, BulkOperationMode.CREATE, individualEnrollments.iterator(), 5);
+
+        // assert
+        assertFalse(bulkEnrollmentOperationResult.getSuccessful());
+        assertEquals(3, bulkEnrollmentOperationResult.getErrors().size());
+        for (BulkEnrollmentOperationError error : bulkEnrollmentOperationResult.getErrors())
+        {
+            assertEquals("validRegistrationId", error.getRegistrationId());
+            assertEquals(404, (int) error.getErrorCode());
+        }
+        new Verifications()
+        {
+            {
+                // a not found response is not retried
+                mockedContractApiHttp.request(HttpMethod.POST, bulkEnrollmentPath, null, bulkEnrollmentPayload);
+                times = 1;
+            }
+        };
+    }
+
     /* SRS_INDIVIDUAL_ENROLLMENT_MANAGER_21_020: [The get shall throw IllegalArgumentException if the provided registrationId is null or empty.] */
     @Test (expected = IllegalArgumentException.class)
     public void getThrowsOnNullRegistrationId() throws ProvisioningServiceClientException
@@ -12,9 +12,13 @@ import mockit.*;
 import org.junit.Test;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.*;
 
@@ -788,4 +792,92 @@ public class QueryTest
         // assert
         assertEquals(20, (int)Deencapsulation.getField(query, "pageSize"));
     }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void streamThrowsOnNullItemType()
+    {
+        // arrange
+        Query query = Deencapsulation.newInstance(Query.class, new Class[]{ContractApiHttp.class, String.class, QuerySpecification.class, Integer.class},
+                mockedContractApiHttp, "enrollments", mockedQuerySpecification, 0);
+
+        // act
+        Deencapsulation.invoke(query, "stream", new Class[]{Class.class}, (Class<?>) null);
+
+        // assert
+    }
+
+    @Test
+    public void streamReturnsItemsOfAllPagesInOrder() throws ProvisioningServiceClientException
+    {
+        // arrange
+        final String queryPath = "registrations/validEnrollmentGroupId/query";
+        final String querySpecificationJson = "validJson";
+        final Map<String, String> firstPageHeaders = new HashMap<String, String>()
+        {
+            {
+                put("x-ms-item-type", "deviceRegistration");
+                put("x-ms-continuation", "validToken");
+            }
+        };
+        final Map<String, String> lastPageHeaders = new HashMap<String, String>()
+        {
+            {
+                put("x-ms-item-type", "deviceRegistration");
+            }
+        };
+
+        new NonStrictExpectations()
+        {
+            {
+                mockedQuerySpecification.toJson();
+                result = querySpecificationJson;
+                mockedContractApiHttp.request(HttpMethod.POST, queryPath, (Map<String, String>) any, querySpecificationJson);
+                result = mockedHttpResponse;
+                mockedHttpResponse.getHeaderFields();
+                returns(firstPageHeaders, lastPageHeaders);
+                mockedHttpResponse.getBody();
+                returns("[{\"registrationId\":\"id1\"},{\"registrationId\":\"id2\"}]".getBytes(StandardCharsets.UTF_8),
+                        "[{\"registrationId\":\"id3\"}]".getBytes(StandardCharsets.UTF_8));
+            }
+        };
+        Query query = Deencapsulation.newInstance(Query.class, new Class[]{ContractApiHttp.class, String.class, QuerySpecification.class, Integer.class},
+                mockedContractApiHttp, "registrations/validEnrollmentGroupId", mockedQuerySpecification, 0);
+
+        // act
+        Stream<DeviceRegistrationState> stream = Deencapsulation.invoke(query, "stream", new Class[]{Class.class}, DeviceRegistrationState.class);
+        List<String> registrationIds = stream.map(DeviceRegistrationState::getRegistrationId).collect(Collectors.toList());
+
+        // assert
+        assertEquals(Arrays.asList("id1", "id2", "id3"), registrationIds);
+        assertFalse(query.hasNext());
+        new Verifications()
+        {
+            {
+                mockedContractApiHttp.request(HttpMethod.POST, queryPath, (Map<String, String>) any, querySpecificationJson);
+                times = 2;
+            }
+        };
+    }
+
+    @Test
+    public void streamOnFinishedQueryIsEmpty() throws ProvisioningServiceClientException
+    {
+        // arrange
+        Query query = Deencapsulation.newInstance(Query.class, new Class[]{ContractApiHttp.class, String.class, QuerySpecification.class, Integer.class},
+                mockedContractApiHttp, "enrollments", mockedQuerySpecification, 0);
+        Deencapsulation.setField(query, "hasNext", false);
+
+        // act
+        Stream<IndividualEnrollment> stream = Deencapsulation.invoke(query, "stream", new Class[]{Class.class}, IndividualEnrollment.class);
+
+        // assert
+        assertEquals(0, stream.count());
+        new Verifications()
+        {
+            {
+                mockedContractApiHttp.request((HttpMethod) any, anyString, (Map<String, String>) any, anyString);
+                times = 0;
+            }
+        };
+    }
 }
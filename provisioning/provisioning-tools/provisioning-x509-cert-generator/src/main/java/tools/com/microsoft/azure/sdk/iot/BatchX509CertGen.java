@@ -0,0 +1,442 @@
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license. See LICENSE file in the project root for full license information.
+
+package tools.com.microsoft.azure.sdk.iot;
+
+import com.google.gson.stream.JsonWriter;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.AuthorityKeyIdentifier;
+import org.bouncycastle.asn1.x509.BasicConstraints;
+import org.bouncycastle.asn1.x509.ExtendedKeyUsage;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.KeyPurposeId;
+import org.bouncycastle.asn1.x509.KeyUsage;
+import org.bouncycastle.cert.X509v3CertificateBuilder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509ExtensionUtils;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.operator.ContentSigner;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.RSAKeyGenParameterSpec;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates the X509 certificates of many devices under one intermediate certificate authority.
+ *
+ * <p>
+ * Device keys are generated and their certificates signed in parallel, with each thread keeping its own key pair
+ * generator and a signer that holds the issuer's private key. The results are written by a single thread as they
+ * complete, so only a bounded number of devices is held in memory no matter how many certificates are generated.
+ * </p>
+ */
+class BatchX509CertGen
+{
+    private static final String PEM_CERTIFICATE_TYPE = "CERTIFICATE";
+    private static final String PEM_PRIVATE_KEY_TYPE = "PRIVATE KEY";
+    private static final Base64.Encoder PEM_ENCODER = Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII));
+    private static final Set<PosixFilePermission> OWNER_ONLY_PERMISSIONS = PosixFilePermissions.fromString("rw-------");
+
+    private static final String ROOT_CA_COMMON_NAME = "Azure IoT Provisioning Batch Root CA";
+    private static final String INTERMEDIATE_CA_COMMON_NAME = "Azure IoT Provisioning Batch Intermediate CA";
+    private static final int CA_VALIDITY_DAYS = 3650;
+
+    // Enough devices in flight to keep every thread busy while the writer catches up
+    private static final int MAX_IN_FLIGHT_PER_THREAD = 4;
+    private static final int PROGRESS_INTERVAL = 1000;
+
+    private final BatchX509CertGenOptions options;
+    private final SecureRandom random = new SecureRandom();
+
+    private X509Certificate issuerCertificate;
+    private PrivateKey issuerKey;
+    private X500Name issuerName;
+    private AuthorityKeyIdentifier authorityKeyIdentifier;
+
+    // Key pair generators, signers and extension utils are not thread safe, so every thread gets its own
+    private ThreadLocal<KeyPairGenerator> keyPairGenerator;
+    private ThreadLocal<ContentSigner> issuerSigner;
+    private ThreadLocal<JcaX509ExtensionUtils> extensionUtils;
+
+    BatchX509CertGen(BatchX509CertGenOptions options)
+    {
+        this.options = options;
+    }
+
+    /**
+     * Generate and write the certificates of all the devices
+     * @throws Exception if the issuer can't be loaded, or if a device certificate can't be generated or written
+     */
+    void run() throws Exception
+    {
+        Files.createDirectories(this.options.outputDirectory);
+        loadOrCreateIssuer();
+
+        this.keyPairGenerator = ThreadLocal.withInitial(this::createKeyPairGenerator);
+        this.issuerSigner = ThreadLocal.withInitial(() -> createSigner(this.issuerKey));
+        this.extensionUtils = ThreadLocal.withInitial(BatchX509CertGen::createExtensionUtils);
+
+        long startMillis = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(this.options.threads);
+        Writer enrollmentWriter = null;
+        try
+        {
+            if (this.options.enrollmentFile != null)
+            {
+                enrollmentWriter = Files.newBufferedWriter(this.options.enrollmentFile, StandardCharsets.UTF_8);
+            }
+
+            CompletionService<DeviceCredentials> completionService = new ExecutorCompletionService<>(executor);
+            int maxInFlight = this.options.threads * MAX_IN_FLIGHT_PER_THREAD;
+            int submitted = 0;
+            int written = 0;
+            while (written < this.options.count)
+            {
+                while (submitted < this.options.count && submitted - written < maxInFlight)
+                {
+                    final String registrationId = this.options.prefix + (this.options.startIndex + submitted);
+                    completionService.submit(() -> generateDeviceCredentials(registrationId));
+                    submitted++;
+                }
+
+                DeviceCredentials deviceCredentials = takeCompleted(completionService);
+                writeDeviceCredentials(deviceCredentials);
+                if (enrollmentWriter != null)
+                {
+                    writeEnrollment(enrollmentWriter, deviceCredentials);
+                }
+
+                written++;
+                if (written % PROGRESS_INTERVAL == 0)
+                {
+                    System.out.println("Generated " + written + " of " + this.options.count + " device certificates");
+                }
+            }
+        }
+        finally
+        {
+            if (enrollmentWriter != null)
+            {
+                enrollmentWriter.close();
+            }
+
+            executor.shutdownNow();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+
+        long elapsedMillis = Math.max(1, System.currentTimeMillis() - startMillis);
+        System.out.println("Generated " + this.options.count + " device certificates in " + elapsedMillis + " ms ("
+            + (this.options.count * 1000L / elapsedMillis) + " per second) in " + this.options.outputDirectory.toAbsolutePath());
+    }
+
+    private static DeviceCredentials takeCompleted(CompletionService<DeviceCredentials> completionService) throws Exception
+    {
+        try
+        {
+            return completionService.take().get();
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof Exception)
+            {
+                throw (Exception) e.getCause();
+            }
+
+            throw e;
+        }
+    }
+
+    private DeviceCredentials generateDeviceCredentials(String registrationId) throws Exception
+    {
+        KeyPair keyPair = this.keyPairGenerator.get().generateKeyPair();
+
+        // Backdated by an hour so that devices with a slightly late clock accept the certificate right away
+        Date notBefore = new Date(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1));
+        Date notAfter = new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(this.options.validityDays));
+
+        // The common name of a device certificate is the registration id of the device
+        X509v3CertificateBuilder builder = new JcaX509v3CertificateBuilder(
+            this.issuerName,
+            newSerialNumber(),
+            notBefore,
+            notAfter,
+            new X500Name("CN=" + registrationId),
+            keyPair.getPublic());
+
+        builder.addExtension(Extension.basicConstraints, true, new BasicConstraints(false));
+        int keyUsage = this.options.keyAlgorithm == BatchX509CertGenOptions.KeyAlgorithm.RSA ? KeyUsage.digitalSignature | KeyUsage.keyEncipherment : KeyUsage.digitalSignature;
+        builder.addExtension(Extension.keyUsage, true, new KeyUsage(keyUsage));
+        builder.addExtension(Extension.extendedKeyUsage, false, new ExtendedKeyUsage(KeyPurposeId.id_kp_clientAuth));
+        builder.addExtension(Extension.authorityKeyIdentifier, false, this.authorityKeyIdentifier);
+        builder.addExtension(Extension.subjectKeyIdentifier, false, this.extensionUtils.get().createSubjectKeyIdentifier(keyPair.getPublic()));
+
+        X509Certificate certificate = new JcaX509CertificateConverter().getCertificate(builder.build(this.issuerSigner.get()));
+        return new DeviceCredentials(registrationId, certificate, keyPair.getPrivate());
+    }
+
+    private void writeDeviceCredentials(DeviceCredentials deviceCredentials) throws IOException, GeneralSecurityException
+    {
+        if (this.options.format != BatchX509CertGenOptions.OutputFormat.PKCS12)
+        {
+            // The certificate file holds the whole chain, which is what the device presents when it connects
+            try (Writer writer = Files.newBufferedWriter(this.options.outputDirectory.resolve(deviceCredentials.registrationId + ".cert.pem"), StandardCharsets.US_ASCII))
+            {
+                writePem(writer, PEM_CERTIFICATE_TYPE, deviceCredentials.certificate.getEncoded());
+                writePem(writer, PEM_CERTIFICATE_TYPE, this.issuerCertificate.getEncoded());
+            }
+
+            writePrivateKeyFile(this.options.outputDirectory.resolve(deviceCredentials.registrationId + ".key.pem"), deviceCredentials.privateKey.getEncoded());
+        }
+
+        if (this.options.format != BatchX509CertGenOptions.OutputFormat.PEM)
+        {
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            keyStore.load(null, null);
+            keyStore.setKeyEntry(deviceCredentials.registrationId, deviceCredentials.privateKey, this.options.password, new X509Certificate[] { deviceCredentials.certificate, this.issuerCertificate });
+
+            Path keyStoreFile = createOwnerOnlyFile(this.options.outputDirectory.resolve(deviceCredentials.registrationId + ".p12"));
+            try (OutputStream outputStream = Files.newOutputStream(keyStoreFile))
+            {
+                keyStore.store(outputStream, this.options.password);
+            }
+        }
+    }
+
+    private static void writeEnrollment(Writer writer, DeviceCredentials deviceCredentials) throws IOException, GeneralSecurityException
+    {
+        // One individual enrollment per line, each in the format that new IndividualEnrollment(String) reads. The
+        // service accepts at most 10 enrollments per bulk operation, so the lines are meant to be read one at a time
+        // and passed to ProvisioningServiceClient.runBulkEnrollmentOperation(BulkOperationMode, Iterator), which
+        // splits them into requests that the service accepts.
+        StringWriter enrollment = new StringWriter();
+        JsonWriter jsonWriter = new JsonWriter(enrollment);
+        jsonWriter.beginObject();
+        jsonWriter.name("registrationId").value(deviceCredentials.registrationId);
+        jsonWriter.name("attestation").beginObject();
+        jsonWriter.name("type").value("x509");
+        jsonWriter.name("x509").beginObject();
+        jsonWriter.name("clientCertificates").beginObject();
+        jsonWriter.name("primary").beginObject();
+        jsonWriter.name("certificate").value(toPem(PEM_CERTIFICATE_TYPE, deviceCredentials.certificate.getEncoded()));
+        jsonWriter.endObject();
+        jsonWriter.endObject();
+        jsonWriter.endObject();
+        jsonWriter.endObject();
+        jsonWriter.endObject();
+        jsonWriter.close();
+
+        writer.write(enrollment.toString());
+        writer.write('\n');
+    }
+
+    private void loadOrCreateIssuer() throws Exception
+    {
+        if (this.options.issuerCertificateFile != null)
+        {
+            try (InputStream inputStream = Files.newInputStream(this.options.issuerCertificateFile))
+            {
+                this.issuerCertificate = (X509Certificate) CertificateFactory.getInstance("X.509").generateCertificate(inputStream);
+            }
+
+            this.issuerKey = readPrivateKey(this.options.issuerKeyFile, this.issuerCertificate.getPublicKey().getAlgorithm());
+        }
+        else
+        {
+            createIssuer();
+        }
+
+        this.issuerName = X500Name.getInstance(this.issuerCertificate.getSubjectX500Principal().getEncoded());
+        this.authorityKeyIdentifier = createExtensionUtils().createAuthorityKeyIdentifier(this.issuerCertificate);
+    }
+
+    private void createIssuer() throws Exception
+    {
+        System.out.println("No issuer was provided, generating a new root and intermediate CA");
+
+        KeyPairGenerator caKeyPairGenerator = createKeyPairGenerator();
+        KeyPair rootKeyPair = caKeyPairGenerator.generateKeyPair();
+        KeyPair intermediateKeyPair = caKeyPairGenerator.generateKeyPair();
+
+        X500Name rootName = new X500Name("CN=" + ROOT_CA_COMMON_NAME);
+        X509Certificate rootCertificate = createCaCertificate(rootName, rootKeyPair.getPrivate(), null, rootName, rootKeyPair.getPublic());
+        this.issuerCertificate = createCaCertificate(rootName, rootKeyPair.getPrivate(), rootCertificate, new X500Name("CN=" + INTERMEDIATE_CA_COMMON_NAME), intermediateKeyPair.getPublic());
+        this.issuerKey = intermediateKeyPair.getPrivate();
+
+        writePemFile(this.options.outputDirectory.resolve("root-ca.cert.pem"), PEM_CERTIFICATE_TYPE, rootCertificate.getEncoded());
+        writePrivateKeyFile(this.options.outputDirectory.resolve("root-ca.key.pem"), rootKeyPair.getPrivate().getEncoded());
+        writePemFile(this.options.outputDirectory.resolve("intermediate-ca.cert.pem"), PEM_CERTIFICATE_TYPE, this.issuerCertificate.getEncoded());
+        writePrivateKeyFile(this.options.outputDirectory.resolve("intermediate-ca.key.pem"), this.issuerKey.getEncoded());
+    }
+
+    private X509Certificate createCaCertificate(X500Name issuer, PrivateKey issuerPrivateKey, X509Certificate issuerCertificate, X500Name subject, PublicKey subjectPublicKey) throws Exception
+    {
+        Date notBefore = new Date(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1));
+        Date notAfter = new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(CA_VALIDITY_DAYS));
+        JcaX509ExtensionUtils caExtensionUtils = createExtensionUtils();
+
+        X509v3CertificateBuilder builder = new JcaX509v3CertificateBuilder(issuer, newSerialNumber(), notBefore, notAfter, subject, subjectPublicKey);
+
+        // The root may sign the intermediate, and the intermediate may only sign device certificates
+        builder.addExtension(Extension.basicConstraints, true, issuerCertificate == null ? new BasicConstraints(true) : new BasicConstraints(0));
+        builder.addExtension(Extension.keyUsage, true, new KeyUsage(KeyUsage.keyCertSign | KeyUsage.cRLSign | KeyUsage.digitalSignature));
+        builder.addExtension(Extension.subjectKeyIdentifier, false, caExtensionUtils.createSubjectKeyIdentifier(subjectPublicKey));
+        if (issuerCertificate != null)
+        {
+            builder.addExtension(Extension.authorityKeyIdentifier, false, caExtensionUtils.createAuthorityKeyIdentifier(issuerCertificate));
+        }
+
+        return new JcaX509CertificateConverter().getCertificate(builder.build(createSigner(issuerPrivateKey)));
+    }
+
+    private KeyPairGenerator createKeyPairGenerator()
+    {
+        try
+        {
+            KeyPairGenerator generator;
+            if (this.options.keyAlgorithm == BatchX509CertGenOptions.KeyAlgorithm.RSA)
+            {
+                generator = KeyPairGenerator.getInstance("RSA");
+                generator.initialize(new RSAKeyGenParameterSpec(2048, RSAKeyGenParameterSpec.F4), this.random);
+            }
+            else
+            {
+                generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp256r1"), this.random);
+            }
+
+            return generator;
+        }
+        catch (GeneralSecurityException e)
+        {
+            throw new IllegalStateException("Failed to create a " + this.options.keyAlgorithm + " key pair generator", e);
+        }
+    }
+
+    private static ContentSigner createSigner(PrivateKey signingKey)
+    {
+        String signatureAlgorithm = signingKey.getAlgorithm().equals("RSA") ? "SHA256withRSA" : "SHA256withECDSA";
+        try
+        {
+            return new JcaContentSignerBuilder(signatureAlgorithm).build(signingKey);
+        }
+        catch (Exception e)
+        {
+            throw new IllegalStateException("Failed to create a " + signatureAlgorithm + " signer for the issuer key", e);
+        }
+    }
+
+    private static JcaX509ExtensionUtils createExtensionUtils()
+    {
+        try
+        {
+            return new JcaX509ExtensionUtils();
+        }
+        catch (GeneralSecurityException e)
+        {
+            throw new IllegalStateException("Failed to create the certificate extension utils", e);
+        }
+    }
+
+    private BigInteger newSerialNumber()
+    {
+        // Serial numbers must be positive and unique per issuer, and may be at most 20 bytes long
+        return new BigInteger(159, this.random);
+    }
+
+    private static PrivateKey readPrivateKey(Path keyFile, String algorithm) throws IOException, GeneralSecurityException
+    {
+        String pem = new String(Files.readAllBytes(keyFile), StandardCharsets.US_ASCII);
+        String header = "-----BEGIN " + PEM_PRIVATE_KEY_TYPE + "-----";
+        String footer = "-----END " + PEM_PRIVATE_KEY_TYPE + "-----";
+        int start = pem.indexOf(header);
+        int end = pem.indexOf(footer);
+        if (start < 0 || end < start)
+        {
+            throw new IllegalArgumentException("The issuer key must be an unencrypted PKCS#8 PEM private key. Convert it with: openssl pkcs8 -topk8 -nocrypt -in <key> -out <pkcs8 key>");
+        }
+
+        byte[] encodedKey = Base64.getMimeDecoder().decode(pem.substring(start + header.length(), end));
+        return KeyFactory.getInstance(algorithm).generatePrivate(new PKCS8EncodedKeySpec(encodedKey));
+    }
+
+    private static void writePemFile(Path file, String type, byte[] encoded) throws IOException
+    {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.US_ASCII))
+        {
+            writePem(writer, type, encoded);
+        }
+    }
+
+    private static void writePrivateKeyFile(Path file, byte[] encoded) throws IOException
+    {
+        writePemFile(createOwnerOnlyFile(file), PEM_PRIVATE_KEY_TYPE, encoded);
+    }
+
+    private static Path createOwnerOnlyFile(Path file) throws IOException
+    {
+        // Files holding private keys are created readable by their owner only, where the file system supports it. The
+        // file is recreated rather than reused so that an existing file's permissions don't carry over.
+        if (file.getFileSystem().supportedFileAttributeViews().contains("posix"))
+        {
+            Files.deleteIfExists(file);
+            Files.createFile(file, PosixFilePermissions.asFileAttribute(OWNER_ONLY_PERMISSIONS));
+        }
+
+        return file;
+    }
+
+    private static void writePem(Writer writer, String type, byte[] encoded) throws IOException
+    {
+        writer.write(toPem(type, encoded));
+    }
+
+    private static String toPem(String type, byte[] encoded)
+    {
+        return "-----BEGIN " + type + "-----\n" + PEM_ENCODER.encodeToString(encoded) + "\n-----END " + type + "-----\n";
+    }
+
+    private static final class DeviceCredentials
+    {
+        private final String registrationId;
+        private final X509Certificate certificate;
+        private final PrivateKey privateKey;
+
+        DeviceCredentials(String registrationId, X509Certificate certificate, PrivateKey privateKey)
+        {
+            this.registrationId = registrationId;
+            this.certificate = certificate;
+            this.privateKey = privateKey;
+        }
+    }
+}
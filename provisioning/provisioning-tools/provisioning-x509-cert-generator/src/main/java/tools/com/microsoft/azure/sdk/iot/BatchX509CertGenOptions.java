@@ -0,0 +1,175 @@
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license. See LICENSE file in the project root for full license information.
+
+package tools.com.microsoft.azure.sdk.iot;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * The command line options of the batch mode of {@link ProvisioningX509CertGen}
+ */
+class BatchX509CertGenOptions
+{
+    enum OutputFormat
+    {
+        PEM,
+        PKCS12,
+        BOTH
+    }
+
+    enum KeyAlgorithm
+    {
+        ECC,
+        RSA
+    }
+
+    static final String USAGE =
+        "Usage: java -jar provisioning-x509-cert-generator-{version}-with-deps.jar batch --count <n> [options]\n" +
+        "  --count <n>              number of device certificates to generate (required)\n" +
+        "  --prefix <prefix>        registration id prefix, followed by the device index (default: device-)\n" +
+        "  --start-index <i>        index of the first device (default: 0)\n" +
+        "  --issuer-cert <file>     PEM certificate of the intermediate CA that signs the device certificates\n" +
+        "  --issuer-key <file>      unencrypted PKCS#8 PEM private key of that intermediate CA\n" +
+        "                           (when both are omitted, a new root and intermediate CA are generated)\n" +
+        "  --output <dir>           directory to write the certificates to (default: certs)\n" +
+        "  --format <pem|pkcs12|both>  how to write each device's certificate and key (default: pem)\n" +
+        "  --password <password>    password of the PKCS#12 files (required for pkcs12 and both)\n" +
+        "  --key-algorithm <ecc|rsa>   algorithm of the device keys (default: ecc)\n" +
+        "  --days <n>               validity of the device certificates, in days (default: 365)\n" +
+        "  --threads <n>            number of threads generating keys (default: number of processors)\n" +
+        "  --enrollment-file <file> also write the individual enrollment of each device, one json\n" +
+        "                           object per line\n";
+
+    private static final String DEFAULT_PREFIX = "device-";
+    private static final String DEFAULT_OUTPUT_DIRECTORY = "certs";
+    private static final int DEFAULT_VALIDITY_DAYS = 365;
+
+    int count = -1;
+    String prefix = DEFAULT_PREFIX;
+    int startIndex = 0;
+    Path issuerCertificateFile;
+    Path issuerKeyFile;
+    Path outputDirectory = Paths.get(DEFAULT_OUTPUT_DIRECTORY);
+    OutputFormat format = OutputFormat.PEM;
+    char[] password;
+    KeyAlgorithm keyAlgorithm = KeyAlgorithm.ECC;
+    int validityDays = DEFAULT_VALIDITY_DAYS;
+    int threads = Runtime.getRuntime().availableProcessors();
+    Path enrollmentFile;
+
+    /**
+     * Parse the batch mode options
+     * @param args the command line arguments that follow the "batch" argument
+     * @return the parsed options
+     * @throws IllegalArgumentException if an option is unknown, is missing its value or has an invalid value
+     */
+    static BatchX509CertGenOptions parse(String[] args)
+    {
+        BatchX509CertGenOptions options = new BatchX509CertGenOptions();
+        for (int i = 0; i < args.length; i++)
+        {
+            String option = args[i];
+            if (i + 1 >= args.length)
+            {
+                throw new IllegalArgumentException("Missing value for option " + option);
+            }
+
+            String value = args[++i];
+            switch (option)
+            {
+                case "--count":
+                    options.count = parsePositiveInt(option, value);
+                    break;
+                case "--prefix":
+                    options.prefix = value;
+                    break;
+                case "--start-index":
+                    options.startIndex = parseInt(option, value);
+                    break;
+                case "--issuer-cert":
+                    options.issuerCertificateFile = Paths.get(value);
+                    break;
+                case "--issuer-key":
+                    options.issuerKeyFile = Paths.get(value);
+                    break;
+                case "--output":
+                    options.outputDirectory = Paths.get(value);
+                    break;
+                case "--format":
+                    options.format = parseEnum(OutputFormat.class, option, value);
+                    break;
+                case "--password":
+                    options.password = value.toCharArray();
+                    break;
+                case "--key-algorithm":
+                    options.keyAlgorithm = parseEnum(KeyAlgorithm.class, option, value);
+                    break;
+                case "--days":
+                    options.validityDays = parsePositiveInt(option, value);
+                    break;
+                case "--threads":
+                    options.threads = parsePositiveInt(option, value);
+                    break;
+                case "--enrollment-file":
+                    options.enrollmentFile = Paths.get(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + option);
+            }
+        }
+
+        if (options.count < 0)
+        {
+            throw new IllegalArgumentException("--count is required");
+        }
+
+        if ((options.issuerCertificateFile == null) != (options.issuerKeyFile == null))
+        {
+            throw new IllegalArgumentException("--issuer-cert and --issuer-key must be provided together");
+        }
+
+        if (options.format != OutputFormat.PEM && (options.password == null || options.password.length == 0))
+        {
+            throw new IllegalArgumentException("--password is required when writing PKCS#12 files");
+        }
+
+        return options;
+    }
+
+    private static int parseInt(String option, String value)
+    {
+        try
+        {
+            return Integer.parseInt(value);
+        }
+        catch (NumberFormatException e)
+        {
+            throw new IllegalArgumentException("Invalid value " + value + " for option " + option);
+        }
+    }
+
+    private static <T extends Enum<T>> T parseEnum(Class<T> type, String option, String value)
+    {
+        try
+        {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new IllegalArgumentException("Invalid value " + value + " for option " + option);
+        }
+    }
+
+    private static int parsePositiveInt(String option, String value)
+    {
+        int parsed = parseInt(option, value);
+        if (parsed <= 0)
+        {
+            throw new IllegalArgumentException("Option " + option + " must be greater than 0");
+        }
+
+        return parsed;
+    }
+}
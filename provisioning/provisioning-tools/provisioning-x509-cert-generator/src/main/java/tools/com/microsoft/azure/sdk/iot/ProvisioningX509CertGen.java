@@ -7,15 +7,25 @@ import com.microsoft.azure.sdk.iot.provisioning.security.exceptions.SecurityProv
 import com.microsoft.azure.sdk.iot.provisioning.security.hsm.SecurityProviderDiceEmulator;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Scanner;
 
 /**
- * Provisioning X509 Cert generator to generate X509 certificates using DICE emulator
+ * Provisioning X509 Cert generator to generate X509 certificates using DICE emulator, or the certificates of many
+ * devices at once when run with the "batch" argument
  */
 public class ProvisioningX509CertGen
 {
+    private static final String BATCH_MODE_ARGUMENT = "batch";
+
     public static void main(String[] args)
     {
+        if (args.length > 0 && args[0].equalsIgnoreCase(BATCH_MODE_ARGUMENT))
+        {
+            runBatchMode(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         try
         {
             String aliasCertCnName, rootCertCnName, signerCertCnName;
@@ -83,4 +93,31 @@ public class ProvisioningX509CertGen
             System.out.println("Shutting down...");
         }
     }
+
+    private static void runBatchMode(String[] args)
+    {
+        BatchX509CertGenOptions options;
+        try
+        {
+            options = BatchX509CertGenOptions.parse(args);
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.out.println(e.getMessage());
+            System.out.println(BatchX509CertGenOptions.USAGE);
+            System.exit(1);
+            return;
+        }
+
+        try
+        {
+            new BatchX509CertGen(options).run();
+        }
+        catch (Exception e)
+        {
+            e.printStackTrace();
+            System.out.println("Shutting down...");
+            System.exit(1);
+        }
+    }
 }
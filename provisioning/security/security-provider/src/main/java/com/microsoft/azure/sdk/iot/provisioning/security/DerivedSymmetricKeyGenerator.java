@@ -0,0 +1,116 @@
+/*
+ *
+ *  Copyright (c) Microsoft. All rights reserved.
+ *  Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ *
+ */
+
+package com.microsoft.azure.sdk.iot.provisioning.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Computes the derived symmetric keys of many devices in the same group enrollment.
+ *
+ * <p>
+ * This produces the same keys as {@link SecurityProviderSymmetricKey#ComputeDerivedSymmetricKey(byte[], String)}, but
+ * the group enrollment's key is only decoded once, and each thread that uses this generator keeps its own HMAC
+ * instance that is already initialized with that key. This makes it suitable for services and device simulators that
+ * derive the keys of a large number of devices. Instances of this class are thread safe.
+ * </p>
+ */
+public final class DerivedSymmetricKeyGenerator
+{
+    private static final String HMAC_SHA_256 = "HmacSHA256";
+
+    private final SecretKeySpec enrollmentGroupKey;
+    private final Mac prototypeMac;
+    private final ThreadLocal<Mac> threadMac = ThreadLocal.withInitial(this::createMac);
+
+    /**
+     * Create a generator for the devices of a group enrollment.
+     * @param enrollmentGroupSymmetricKey The primary or secondary key of the group enrollment. Must be a UTF-8 byte array
+     *                                    of the base64 encoded key, as it is provided by the Azure Portal.
+     * @throws InvalidKeyException If the HMAC cannot be initialized with the provided key
+     * @throws NoSuchAlgorithmException If your device does not support HMAC_SHA256
+     */
+    public DerivedSymmetricKeyGenerator(byte[] enrollmentGroupSymmetricKey) throws InvalidKeyException, NoSuchAlgorithmException
+    {
+        if (enrollmentGroupSymmetricKey == null || enrollmentGroupSymmetricKey.length == 0)
+        {
+            throw new IllegalArgumentException("enrollmentGroupSymmetricKey cannot be null or empty");
+        }
+
+        this.enrollmentGroupKey = new SecretKeySpec(Base64.getDecoder().decode(enrollmentGroupSymmetricKey), HMAC_SHA_256);
+
+        // Initializing the HMAC here surfaces a bad key to the caller instead of to the first derivation
+        this.prototypeMac = Mac.getInstance(HMAC_SHA_256);
+        this.prototypeMac.init(this.enrollmentGroupKey);
+    }
+
+    /**
+     * Compute the derived symmetric key of a single device.
+     * @param registrationId The registration id of the device to compute the derived key for.
+     * @return The derived key, in base64 encoded bytes.
+     */
+    public byte[] computeDerivedSymmetricKey(String registrationId)
+    {
+        if (registrationId == null || registrationId.isEmpty())
+        {
+            throw new IllegalArgumentException("registrationId cannot be null or empty");
+        }
+
+        // doFinal resets the HMAC to its initialized state, so it is ready for the next registration id afterwards
+        return Base64.getEncoder().encode(this.threadMac.get().doFinal(registrationId.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Compute the derived symmetric keys of many devices. The keys are computed in parallel on the common fork join pool.
+     * @param registrationIds The registration ids of the devices to compute the derived keys for.
+     * @return The derived keys, in base64 encoded bytes, in the same order as the provided registration ids.
+     */
+    public List<byte[]> computeDerivedSymmetricKeys(List<String> registrationIds)
+    {
+        if (registrationIds == null)
+        {
+            throw new IllegalArgumentException("registrationIds cannot be null");
+        }
+
+        return registrationIds.parallelStream()
+            .map(this::computeDerivedSymmetricKey)
+            .collect(Collectors.toList());
+    }
+
+    private Mac createMac()
+    {
+        // Copying the initialized HMAC skips looking up the algorithm provider and expanding the key again
+        try
+        {
+            synchronized (this.prototypeMac)
+            {
+                return (Mac) this.prototypeMac.clone();
+            }
+        }
+        catch (CloneNotSupportedException e)
+        {
+            try
+            {
+                Mac mac = Mac.getInstance(HMAC_SHA_256);
+                mac.init(this.enrollmentGroupKey);
+                return mac;
+            }
+            catch (NoSuchAlgorithmException | InvalidKeyException initException)
+            {
+                // The same key and algorithm were already used successfully by the constructor
+                throw new IllegalStateException(initException);
+            }
+        }
+    }
+}
@@ -18,6 +18,11 @@ public abstract class SecurityProvider
 {
     static final String SSL_CONTEXT_PROTOCOL = "TLSv1.2";
 
+    // The default SSLContext is shared by every security provider that doesn't override getSSLContext. It is only saved
+    // once it was created successfully, so a failure to create it is retried on the next call.
+    private static final Object DEFAULT_SSL_CONTEXT_LOCK = new Object();
+    private static SSLContext defaultSslContext;
+
     /**
      * Unique id required for registration
      * @return Returns the registration Id used needed for the service
@@ -30,20 +35,35 @@ public abstract class SecurityProvider
      * from your device's trusted root certification authorities certificate store. Implementations of {@link SecurityProviderX509}
      * must override this function so that it returns an SSLContext instance with the required private key and public certificates
      * loaded into it as well as the default trusted certificates saved in your device's trusted root certification authorities certificate store.
+     *
+     * <p>
+     * The SSLContext is created once per process and the same instance is returned by every security provider that
+     * doesn't override this method. The provisioning clients and the device clients that are created from these security
+     * providers therefore share one TLS session cache, so connecting to a host that was already connected to can resume
+     * its TLS session instead of performing a full handshake.
+     * </p>
      * @return The SSLContext instance.
      * @throws SecurityProviderException If ssl context could not be generated for any of the reason.
      */
     public SSLContext getSSLContext() throws SecurityProviderException
     {
-        try
-        {
-            SSLContext sslContext = SSLContext.getInstance(SSL_CONTEXT_PROTOCOL);
-            sslContext.init(null, null, new SecureRandom());
-            return sslContext;
-        }
-        catch (NoSuchAlgorithmException | KeyManagementException e)
+        synchronized (DEFAULT_SSL_CONTEXT_LOCK)
         {
-            throw new SecurityProviderException("Failed to create the default SSLContext instance", e);
+            if (defaultSslContext == null)
+            {
+                try
+                {
+                    SSLContext sslContext = SSLContext.getInstance(SSL_CONTEXT_PROTOCOL);
+                    sslContext.init(null, null, new SecureRandom());
+                    defaultSslContext = sslContext;
+                }
+                catch (NoSuchAlgorithmException | KeyManagementException e)
+                {
+                    throw new SecurityProviderException("Failed to create the default SSLContext instance", e);
+                }
+            }
+
+            return defaultSslContext;
         }
     }
 }
@@ -132,7 +132,8 @@ public class SecurityProviderSymmetricKey extends SecurityProvider
     /**
      * Compute the derived symmetric key for authenticating your device based on it's group enrollment's symmetric key and
      * from the device's registrationId. This step is only necessary for devices in group enrollments. Devices that
-     * are registered via an individual enrollment can use the individual enrollment's symmetric key directly.
+     * are registered via an individual enrollment can use the individual enrollment's symmetric key directly. To compute
+     * the derived keys of many devices in the same group enrollment, use a {@link DerivedSymmetricKeyGenerator} instead.
      * @param enrollmentGroupSymmetricKey The primary or secondary key of the group enrollment for which a device is computing it's derived symmetric key. Must be a UTF-8 byte array.
      * @param deviceId The Id of the particular device to compute the derived key for. The user is expected to decide what the
      *                 deviceId should be prior to attempting to provision the device.
@@ -14,13 +14,23 @@ import java.io.IOException;
 import java.security.*;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 public abstract class SecurityProviderX509 extends SecurityProvider
 {
     private static final String CERT_ALIAS = "IOTHUB_SECURITY_PROVIDER_CERT_ALIAS";
 
+    // The SSLContext is rebuilt only when the certificates or key it was built from change
+    private final Object sslContextLock = new Object();
+    private SSLContext sslContext;
+    private X509Certificate sslContextLeafCertificate;
+    private Key sslContextLeafPrivateKey;
+    private List<X509Certificate> sslContextSignerCertificates;
+
     abstract public String getClientCertificateCommonName();
     abstract public X509Certificate getClientCertificate();
     abstract public Key getClientPrivateKey();
@@ -32,19 +42,49 @@ public abstract class SecurityProviderX509 extends SecurityProvider
         return this.getClientCertificateCommonName();
     }
 
+    /**
+     * Retrieves the SSL context loaded with the client certificate, its private key and its intermediate certificates.
+     * The SSLContext is cached, and the same instance is returned until any of these certificates or the key change.
+     * @return The SSLContext instance.
+     * @throws SecurityProviderException If ssl context could not be generated for any of the reason.
+     */
     @Override
     public SSLContext getSSLContext() throws SecurityProviderException
     {
-        try
-        {
-            return this.generateSSLContext(this.getClientCertificate(), this.getClientPrivateKey(), this.getIntermediateCertificatesChain());
-        }
-        catch (UnrecoverableKeyException | NoSuchAlgorithmException | KeyStoreException | KeyManagementException | IOException | CertificateException e)
+        X509Certificate leafCertificate = this.getClientCertificate();
+        Key leafPrivateKey = this.getClientPrivateKey();
+        Collection<X509Certificate> signerCertificates = this.getIntermediateCertificatesChain();
+
+        synchronized (this.sslContextLock)
         {
-            throw new SecurityProviderException(e);
+            if (this.sslContext != null && this.isSslContextBuiltFrom(leafCertificate, leafPrivateKey, signerCertificates))
+            {
+                return this.sslContext;
+            }
+
+            try
+            {
+                this.sslContext = this.generateSSLContext(leafCertificate, leafPrivateKey, signerCertificates);
+                this.sslContextLeafCertificate = leafCertificate;
+                this.sslContextLeafPrivateKey = leafPrivateKey;
+                this.sslContextSignerCertificates = new ArrayList<>(signerCertificates);
+                return this.sslContext;
+            }
+            catch (UnrecoverableKeyException | NoSuchAlgorithmException | KeyStoreException | KeyManagementException | IOException | CertificateException e)
+            {
+                throw new SecurityProviderException(e);
+            }
         }
     }
 
+    private boolean isSslContextBuiltFrom(X509Certificate leafCertificate, Key leafPrivateKey, Collection<X509Certificate> signerCertificates)
+    {
+        return Objects.equals(this.sslContextLeafCertificate, leafCertificate)
+            && Objects.equals(this.sslContextLeafPrivateKey, leafPrivateKey)
+            && signerCertificates != null
+            && this.sslContextSignerCertificates.equals(new ArrayList<>(signerCertificates));
+    }
+
     private SSLContext generateSSLContext(X509Certificate leafCertificate, Key leafPrivateKey, Collection<X509Certificate> signerCertificates) throws UnrecoverableKeyException, NoSuchAlgorithmException, KeyStoreException, KeyManagementException, IOException, CertificateException
     {
         if (leafCertificate == null || leafPrivateKey == null || signerCertificates == null)
@@ -0,0 +1,77 @@
+/*
+ *
+ *  Copyright (c) Microsoft. All rights reserved.
+ *  Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ *
+ */
+
+package com.microsoft.azure.sdk.iot.provisioning.security;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for DerivedSymmetricKeyGenerator
+ */
+public class DerivedSymmetricKeyGeneratorTest
+{
+    private static final byte[] ENROLLMENT_GROUP_KEY = Base64.getEncoder().encode("someEnrollmentGroupKey".getBytes(StandardCharsets.UTF_8));
+
+    @Test (expected = IllegalArgumentException.class)
+    public void constructorThrowsOnNullKey() throws Exception
+    {
+        new DerivedSymmetricKeyGenerator(null);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void computeDerivedSymmetricKeyThrowsOnEmptyRegistrationId() throws Exception
+    {
+        new DerivedSymmetricKeyGenerator(ENROLLMENT_GROUP_KEY).computeDerivedSymmetricKey("");
+    }
+
+    @Test
+    public void computeDerivedSymmetricKeyMatchesSecurityProviderSymmetricKey() throws Exception
+    {
+        // arrange
+        DerivedSymmetricKeyGenerator generator = new DerivedSymmetricKeyGenerator(ENROLLMENT_GROUP_KEY);
+
+        // act and assert, more than once to check that the reused HMAC starts from a clean state each time
+        for (int i = 0; i < 3; i++)
+        {
+            assertArrayEquals(
+                SecurityProviderSymmetricKey.ComputeDerivedSymmetricKey(ENROLLMENT_GROUP_KEY, "registration-" + i),
+                generator.computeDerivedSymmetricKey("registration-" + i));
+        }
+    }
+
+    @Test
+    public void computeDerivedSymmetricKeysKeepsOrderOfRegistrationIds() throws Exception
+    {
+        // arrange
+        DerivedSymmetricKeyGenerator generator = new DerivedSymmetricKeyGenerator(ENROLLMENT_GROUP_KEY);
+        List<String> registrationIds = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+        {
+            registrationIds.add("registration-" + i);
+        }
+
+        // act
+        List<byte[]> derivedKeys = generator.computeDerivedSymmetricKeys(registrationIds);
+
+        // assert
+        assertEquals(registrationIds.size(), derivedKeys.size());
+        for (int i = 0; i < registrationIds.size(); i++)
+        {
+            assertArrayEquals(
+                SecurityProviderSymmetricKey.ComputeDerivedSymmetricKey(ENROLLMENT_GROUP_KEY, registrationIds.get(i)),
+                derivedKeys.get(i));
+        }
+    }
+}
@@ -11,6 +11,7 @@ import com.microsoft.azure.sdk.iot.provisioning.security.SecurityProviderSymmetr
 import com.microsoft.azure.sdk.iot.provisioning.security.exceptions.SecurityProviderException;
 import mockit.*;
 import org.apache.commons.codec.binary.Base32;
+import org.junit.Before;
 import org.junit.Test;
 
 import javax.crypto.Mac;
@@ -67,6 +68,13 @@ public class SecurityProviderSymmetricKeyTest
     @Mocked
     UUID mockedUUID;
 
+    @Before
+    public void resetDefaultSslContext()
+    {
+        // The default SSLContext is shared by all security providers in the process, so each test starts without one
+        Deencapsulation.setField(SecurityProvider.class, "defaultSslContext", null);
+    }
+
     @Test
     public void testConstructorSucceeds() throws SecurityProviderException
     {
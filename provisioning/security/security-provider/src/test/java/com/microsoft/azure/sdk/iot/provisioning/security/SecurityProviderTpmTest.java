@@ -9,12 +9,14 @@ package com.microsoft.azure.sdk.iot.provisioning.security;
 
 import com.microsoft.azure.sdk.iot.provisioning.security.SecurityProviderTpm;
 import com.microsoft.azure.sdk.iot.provisioning.security.exceptions.SecurityProviderException;
+import mockit.Deencapsulation;
 import mockit.Expectations;
 import mockit.Mocked;
 import mockit.NonStrictExpectations;
 import mockit.Verifications;
 import org.apache.commons.codec.EncoderException;
 import org.apache.commons.codec.binary.Base32;
+import org.junit.Before;
 import org.junit.Test;
 
 import javax.net.ssl.KeyManager;
@@ -99,6 +101,13 @@ public class SecurityProviderTpmTest
 
     }
 
+    @Before
+    public void resetDefaultSslContext()
+    {
+        // The default SSLContext is shared by all security providers in the process, so each test starts without one
+        Deencapsulation.setField(SecurityProvider.class, "defaultSslContext", null);
+    }
+
     //SRS_SecurityClientTpm_25_001: [ This method shall retrieve the EnrollmentKey from the implementation of this abstract class. ]
     //SRS_SecurityClientTpm_25_002: [ This method shall hash the EnrollmentKey using SHA-256. ]
     //SRS_SecurityClientTpm_25_003: [ This method shall convert the resultant hash to Base32 to convert all the data to be case agnostic and remove "=" from the string. ]
@@ -167,4 +176,86 @@ public class SecurityProviderTpmTest
         //act
         securityClientTpm.getSSLContext();
     }
+
+    @Test
+    public void getSSLContextReturnsCachedInstance() throws SecurityProviderException, KeyManagementException, NoSuchAlgorithmException
+    {
+        //arrange
+        new Expectations()
+        {
+            {
+                SSLContext.getInstance("TLSv1.2");
+                result = mockedSslContext;
+                times = 1;
+
+                mockedSslContext.init(null, null, (SecureRandom) any);
+                times = 1;
+            }
+        };
+
+        SecurityProviderTpm securityClientTpm = new SecurityProviderTPMTestImpl(ENROLLMENT_KEY);
+
+        //act
+        SSLContext firstSslContext = securityClientTpm.getSSLContext();
+        SSLContext secondSslContext = securityClientTpm.getSSLContext();
+
+        //assert
+        assertSame(firstSslContext, secondSslContext);
+    }
+
+    @Test
+    public void getSSLContextRetriesAfterFailure() throws SecurityProviderException, NoSuchAlgorithmException
+    {
+        //arrange
+        new Expectations()
+        {
+            {
+                SSLContext.getInstance("TLSv1.2");
+                result = new NoSuchAlgorithmException();
+                result = mockedSslContext;
+            }
+        };
+
+        SecurityProviderTpm securityClientTpm = new SecurityProviderTPMTestImpl(ENROLLMENT_KEY);
+
+        try
+        {
+            securityClientTpm.getSSLContext();
+            fail("Expected the first SSLContext creation to fail");
+        }
+        catch (SecurityProviderException e)
+        {
+            // expected
+        }
+
+        //act
+        SSLContext sslContext = securityClientTpm.getSSLContext();
+
+        //assert
+        assertSame(mockedSslContext, sslContext);
+    }
+
+    @Test
+    public void getSSLContextReturnsInstanceSharedBySecurityProviders() throws SecurityProviderException, NoSuchAlgorithmException
+    {
+        //arrange
+        new Expectations()
+        {
+            {
+                SSLContext.getInstance("TLSv1.2");
+                result = mockedSslContext;
+                times = 1;
+            }
+        };
+
+        SecurityProviderTpm securityClientTpm = new SecurityProviderTPMTestImpl(ENROLLMENT_KEY);
+        SecurityProviderTpm otherSecurityClientTpm = new SecurityProviderTPMTestImpl(ENROLLMENT_KEY);
+
+        //act
+        SSLContext firstSslContext = securityClientTpm.getSSLContext();
+        SSLContext secondSslContext = otherSecurityClientTpm.getSSLContext();
+
+        //assert
+        assertSame(firstSslContext, secondSslContext);
+    }
 }
@@ -20,6 +20,7 @@ import java.util.Collection;
 import java.util.LinkedList;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 /*
  *  Unit tests for SecurityProviderX509 and SecurityProvider
@@ -32,6 +33,9 @@ public class SecurityProviderX509Test
     @Mocked
     X509Certificate mockedX509Certificate;
 
+    @Mocked
+    X509Certificate mockedRenewedX509Certificate;
+
     @Mocked
     Key mockedKey;
 
@@ -65,7 +69,7 @@ public class SecurityProviderX509Test
     static class SecurityProviderX509TestImpl extends SecurityProviderX509
     {
         private final String cn;
-        private final X509Certificate x509Certificate;
+        private X509Certificate x509Certificate;
         private final Key key;
         private final Collection<X509Certificate> certificates;
 
@@ -161,6 +165,41 @@ public class SecurityProviderX509Test
         };
     }
 
+    @Test
+    public void getSslContextReturnsCachedInstanceUntilCertificateChanges() throws SecurityProviderException, KeyManagementException, KeyStoreException
+    {
+        //arrange
+        Collection<X509Certificate> certificates = new LinkedList<>();
+        certificates.add(mockedX509Certificate);
+
+        SecurityProviderX509 securityClientX509Test = new SecurityProviderX509TestImpl(TEST_COMMON_NAME, mockedX509Certificate, mockedKey, certificates);
+        new NonStrictExpectations()
+        {
+            {
+                mockedKeyManagerFactory.getKeyManagers();
+                result = mockedX509KeyManager;
+            }
+        };
+
+        //act
+        SSLContext firstSslContext = securityClientX509Test.getSSLContext();
+        SSLContext secondSslContext = securityClientX509Test.getSSLContext();
+        Deencapsulation.setField(securityClientX509Test, "x509Certificate", mockedRenewedX509Certificate);
+        securityClientX509Test.getSSLContext();
+
+        //assert
+        assertSame(firstSslContext, secondSslContext);
+        new Verifications()
+        {
+            {
+                mockedKeyStore.setKeyEntry(anyString, mockedKey, (char[]) any, (X509Certificate[]) any);
+                times = 2;
+                mockedSslContext.init((KeyManager[]) any, (TrustManager[]) any, (SecureRandom) any);
+                times = 2;
+            }
+        };
+    }
+
     //SRS_SecurityClientX509_25_006: [ This method shall throw IllegalArgumentException if input parameters are null. ]
     @Test (expected = IllegalArgumentException.class)
     public void getSslContextThrowsOnNullLeaf() throws SecurityProviderException, KeyManagementException, KeyStoreException
@@ -60,6 +60,9 @@ public class SecurityProviderTPMEmulator extends SecurityProviderTpm
     private final TPMT_PUBLIC srkPublic;
     private TPM2B_PUBLIC idKeyPub = null;
 
+    // The input buffer size is fixed for a given TPM, so it is only queried once rather than on every signature
+    private int maxInputBuffer = 0;
+
     private static final int MILLISECONDS_BETWEEN_TPM_CONNECTION_ATTEMPTS = 1000; //1 second
 
     /**
@@ -297,11 +300,21 @@ public class SecurityProviderTPMEmulator extends SecurityProviderTpm
         }
     }
 
+    private int getMaxInputBuffer(Tpm tpm)
+    {
+        if (maxInputBuffer == 0)
+        {
+            maxInputBuffer = TpmHelpers.getTpmProperty(tpm, TPM_PT.INPUT_BUFFER);
+        }
+
+        return maxInputBuffer;
+    }
+
     // NOTE: For now only HMAC signing is supported.
     private byte[] signData(Tpm tpm, TPMT_PUBLIC idKeyPub, byte[] tokenData) throws SecurityProviderException
     {
         TPM_ALG_ID	idKeyHashAlg = ((TPMS_SCHEME_HMAC)((TPMS_KEYEDHASH_PARMS)idKeyPub.parameters).scheme).hashAlg;
-        int 		MaxInputBuffer = TpmHelpers.getTpmProperty(tpm, TPM_PT.INPUT_BUFFER);
+        int 		MaxInputBuffer = getMaxInputBuffer(tpm);
 
         if (tokenData.length <= MaxInputBuffer)
         {
@@ -335,7 +348,7 @@ public class SecurityProviderTPMEmulator extends SecurityProviderTpm
      * @throws SecurityProviderException If activation was not successful.
      */
     @Override
-    public byte[] activateIdentityKey(byte[] key) throws SecurityProviderException
+    public synchronized byte[] activateIdentityKey(byte[] key) throws SecurityProviderException
     {
         TpmBuffer actBlob = new TpmBuffer(Arrays.copyOfRange(key, 0, key.length));
 
@@ -424,7 +437,7 @@ public class SecurityProviderTPMEmulator extends SecurityProviderTpm
         // A recommended alternative for the actual SDK code is to use the symmetric algorithm from a software crypto library
         //
 
-        int maxUriDataSize = TpmHelpers.getTpmProperty(tpm, TPM_PT.INPUT_BUFFER);
+        int maxUriDataSize = getMaxInputBuffer(tpm);
 
         if (encUriData.buffer.length > maxUriDataSize)
         {
@@ -490,7 +503,7 @@ public class SecurityProviderTPMEmulator extends SecurityProviderTpm
      * @throws SecurityProviderException If signing was not successful
      */
     @Override
-    public byte[] signWithIdentity(byte[] deviceIdData) throws SecurityProviderException
+    public synchronized byte[] signWithIdentity(byte[] deviceIdData) throws SecurityProviderException
     {
         if (deviceIdData == null || deviceIdData.length == 0)
         {
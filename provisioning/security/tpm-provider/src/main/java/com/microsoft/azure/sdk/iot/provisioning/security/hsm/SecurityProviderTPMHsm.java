@@ -55,6 +55,9 @@ public class SecurityProviderTPMHsm extends SecurityProviderTpm
     private final TPMT_PUBLIC srkPublic;
     private TPM2B_PUBLIC idKeyPub = null;
 
+    // The input buffer size is fixed for a given TPM, so it is only queried once rather than on every signature
+    private int maxInputBuffer = 0;
+
     /**
      * Constructor for creating a Security Provider on TPM hardware
      * @throws SecurityProviderException If the constructor could not start the TPM
@@ -167,11 +170,21 @@ public class SecurityProviderTPMHsm extends SecurityProviderTpm
         }
     }
 
+    private int getMaxInputBuffer(Tpm tpm)
+    {
+        if (maxInputBuffer == 0)
+        {
+            maxInputBuffer = TpmHelpers.getTpmProperty(tpm, TPM_PT.INPUT_BUFFER);
+        }
+
+        return maxInputBuffer;
+    }
+
     // NOTE: For now only HMAC signing is supported.
     private byte[] signData(Tpm tpm, TPMT_PUBLIC idKeyPub, byte[] tokenData) throws SecurityProviderException
     {
         TPM_ALG_ID	idKeyHashAlg = ((TPMS_SCHEME_HMAC)((TPMS_KEYEDHASH_PARMS)idKeyPub.parameters).scheme).hashAlg;
-        int 		MaxInputBuffer = TpmHelpers.getTpmProperty(tpm, TPM_PT.INPUT_BUFFER);
+        int 		MaxInputBuffer = getMaxInputBuffer(tpm);
 
         if (tokenData.length <= MaxInputBuffer)
         {
@@ -205,7 +218,7 @@ public class SecurityProviderTPMHsm extends SecurityProviderTpm
      * @throws SecurityProviderException If activation was not successful.
      */
     @Override
-    public byte[] activateIdentityKey(byte[] key) throws SecurityProviderException
+    public synchronized byte[] activateIdentityKey(byte[] key) throws SecurityProviderException
     {
         TpmBuffer actBlob = new TpmBuffer(Arrays.copyOfRange(key, 0, key.length));
 
@@ -294,7 +307,7 @@ public class SecurityProviderTPMHsm extends SecurityProviderTpm
         // A recommended alternative for the actual SDK code is to use the symmetric algorithm from a software crypto library
         //
 
-        int maxUriDataSize = TpmHelpers.getTpmProperty(tpm, TPM_PT.INPUT_BUFFER);
+        int maxUriDataSize = getMaxInputBuffer(tpm);
 
         if (encUriData.buffer.length > maxUriDataSize)
         {
@@ -360,7 +373,7 @@ public class SecurityProviderTPMHsm extends SecurityProviderTpm
      * @throws SecurityProviderException If signing was not successful
      */
     @Override
-    public byte[] signWithIdentity(byte[] deviceIdData) throws SecurityProviderException
+    public synchronized byte[] signWithIdentity(byte[] deviceIdData) throws SecurityProviderException
     {
         if (deviceIdData == null || deviceIdData.length == 0)
         {
@@ -0,0 +1,171 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.azure.sdk.iot.service.auth;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class generates SAS tokens from a connection string's shared access policy but caches previous tokens when they
+ * aren't near expiry. It is the connection string equivalent of {@link TokenCredentialCache}.
+ *
+ * <p>
+ * Instances of this class are thread safe. Clients that are constructed from the same connection string can share a
+ * single instance through {@link #getSharedInstance(IotHubConnectionString)} so that a token signed for one client's
+ * request is reused by the others. A shared instance is only kept for as long as a client uses it, and it is looked up
+ * by a hash of the shared access policy so that the cache itself doesn't keep any shared access keys in memory.
+ * </p>
+ */
+public class IotHubServiceSasTokenCache
+{
+    private final static int MINUTES_BEFORE_PROACTIVE_RENEWAL = 9;
+
+    // Keyed by a hash of the hub, shared access policy name and shared access key. The instances are held weakly so
+    // that the entries of clients that have been closed and collected don't stay in memory for the life of the process.
+    private static final Map<String, SharedInstanceReference> SHARED_INSTANCES = new HashMap<>();
+    private static final ReferenceQueue<IotHubServiceSasTokenCache> RELEASED_SHARED_INSTANCES = new ReferenceQueue<>();
+
+    private final IotHubConnectionString iotHubConnectionString;
+    private final Object tokenLock = new Object();
+    private volatile IotHubServiceSasToken sasToken;
+
+    /**
+     * Construct a new IotHubServiceSasTokenCache instance.
+     * @param iotHubConnectionString The connection string whose shared access policy will be used to sign new tokens.
+     */
+    public IotHubServiceSasTokenCache(IotHubConnectionString iotHubConnectionString)
+    {
+        Objects.requireNonNull(iotHubConnectionString, "iotHubConnectionString cannot be null");
+
+        this.iotHubConnectionString = iotHubConnectionString;
+    }
+
+    /**
+     * Get the cache instance that is shared by every caller that uses the same hub, shared access policy name and
+     * shared access key. A new instance is created the first time a given combination is requested, or when the previous
+     * instance is no longer used by any client.
+     * @param iotHubConnectionString The connection string whose shared access policy will be used to sign new tokens.
+     * @return the shared cache for the provided connection string.
+     */
+    public static IotHubServiceSasTokenCache getSharedInstance(IotHubConnectionString iotHubConnectionString)
+    {
+        Objects.requireNonNull(iotHubConnectionString, "iotHubConnectionString cannot be null");
+
+        String key = hashSharedAccessPolicy(iotHubConnectionString);
+
+        synchronized (SHARED_INSTANCES)
+        {
+            removeReleasedSharedInstances();
+
+            SharedInstanceReference sharedInstanceReference = SHARED_INSTANCES.get(key);
+            IotHubServiceSasTokenCache sharedInstance = sharedInstanceReference == null ? null : sharedInstanceReference.get();
+            if (sharedInstance == null)
+            {
+                sharedInstance = new IotHubServiceSasTokenCache(iotHubConnectionString);
+                SHARED_INSTANCES.put(key, new SharedInstanceReference(key, sharedInstance));
+            }
+
+            return sharedInstance;
+        }
+    }
+
+    /**
+     * Get a valid SAS token. This may be the same as a previously returned token if it is not near expiration time yet.
+     * If a token is less than or equal to 9 minutes away from expiring or is expired already, the token will be renewed.
+     * Otherwise, a cached token will be returned.
+     * @return a valid SAS token.
+     */
+    public IotHubServiceSasToken getSasToken()
+    {
+        IotHubServiceSasToken currentToken = this.sasToken;
+        if (currentToken != null && !isSasTokenCloseToExpiry(currentToken))
+        {
+            return currentToken;
+        }
+
+        synchronized (this.tokenLock)
+        {
+            // Another thread may have renewed the token while this thread was waiting for the lock
+            if (this.sasToken == null || isSasTokenCloseToExpiry(this.sasToken))
+            {
+                this.sasToken = new IotHubServiceSasToken(this.iotHubConnectionString);
+            }
+
+            return this.sasToken;
+        }
+    }
+
+    /**
+     * Get the SAS token string.
+     * @return the SAS token string.
+     */
+    public String getTokenString()
+    {
+        return getSasToken().toString();
+    }
+
+    /**
+     * @return the connection string that was set in the constructor.
+     */
+    public IotHubConnectionString getIotHubConnectionString()
+    {
+        return this.iotHubConnectionString;
+    }
+
+    private static void removeReleasedSharedInstances()
+    {
+        Reference<? extends IotHubServiceSasTokenCache> releasedReference;
+        while ((releasedReference = RELEASED_SHARED_INSTANCES.poll()) != null)
+        {
+            SharedInstanceReference releasedSharedInstance = (SharedInstanceReference) releasedReference;
+
+            // The key may already map to a newer instance that replaced the released one
+            SHARED_INSTANCES.remove(releasedSharedInstance.key, releasedSharedInstance);
+        }
+    }
+
+    private static String hashSharedAccessPolicy(IotHubConnectionString iotHubConnectionString)
+    {
+        String sharedAccessPolicy = iotHubConnectionString.getHostName()
+            + "\n" + iotHubConnectionString.getSharedAccessKeyName()
+            + "\n" + iotHubConnectionString.getSharedAccessKey();
+
+        try
+        {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(messageDigest.digest(sharedAccessPolicy.getBytes(StandardCharsets.UTF_8)));
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            // Every Java platform is required to support SHA-256
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static boolean isSasTokenCloseToExpiry(IotHubServiceSasToken sasToken)
+    {
+        long remainingTimeToLiveMillis = sasToken.getExpiryTimeMillis() - System.currentTimeMillis();
+        return remainingTimeToLiveMillis <= TimeUnit.MINUTES.toMillis(MINUTES_BEFORE_PROACTIVE_RENEWAL);
+    }
+
+    private static final class SharedInstanceReference extends WeakReference<IotHubServiceSasTokenCache>
+    {
+        private final String key;
+
+        SharedInstanceReference(String key, IotHubServiceSasTokenCache sharedInstance)
+        {
+            super(sharedInstance, RELEASED_SHARED_INSTANCES);
+            this.key = key;
+        }
+    }
+}
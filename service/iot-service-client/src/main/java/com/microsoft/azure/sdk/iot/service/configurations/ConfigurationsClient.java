@@ -8,7 +8,7 @@ import com.azure.core.credential.TokenCredential;
 import com.google.gson.Gson;
 import com.microsoft.azure.sdk.iot.service.auth.IotHubConnectionString;
 import com.microsoft.azure.sdk.iot.service.auth.IotHubConnectionStringBuilder;
-import com.microsoft.azure.sdk.iot.service.auth.IotHubServiceSasToken;
+import com.microsoft.azure.sdk.iot.service.auth.IotHubServiceSasTokenCache;
 import com.microsoft.azure.sdk.iot.service.auth.TokenCredentialCache;
 import com.microsoft.azure.sdk.iot.service.configurations.serializers.ConfigurationParser;
 import com.microsoft.azure.sdk.iot.service.exceptions.IotHubException;
@@ -34,10 +34,13 @@ import java.util.Objects;
 @Slf4j
 public class ConfigurationsClient
 {
+    private static final Gson gson = new Gson();
+
     private final String hostName;
     private TokenCredentialCache credentialCache;
     private AzureSasCredential azureSasCredential;
     private IotHubConnectionString iotHubConnectionString;
+    private IotHubServiceSasTokenCache sasTokenCache;
 
     private final ConfigurationsClientOptions options;
 
@@ -72,6 +75,8 @@ public class ConfigurationsClient
         this.iotHubConnectionString =
             IotHubConnectionStringBuilder.createIotHubConnectionString(connectionString);
 
+        this.sasTokenCache = IotHubServiceSasTokenCache.getSharedInstance(this.iotHubConnectionString);
+
         this.hostName = iotHubConnectionString.getHostName();
         this.options = options;
         commonConstructorSetup();
@@ -229,7 +234,6 @@ public class ConfigurationsClient
         String bodyStr = new String(response.getBody(), StandardCharsets.UTF_8);
         List<Configuration> configurationList = new ArrayList<>();
 
-        Gson gson = new Gson();
         ConfigurationParser[] configurationParsers = gson.fromJson(bodyStr, ConfigurationParser[].class);
 
         for (int i = 0; i < configurationParsers.length; i++)
@@ -374,6 +378,6 @@ public class ConfigurationsClient
             return this.azureSasCredential.getSignature();
         }
 
-        return new IotHubServiceSasToken(iotHubConnectionString).toString();
+        return this.sasTokenCache.getTokenString();
     }
 }
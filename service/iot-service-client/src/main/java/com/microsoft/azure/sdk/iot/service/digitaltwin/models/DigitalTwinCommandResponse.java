@@ -3,13 +3,15 @@
 
 package com.microsoft.azure.sdk.iot.service.digitaltwin.models;
 
-import com.google.gson.GsonBuilder;
+import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 
 /**
  * Represents the device command invocation results.
  */
 public final class DigitalTwinCommandResponse {
+    private static final Gson gson = new Gson();
+
     /**
      * Command invocation result status, as supplied by the device.
      */
@@ -56,7 +58,7 @@ public final class DigitalTwinCommandResponse {
      */
     public <T> T getPayload(Class<T> clazz)
     {
-        return new GsonBuilder().create().fromJson(payload, clazz);
+        return gson.fromJson(payload, clazz);
     }
 
     public void setPayload(JsonElement payload)
@@ -20,6 +20,9 @@ import java.util.Date;
  */
 public class ScheduledJob
 {
+    private static final Gson gson = new Gson();
+    private static final Gson prettyPrintingGson = new GsonBuilder().disableHtmlEscaping().setPrettyPrinting().create();
+
     /**
      * The unique identifier for this job.
      */
@@ -164,7 +167,7 @@ public class ScheduledJob
                 {
                     this.outcomeResult = new DirectMethodResponse(
                         jobsResponseParser.getCloudToDeviceMethod().getStatus(),
-                        new GsonBuilder().create().toJsonTree(jobsResponseParser.getCloudToDeviceMethod().getPayload()));
+                        gson.toJsonTree(jobsResponseParser.getCloudToDeviceMethod().getPayload()));
                 }
                 catch (IllegalArgumentException e)
                 {
@@ -216,7 +219,6 @@ public class ScheduledJob
     @Override
     public String toString()
     {
-        Gson gson = new GsonBuilder().disableHtmlEscaping().setPrettyPrinting().create();
-        return gson.toJson(this);
+        return prettyPrintingGson.toJson(this);
     }
 }
@@ -15,7 +15,7 @@ import com.microsoft.azure.sdk.iot.service.twin.TwinCollection;
 import com.microsoft.azure.sdk.iot.service.twin.TwinState;
 import com.microsoft.azure.sdk.iot.service.auth.IotHubConnectionString;
 import com.microsoft.azure.sdk.iot.service.auth.IotHubConnectionStringBuilder;
-import com.microsoft.azure.sdk.iot.service.auth.IotHubServiceSasToken;
+import com.microsoft.azure.sdk.iot.service.auth.IotHubServiceSasTokenCache;
 import com.microsoft.azure.sdk.iot.service.auth.TokenCredentialCache;
 import com.microsoft.azure.sdk.iot.service.twin.Twin;
 import com.microsoft.azure.sdk.iot.service.exceptions.IotHubException;
@@ -45,6 +45,7 @@ public final class ScheduledJobsClient
     private TokenCredentialCache credentialCache;
     private AzureSasCredential azureSasCredential;
     private IotHubConnectionString iotHubConnectionString;
+    private IotHubServiceSasTokenCache sasTokenCache;
     private final ScheduledJobsClientOptions clientOptions;
 
     // keep a queryClient within this client so that twins can be queried
@@ -75,6 +76,8 @@ public final class ScheduledJobsClient
         }
 
         this.iotHubConnectionString = IotHubConnectionStringBuilder.createIotHubConnectionString(connectionString);
+
+        this.sasTokenCache = IotHubServiceSasTokenCache.getSharedInstance(this.iotHubConnectionString);
         this.hostName = this.iotHubConnectionString.getHostName();
         this.clientOptions = clientOptions;
         commonConstructorSetup();
@@ -511,7 +514,7 @@ public final class ScheduledJobsClient
             return this.azureSasCredential.getSignature();
         }
 
-        return new IotHubServiceSasToken(iotHubConnectionString).toString();
+        return this.sasTokenCache.getTokenString();
     }
 
     private HttpRequest createRequest(URL url, HttpMethod method, byte[] payload) throws IOException
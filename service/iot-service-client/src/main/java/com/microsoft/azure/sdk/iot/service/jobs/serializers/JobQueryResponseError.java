@@ -16,6 +16,9 @@ import java.io.IOException;
 @SuppressWarnings("unused") // A number of private members are unused but may be filled in or used by serialization
 public class JobQueryResponseError
 {
+    private final transient static Gson gson = new GsonBuilder().disableHtmlEscaping().create();
+    private final transient static Gson gsonWithNulls = new GsonBuilder().serializeNulls().create();
+
     // Code for the error
     private static final String CODE_TAG = "code";
     @SerializedName(CODE_TAG)
@@ -44,7 +47,6 @@ public class JobQueryResponseError
             throw new IllegalArgumentException("Json is null or empty");
         }
 
-        Gson gson = new GsonBuilder().disableHtmlEscaping().create();
         JobQueryResponseError jobQueryResponseError;
         try
         {
@@ -78,7 +80,6 @@ public class JobQueryResponseError
     public String toJson()
     {
         //Codes_SRSJOB_QUERY_RESPONSE_ERROR_25_003: [The method shall build the json with the values provided to this object.]
-        Gson gson = new GsonBuilder().serializeNulls().create();
-        return gson.toJson(this);
+        return gsonWithNulls.toJson(this);
     }
 }
@@ -23,6 +23,8 @@ import java.util.TimeZone;
 @SuppressWarnings({"FieldCanBeLocal", "unused"})
 public class ScheduledJobParser
 {
+    private final transient static Gson gson = new GsonBuilder().disableHtmlEscaping().serializeNulls().create();
+
     private transient static final String DATEFORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'";
     private transient static final String TIMEZONE = "UTC";
     private transient static final String SCHEDULE_DEVICE_METHOD = "scheduleDeviceMethod";
@@ -155,7 +157,6 @@ public class ScheduledJobParser
      */
     public String toJson()
     {
-        Gson gson = new GsonBuilder().disableHtmlEscaping().serializeNulls().create();
         /* Codes_SRS_JOBSPARSER_21_013: [The toJson shall return a String with a json that represents the content of this class.] */
         return gson.toJson(this);
     }
@@ -16,6 +16,8 @@ import java.util.List;
  */
 public class FeedbackBatchMessage
 {
+    private static final Gson gson = new Gson();
+
     /**
      * Parse received Json and create FeedbackBatch object
      *
@@ -35,7 +37,6 @@ public class FeedbackBatchMessage
 
             if (!jsonString.equals(""))
             {
-                Gson gson = new Gson();
                 FeedbackRecordParser[] feedbackRecordParsers = gson.fromJson(jsonString, FeedbackRecordParser[].class);
 
                 if (feedbackRecordParsers.length > 0)
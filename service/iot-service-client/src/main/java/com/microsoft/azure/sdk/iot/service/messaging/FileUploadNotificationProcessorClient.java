@@ -97,6 +97,8 @@ public class FileUploadNotificationProcessorClient
                 options.getProxyOptions(),
                 options.getSslContext(),
                 options.getKeepAliveInterval());
+
+        this.eventReceivingConnectionHandler.setProcessorExecutor(options.getProcessorExecutor(), options.getMaxConcurrentProcessingCount());
     }
 
     /**
@@ -149,6 +151,8 @@ public class FileUploadNotificationProcessorClient
                 options.getProxyOptions(),
                 options.getSslContext(),
                 options.getKeepAliveInterval());
+
+        this.eventReceivingConnectionHandler.setProcessorExecutor(options.getProcessorExecutor(), options.getMaxConcurrentProcessingCount());
     }
 
     /**
@@ -201,6 +205,8 @@ public class FileUploadNotificationProcessorClient
                 options.getProxyOptions(),
                 options.getSslContext(),
                 options.getKeepAliveInterval());
+
+        this.eventReceivingConnectionHandler.setProcessorExecutor(options.getProcessorExecutor(), options.getMaxConcurrentProcessingCount());
     }
 
     /**
@@ -8,6 +8,7 @@ import lombok.Builder;
 import lombok.Getter;
 
 import javax.net.ssl.SSLContext;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 /**
@@ -17,6 +18,7 @@ import java.util.function.Consumer;
 public class FileUploadNotificationProcessorClientOptions
 {
     public static final int DEFAULT_KEEP_ALIVE_INTERVAL_IN_SECONDS = 230;
+    public static final int DEFAULT_MAX_CONCURRENT_PROCESSING_COUNT = 16;
 
     /**
      * The options that specify what proxy to tunnel through. If null, no proxy will be used
@@ -48,4 +50,22 @@ public class FileUploadNotificationProcessorClientOptions
     @Getter
     @Builder.Default
     private final int keepAliveInterval = DEFAULT_KEEP_ALIVE_INTERVAL_IN_SECONDS;
+
+    /**
+     * The executor to run the file upload notification processor on. If null (the default), the processor is run on the thread that
+     * receives file upload notifications from the service, one at a time, so a slow processor delays every later file upload notification. If set,
+     * up to {@link #getMaxConcurrentProcessingCount()} file upload notifications are processed at once on this executor, and each is
+     * acknowledged to the service once its processor returns. File upload notifications that have not been acknowledged when this
+     * client is stopped are redelivered by the service later.
+     */
+    @Getter
+    private final Executor processorExecutor;
+
+    /**
+     * The maximum number of file upload notifications that the service will send to this client before earlier ones have been
+     * acknowledged. Only used if {@link #getProcessorExecutor()} is set, in which case it must be greater than 0. The default value is 16.
+     */
+    @Getter
+    @Builder.Default
+    private final int maxConcurrentProcessingCount = DEFAULT_MAX_CONCURRENT_PROCESSING_COUNT;
 }
@@ -96,6 +96,8 @@ public class MessageFeedbackProcessorClient
                 options.getProxyOptions(),
                 options.getSslContext(),
                 options.getKeepAliveInterval());
+
+        this.eventReceivingConnectionHandler.setProcessorExecutor(options.getProcessorExecutor(), options.getMaxConcurrentProcessingCount());
     }
 
     /**
@@ -147,6 +149,8 @@ public class MessageFeedbackProcessorClient
                 options.getProxyOptions(),
                 options.getSslContext(),
                 options.getKeepAliveInterval());
+
+        this.eventReceivingConnectionHandler.setProcessorExecutor(options.getProcessorExecutor(), options.getMaxConcurrentProcessingCount());
     }
 
     /**
@@ -198,6 +202,8 @@ public class MessageFeedbackProcessorClient
                 options.getProxyOptions(),
                 options.getSslContext(),
                 options.getKeepAliveInterval());
+
+        this.eventReceivingConnectionHandler.setProcessorExecutor(options.getProcessorExecutor(), options.getMaxConcurrentProcessingCount());
     }
 
     /**
@@ -8,9 +8,11 @@ import lombok.Builder;
 import lombok.Getter;
 
 import javax.net.ssl.SSLContext;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 import static com.microsoft.azure.sdk.iot.service.messaging.FileUploadNotificationProcessorClientOptions.DEFAULT_KEEP_ALIVE_INTERVAL_IN_SECONDS;
+import static com.microsoft.azure.sdk.iot.service.messaging.FileUploadNotificationProcessorClientOptions.DEFAULT_MAX_CONCURRENT_PROCESSING_COUNT;
 
 /**
  * The optional parameters that can be configured for an {@link MessageFeedbackProcessorClient} instance.
@@ -48,4 +50,22 @@ public class MessageFeedbackProcessorClientOptions
     @Getter
     @Builder.Default
     private final int keepAliveInterval = DEFAULT_KEEP_ALIVE_INTERVAL_IN_SECONDS;
+
+    /**
+     * The executor to run the feedback message processor on. If null (the default), each feedback batch is processed on
+     * the thread that receives it from the service, one at a time, so a slow processor delays every later feedback batch.
+     * If set, up to {@link #getMaxConcurrentProcessingCount()} feedback batches are processed at once on this executor,
+     * and each is acknowledged to the service once the processor returns for it. Feedback batches that have not been
+     * acknowledged when this client is stopped will be sent again by the service later.
+     */
+    @Getter
+    private final Executor processorExecutor;
+
+    /**
+     * The maximum number of feedback batches that the service will send to this client before earlier ones have been
+     * acknowledged. Only used if {@link #getProcessorExecutor()} is set, in which case it must be greater than 0. The default value is 16.
+     */
+    @Getter
+    @Builder.Default
+    private final int maxConcurrentProcessingCount = DEFAULT_MAX_CONCURRENT_PROCESSING_COUNT;
 }
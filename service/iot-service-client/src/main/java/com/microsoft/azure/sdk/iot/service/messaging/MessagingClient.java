@@ -17,9 +17,13 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
 import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
@@ -46,6 +50,7 @@ public final class MessagingClient
     private final CloudToDeviceMessageConnectionHandler cloudToDeviceMessageConnectionHandler;
     private ReactorRunner reactorRunner;
     private final String hostName;
+    private final int maxUnacknowledgedMessageCount;
 
     /**
      * Construct a MessagingClient from the specified connection string
@@ -79,6 +84,7 @@ public final class MessagingClient
         }
 
         this.errorProcessor = options.getErrorProcessor();
+        this.maxUnacknowledgedMessageCount = validateMaxUnacknowledgedMessageCount(options);
         this.hostName = IotHubConnectionStringBuilder.createIotHubConnectionString(connectionString).getHostName();
         this.cloudToDeviceMessageConnectionHandler =
             new CloudToDeviceMessageConnectionHandler(
@@ -89,6 +95,8 @@ public final class MessagingClient
                 options.getSslContext(),
                 options.getKeepAliveInterval());
 
+        this.cloudToDeviceMessageConnectionHandler.setMaxUnacknowledgedMessageCount(this.maxUnacknowledgedMessageCount);
+
         commonConstructorSetup();
     }
 
@@ -143,6 +151,7 @@ public final class MessagingClient
         }
 
         this.errorProcessor = options.getErrorProcessor();
+        this.maxUnacknowledgedMessageCount = validateMaxUnacknowledgedMessageCount(options);
         this.hostName = hostName;
         this.cloudToDeviceMessageConnectionHandler =
             new CloudToDeviceMessageConnectionHandler(
@@ -154,6 +163,8 @@ public final class MessagingClient
                 options.getSslContext(),
                 options.getKeepAliveInterval());
 
+        this.cloudToDeviceMessageConnectionHandler.setMaxUnacknowledgedMessageCount(this.maxUnacknowledgedMessageCount);
+
         commonConstructorSetup();
     }
 
@@ -195,6 +206,7 @@ public final class MessagingClient
         }
 
         this.errorProcessor = options.getErrorProcessor();
+        this.maxUnacknowledgedMessageCount = validateMaxUnacknowledgedMessageCount(options);
         this.hostName = hostName;
         this.cloudToDeviceMessageConnectionHandler =
             new CloudToDeviceMessageConnectionHandler(
@@ -206,6 +218,8 @@ public final class MessagingClient
                 options.getSslContext(),
                 options.getKeepAliveInterval());
 
+        this.cloudToDeviceMessageConnectionHandler.setMaxUnacknowledgedMessageCount(this.maxUnacknowledgedMessageCount);
+
         commonConstructorSetup();
     }
 
@@ -214,6 +228,16 @@ public final class MessagingClient
         log.debug("Initialized a MessagingClient instance using SDK version {}", TransportUtils.serviceVersion);
     }
 
+    private static int validateMaxUnacknowledgedMessageCount(MessagingClientOptions options)
+    {
+        if (options.getMaxUnacknowledgedMessageCount() < 1)
+        {
+            throw new IllegalArgumentException("maxUnacknowledgedMessageCount must be greater than 0");
+        }
+
+        return options.getMaxUnacknowledgedMessageCount();
+    }
+
     /**
      * Open this client so that it can begin sending cloud to device and/or cloud to module messages. Once opened, you should
      * call {@link #close()} once no more messages will be sent in order to free up network resources. If this
@@ -544,6 +568,166 @@ public final class MessagingClient
         this.cloudToDeviceMessageConnectionHandler.sendAsync(deviceId, moduleId, message, onMessageSentCallback, context);
     }
 
+    /**
+     * Send many cloud to device or cloud to module messages and wait for all of them to be acknowledged by the service,
+     * waiting indefinitely.
+     *
+     * @param messages the messages to send.
+     * @return the outcome of sending the messages.
+     * @throws InterruptedException If this function is interrupted while waiting for the messages to be acknowledged
+     * by the service.
+     * @throws IllegalStateException if the client has not been opened yet, or is closed for any other reason such as
+     * connectivity loss, or if this is called from a callback of this client.
+     * @see #sendAll(Iterable, Consumer, int)
+     */
+    public SendAllResult sendAll(Iterable<OutgoingMessage> messages) throws InterruptedException, IllegalStateException
+    {
+        try
+        {
+            return this.sendAll(messages, null, 0);
+        }
+        catch (TimeoutException e)
+        {
+            // unreachable, a timeout of 0 means to wait indefinitely
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Send many cloud to device or cloud to module messages and wait for all of them to be acknowledged by the service.
+     * <p>
+     *     The messages are pipelined over the connection rather than being sent one at a time. At most
+     *     {@link MessagingClientOptions#getMaxUnacknowledgedMessageCount()} messages are in flight at once, and the
+     *     provided iterable is only read as quickly as the service acknowledges messages, so it may lazily produce a
+     *     very large number of messages without them all being held in memory. A message that fails to send does not
+     *     stop the others from being sent; it is reported in the returned {@link SendAllResult} instead.
+     * </p>
+     * <p>
+     *     This method must not be called from the onMessageSentCallback of any send, or from any other callback of this
+     *     client. Those callbacks run on the thread that receives the service's acknowledgements, so that thread can't
+     *     wait for more of them.
+     * </p>
+     * @param messages the messages to send.
+     * @param onMessageSentCallback the callback that will be executed for each message when it has either successfully
+     * been sent, or has failed to send. The context of each {@link SendResult} is the {@link OutgoingMessage} it is for.
+     * May be null.
+     * @param timeoutMilliseconds the maximum number of milliseconds to wait for all of the messages to be sent and
+     * acknowledged. If 0, then this method will wait indefinitely.
+     * @return the outcome of sending the messages.
+     * @throws InterruptedException If this function is interrupted while waiting for the messages to be acknowledged
+     * by the service.
+     * @throws TimeoutException If the messages aren't all acknowledged by the service within the provided timeout.
+     * @throws IllegalStateException if the client has not been opened yet, or is closed for any other reason such as
+     * connectivity loss, or if this is called from a callback of this client.
+     */
+    public SendAllResult sendAll(Iterable<OutgoingMessage> messages, Consumer<SendResult> onMessageSentCallback, int timeoutMilliseconds)
+        throws InterruptedException, TimeoutException, IllegalStateException
+    {
+        Objects.requireNonNull(messages, "messages cannot be null");
+
+        if (timeoutMilliseconds < 0)
+        {
+            throw new IllegalArgumentException("timeoutMilliseconds must be greater than or equal to 0");
+        }
+
+        if (this.cloudToDeviceMessageConnectionHandler.isReactorThread())
+        {
+            // Waiting here would stop the reactor from delivering the acknowledgements that release the permits below
+            throw new IllegalStateException("sendAll cannot be called from a callback of this client since those callbacks run on the thread that delivers the acknowledgements that sendAll waits for");
+        }
+
+        long startTimeNanos = System.nanoTime();
+        long deadlineNanos = startTimeNanos + TimeUnit.MILLISECONDS.toNanos(timeoutMilliseconds);
+
+        // One permit per message that may be in flight. Taking a permit before sending each message keeps this method
+        // from queueing messages faster than the service acknowledges them.
+        Semaphore inFlightPermits = new Semaphore(this.maxUnacknowledgedMessageCount);
+        AtomicInteger successCount = new AtomicInteger();
+        Queue<SendResult> failedResults = new ConcurrentLinkedQueue<>();
+        int sentCount = 0;
+
+        Consumer<SendResult> onMessageAcknowledgedCallback = sendResult ->
+        {
+            if (sendResult.wasSentSuccessfully())
+            {
+                successCount.incrementAndGet();
+            }
+            else
+            {
+                failedResults.add(sendResult);
+            }
+
+            try
+            {
+                if (onMessageSentCallback != null)
+                {
+                    onMessageSentCallback.accept(sendResult);
+                }
+            }
+            finally
+            {
+                inFlightPermits.release();
+            }
+        };
+
+        for (OutgoingMessage message : messages)
+        {
+            acquirePermits(inFlightPermits, 1, timeoutMilliseconds, deadlineNanos);
+
+            try
+            {
+                this.sendAsync(message.getDeviceId(), message.getModuleId(), message.getMessage(), onMessageAcknowledgedCallback, message);
+            }
+            catch (RuntimeException e)
+            {
+                inFlightPermits.release();
+                throw e;
+            }
+
+            sentCount++;
+        }
+
+        // every permit is returned once every sent message has been acknowledged
+        acquirePermits(inFlightPermits, this.maxUnacknowledgedMessageCount, timeoutMilliseconds, deadlineNanos);
+
+        long durationMilliseconds = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTimeNanos);
+        log.debug("Finished sending {} cloud to device messages in {} milliseconds", sentCount, durationMilliseconds);
+
+        return new SendAllResult(sentCount, successCount.get(), failedResults, durationMilliseconds);
+    }
+
+    private static void acquirePermits(Semaphore permits, int permitCount, int timeoutMilliseconds, long deadlineNanos)
+        throws InterruptedException, TimeoutException
+    {
+        if (timeoutMilliseconds == 0)
+        {
+            // wait indefinitely
+            permits.acquire(permitCount);
+        }
+        else if (!permits.tryAcquire(permitCount, deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS))
+        {
+            throw new TimeoutException("Timed out waiting for messages to be acknowledged");
+        }
+    }
+
+    /**
+     * @return the number of cloud to device messages that have been queued by this client but not yet sent to the
+     * service. Messages stay queued while the service has not granted enough link credit, or while
+     * {@link MessagingClientOptions#getMaxUnacknowledgedMessageCount()} messages are awaiting acknowledgement.
+     */
+    public int getQueuedMessageCount()
+    {
+        return this.cloudToDeviceMessageConnectionHandler.getQueuedMessageCount();
+    }
+
+    /**
+     * @return the number of cloud to device messages that have been sent to the service but not yet acknowledged by it.
+     */
+    public int getUnacknowledgedMessageCount()
+    {
+        return this.cloudToDeviceMessageConnectionHandler.getUnacknowledgedMessageCount();
+    }
+
     /**
      * Returns true if this client is currently open and false otherwise. This client may lose connectivity due to network issues,
      * so this value may be false even if you have not closed the client yourself. Monitoring the optional errorProcessor
@@ -1,6 +1,7 @@
 package com.microsoft.azure.sdk.iot.service.messaging;
 
 import com.microsoft.azure.sdk.iot.service.ProxyOptions;
+import com.microsoft.azure.sdk.iot.service.transport.amqps.CloudToDeviceMessageSenderLinkHandler;
 import lombok.Builder;
 import lombok.Getter;
 
@@ -45,4 +46,13 @@ public final class MessagingClientOptions
     @Getter
     @Builder.Default
     private final int keepAliveInterval = DEFAULT_KEEP_ALIVE_INTERVAL_IN_SECONDS;
+
+    /**
+     * The maximum number of cloud to device messages that may be sent to the service without having been acknowledged
+     * by it yet. Messages beyond this limit stay queued until earlier messages are acknowledged. The service's link
+     * credit further limits how many messages are sent at a time. The default value is 1000.
+     */
+    @Getter
+    @Builder.Default
+    private final int maxUnacknowledgedMessageCount = CloudToDeviceMessageSenderLinkHandler.DEFAULT_MAX_UNACKNOWLEDGED_MESSAGE_COUNT;
 }
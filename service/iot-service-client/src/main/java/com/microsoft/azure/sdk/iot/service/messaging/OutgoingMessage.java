@@ -0,0 +1,59 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.azure.sdk.iot.service.messaging;
+
+import lombok.Getter;
+
+import java.util.Objects;
+
+/**
+ * A cloud to device or cloud to module message along with the device, and optionally the module, that it is addressed
+ * to. Used for sending many messages at once with {@link MessagingClient#sendAll(Iterable)}.
+ */
+public final class OutgoingMessage
+{
+    /**
+     * The Id of the device to send the message to.
+     */
+    @Getter
+    private final String deviceId;
+
+    /**
+     * The Id of the module to send the message to. If null, the message is sent to the device itself.
+     */
+    @Getter
+    private final String moduleId;
+
+    /**
+     * The message to send.
+     */
+    @Getter
+    private final Message message;
+
+    /**
+     * Construct a message that will be sent to the device with the provided Id.
+     * @param deviceId the Id of the device to send the message to.
+     * @param message the message to send.
+     */
+    public OutgoingMessage(String deviceId, Message message)
+    {
+        this(deviceId, null, message);
+    }
+
+    /**
+     * Construct a message that will be sent to the module with the provided Id on the device with the provided Id.
+     * @param deviceId the Id of the device that contains the module that the message is being sent to.
+     * @param moduleId the Id of the module to send the message to. May be null to send the message to the device itself.
+     * @param message the message to send.
+     */
+    public OutgoingMessage(String deviceId, String moduleId, Message message)
+    {
+        Objects.requireNonNull(deviceId, "deviceId cannot be null");
+        Objects.requireNonNull(message, "message cannot be null");
+
+        this.deviceId = deviceId;
+        this.moduleId = moduleId;
+        this.message = message;
+    }
+}
@@ -0,0 +1,67 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.azure.sdk.iot.service.messaging;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of sending many cloud to device or cloud to module messages with {@link MessagingClient#sendAll(Iterable)}.
+ */
+public final class SendAllResult
+{
+    /**
+     * The number of messages that were sent.
+     */
+    @Getter
+    private final int totalCount;
+
+    /**
+     * The number of messages that were acknowledged by the service.
+     */
+    @Getter
+    private final int successCount;
+
+    /**
+     * The send results of the messages that failed to send. The context of each of these results is the
+     * {@link OutgoingMessage} that failed to send.
+     */
+    @Getter
+    private final List<SendResult> failedResults;
+
+    /**
+     * The number of milliseconds it took to send all the messages and for the service to acknowledge them.
+     */
+    @Getter
+    private final long durationMilliseconds;
+
+    SendAllResult(int totalCount, int successCount, Collection<SendResult> failedResults, long durationMilliseconds)
+    {
+        this.totalCount = totalCount;
+        this.successCount = successCount;
+        this.failedResults = Collections.unmodifiableList(new ArrayList<>(failedResults));
+        this.durationMilliseconds = durationMilliseconds;
+    }
+
+    /**
+     * @return the number of messages that failed to send.
+     */
+    public int getFailureCount()
+    {
+        return this.failedResults.size();
+    }
+
+    /**
+     * @return the average number of messages that were sent and acknowledged per second.
+     */
+    public double getMessagesPerSecond()
+    {
+        // avoid dividing by zero when the messages were all acknowledged within the same millisecond
+        return this.totalCount * 1000.0 / Math.max(1, this.durationMilliseconds);
+    }
+}
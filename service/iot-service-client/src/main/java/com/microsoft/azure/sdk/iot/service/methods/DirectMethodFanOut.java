@@ -0,0 +1,161 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.azure.sdk.iot.service.methods;
+
+import com.microsoft.azure.sdk.iot.service.exceptions.IotHubException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * A single {@link DirectMethodsClient#invokeAll} call. The invocations run on a pool of worker threads that is sized to
+ * the maximum concurrency and that is shut down once every invocation has completed or the call is cancelled. Cancelling
+ * the call lets the invocations that were already sent finish, and skips the ones that haven't been sent yet.
+ */
+@Slf4j
+final class DirectMethodFanOut
+{
+    private static final String THREAD_NAME_PREFIX = "azure-iot-sdk-DirectMethodsInvokeAll-";
+    private static final AtomicInteger FAN_OUT_COUNT = new AtomicInteger();
+
+    private final DirectMethodsClient client;
+    private final List<String> deviceIds;
+    private final String methodName;
+    private final DirectMethodRequestOptions requestOptions;
+    private final Consumer<DirectMethodInvocationResult> onResult;
+    private final ExecutorService executor;
+
+    private final CompletableFuture<DirectMethodInvocationStatistics> completion = new CompletableFuture<>();
+    private final long[] latenciesMilliseconds;
+    private final AtomicInteger completedCount = new AtomicInteger();
+    private final AtomicInteger successCount = new AtomicInteger();
+    private long startTimeNanos;
+
+    DirectMethodFanOut(
+        DirectMethodsClient client,
+        List<String> deviceIds,
+        String methodName,
+        DirectMethodsInvokeAllOptions options,
+        Consumer<DirectMethodInvocationResult> onResult)
+    {
+        this.client = client;
+        this.deviceIds = deviceIds;
+        this.methodName = methodName;
+        this.requestOptions = options.getRequestOptions();
+        this.onResult = onResult;
+        this.latenciesMilliseconds = new long[deviceIds.size()];
+
+        final String threadNamePrefix = THREAD_NAME_PREFIX + FAN_OUT_COUNT.incrementAndGet() + "-";
+        int threadCount = Math.max(1, Math.min(options.getMaxConcurrency(), deviceIds.size()));
+        this.executor = Executors.newFixedThreadPool(threadCount, new ThreadFactory()
+        {
+            private final AtomicInteger threadCount = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable)
+            {
+                Thread thread = new Thread(runnable, threadNamePrefix + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    CompletableFuture<DirectMethodInvocationStatistics> start()
+    {
+        // Cancelling the returned future stops any invocations that haven't been sent yet. The queued ones see that the
+        // call is done and return without sending, and the ones in progress aren't interrupted.
+        this.completion.whenComplete((statistics, throwable) -> this.executor.shutdown());
+
+        this.startTimeNanos = System.nanoTime();
+        if (this.deviceIds.isEmpty())
+        {
+            complete();
+            return this.completion;
+        }
+
+        try
+        {
+            for (int i = 0; i < this.deviceIds.size(); i++)
+            {
+                final int index = i;
+                this.executor.execute(() -> invoke(index));
+            }
+        }
+        catch (RejectedExecutionException e)
+        {
+            // the call was cancelled while its invocations were still being queued
+            log.debug("Direct method fan out was cancelled before all invocations were queued");
+        }
+
+        return this.completion;
+    }
+
+    private void invoke(int index)
+    {
+        if (this.completion.isDone())
+        {
+            // the call was cancelled before this invocation was sent
+            return;
+        }
+
+        String deviceId = this.deviceIds.get(index);
+        DirectMethodResponse response = null;
+        Exception exception = null;
+
+        long invocationStartTimeNanos = System.nanoTime();
+        try
+        {
+            response = this.client.invoke(deviceId, this.methodName, this.requestOptions);
+        }
+        catch (IotHubException | IOException | RuntimeException e)
+        {
+            // A RuntimeException is also recorded as this device's failure. Otherwise this invocation would never be
+            // counted as completed, and neither the returned future nor the worker pool would ever finish.
+            log.debug("Failed to invoke direct method {} on device {}", this.methodName, deviceId, e);
+            exception = e;
+        }
+
+        long latencyMilliseconds = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - invocationStartTimeNanos);
+
+        // each index is only written by one worker, and the completedCount increment below publishes it
+        this.latenciesMilliseconds[index] = latencyMilliseconds;
+        if (exception == null)
+        {
+            this.successCount.incrementAndGet();
+        }
+
+        if (this.onResult != null)
+        {
+            try
+            {
+                this.onResult.accept(new DirectMethodInvocationResult(deviceId, response, exception, latencyMilliseconds));
+            }
+            catch (Exception e)
+            {
+                log.warn("Direct method result callback threw an exception for device {}", deviceId, e);
+            }
+        }
+
+        if (this.completedCount.incrementAndGet() == this.deviceIds.size())
+        {
+            complete();
+        }
+    }
+
+    private void complete()
+    {
+        long totalDurationMilliseconds = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.startTimeNanos);
+        this.completion.complete(new DirectMethodInvocationStatistics(this.latenciesMilliseconds, this.successCount.get(), totalDurationMilliseconds));
+    }
+}
@@ -0,0 +1,51 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.azure.sdk.iot.service.methods;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The result of invoking a direct method on one of the devices of a
+ * {@link DirectMethodsClient#invokeAll(java.util.Collection, String, DirectMethodsInvokeAllOptions, java.util.function.Consumer)}
+ * call.
+ */
+@AllArgsConstructor
+public final class DirectMethodInvocationResult
+{
+    /**
+     * The Id of the device that the direct method was invoked on.
+     */
+    @Getter
+    private final String deviceId;
+
+    /**
+     * The device's response to the direct method. If the direct method could not be invoked, then this will be null.
+     */
+    @Getter
+    private final DirectMethodResponse response;
+
+    /**
+     * The exception encountered while invoking the direct method. This will be either an
+     * {@link com.microsoft.azure.sdk.iot.service.exceptions.IotHubException} or an {@link java.io.IOException}. If
+     * {@link #wasSuccessful()} returns true, then this value will be null.
+     */
+    @Getter
+    private final Exception exception;
+
+    /**
+     * The time, in milliseconds, between sending the direct method request and receiving its response.
+     */
+    @Getter
+    private final long latencyMilliseconds;
+
+    /**
+     * @return true if the device responded to the direct method, and false otherwise.
+     */
+    public boolean wasSuccessful()
+    {
+        // opting not to use lombok getter so that the naming can be improved
+        return this.exception == null;
+    }
+}
@@ -0,0 +1,112 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.azure.sdk.iot.service.methods;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Aggregate statistics of a
+ * {@link DirectMethodsClient#invokeAll(java.util.Collection, String, DirectMethodsInvokeAllOptions, java.util.function.Consumer)}
+ * call. Latencies include both successful and failed invocations.
+ */
+public final class DirectMethodInvocationStatistics
+{
+    /**
+     * The number of devices that the direct method was invoked on.
+     */
+    @Getter
+    private final int invocationCount;
+
+    /**
+     * The number of devices that responded to the direct method.
+     */
+    @Getter
+    private final int successCount;
+
+    /**
+     * The time, in milliseconds, from the first direct method request being sent to the last one completing.
+     */
+    @Getter
+    private final long totalDurationMilliseconds;
+
+    // sorted in ascending order
+    private final long[] latenciesMilliseconds;
+
+    DirectMethodInvocationStatistics(long[] latenciesMilliseconds, int successCount, long totalDurationMilliseconds)
+    {
+        this.latenciesMilliseconds = latenciesMilliseconds.clone();
+        Arrays.sort(this.latenciesMilliseconds);
+        this.invocationCount = latenciesMilliseconds.length;
+        this.successCount = successCount;
+        this.totalDurationMilliseconds = totalDurationMilliseconds;
+    }
+
+    /**
+     * @return the number of devices that the direct method could not be invoked on.
+     */
+    public int getFailureCount()
+    {
+        return this.invocationCount - this.successCount;
+    }
+
+    /**
+     * @return the shortest latency in milliseconds, or 0 if no direct methods were invoked.
+     */
+    public long getMinLatencyMilliseconds()
+    {
+        return this.invocationCount == 0 ? 0 : this.latenciesMilliseconds[0];
+    }
+
+    /**
+     * @return the longest latency in milliseconds, or 0 if no direct methods were invoked.
+     */
+    public long getMaxLatencyMilliseconds()
+    {
+        return this.invocationCount == 0 ? 0 : this.latenciesMilliseconds[this.invocationCount - 1];
+    }
+
+    /**
+     * @return the mean latency in milliseconds, or 0 if no direct methods were invoked.
+     */
+    public double getAverageLatencyMilliseconds()
+    {
+        if (this.invocationCount == 0)
+        {
+            return 0;
+        }
+
+        long totalLatency = 0;
+        for (long latency : this.latenciesMilliseconds)
+        {
+            totalLatency += latency;
+        }
+
+        return (double) totalLatency / this.invocationCount;
+    }
+
+    /**
+     * Get a latency percentile using the nearest rank method. For instance, a percentile of 99 returns the latency that
+     * 99% of the invocations completed within.
+     *
+     * @param percentile the percentile to get, greater than 0 and at most 100.
+     * @return the latency in milliseconds at the provided percentile, or 0 if no direct methods were invoked.
+     */
+    public long getLatencyPercentileMilliseconds(double percentile)
+    {
+        if (percentile <= 0 || percentile > 100)
+        {
+            throw new IllegalArgumentException("percentile must be greater than 0 and at most 100");
+        }
+
+        if (this.invocationCount == 0)
+        {
+            return 0;
+        }
+
+        int rank = (int) Math.ceil(percentile / 100 * this.invocationCount);
+        return this.latenciesMilliseconds[Math.max(rank, 1) - 1];
+    }
+}
@@ -5,7 +5,7 @@
 
 package com.microsoft.azure.sdk.iot.service.methods;
 
-import com.google.gson.GsonBuilder;
+import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import lombok.Getter;
 
@@ -14,6 +14,8 @@ import lombok.Getter;
  */
 public final class DirectMethodResponse
 {
+    private static final Gson gson = new Gson();
+
     /**
      * Status of the Invoke Method.
      */
@@ -57,6 +59,6 @@ public final class DirectMethodResponse
      */
     public <T> T getPayload(Class<T> clazz)
     {
-        return new GsonBuilder().create().fromJson(payload, clazz);
+        return gson.fromJson(payload, clazz);
     }
 }
@@ -3,13 +3,13 @@
 
 package com.microsoft.azure.sdk.iot.service.methods;
 
+import com.google.gson.Gson;
 import com.azure.core.credential.AzureSasCredential;
 import com.azure.core.credential.TokenCredential;
-import com.google.gson.GsonBuilder;
 import com.microsoft.azure.sdk.iot.service.auth.IotHubConnectionString;
 import com.microsoft.azure.sdk.iot.service.auth.IotHubConnectionStringBuilder;
 import com.microsoft.azure.sdk.iot.service.ProxyOptions;
-import com.microsoft.azure.sdk.iot.service.auth.IotHubServiceSasToken;
+import com.microsoft.azure.sdk.iot.service.auth.IotHubServiceSasTokenCache;
 import com.microsoft.azure.sdk.iot.service.auth.TokenCredentialCache;
 import com.microsoft.azure.sdk.iot.service.exceptions.IotHubException;
 import com.microsoft.azure.sdk.iot.service.methods.serializers.MethodParser;
@@ -23,7 +23,13 @@ import java.io.IOException;
 import java.net.Proxy;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import static com.microsoft.azure.sdk.iot.service.transport.http.HttpRequest.REQUEST_ID;
 
@@ -33,13 +39,16 @@ import static com.microsoft.azure.sdk.iot.service.transport.http.HttpRequest.REQ
 @Slf4j
 public final class DirectMethodsClient
 {
-    private Integer requestId = 0;
+    private static final Gson gson = new Gson();
+
+    private final AtomicInteger requestId = new AtomicInteger();
 
     private final DirectMethodsClientOptions options;
     private final String hostName;
     private TokenCredentialCache credentialCache;
     private AzureSasCredential azureSasCredential;
     private IotHubConnectionString iotHubConnectionString;
+    private IotHubServiceSasTokenCache sasTokenCache;
 
     /**
      * Create a DirectMethodsClient instance from the information in the connection string.
@@ -68,6 +77,7 @@ public final class DirectMethodsClient
         this.hostName = IotHubConnectionStringBuilder.createIotHubConnectionString(connectionString).getHostName();
         this.options = options;
         this.iotHubConnectionString = IotHubConnectionStringBuilder.createIotHubConnectionString(connectionString);
+        this.sasTokenCache = IotHubServiceSasTokenCache.getSharedInstance(this.iotHubConnectionString);
         commonConstructorSetup();
     }
 
@@ -238,6 +248,59 @@ public final class DirectMethodsClient
         return invokeMethod(url, methodName, options);
     }
 
+    /**
+     * Asynchronously invokes a method on each of the provided devices, with at most
+     * {@link DirectMethodsInvokeAllOptions#getMaxConcurrency()} requests in flight at once.
+     *
+     * <p>
+     *     Unlike {@link #invoke(String, String, DirectMethodRequestOptions)}, this function does not throw for devices that
+     *     fail to respond. Instead, each device's result, including any exception, is provided to the onResult callback as
+     *     soon as it completes. Results arrive in completion order rather than in the order of the provided device Ids,
+     *     and the callback may be executed concurrently from multiple threads. Cancelling the returned future stops the
+     *     requests that haven't been sent yet. Requests that are already in progress are allowed to finish, and their
+     *     results are still provided to the onResult callback.
+     * </p>
+     *
+     * @param deviceIds the Ids of the devices to invoke the method on. May not be null or contain null or empty Ids.
+     * @param methodName is the name of the method that shall be invoked on each device.
+     * @param options the optional parameters for these requests, including each method's payload. May not be null.
+     * @param onResult the callback that will be executed with the result of each device's invocation. May be null if
+     * only the aggregate statistics are needed.
+     * @return a future that completes with the aggregate statistics of all the invocations once every device's
+     * invocation has completed.
+     */
+    public CompletableFuture<DirectMethodInvocationStatistics> invokeAll(
+        Collection<String> deviceIds,
+        String methodName,
+        DirectMethodsInvokeAllOptions options,
+        Consumer<DirectMethodInvocationResult> onResult)
+    {
+        Objects.requireNonNull(deviceIds, "deviceIds cannot be null");
+        Objects.requireNonNull(options, "options cannot be null");
+
+        if (methodName == null || methodName.isEmpty())
+        {
+            throw new IllegalArgumentException("methodName is empty or null.");
+        }
+
+        if (options.getMaxConcurrency() <= 0)
+        {
+            throw new IllegalArgumentException("maxConcurrency must be greater than 0.");
+        }
+
+        List<String> deviceIdList = new ArrayList<>(deviceIds);
+        for (String deviceId : deviceIdList)
+        {
+            if (deviceId == null || deviceId.isEmpty())
+            {
+                throw new IllegalArgumentException("deviceIds cannot contain an empty or null deviceId.");
+            }
+        }
+
+        log.debug("Invoking direct method {} on {} devices with a max concurrency of {}", methodName, deviceIdList.size(), options.getMaxConcurrency());
+        return new DirectMethodFanOut(this, deviceIdList, methodName, options, onResult).start();
+    }
+
     private DirectMethodResponse invokeMethod(URL url, String methodName, DirectMethodRequestOptions options)
             throws IotHubException, IOException
     {
@@ -265,14 +328,14 @@ public final class DirectMethodsClient
 
         httpRequest.setReadTimeoutSeconds(this.options.getHttpReadTimeoutSeconds());
         httpRequest.setConnectTimeoutSeconds(this.options.getHttpConnectTimeoutSeconds());
-        httpRequest.setHeaderField(REQUEST_ID, String.valueOf(requestId++));
+        httpRequest.setHeaderField(REQUEST_ID, String.valueOf(requestId.getAndIncrement()));
 
         HttpResponse response = httpRequest.send();
 
         MethodParser methodParserResponse = new MethodParser();
         methodParserResponse.fromJson(new String(response.getBody(), StandardCharsets.UTF_8));
 
-        return new DirectMethodResponse(methodParserResponse.getStatus(), new GsonBuilder().create().toJsonTree(methodParserResponse.getPayload()));
+        return new DirectMethodResponse(methodParserResponse.getStatus(), gson.toJsonTree(methodParserResponse.getPayload()));
     }
 
     private String getAuthenticationToken()
@@ -289,6 +352,6 @@ public final class DirectMethodsClient
             return this.azureSasCredential.getSignature();
         }
 
-        return new IotHubServiceSasToken(iotHubConnectionString).toString();
+        return this.sasTokenCache.getTokenString();
     }
 }
@@ -0,0 +1,42 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.azure.sdk.iot.service.methods;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * The optional parameters for invoking a direct method on many devices at once with
+ * {@link DirectMethodsClient#invokeAll(Collection, String, DirectMethodsInvokeAllOptions, Consumer)}.
+ */
+@Builder
+public final class DirectMethodsInvokeAllOptions
+{
+    protected static final int DEFAULT_MAX_CONCURRENCY = 50;
+
+    /**
+     * The options for each individual direct method request, including the method's payload. By default, each request
+     * uses the defaults of {@link DirectMethodRequestOptions}.
+     */
+    @Getter
+    @Builder.Default
+    private final DirectMethodRequestOptions requestOptions = DirectMethodRequestOptions.builder().build();
+
+    /**
+     * The maximum number of direct method requests that will be in flight at once. By default, this value is
+     * {@link #DEFAULT_MAX_CONCURRENCY}. Must be greater than 0.
+     *
+     * <p>
+     * Requests are sent over the JVM's pooled keep-alive HTTPS connections, so connections are reused from one device's
+     * request to the next. The JVM only keeps a limited number of idle connections per host (see the
+     * {@code http.maxConnections} system property), so consider raising that limit along with this one.
+     * </p>
+     */
+    @Getter
+    @Builder.Default
+    private final int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+}
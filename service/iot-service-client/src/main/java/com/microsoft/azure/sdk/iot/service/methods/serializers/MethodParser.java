@@ -17,6 +17,8 @@ import static com.microsoft.azure.sdk.iot.service.ParserUtility.resolveJsonEleme
  */
 public class MethodParser
 {
+    private final transient static Gson gson = new Gson();
+
     protected enum Operation
     {
         invoke,
@@ -134,10 +136,9 @@ public class MethodParser
             throw new IllegalArgumentException("Invalid json.");
         }
 
-        JsonParser jsonParser = new JsonParser();
         try
         {
-            JsonElement jsonElement = jsonParser.parse(json);
+            JsonElement jsonElement = JsonParser.parseString(json);
             if (jsonElement instanceof JsonPrimitive || jsonElement instanceof JsonArray)
             {
                 /*
@@ -274,7 +275,7 @@ public class MethodParser
     @SuppressWarnings("unchecked")
     private JsonElement jsonizePayload(Object payload)
     {
-        return new GsonBuilder().create().toJsonTree(payload);
+        return gson.toJsonTree(payload);
     }
 
     /**
@@ -3,9 +3,8 @@
 
 package com.microsoft.azure.sdk.iot.service.query;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.microsoft.azure.sdk.iot.service.exceptions.IotHubBadFormatException;
 import com.microsoft.azure.sdk.iot.service.exceptions.IotHubException;
 import com.microsoft.azure.sdk.iot.service.exceptions.IotHubUnauthorizedException;
 import com.microsoft.azure.sdk.iot.service.jobs.ScheduledJob;
@@ -16,19 +15,22 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A pageable set of {@link ScheduledJob} objects returned from a query.
+ *
+ * <p>
+ * Each job is parsed from the page's json only when it is returned by {@link #next()}. Instances of this class are
+ * not thread safe.
+ * </p>
  */
 public class JobQueryResponse
 {
-    private final transient Gson gson;
-
     Iterator<ScheduledJob> jobs;
 
     @Setter(AccessLevel.PACKAGE) // value is retrieved from header, not json payload
@@ -40,18 +42,11 @@ public class JobQueryResponse
     final ScheduledJobType jobType;
     final ScheduledJobStatus jobStatus;
 
+    private QueryPageFetcher<JobQueryResponse> pageFetcher;
+
     JobQueryResponse(String json, QueryClient queryClient, String originalQuery)
     {
-        gson = new GsonBuilder().disableHtmlEscaping().create();
-
-        JsonObject[] twinJsonArray = gson.fromJson(json, JsonObject[].class);
-        List<ScheduledJob> jobsArray = new ArrayList<>();
-        for (JsonObject twinJson : twinJsonArray)
-        {
-            jobsArray.add(new ScheduledJob(twinJson.toString()));
-        }
-
-        this.jobs = jobsArray.iterator();
+        this.jobs = new JsonArrayIterator<>(json, jobJson -> new ScheduledJob(jobJson.toString()));
 
         this.queryClient = queryClient;
         this.originalQuery = originalQuery;
@@ -61,16 +56,7 @@ public class JobQueryResponse
 
     JobQueryResponse(String json, QueryClient queryClient, ScheduledJobType jobType, ScheduledJobStatus jobStatus)
     {
-        gson = new GsonBuilder().disableHtmlEscaping().create();
-
-        JsonObject[] twinJsonArray = gson.fromJson(json, JsonObject[].class);
-        List<ScheduledJob> jobsArray = new ArrayList<>();
-        for (JsonObject twinJson : twinJsonArray)
-        {
-            jobsArray.add(new ScheduledJob(twinJson.toString()));
-        }
-
-        this.jobs = jobsArray.iterator();
+        this.jobs = new JsonArrayIterator<>(json, jobJson -> new ScheduledJob(jobJson.toString()));
 
         this.queryClient = queryClient;
         this.originalQuery = null;
@@ -90,7 +76,8 @@ public class JobQueryResponse
      * Return the next job from the query. If the previous page of query results has been exhausted, then this method
      * will make a request to the service to get the next page of results using the default paging options.
      * @return the next job from the query.
-     * @throws IotHubException If any IoT Hub level errors occur such as an {@link IotHubUnauthorizedException}.
+     * @throws IotHubException If any IoT Hub level errors occur such as an {@link IotHubUnauthorizedException}, or an
+     * {@link IotHubBadFormatException} if the json of the page of results is malformed.
      * @throws IOException If any network level errors occur.
      * @throws NoSuchElementException If there is no next ScheduledJob to return anymore.
      */
@@ -105,7 +92,8 @@ public class JobQueryResponse
      * @return the next job from the query.
      * @param pageOptions the options for the next page of results if the next page is retrieved to fulfil this request
      * for the next job. May not be null.
-     * @throws IotHubException If any IoT Hub level errors occur such as an {@link IotHubUnauthorizedException}.
+     * @throws IotHubException If any IoT Hub level errors occur such as an {@link IotHubUnauthorizedException}, or an
+     * {@link IotHubBadFormatException} if the json of the page of results is malformed.
      * @throws IOException If any network level errors occur.
      * @throws NoSuchElementException If there is no next ScheduledJob to return anymore.
      */
@@ -113,39 +101,78 @@ public class JobQueryResponse
     {
         Objects.requireNonNull(pageOptions);
 
+        // previous list of jobs may have been exhausted. Get next page of results if there is a next page
+        while (!this.jobs.hasNext())
+        {
+            if (this.continuationToken == null)
+            {
+                throw new NoSuchElementException();
+            }
+
+            JobQueryResponse nextPage = getPageFetcher().fetch(this.continuationToken, pageOptions.getPageSize());
+            this.jobs = nextPage.jobs;
+            this.continuationToken = nextPage.continuationToken;
+        }
+
+        if (pageOptions.isPrefetchNextPage() && this.continuationToken != null)
+        {
+            getPageFetcher().prefetch(this.continuationToken, pageOptions.getPageSize());
+        }
+
         try
         {
             return this.jobs.next();
         }
-        catch (NoSuchElementException ex)
+        catch (JsonParseException malformed)
         {
-            // previous list of jobs has been exhausted. Get next page of results if there is a next page
+            throw new IotHubBadFormatException("Malformed query response json: " + malformed.getMessage());
+        }
+    }
 
-            if (this.continuationToken == null)
-            {
-                throw ex;
-            }
+    /**
+     * Get a sequential stream of the remaining jobs of this query. The stream is backed by this response, so it
+     * continues from, and advances, the same position as {@link #next()}. The next page of results is prefetched while
+     * the current page is consumed.
+     *
+     * <p>
+     * If a page of results can't be retrieved, the stream throws a {@link QueryStreamException} whose cause is the
+     * {@link IotHubException} or {@link IOException} that {@link #next()} would have thrown.
+     * </p>
+     *
+     * @return the stream of remaining jobs.
+     */
+    public Stream<ScheduledJob> stream()
+    {
+        return stream(QueryPageOptions.builder().prefetchNextPage(true).build());
+    }
 
-            QueryPageOptions nextPageOptions =
-                QueryPageOptions.builder()
-                    .continuationToken(this.continuationToken)
-                    .pageSize(pageOptions.getPageSize())
-                    .build();
+    /**
+     * Get a sequential stream of the remaining jobs of this query that uses the provided paging options for each
+     * following page of results. See {@link #stream()} for more details.
+     *
+     * @param pageOptions the options for each following page of results. May not be null.
+     * @return the stream of remaining jobs.
+     */
+    public Stream<ScheduledJob> stream(QueryPageOptions pageOptions)
+    {
+        Objects.requireNonNull(pageOptions);
+        return StreamSupport.stream(new QueryResultSpliterator<>(this::hasNext, () -> next(pageOptions)), false);
+    }
 
-            JobQueryResponse nextPage;
+    private QueryPageFetcher<JobQueryResponse> getPageFetcher()
+    {
+        if (this.pageFetcher == null)
+        {
             if (this.originalQuery != null)
             {
-                nextPage = this.queryClient.queryJobs(this.originalQuery, nextPageOptions);
+                this.pageFetcher = new QueryPageFetcher<>(options -> this.queryClient.queryJobs(this.originalQuery, options));
             }
             else
             {
-                nextPage = this.queryClient.queryJobs(this.jobType, this.jobStatus, nextPageOptions);
+                this.pageFetcher = new QueryPageFetcher<>(options -> this.queryClient.queryJobs(this.jobType, this.jobStatus, options));
             }
-
-            this.jobs = nextPage.jobs;
-            this.continuationToken = nextPage.continuationToken;
-
-            return this.jobs.next();
         }
+
+        return this.pageFetcher;
     }
 }
@@ -0,0 +1,110 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.azure.sdk.iot.service.query;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Iterates over the elements of a query page's json array, reading each element from the json only when it is
+ * requested. This avoids parsing the whole page up front and lets each element be converted straight from its parsed
+ * json rather than from a re-serialized copy of it.
+ *
+ * <p>
+ * Since the page is read lazily, malformed json after the start of the array is only found during iteration. In that
+ * case {@link #hasNext()} returns true and {@link #next()} throws a {@link JsonParseException}, so that the query
+ * response can report it from its own next() method.
+ * </p>
+ */
+final class JsonArrayIterator<T> implements Iterator<T>
+{
+    private final JsonReader reader;
+    private final Function<JsonElement, T> converter;
+    private boolean endOfArray;
+    private JsonParseException malformedJsonException;
+
+    JsonArrayIterator(String json, Function<JsonElement, T> converter)
+    {
+        this.reader = new JsonReader(new StringReader(json));
+        this.reader.setLenient(true); // matches Gson.fromJson(String, ...)
+        this.converter = converter;
+
+        try
+        {
+            this.reader.beginArray();
+        }
+        catch (IOException | IllegalStateException malformed)
+        {
+            throw new IllegalArgumentException("Malformed json:" + malformed);
+        }
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        if (this.malformedJsonException != null)
+        {
+            return true;
+        }
+
+        if (this.endOfArray)
+        {
+            return false;
+        }
+
+        try
+        {
+            if (this.reader.hasNext())
+            {
+                return true;
+            }
+
+            this.reader.endArray();
+            this.reader.close();
+            this.endOfArray = true;
+            return false;
+        }
+        catch (IOException | IllegalStateException malformed)
+        {
+            this.malformedJsonException = new JsonParseException("Malformed json", malformed);
+            return true;
+        }
+    }
+
+    @Override
+    public T next()
+    {
+        if (!hasNext())
+        {
+            throw new NoSuchElementException();
+        }
+
+        if (this.malformedJsonException != null)
+        {
+            throw this.malformedJsonException;
+        }
+
+        JsonElement element;
+        try
+        {
+            element = JsonParser.parseReader(this.reader);
+        }
+        catch (JsonParseException malformed)
+        {
+            // the reader's position is unknown after a parsing failure, so every later call fails the same way
+            this.malformedJsonException = malformed;
+            throw malformed;
+        }
+
+        return this.converter.apply(element);
+    }
+}
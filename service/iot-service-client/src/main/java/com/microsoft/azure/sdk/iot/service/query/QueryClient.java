@@ -7,7 +7,7 @@ import com.azure.core.credential.AzureSasCredential;
 import com.azure.core.credential.TokenCredential;
 import com.microsoft.azure.sdk.iot.service.auth.IotHubConnectionString;
 import com.microsoft.azure.sdk.iot.service.auth.IotHubConnectionStringBuilder;
-import com.microsoft.azure.sdk.iot.service.auth.IotHubServiceSasToken;
+import com.microsoft.azure.sdk.iot.service.auth.IotHubServiceSasTokenCache;
 import com.microsoft.azure.sdk.iot.service.auth.TokenCredentialCache;
 import com.microsoft.azure.sdk.iot.service.exceptions.IotHubException;
 import com.microsoft.azure.sdk.iot.service.jobs.ScheduledJobStatus;
@@ -34,6 +34,7 @@ public final class QueryClient
     private TokenCredentialCache credentialCache;
     private AzureSasCredential azureSasCredential;
     private IotHubConnectionString iotHubConnectionString;
+    private IotHubServiceSasTokenCache sasTokenCache;
 
     private final QueryClientOptions options;
 
@@ -68,6 +69,8 @@ public final class QueryClient
         this.iotHubConnectionString =
             IotHubConnectionStringBuilder.createIotHubConnectionString(connectionString);
 
+        this.sasTokenCache = IotHubServiceSasTokenCache.getSharedInstance(this.iotHubConnectionString);
+
         this.hostName = iotHubConnectionString.getHostName();
         this.options = options;
         commonConstructorSetup();
@@ -392,7 +395,7 @@ public final class QueryClient
             return this.azureSasCredential.getSignature();
         }
 
-        return new IotHubServiceSasToken(iotHubConnectionString).toString();
+        return this.sasTokenCache.getTokenString();
     }
 
     private void setCommonHttpHeaders(HttpRequest httpRequest, QueryPageOptions options)
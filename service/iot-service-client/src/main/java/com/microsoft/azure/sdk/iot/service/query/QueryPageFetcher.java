@@ -0,0 +1,172 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.azure.sdk.iot.service.query;
+
+import com.microsoft.azure.sdk.iot.service.exceptions.IotHubException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Requests the continuation pages of a query, optionally in the background ahead of when they are needed.
+ *
+ * <p>
+ * A prefetched page is only used if it was requested with the same continuation token and page size as the page that
+ * is eventually needed. Otherwise it is discarded and the page is requested again. Instances of this class are not
+ * thread safe, in the same way that the query responses that use them are not.
+ * </p>
+ *
+ * @param <R> the type of query response that each page is returned as.
+ */
+@Slf4j
+final class QueryPageFetcher<R>
+{
+    private static final String PREFETCH_THREAD_NAME_PREFIX = "azure-iot-sdk-QueryPrefetch-";
+    private static final int PREFETCH_THREAD_COUNT = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final long PREFETCH_THREAD_KEEP_ALIVE_SECONDS = 60;
+
+    @FunctionalInterface
+    interface PageRequest<R>
+    {
+        R send(QueryPageOptions pageOptions) throws IotHubException, IOException;
+    }
+
+    private final PageRequest<R> pageRequest;
+
+    private CompletableFuture<R> prefetchedPage;
+    private String prefetchedContinuationToken;
+    private int prefetchedPageSize;
+
+    QueryPageFetcher(PageRequest<R> pageRequest)
+    {
+        this.pageRequest = pageRequest;
+    }
+
+    /**
+     * Start requesting the page for the provided continuation token in the background, if it isn't already being
+     * requested.
+     */
+    void prefetch(String continuationToken, int pageSize)
+    {
+        if (this.prefetchedPage != null
+            && continuationToken.equals(this.prefetchedContinuationToken)
+            && pageSize == this.prefetchedPageSize)
+        {
+            return;
+        }
+
+        log.trace("Prefetching next query page with page size {}", pageSize);
+        final QueryPageOptions pageOptions = buildPageOptions(continuationToken, pageSize);
+        this.prefetchedContinuationToken = continuationToken;
+        this.prefetchedPageSize = pageSize;
+        this.prefetchedPage = CompletableFuture.supplyAsync(() ->
+        {
+            try
+            {
+                return this.pageRequest.send(pageOptions);
+            }
+            catch (IotHubException | IOException e)
+            {
+                throw new CompletionException(e);
+            }
+        }, ExecutorHolder.PREFETCH_EXECUTOR);
+    }
+
+    /**
+     * Get the page for the provided continuation token, either from a matching prefetch or by requesting it now.
+     */
+    R fetch(String continuationToken, int pageSize) throws IotHubException, IOException
+    {
+        CompletableFuture<R> page = this.prefetchedPage;
+        boolean prefetchMatches = page != null
+            && continuationToken.equals(this.prefetchedContinuationToken)
+            && pageSize == this.prefetchedPageSize;
+
+        this.prefetchedPage = null;
+        this.prefetchedContinuationToken = null;
+
+        if (!prefetchMatches)
+        {
+            if (page != null)
+            {
+                // A prefetch that hasn't started yet is skipped, so it doesn't hold up the prefetches of other queries
+                page.cancel(false);
+            }
+
+            return this.pageRequest.send(buildPageOptions(continuationToken, pageSize));
+        }
+
+        try
+        {
+            return page.join();
+        }
+        catch (CompletionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof IotHubException)
+            {
+                throw (IotHubException) cause;
+            }
+            else if (cause instanceof IOException)
+            {
+                throw (IOException) cause;
+            }
+            else if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+
+            throw e;
+        }
+    }
+
+    private static QueryPageOptions buildPageOptions(String continuationToken, int pageSize)
+    {
+        return QueryPageOptions.builder()
+            .continuationToken(continuationToken)
+            .pageSize(pageSize)
+            .build();
+    }
+
+    // Lazily initialized on first use so that queries that never prefetch never create these threads
+    private static final class ExecutorHolder
+    {
+        private static final ExecutorService PREFETCH_EXECUTOR = createPrefetchExecutor();
+
+        private static ExecutorService createPrefetchExecutor()
+        {
+            // Bounded so that many concurrent queries can't create a thread each. The threads are daemon threads that
+            // exit once they have been idle for a while, so this executor never needs to be shut down.
+            ThreadPoolExecutor prefetchExecutor = new ThreadPoolExecutor(
+                PREFETCH_THREAD_COUNT,
+                PREFETCH_THREAD_COUNT,
+                PREFETCH_THREAD_KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new ThreadFactory()
+                {
+                    private final AtomicInteger threadCount = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(Runnable runnable)
+                    {
+                        Thread thread = new Thread(runnable, PREFETCH_THREAD_NAME_PREFIX + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+
+            prefetchExecutor.allowCoreThreadTimeOut(true);
+            return prefetchExecutor;
+        }
+    }
+}
@@ -25,4 +25,14 @@ public final class QueryPageOptions
      */
     @Getter
     private String continuationToken;
+
+    /**
+     * If true, the next page of results is requested in the background as soon as a result is taken from the current
+     * page, so that it is usually ready by the time the current page has been consumed. This saves a round trip per page
+     * when reading through large queries, at the cost of one page request that may go unused if the caller stops
+     * early. Defaults to false.
+     */
+    @Getter
+    @Builder.Default
+    private boolean prefetchNextPage = false;
 }
@@ -0,0 +1,64 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.azure.sdk.iot.service.query;
+
+import com.microsoft.azure.sdk.iot.service.exceptions.IotHubException;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Sequential spliterator over the results of a query response, continuing the query page by page as it is consumed.
+ * Failures to get the next page are rethrown as {@link QueryStreamException}s since streams can't throw checked
+ * exceptions.
+ */
+final class QueryResultSpliterator<T> extends Spliterators.AbstractSpliterator<T>
+{
+    @FunctionalInterface
+    interface QueryResultSupplier<T>
+    {
+        T next() throws IotHubException, IOException;
+    }
+
+    private final BooleanSupplier hasNext;
+    private final QueryResultSupplier<T> next;
+
+    QueryResultSpliterator(BooleanSupplier hasNext, QueryResultSupplier<T> next)
+    {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.hasNext = hasNext;
+        this.next = next;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action)
+    {
+        if (!this.hasNext.getAsBoolean())
+        {
+            return false;
+        }
+
+        T result;
+        try
+        {
+            result = this.next.next();
+        }
+        catch (NoSuchElementException e)
+        {
+            // the last continuation page of the query was empty
+            return false;
+        }
+        catch (IotHubException | IOException e)
+        {
+            throw new QueryStreamException(e);
+        }
+
+        action.accept(result);
+        return true;
+    }
+}
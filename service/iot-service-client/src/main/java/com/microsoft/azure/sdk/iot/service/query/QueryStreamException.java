@@ -0,0 +1,21 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.azure.sdk.iot.service.query;
+
+import com.microsoft.azure.sdk.iot.service.exceptions.IotHubException;
+
+import java.io.IOException;
+
+/**
+ * Thrown by the streams of query results when the next page of results could not be retrieved. The cause is the
+ * {@link IotHubException} or {@link IOException} that the equivalent call to the query response's next() would have
+ * thrown.
+ */
+public class QueryStreamException extends RuntimeException
+{
+    QueryStreamException(Exception cause)
+    {
+        super(cause);
+    }
+}
@@ -3,10 +3,9 @@
 
 package com.microsoft.azure.sdk.iot.service.query;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonSyntaxException;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.microsoft.azure.sdk.iot.service.exceptions.IotHubBadFormatException;
 import com.microsoft.azure.sdk.iot.service.exceptions.IotHubException;
 import com.microsoft.azure.sdk.iot.service.exceptions.IotHubUnauthorizedException;
 import lombok.AccessLevel;
@@ -14,19 +13,23 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.io.IOException;
-import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A pageable set of undefined json objects returned from a query.
+ *
+ * <p>
+ * Each json object is read from the page's json only when it is returned by {@link #next()}. Instances of this class
+ * are not thread safe.
+ * </p>
  */
 public class RawQueryResponse
 {
-    private final transient Gson gson;
-
-    Iterator<JsonObject> jsonObjects;
+    Iterator<String> jsonObjects;
 
     @Setter(AccessLevel.PACKAGE) // value is retrieved from header, not json payload
     @Getter
@@ -35,19 +38,11 @@ public class RawQueryResponse
     final QueryClient queryClient;
     final String originalQuery;
 
+    private QueryPageFetcher<RawQueryResponse> pageFetcher;
+
     public RawQueryResponse(String json, QueryClient queryClient, String originalQuery)
     {
-        gson = new GsonBuilder().disableHtmlEscaping().create();
-
-        try
-        {
-            this.jsonObjects = Arrays.asList(gson.fromJson(json, JsonObject[].class)).iterator();
-        }
-        catch (JsonSyntaxException malformed)
-        {
-            throw new IllegalArgumentException("Malformed json:" + malformed);
-        }
-
+        this.jsonObjects = new JsonArrayIterator<>(json, JsonElement::toString);
         this.queryClient = queryClient;
         this.originalQuery = originalQuery;
     }
@@ -64,7 +59,8 @@ public class RawQueryResponse
      * Return the next json object from the query. If the previous page of query results has been exhausted, then this method
      * will make a request to the service to get the next page of results using the default paging options.
      * @return the next json object from the query.
-     * @throws IotHubException If any IoT Hub level errors occur such as an {@link IotHubUnauthorizedException}.
+     * @throws IotHubException If any IoT Hub level errors occur such as an {@link IotHubUnauthorizedException}, or an
+     * {@link IotHubBadFormatException} if the json of the page of results is malformed.
      * @throws IOException If any network level errors occur.
      * @throws NoSuchElementException If there is no next object to return anymore.
      */
@@ -79,7 +75,8 @@ public class RawQueryResponse
      * @return the next json object from the query.
      * @param pageOptions the options for the next page of results if the next page is retrieved to fulfil this request
      * for the next json object. May not be null.
-     * @throws IotHubException If any IoT Hub level errors occur such as an {@link IotHubUnauthorizedException}.
+     * @throws IotHubException If any IoT Hub level errors occur such as an {@link IotHubUnauthorizedException}, or an
+     * {@link IotHubBadFormatException} if the json of the page of results is malformed.
      * @throws IOException If any network level errors occur.
      * @throws NoSuchElementException If there is no next object to return anymore.
      */
@@ -87,30 +84,71 @@ public class RawQueryResponse
     {
         Objects.requireNonNull(pageOptions);
 
-        try
+        // previous list of json objects may have been exhausted. Get next page of results if there is a next page
+        while (!this.jsonObjects.hasNext())
         {
-            return this.jsonObjects.next().toString();
-        }
-        catch (NoSuchElementException ex)
-        {
-            // previous list of jobs has been exhausted. Get next page of results if there is a next page
-
             if (this.continuationToken == null)
             {
-                throw ex;
+                throw new NoSuchElementException();
             }
 
-            QueryPageOptions nextPageOptions =
-                QueryPageOptions.builder()
-                    .continuationToken(this.continuationToken)
-                    .pageSize(pageOptions.getPageSize())
-                    .build();
-
-            RawQueryResponse nextPage = this.queryClient.queryRaw(this.originalQuery, nextPageOptions);
+            RawQueryResponse nextPage = getPageFetcher().fetch(this.continuationToken, pageOptions.getPageSize());
             this.jsonObjects = nextPage.jsonObjects;
             this.continuationToken = nextPage.continuationToken;
+        }
 
-            return this.jsonObjects.next().toString();
+        if (pageOptions.isPrefetchNextPage() && this.continuationToken != null)
+        {
+            getPageFetcher().prefetch(this.continuationToken, pageOptions.getPageSize());
+        }
+
+        try
+        {
+            return this.jsonObjects.next();
         }
+        catch (JsonParseException malformed)
+        {
+            throw new IotHubBadFormatException("Malformed query response json: " + malformed.getMessage());
+        }
+    }
+
+    /**
+     * Get a sequential stream of the remaining json objects of this query. The stream is backed by this response, so
+     * it continues from, and advances, the same position as {@link #next()}. The next page of results is prefetched
+     * while the current page is consumed.
+     *
+     * <p>
+     * If a page of results can't be retrieved, the stream throws a {@link QueryStreamException} whose cause is the
+     * {@link IotHubException} or {@link IOException} that {@link #next()} would have thrown.
+     * </p>
+     *
+     * @return the stream of remaining json objects.
+     */
+    public Stream<String> stream()
+    {
+        return stream(QueryPageOptions.builder().prefetchNextPage(true).build());
+    }
+
+    /**
+     * Get a sequential stream of the remaining json objects of this query that uses the provided paging options for
+     * each following page of results. See {@link #stream()} for more details.
+     *
+     * @param pageOptions the options for each following page of results. May not be null.
+     * @return the stream of remaining json objects.
+     */
+    public Stream<String> stream(QueryPageOptions pageOptions)
+    {
+        Objects.requireNonNull(pageOptions);
+        return StreamSupport.stream(new QueryResultSpliterator<>(this::hasNext, () -> next(pageOptions)), false);
+    }
+
+    private QueryPageFetcher<RawQueryResponse> getPageFetcher()
+    {
+        if (this.pageFetcher == null)
+        {
+            this.pageFetcher = new QueryPageFetcher<>(options -> this.queryClient.queryRaw(this.originalQuery, options));
+        }
+
+        return this.pageFetcher;
     }
 }
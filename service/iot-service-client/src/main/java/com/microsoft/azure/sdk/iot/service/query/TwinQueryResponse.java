@@ -3,31 +3,32 @@
 
 package com.microsoft.azure.sdk.iot.service.query;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonSyntaxException;
+import com.google.gson.JsonParseException;
 import com.microsoft.azure.sdk.iot.service.exceptions.IotHubUnauthorizedException;
 import com.microsoft.azure.sdk.iot.service.twin.Twin;
+import com.microsoft.azure.sdk.iot.service.exceptions.IotHubBadFormatException;
 import com.microsoft.azure.sdk.iot.service.exceptions.IotHubException;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A pageable set of {@link Twin} objects returned from a query.
+ *
+ * <p>
+ * Each twin is parsed from the page's json only when it is returned by {@link #next()}. Instances of this class are
+ * not thread safe.
+ * </p>
  */
 public class TwinQueryResponse
 {
-    private final transient Gson gson;
-
     Iterator<Twin> twins;
 
     @Setter(AccessLevel.PACKAGE) // value is retrieved from header, not json payload
@@ -37,26 +38,11 @@ public class TwinQueryResponse
     final QueryClient queryClient;
     final String originalQuery;
 
+    private QueryPageFetcher<TwinQueryResponse> pageFetcher;
+
     public TwinQueryResponse(String json, QueryClient queryClient, String originalQuery)
     {
-        gson = new GsonBuilder().disableHtmlEscaping().create();
-
-        try
-        {
-            JsonObject[] twinJsonArray = gson.fromJson(json, JsonObject[].class);
-            List<Twin> twinArray = new ArrayList<>();
-            for (JsonObject twinJson : twinJsonArray)
-            {
-                twinArray.add(Twin.fromJson(twinJson.toString()));
-            }
-
-            this.twins = twinArray.iterator();
-        }
-        catch (JsonSyntaxException malformed)
-        {
-            throw new IllegalArgumentException("Malformed json:" + malformed);
-        }
-
+        this.twins = new JsonArrayIterator<>(json, Twin::fromJson);
         this.queryClient = queryClient;
         this.originalQuery = originalQuery;
     }
@@ -73,7 +59,8 @@ public class TwinQueryResponse
      * Return the next Twin from the query. If the previous page of query results has been exhausted, then this method
      * will make a request to the service to get the next page of results using the default paging options.
      * @return the next Twin from the query.
-     * @throws IotHubException If any IoT Hub level errors occur such as an {@link IotHubUnauthorizedException}.
+     * @throws IotHubException If any IoT Hub level errors occur such as an {@link IotHubUnauthorizedException}, or an
+     * {@link IotHubBadFormatException} if the json of the page of results is malformed.
      * @throws IOException If any network level errors occur.
      * @throws NoSuchElementException If there is no next Twin to return anymore.
      */
@@ -88,7 +75,8 @@ public class TwinQueryResponse
      * @param pageOptions the options for the next page of results if the next page is retrieved to fulfil this request
      * for the next Twin. May not be null.
      * @return the next Twin from the query.
-     * @throws IotHubException If any IoT Hub level errors occur such as an {@link IotHubUnauthorizedException}.
+     * @throws IotHubException If any IoT Hub level errors occur such as an {@link IotHubUnauthorizedException}, or an
+     * {@link IotHubBadFormatException} if the json of the page of results is malformed.
      * @throws IOException If any network level errors occur.
      * @throws NoSuchElementException If there is no next Twin to return anymore.
      */
@@ -96,30 +84,71 @@ public class TwinQueryResponse
     {
         Objects.requireNonNull(pageOptions);
 
-        try
-        {
-            return this.twins.next();
-        }
-        catch (NoSuchElementException ex)
+        // previous list of twins may have been exhausted. Get next page of results if there is a next page
+        while (!this.twins.hasNext())
         {
-            // previous list of jobs has been exhausted. Get next page of results if there is a next page
-
             if (this.continuationToken == null)
             {
-                throw ex;
+                throw new NoSuchElementException();
             }
 
-            QueryPageOptions nextPageOptions =
-                QueryPageOptions.builder()
-                    .continuationToken(this.continuationToken)
-                    .pageSize(pageOptions.getPageSize())
-                    .build();
-
-            TwinQueryResponse nextPage = this.queryClient.queryTwins(this.originalQuery, nextPageOptions);
+            TwinQueryResponse nextPage = getPageFetcher().fetch(this.continuationToken, pageOptions.getPageSize());
             this.twins = nextPage.twins;
             this.continuationToken = nextPage.continuationToken;
+        }
+
+        if (pageOptions.isPrefetchNextPage() && this.continuationToken != null)
+        {
+            getPageFetcher().prefetch(this.continuationToken, pageOptions.getPageSize());
+        }
 
+        try
+        {
             return this.twins.next();
         }
+        catch (JsonParseException malformed)
+        {
+            throw new IotHubBadFormatException("Malformed query response json: " + malformed.getMessage());
+        }
+    }
+
+    /**
+     * Get a sequential stream of the remaining twins of this query. The stream is backed by this response, so it
+     * continues from, and advances, the same position as {@link #next()}. The next page of results is prefetched while
+     * the current page is consumed.
+     *
+     * <p>
+     * If a page of results can't be retrieved, the stream throws a {@link QueryStreamException} whose cause is the
+     * {@link IotHubException} or {@link IOException} that {@link #next()} would have thrown.
+     * </p>
+     *
+     * @return the stream of remaining twins.
+     */
+    public Stream<Twin> stream()
+    {
+        return stream(QueryPageOptions.builder().prefetchNextPage(true).build());
+    }
+
+    /**
+     * Get a sequential stream of the remaining twins of this query that uses the provided paging options for each
+     * following page of results. See {@link #stream()} for more details.
+     *
+     * @param pageOptions the options for each following page of results. May not be null.
+     * @return the stream of remaining twins.
+     */
+    public Stream<Twin> stream(QueryPageOptions pageOptions)
+    {
+        Objects.requireNonNull(pageOptions);
+        return StreamSupport.stream(new QueryResultSpliterator<>(this::hasNext, () -> next(pageOptions)), false);
+    }
+
+    private QueryPageFetcher<TwinQueryResponse> getPageFetcher()
+    {
+        if (this.pageFetcher == null)
+        {
+            this.pageFetcher = new QueryPageFetcher<>(options -> this.queryClient.queryTwins(this.originalQuery, options));
+        }
+
+        return this.pageFetcher;
     }
 }
@@ -0,0 +1,41 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.azure.sdk.iot.service.registry;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of {@link RegistryClient#bulkApply(List)}.
+ */
+public class BulkRegistryOperationResult
+{
+    /**
+     * The devices that could not be created, updated or deleted.
+     */
+    @Getter
+    private final List<DeviceRegistryOperationError> errors;
+
+    /**
+     * The devices that were created, updated or deleted, but with a warning.
+     */
+    @Getter
+    private final List<DeviceRegistryOperationWarning> warnings;
+
+    BulkRegistryOperationResult(List<DeviceRegistryOperationError> errors, List<DeviceRegistryOperationWarning> warnings)
+    {
+        this.errors = Collections.unmodifiableList(errors);
+        this.warnings = Collections.unmodifiableList(warnings);
+    }
+
+    /**
+     * @return true if every device was created, updated or deleted, and false otherwise.
+     */
+    public boolean isSuccessful()
+    {
+        return this.errors.isEmpty();
+    }
+}
@@ -0,0 +1,55 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.azure.sdk.iot.service.registry;
+
+import com.microsoft.azure.sdk.iot.service.registry.serializers.DeviceRegistryOperationErrorParser;
+import lombok.Getter;
+
+/**
+ * A device that could not be created, updated or deleted by {@link RegistryClient#bulkApply(java.util.List)}.
+ */
+public class DeviceRegistryOperationError
+{
+    /**
+     * The id of the device that the operation failed for.
+     */
+    @Getter
+    private final String deviceId;
+
+    /**
+     * The error code reported by the service. Null if the request that contained this device failed as a whole.
+     */
+    @Getter
+    private final String errorCode;
+
+    /**
+     * The description of the error reported by the service. Null if the request that contained this device failed as
+     * a whole.
+     */
+    @Getter
+    private final String errorStatus;
+
+    /**
+     * The exception that the request that contained this device failed with. Null if the service reported an error
+     * for this device alone.
+     */
+    @Getter
+    private final Exception exception;
+
+    DeviceRegistryOperationError(DeviceRegistryOperationErrorParser parser)
+    {
+        this.deviceId = parser.getDeviceId();
+        this.errorCode = parser.getErrorCode();
+        this.errorStatus = parser.getErrorStatus();
+        this.exception = null;
+    }
+
+    DeviceRegistryOperationError(String deviceId, Exception exception)
+    {
+        this.deviceId = deviceId;
+        this.errorCode = null;
+        this.errorStatus = null;
+        this.exception = exception;
+    }
+}
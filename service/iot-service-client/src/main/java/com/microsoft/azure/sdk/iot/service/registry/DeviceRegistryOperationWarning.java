@@ -0,0 +1,39 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.azure.sdk.iot.service.registry;
+
+import com.microsoft.azure.sdk.iot.service.registry.serializers.DeviceRegistryOperationWarningParser;
+import lombok.Getter;
+
+/**
+ * A device that was created, updated or deleted by {@link RegistryClient#bulkApply(java.util.List)}, but with a
+ * warning.
+ */
+public class DeviceRegistryOperationWarning
+{
+    /**
+     * The id of the device that the warning is for.
+     */
+    @Getter
+    private final String deviceId;
+
+    /**
+     * The warning code reported by the service.
+     */
+    @Getter
+    private final String warningCode;
+
+    /**
+     * The description of the warning reported by the service.
+     */
+    @Getter
+    private final String warningStatus;
+
+    DeviceRegistryOperationWarning(DeviceRegistryOperationWarningParser parser)
+    {
+        this.deviceId = parser.getDeviceId();
+        this.warningCode = parser.getWarningCode();
+        this.warningStatus = parser.getWarningStatus();
+    }
+}
@@ -115,7 +115,6 @@ public class ExportImportDevice
      * Converts this into a ExportImportDeviceParser object. To serialize a ExportImportDevice object, it must first be converted to a ExportImportDeviceParser object.
      * @return the ExportImportDeviceParser object that can be serialized.
      */
-    @SuppressWarnings("unused") //Unknown if this is actually used outside of a test.
     ExportImportDeviceParser toExportImportDeviceParser()
     {
         ExportImportDeviceParser parser = new ExportImportDeviceParser();
@@ -10,10 +10,13 @@ import com.azure.core.credential.TokenCredential;
 import com.google.gson.Gson;
 import com.microsoft.azure.sdk.iot.service.auth.IotHubConnectionString;
 import com.microsoft.azure.sdk.iot.service.auth.IotHubConnectionStringBuilder;
-import com.microsoft.azure.sdk.iot.service.auth.IotHubServiceSasToken;
+import com.microsoft.azure.sdk.iot.service.auth.IotHubServiceSasTokenCache;
 import com.microsoft.azure.sdk.iot.service.auth.TokenCredentialCache;
 import com.microsoft.azure.sdk.iot.service.exceptions.IotHubException;
 import com.microsoft.azure.sdk.iot.service.exceptions.IotHubExceptionManager;
+import com.microsoft.azure.sdk.iot.service.registry.serializers.BulkRegistryOperationResultParser;
+import com.microsoft.azure.sdk.iot.service.registry.serializers.DeviceRegistryOperationErrorParser;
+import com.microsoft.azure.sdk.iot.service.registry.serializers.DeviceRegistryOperationWarningParser;
 import com.microsoft.azure.sdk.iot.service.registry.serializers.JobPropertiesParser;
 import com.microsoft.azure.sdk.iot.service.registry.serializers.RegistryIdentityParser;
 import com.microsoft.azure.sdk.iot.service.registry.serializers.RegistryStatisticsParser;
@@ -31,6 +34,13 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Use the RegistryClient to manage the identity registry in IoT hubs.
@@ -39,10 +49,18 @@ import java.util.Objects;
 @Slf4j
 public final class RegistryClient
 {
+    private static final Gson gson = new Gson();
+
+    // The most devices that the service accepts in a single bulk registry operation request
+    private static final int MAX_DEVICES_PER_BULK_REQUEST = 100;
+    private static final int DEFAULT_BULK_APPLY_MAX_CONCURRENCY = 10;
+    private static final String BULK_APPLY_THREAD_NAME_PREFIX = "azure-iot-sdk-RegistryBulkApply-";
+
     private final String hostName;
     private TokenCredentialCache credentialCache;
     private AzureSasCredential azureSasCredential;
     private IotHubConnectionString iotHubConnectionString;
+    private IotHubServiceSasTokenCache sasTokenCache;
 
     private final RegistryClientOptions options;
 
@@ -77,6 +95,8 @@ public final class RegistryClient
         this.iotHubConnectionString =
                 IotHubConnectionStringBuilder.createIotHubConnectionString(connectionString);
 
+        this.sasTokenCache = IotHubServiceSasTokenCache.getSharedInstance(this.iotHubConnectionString);
+
         this.hostName = iotHubConnectionString.getHostName();
         this.options = options;
         commonConstructorSetup();
@@ -412,7 +432,6 @@ public final class RegistryClient
 
         String bodyStr = new String(response.getBody(), StandardCharsets.UTF_8);
 
-        Gson gson = new Gson();
         RegistryIdentityParser[] registryIdentityParsers = gson.fromJson(bodyStr, RegistryIdentityParser[].class);
 
         List<Module> moduleList = new ArrayList<>();
@@ -520,6 +539,156 @@ public final class RegistryClient
         IotHubExceptionManager.httpResponseVerification(response);
     }
 
+    /**
+     * Create, update or delete many devices without the need for an import job or a storage account. Each device's
+     * {@link ExportImportDevice#getImportMode()} determines what is done with it.
+     * <p>
+     * The devices are sent in requests of up to 100 devices each, and up to 10 of these requests are sent at a time.
+     * A device that can't be applied does not stop the others from being applied; it is reported in the returned
+     * result instead. If a whole request fails, every device in that request is reported with the exception that the
+     * request failed with.
+     * </p>
+     *
+     * @param devices The devices to create, update or delete.
+     * @return The devices that could not be applied, and those that were applied with a warning.
+     * @throws InterruptedException If this thread is interrupted while waiting for the requests to complete.
+     */
+    public BulkRegistryOperationResult bulkApply(List<ExportImportDevice> devices) throws InterruptedException
+    {
+        return bulkApply(devices, DEFAULT_BULK_APPLY_MAX_CONCURRENCY);
+    }
+
+    /**
+     * Create, update or delete many devices without the need for an import job or a storage account. Each device's
+     * {@link ExportImportDevice#getImportMode()} determines what is done with it.
+     * <p>
+     * The devices are sent in requests of up to 100 devices each. A device that can't be applied does not stop the
+     * others from being applied; it is reported in the returned result instead. If a whole request fails, every device
+     * in that request is reported with the exception that the request failed with.
+     * </p>
+     *
+     * @param devices The devices to create, update or delete.
+     * @param maxConcurrency The maximum number of requests to send at a time. Must be greater than 0.
+     * @return The devices that could not be applied, and those that were applied with a warning.
+     * @throws InterruptedException If this thread is interrupted while waiting for the requests to complete.
+     */
+    public BulkRegistryOperationResult bulkApply(List<ExportImportDevice> devices, int maxConcurrency) throws InterruptedException
+    {
+        if (devices == null)
+        {
+            throw new IllegalArgumentException("devices cannot be null");
+        }
+
+        if (maxConcurrency < 1)
+        {
+            throw new IllegalArgumentException("maxConcurrency must be greater than 0");
+        }
+
+        List<Callable<BulkRegistryOperationResultParser>> requests = new ArrayList<>();
+        List<List<ExportImportDevice>> chunks = new ArrayList<>();
+        for (int i = 0; i < devices.size(); i += MAX_DEVICES_PER_BULK_REQUEST)
+        {
+            List<ExportImportDevice> chunk = devices.subList(i, Math.min(i + MAX_DEVICES_PER_BULK_REQUEST, devices.size()));
+            chunks.add(chunk);
+            requests.add(() -> applyBulkRegistryOperation(chunk));
+        }
+
+        List<DeviceRegistryOperationError> errors = new ArrayList<>();
+        List<DeviceRegistryOperationWarning> warnings = new ArrayList<>();
+
+        if (requests.isEmpty())
+        {
+            return new BulkRegistryOperationResult(errors, warnings);
+        }
+
+        List<Future<BulkRegistryOperationResultParser>> responses;
+        if (requests.size() == 1)
+        {
+            // no need for any other threads
+            responses = new ArrayList<>();
+            FutureTask<BulkRegistryOperationResultParser> request = new FutureTask<>(requests.get(0));
+            request.run();
+            responses.add(request);
+        }
+        else
+        {
+            ExecutorService executor = createBulkApplyExecutor(Math.min(maxConcurrency, requests.size()));
+            try
+            {
+                responses = executor.invokeAll(requests);
+            }
+            finally
+            {
+                executor.shutdownNow();
+            }
+        }
+
+        for (int i = 0; i < responses.size(); i++)
+        {
+            try
+            {
+                BulkRegistryOperationResultParser response = responses.get(i).get();
+                for (DeviceRegistryOperationErrorParser error : response.getErrors())
+                {
+                    errors.add(new DeviceRegistryOperationError(error));
+                }
+
+                for (DeviceRegistryOperationWarningParser warning : response.getWarnings())
+                {
+                    warnings.add(new DeviceRegistryOperationWarning(warning));
+                }
+            }
+            catch (ExecutionException e)
+            {
+                Exception cause = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                log.warn("Bulk registry operation request for {} devices failed", chunks.get(i).size(), cause);
+                for (ExportImportDevice device : chunks.get(i))
+                {
+                    errors.add(new DeviceRegistryOperationError(device.getId(), cause));
+                }
+            }
+        }
+
+        return new BulkRegistryOperationResult(errors, warnings);
+    }
+
+    private BulkRegistryOperationResultParser applyBulkRegistryOperation(List<ExportImportDevice> devices) throws IOException, IotHubException
+    {
+        StringBuilder devicesJson = new StringBuilder("[");
+        for (ExportImportDevice device : devices)
+        {
+            if (devicesJson.length() > 1)
+            {
+                devicesJson.append(',');
+            }
+
+            devicesJson.append(device.toExportImportDeviceParser().toJson());
+        }
+
+        devicesJson.append(']');
+
+        URL url = IotHubConnectionString.getUrlBulkDeviceOperation(this.hostName);
+        HttpRequest request = createRequest(url, HttpMethod.POST, devicesJson.toString().getBytes(StandardCharsets.UTF_8));
+
+        HttpResponse response = request.send();
+
+        IotHubExceptionManager.httpResponseVerification(response);
+
+        String bodyStr = new String(response.getBody(), StandardCharsets.UTF_8);
+        return gson.fromJson(bodyStr, BulkRegistryOperationResultParser.class);
+    }
+
+    private static ExecutorService createBulkApplyExecutor(int threadCount)
+    {
+        AtomicInteger createdThreadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(threadCount, runnable ->
+        {
+            Thread thread = new Thread(runnable, BULK_APPLY_THREAD_NAME_PREFIX + createdThreadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     /**
      * Create a bulk export job.
      *
@@ -710,6 +879,6 @@ public final class RegistryClient
             return this.azureSasCredential.getSignature();
         }
 
-        return new IotHubServiceSasToken(iotHubConnectionString).toString();
+        return this.sasTokenCache.getTokenString();
     }
 }
\ No newline at end of file
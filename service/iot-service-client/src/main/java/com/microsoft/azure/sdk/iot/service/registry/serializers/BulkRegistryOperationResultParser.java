@@ -0,0 +1,61 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.azure.sdk.iot.service.registry.serializers;
+
+import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.SerializedName;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The service's response to a bulk create, update or delete of device identities.
+ */
+public class BulkRegistryOperationResultParser
+{
+    private static final String IS_SUCCESSFUL_NAME = "isSuccessful";
+    @Expose
+    @SerializedName(IS_SUCCESSFUL_NAME)
+    @Getter
+    @Setter
+    private boolean isSuccessful;
+
+    private static final String ERRORS_NAME = "errors";
+    @Expose
+    @SerializedName(ERRORS_NAME)
+    @Setter
+    private List<DeviceRegistryOperationErrorParser> errors = new ArrayList<>();
+
+    private static final String WARNINGS_NAME = "warnings";
+    @Expose
+    @SerializedName(WARNINGS_NAME)
+    @Setter
+    private List<DeviceRegistryOperationWarningParser> warnings = new ArrayList<>();
+
+    /**
+     * Empty constructor
+     */
+    public BulkRegistryOperationResultParser()
+    {
+    }
+
+    /**
+     * @return the devices that could not be applied. Never null, since the service omits this list if it is empty.
+     */
+    public List<DeviceRegistryOperationErrorParser> getErrors()
+    {
+        return this.errors != null ? this.errors : new ArrayList<>();
+    }
+
+    /**
+     * @return the devices that were applied with a warning. Never null, since the service omits this list if it is
+     * empty.
+     */
+    public List<DeviceRegistryOperationWarningParser> getWarnings()
+    {
+        return this.warnings != null ? this.warnings : new ArrayList<>();
+    }
+}
@@ -0,0 +1,36 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.azure.sdk.iot.service.registry.serializers;
+
+import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.SerializedName;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * A device that could not be created, updated or deleted by a bulk registry operation.
+ */
+public class DeviceRegistryOperationErrorParser
+{
+    private static final String DEVICE_ID_NAME = "deviceId";
+    @Expose
+    @SerializedName(DEVICE_ID_NAME)
+    @Getter
+    @Setter
+    private String deviceId;
+
+    private static final String ERROR_CODE_NAME = "errorCode";
+    @Expose
+    @SerializedName(ERROR_CODE_NAME)
+    @Getter
+    @Setter
+    private String errorCode;
+
+    private static final String ERROR_STATUS_NAME = "errorStatus";
+    @Expose
+    @SerializedName(ERROR_STATUS_NAME)
+    @Getter
+    @Setter
+    private String errorStatus;
+}
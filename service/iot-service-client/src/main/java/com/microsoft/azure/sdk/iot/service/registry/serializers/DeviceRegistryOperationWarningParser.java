@@ -0,0 +1,36 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.azure.sdk.iot.service.registry.serializers;
+
+import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.SerializedName;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * A device that was created, updated or deleted by a bulk registry operation, but with a warning.
+ */
+public class DeviceRegistryOperationWarningParser
+{
+    private static final String DEVICE_ID_NAME = "deviceId";
+    @Expose
+    @SerializedName(DEVICE_ID_NAME)
+    @Getter
+    @Setter
+    private String deviceId;
+
+    private static final String WARNING_CODE_NAME = "warningCode";
+    @Expose
+    @SerializedName(WARNING_CODE_NAME)
+    @Getter
+    @Setter
+    private String warningCode;
+
+    private static final String WARNING_STATUS_NAME = "warningStatus";
+    @Expose
+    @SerializedName(WARNING_STATUS_NAME)
+    @Getter
+    @Setter
+    private String warningStatus;
+}
@@ -17,7 +17,7 @@ import lombok.Setter;
  */
 public class SymmetricKeyParser
 {
-    private final transient Gson gson = new Gson();
+    private final transient static Gson gson = new Gson();
 
     private static final String PRIMARY_KEY_SERIALIZED_NAME = "primaryKey";
     @SerializedName(PRIMARY_KEY_SERIALIZED_NAME)
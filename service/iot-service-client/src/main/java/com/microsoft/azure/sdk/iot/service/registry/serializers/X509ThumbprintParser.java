@@ -23,7 +23,7 @@ public class X509ThumbprintParser
     @Setter
     private String secondaryThumbprint;
 
-    private final transient Gson gson = new Gson();
+    private final transient static Gson gson = new Gson();
 
     /**
      * Empty constructor: Used only to keep GSON happy.
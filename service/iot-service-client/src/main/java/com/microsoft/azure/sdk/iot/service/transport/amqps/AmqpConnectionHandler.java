@@ -60,6 +60,9 @@ abstract class AmqpConnectionHandler extends ErrorLoggingBaseHandlerWithCleanup
 
     Connection connection;
     private CbsSessionHandler cbsSessionHandler;
+
+    // The thread that runs this handler's reactor, and so every callback of the client that owns this handler
+    private volatile Thread reactorThread;
     private Runnable onConnectionClosedCallback;
 
     AmqpConnectionHandler(
@@ -165,6 +168,7 @@ abstract class AmqpConnectionHandler extends ErrorLoggingBaseHandlerWithCleanup
     @Override
     public void onReactorInit(Event event)
     {
+        this.reactorThread = Thread.currentThread();
         Reactor reactor = event.getReactor();
 
         if (this.protocol == IotHubServiceClientProtocol.AMQPS_WS)
@@ -184,6 +188,15 @@ abstract class AmqpConnectionHandler extends ErrorLoggingBaseHandlerWithCleanup
         }
     }
 
+    /**
+     * @return true if the calling thread is the thread that runs this handler's reactor. A method that blocks until the
+     * reactor does more work must not be called on this thread, since the reactor can't do that work while it's blocked.
+     */
+    public boolean isReactorThread()
+    {
+        return Thread.currentThread() == this.reactorThread;
+    }
+
     /**
      * Event handler for the connection bound event
      * @param event The proton event object
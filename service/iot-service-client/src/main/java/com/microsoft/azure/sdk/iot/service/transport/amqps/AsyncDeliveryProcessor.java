@@ -0,0 +1,137 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.azure.sdk.iot.service.transport.amqps;
+
+import com.microsoft.azure.sdk.iot.service.messaging.AcknowledgementType;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.qpid.proton.engine.BaseHandler;
+import org.apache.qpid.proton.engine.Delivery;
+import org.apache.qpid.proton.engine.EndpointState;
+import org.apache.qpid.proton.engine.Event;
+import org.apache.qpid.proton.engine.Receiver;
+import org.apache.qpid.proton.reactor.Reactor;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Runs the processing of received deliveries on an {@link Executor} rather than on the reactor thread, and settles each
+ * delivery back on the reactor thread once its processing has completed.
+ *
+ * <p>
+ * Proton-j is not thread safe, so deliveries can't be settled from the executor's threads. Instead, completed deliveries
+ * are queued and a reactor timer settles them, in the same way that {@link CloudToDeviceMessageSenderLinkHandler}
+ * sends messages that were queued from other threads. The timer only runs while deliveries are being processed.
+ * </p>
+ *
+ * <p>
+ * Each delivery's link credit is only returned to the service once that delivery has been settled, so the number of
+ * deliveries being processed at once is limited by the credit that the receiver link was opened with. Deliveries that
+ * are still being processed when the link closes are never settled, so the service will redeliver them later.
+ * </p>
+ */
+@Slf4j
+final class AsyncDeliveryProcessor extends BaseHandler
+{
+    private static final int SETTLE_DELIVERIES_PERIOD_MILLISECONDS = 50;
+
+    private final Executor executor;
+    private final Queue<ProcessedDelivery> processedDeliveries = new ConcurrentLinkedQueue<>();
+
+    // only accessed from the reactor thread
+    private int unsettledDeliveryCount;
+
+    AsyncDeliveryProcessor(Executor executor)
+    {
+        this.executor = executor;
+    }
+
+    /**
+     * Process a delivery on this processor's executor. Must be called from the reactor thread.
+     *
+     * @param delivery the delivery to settle once it has been processed.
+     * @param receiverLink the link that the delivery was received on.
+     * @param processor the processing to run on the executor. Exceptions thrown from it, or the executor rejecting it,
+     * abandon the delivery.
+     * @param reactor the reactor that the link belongs to.
+     */
+    void process(Delivery delivery, Receiver receiverLink, Supplier<AcknowledgementType> processor, Reactor reactor)
+    {
+        if (this.unsettledDeliveryCount++ == 0)
+        {
+            reactor.schedule(SETTLE_DELIVERIES_PERIOD_MILLISECONDS, this);
+        }
+
+        CompletableFuture<AcknowledgementType> processing;
+        try
+        {
+            processing = CompletableFuture.supplyAsync(processor, this.executor);
+        }
+        catch (RejectedExecutionException e)
+        {
+            // The user's executor may be shut down or saturated. Abandon the delivery so that the service redelivers it
+            // rather than letting the exception escape into the reactor.
+            log.warn("The processor executor rejected a received message, abandoning it", e);
+            this.processedDeliveries.add(new ProcessedDelivery(delivery, receiverLink, AcknowledgementType.ABANDON));
+            return;
+        }
+
+        processing.whenComplete((acknowledgementType, throwable) ->
+        {
+            if (throwable != null)
+            {
+                log.warn("Encountered an exception while processing a received message, abandoning it", throwable);
+                acknowledgementType = AcknowledgementType.ABANDON;
+            }
+
+            this.processedDeliveries.add(new ProcessedDelivery(delivery, receiverLink, acknowledgementType));
+        });
+    }
+
+    @Override
+    public void onTimerTask(Event event)
+    {
+        ProcessedDelivery processedDelivery = this.processedDeliveries.poll();
+        while (processedDelivery != null)
+        {
+            this.unsettledDeliveryCount--;
+
+            Receiver receiverLink = processedDelivery.receiverLink;
+            if (receiverLink.getLocalState() == EndpointState.ACTIVE)
+            {
+                ReceiverLinkHandler.settle(processedDelivery.delivery, processedDelivery.acknowledgementType);
+                receiverLink.flow(1); // flow back the credit so the service can send another message now
+            }
+            else
+            {
+                log.debug("Not settling a processed delivery because its receiver link has closed. The service will redeliver it.");
+            }
+
+            processedDelivery = this.processedDeliveries.poll();
+        }
+
+        if (this.unsettledDeliveryCount > 0)
+        {
+            event.getReactor().schedule(SETTLE_DELIVERIES_PERIOD_MILLISECONDS, this);
+        }
+    }
+
+    private static final class ProcessedDelivery
+    {
+        private final Delivery delivery;
+        private final Receiver receiverLink;
+        private final AcknowledgementType acknowledgementType;
+
+        ProcessedDelivery(Delivery delivery, Receiver receiverLink, AcknowledgementType acknowledgementType)
+        {
+            this.delivery = delivery;
+            this.receiverLink = receiverLink;
+            this.acknowledgementType = acknowledgementType;
+        }
+    }
+}
@@ -7,9 +7,8 @@ import com.azure.core.credential.AccessToken;
 import com.azure.core.credential.AzureSasCredential;
 import com.azure.core.credential.TokenCredential;
 import com.azure.core.credential.TokenRequestContext;
-import com.microsoft.azure.sdk.iot.service.auth.IotHubConnectionString;
 import com.microsoft.azure.sdk.iot.service.auth.IotHubConnectionStringBuilder;
-import com.microsoft.azure.sdk.iot.service.auth.IotHubServiceSasToken;
+import com.microsoft.azure.sdk.iot.service.auth.IotHubServiceSasTokenCache;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.qpid.proton.Proton;
 import org.apache.qpid.proton.amqp.messaging.AmqpValue;
@@ -52,7 +51,7 @@ final class CbsSenderLinkHandler extends SenderLinkHandler
 
     private TokenCredential credential;
     private AccessToken currentAccessToken;
-    private String connectionString;
+    private IotHubServiceSasTokenCache sasTokenCache;
     private AzureSasCredential sasTokenProvider;
 
     private static final String BEARER = "Bearer";
@@ -83,7 +82,7 @@ final class CbsSenderLinkHandler extends SenderLinkHandler
 
         this.senderLinkTag = SENDER_LINK_TAG_PREFIX;
         this.senderLinkAddress = SENDER_LINK_ENDPOINT_PATH;
-        this.connectionString = connectionString;
+        this.sasTokenCache = IotHubServiceSasTokenCache.getSharedInstance(IotHubConnectionStringBuilder.createIotHubConnectionString(connectionString));
     }
 
     static String getCbsTag()
@@ -140,8 +139,7 @@ final class CbsSenderLinkHandler extends SenderLinkHandler
         }
         else
         {
-            IotHubConnectionString iotHubConnectionString = IotHubConnectionStringBuilder.createIotHubConnectionString(connectionString);
-            String sasToken = new IotHubServiceSasToken(iotHubConnectionString).toString();
+            String sasToken = this.sasTokenCache.getTokenString();
             this.currentAccessToken = getAccessTokenFromSasToken(sasToken);
             applicationProperties.put(PUT_TOKEN_TYPE, SAS_TOKEN);
             Section section = new AmqpValue(sasToken);
@@ -47,6 +47,9 @@ public class CloudToDeviceMessageConnectionHandler extends AmqpConnectionHandler
     @Setter
     private Runnable onConnectionOpenedCallback;
 
+    @Setter
+    private int maxUnacknowledgedMessageCount = CloudToDeviceMessageSenderLinkHandler.DEFAULT_MAX_UNACKNOWLEDGED_MESSAGE_COUNT;
+
     public CloudToDeviceMessageConnectionHandler(
             String connectionString,
             IotHubServiceClientProtocol protocol,
@@ -115,7 +118,8 @@ public class CloudToDeviceMessageConnectionHandler extends AmqpConnectionHandler
                 new CloudToDeviceMessageSenderLinkHandler(
                     cloudToDeviceMessageSendingLink,
                     UUID.randomUUID().toString(),
-                    this);
+                    this,
+                    this.maxUnacknowledgedMessageCount);
 
             log.debug("Opening sender link for amqp cloud to device messages");
         }
@@ -153,6 +157,24 @@ public class CloudToDeviceMessageConnectionHandler extends AmqpConnectionHandler
         this.cloudToDeviceMessageSenderLinkHandler.sendAsync(deviceId, moduleId, iotHubMessage, callback, context);
     }
 
+    /**
+     * @return the number of messages that have been queued but not yet sent to the service.
+     */
+    public int getQueuedMessageCount()
+    {
+        CloudToDeviceMessageSenderLinkHandler linkHandler = this.cloudToDeviceMessageSenderLinkHandler;
+        return linkHandler == null ? 0 : linkHandler.getQueuedMessageCount();
+    }
+
+    /**
+     * @return the number of messages that have been sent to the service but not yet acknowledged by it.
+     */
+    public int getUnacknowledgedMessageCount()
+    {
+        CloudToDeviceMessageSenderLinkHandler linkHandler = this.cloudToDeviceMessageSenderLinkHandler;
+        return linkHandler == null ? 0 : linkHandler.getUnacknowledgedMessageCount();
+    }
+
     @Override
     public void closeAsync(Runnable onConnectionClosedCallback)
     {
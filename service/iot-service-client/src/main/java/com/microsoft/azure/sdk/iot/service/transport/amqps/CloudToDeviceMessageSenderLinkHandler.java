@@ -20,6 +20,7 @@ import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 /**
@@ -32,12 +33,43 @@ import java.util.function.Consumer;
 @Slf4j
 public class CloudToDeviceMessageSenderLinkHandler extends SenderLinkHandler
 {
+    public static final int DEFAULT_MAX_UNACKNOWLEDGED_MESSAGE_COUNT = 1000;
+
+    // Queued messages are also sent as soon as the service grants link credit or acknowledges an earlier message, so
+    // this timer only matters for messages that are queued while the link is otherwise idle.
+    private static final int SEND_MESSAGES_PERIOD_MILLISECONDS = 200;
+
     private final Queue<CloudToDeviceMessage> outgoingMessageQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger outgoingMessageCount = new AtomicInteger(); // ConcurrentLinkedQueue.size() is O(n)
     private final Map<Integer, CloudToDeviceMessage> unacknowledgedMessages = new ConcurrentHashMap<>();
+    private final int maxUnacknowledgedMessageCount;
+    private boolean sendTimerScheduled; // only accessed from the reactor thread
 
     public CloudToDeviceMessageSenderLinkHandler(Sender sender, String linkCorrelationId, LinkStateCallback linkStateCallback)
+    {
+        this(sender, linkCorrelationId, linkStateCallback, DEFAULT_MAX_UNACKNOWLEDGED_MESSAGE_COUNT);
+    }
+
+    public CloudToDeviceMessageSenderLinkHandler(Sender sender, String linkCorrelationId, LinkStateCallback linkStateCallback, int maxUnacknowledgedMessageCount)
     {
         super(sender, linkCorrelationId, linkStateCallback);
+        this.maxUnacknowledgedMessageCount = maxUnacknowledgedMessageCount;
+    }
+
+    /**
+     * @return the number of messages that have been queued but not yet sent over the link.
+     */
+    public int getQueuedMessageCount()
+    {
+        return this.outgoingMessageCount.get();
+    }
+
+    /**
+     * @return the number of messages that have been sent over the link but not yet acknowledged by the service.
+     */
+    public int getUnacknowledgedMessageCount()
+    {
+        return this.unacknowledgedMessages.size();
     }
 
     public void sendAsync(String deviceId, String moduleId, Message iotHubMessage, Consumer<SendResult> callback, Object context)
@@ -52,6 +84,7 @@ public class CloudToDeviceMessageSenderLinkHandler extends SenderLinkHandler
         }
 
         outgoingMessageQueue.add(new CloudToDeviceMessage(deviceId, moduleId, iotHubMessage, callback, context));
+        outgoingMessageCount.incrementAndGet();
     }
 
     /**
@@ -61,9 +94,16 @@ public class CloudToDeviceMessageSenderLinkHandler extends SenderLinkHandler
     @Override
     public void onLinkFlow(Event event)
     {
-        event.getReactor().schedule(200, this);
-    }
+        // the service granted more link credit, so more of the queued messages may be sent now
+        sendQueuedMessages();
 
+        // flow events happen repeatedly, but only one timer should be running at a time
+        if (!this.sendTimerScheduled)
+        {
+            this.sendTimerScheduled = true;
+            event.getReactor().schedule(SEND_MESSAGES_PERIOD_MILLISECONDS, this);
+        }
+    }
 
     @Override
     public void onTimerTask(Event event)
@@ -71,17 +111,33 @@ public class CloudToDeviceMessageSenderLinkHandler extends SenderLinkHandler
         sendQueuedMessages();
 
         // schedule the next onTimerTask event so that messages can be sent again later
-        event.getReactor().schedule(200, this);
+        event.getReactor().schedule(SEND_MESSAGES_PERIOD_MILLISECONDS, this);
     }
 
     private void sendQueuedMessages()
     {
-        CloudToDeviceMessage outgoingMessage = this.outgoingMessageQueue.poll();
-        while (outgoingMessage != null)
+        // Only send as many messages as the service has granted credit for, and don't let more than the maximum number
+        // of messages go unacknowledged. The rest stay queued until more credit is granted or acknowledgements arrive.
+        while (this.senderLink.getCredit() > 0 && this.unacknowledgedMessages.size() < this.maxUnacknowledgedMessageCount)
         {
+            CloudToDeviceMessage outgoingMessage = this.outgoingMessageQueue.poll();
+            if (outgoingMessage == null)
+            {
+                return;
+            }
+
+            this.outgoingMessageCount.decrementAndGet();
+
             int deliveryTag = this.sendMessageAndGetDeliveryTag(outgoingMessage.getProtonMessage());
-            this.unacknowledgedMessages.put(deliveryTag, outgoingMessage);
-            outgoingMessage = this.outgoingMessageQueue.poll();
+            if (deliveryTag == -1)
+            {
+                IotHubException exception = new IotHubException("Message failed to send because it could not be written to the amqp link.");
+                onSendFailed(outgoingMessage, exception);
+            }
+            else
+            {
+                this.unacknowledgedMessages.put(deliveryTag, outgoingMessage);
+            }
         }
     }
 
@@ -129,6 +185,9 @@ public class CloudToDeviceMessageSenderLinkHandler extends SenderLinkHandler
         }
 
         delivery.settle();
+
+        // an acknowledgement frees up room for another unacknowledged message
+        sendQueuedMessages();
     }
 
     @Override
@@ -146,37 +205,34 @@ public class CloudToDeviceMessageSenderLinkHandler extends SenderLinkHandler
         for (CloudToDeviceMessage unsentMessage : outgoingMessageQueue)
         {
             IotHubException exception = new IotHubException("Message failed to send because the client was closed while it was still queued.");
-            Consumer<SendResult> callback = unsentMessage.getOnMessageSentCallback();
-            if (callback != null)
-            {
-                callback.accept(
-                    new SendResult(
-                        false,
-                        unsentMessage.getCorrelationId(),
-                        unsentMessage.getOnMessageSentCallbackContext(),
-                        exception));
-            }
+            onSendFailed(unsentMessage, exception);
         }
 
         for (CloudToDeviceMessage unacknowledgedMessage : unacknowledgedMessages.values())
         {
             IotHubException exception = new IotHubException("Message failed to send because the client was closed after it was sent, but before it was acknowledged by the service.");
-            Consumer<SendResult> callback = unacknowledgedMessage.getOnMessageSentCallback();
-            if (callback != null)
-            {
-                callback.accept(
-                    new SendResult(
-                        false,
-                        unacknowledgedMessage.getCorrelationId(),
-                        unacknowledgedMessage.getOnMessageSentCallbackContext(),
-                        exception));
-            }
+            onSendFailed(unacknowledgedMessage, exception);
         }
 
         outgoingMessageQueue.clear();
+        outgoingMessageCount.set(0);
         unacknowledgedMessages.clear();
     }
 
+    private static void onSendFailed(CloudToDeviceMessage message, IotHubException exception)
+    {
+        Consumer<SendResult> callback = message.getOnMessageSentCallback();
+        if (callback != null)
+        {
+            callback.accept(
+                new SendResult(
+                    false,
+                    message.getCorrelationId(),
+                    message.getOnMessageSentCallbackContext(),
+                    exception));
+        }
+    }
+
     @Override
     protected String getLinkInstanceType()
     {
@@ -25,6 +25,7 @@ import org.apache.qpid.proton.engine.Session;
 import javax.net.ssl.SSLContext;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -50,6 +51,13 @@ public class EventReceivingConnectionHandler extends AmqpConnectionHandler imple
     @Setter
     private Runnable onConnectionOpenedCallback;
 
+    // If set, received messages are processed on this executor rather than on the reactor thread
+    private Executor processorExecutor;
+
+    // The link credit to open receiver links with when processing on the processorExecutor. Limits how many received
+    // messages can be processed at once
+    private int maxConcurrentProcessingCount = 1;
+
     private final Function<FileUploadNotification, AcknowledgementType> fileUploadNotificationReceivedCallback;
     private final Function<FeedbackBatch, AcknowledgementType> messageFeedbackReceivedCallback;
 
@@ -131,11 +139,8 @@ public class EventReceivingConnectionHandler extends AmqpConnectionHandler imple
                 source.setAddress(FILENOTIFICATION_ENDPOINT);
                 fileUploadNotificationReceiverLink.setSource(source);
 
-                // We only want to receive, at most, one file upload notification since each receive call the user makes can
-                // only return either a single file upload notification or null (no file upload notification received).
-                // Extend only a single link credit to the service so that the service can't send more than one message.
-                fileUploadNotificationReceiverLink.flow(1);
-                fileUploadNotificationReceiverLinkHandler = new FileUploadNotificationReceiverLinkHandler(fileUploadNotificationReceiverLink, this, this.fileUploadNotificationReceivedCallback);
+                fileUploadNotificationReceiverLink.flow(getInitialLinkCredit());
+                fileUploadNotificationReceiverLinkHandler = new FileUploadNotificationReceiverLinkHandler(fileUploadNotificationReceiverLink, this, this.fileUploadNotificationReceivedCallback, this.processorExecutor);
             }
 
             if (this.messageFeedbackReceivedCallback != null)
@@ -149,15 +154,46 @@ public class EventReceivingConnectionHandler extends AmqpConnectionHandler imple
                 source.setAddress(MESSAGE_FEEDBACK_ENDPOINT);
                 feedbackReceiverLink.setSource(source);
 
-                // We only want to receive, at most, one feedback message since each receive call the user makes can only return
-                // either a single feedback message or null (no feedback message received). Extend only a single link credit
-                // to the service so that the service can't send more than one message.
-                feedbackReceiverLink.flow(1);
-                messageFeedbackReceiverLinkHandler = new MessageFeedbackReceiverLinkHandler(feedbackReceiverLink, this, this.messageFeedbackReceivedCallback);
+                feedbackReceiverLink.flow(getInitialLinkCredit());
+                messageFeedbackReceiverLinkHandler = new MessageFeedbackReceiverLinkHandler(feedbackReceiverLink, this, this.messageFeedbackReceivedCallback, this.processorExecutor);
             }
         }
     }
 
+    /**
+     * Set the executor to process received messages on, and the most received messages to process on it at once.
+     *
+     * @param processorExecutor the executor to process received messages on, or null to process them one at a time on
+     * the reactor thread.
+     * @param maxConcurrentProcessingCount the most received messages to process at once. Ignored if processorExecutor
+     * is null, and must be greater than 0 otherwise.
+     * @throws IllegalArgumentException if processorExecutor is set and maxConcurrentProcessingCount is less than 1.
+     */
+    public void setProcessorExecutor(Executor processorExecutor, int maxConcurrentProcessingCount)
+    {
+        if (processorExecutor != null && maxConcurrentProcessingCount < 1)
+        {
+            throw new IllegalArgumentException("maxConcurrentProcessingCount must be greater than 0");
+        }
+
+        this.processorExecutor = processorExecutor;
+        this.maxConcurrentProcessingCount = maxConcurrentProcessingCount;
+    }
+
+    private int getInitialLinkCredit()
+    {
+        if (this.processorExecutor == null)
+        {
+            // Messages are processed one at a time on the reactor thread, so only a single link credit is extended
+            // up front. The link's flow controller tops up the credit as messages are received.
+            return 1;
+        }
+
+        // The link handler only flows credit back to the service as each processed message is settled, so this
+        // initial credit is the most messages that the service will send before earlier ones are settled.
+        return this.maxConcurrentProcessingCount;
+    }
+
     @Override
     public void onSenderLinkRemoteOpen()
     {
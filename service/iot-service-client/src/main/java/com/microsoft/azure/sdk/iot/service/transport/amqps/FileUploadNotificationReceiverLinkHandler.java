@@ -8,30 +8,45 @@ import com.microsoft.azure.sdk.iot.service.messaging.FileUploadNotification;
 import com.microsoft.azure.sdk.iot.service.messaging.serializers.FileUploadNotificationParser;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.qpid.proton.Proton;
-import org.apache.qpid.proton.amqp.messaging.Accepted;
 import org.apache.qpid.proton.amqp.messaging.Data;
-import org.apache.qpid.proton.amqp.messaging.Released;
-import org.apache.qpid.proton.amqp.transport.DeliveryState;
 import org.apache.qpid.proton.engine.Delivery;
 import org.apache.qpid.proton.engine.Event;
 import org.apache.qpid.proton.engine.Receiver;
 
 import java.util.UUID;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Slf4j
 public class FileUploadNotificationReceiverLinkHandler extends ReceiverLinkHandler
 {
     private final Function<FileUploadNotification, AcknowledgementType> fileUploadNotificationReceivedCallback;
+    private final AsyncDeliveryProcessor asyncDeliveryProcessor; // null if notifications are processed on the reactor thread
 
     public FileUploadNotificationReceiverLinkHandler(
         Receiver link,
         LinkStateCallback linkStateCallback,
         Function<FileUploadNotification, AcknowledgementType> fileUploadNotificationReceivedCallback)
     {
-        super(link, UUID.randomUUID().toString(), linkStateCallback);
+        this(link, linkStateCallback, fileUploadNotificationReceivedCallback, null);
+    }
+
+    /**
+     * @param processorExecutor the executor to process notifications on. If null, notifications are processed on the
+     * reactor thread one at a time. Otherwise the link's credit is only returned as notifications are settled, so the
+     * credit that the link was opened with limits how many notifications are processed at once.
+     */
+    public FileUploadNotificationReceiverLinkHandler(
+        Receiver link,
+        LinkStateCallback linkStateCallback,
+        Function<FileUploadNotification, AcknowledgementType> fileUploadNotificationReceivedCallback,
+        Executor processorExecutor)
+    {
+        super(link, UUID.randomUUID().toString(), linkStateCallback, processorExecutor == null);
 
         this.fileUploadNotificationReceivedCallback = fileUploadNotificationReceivedCallback;
+        this.asyncDeliveryProcessor = processorExecutor == null ? null : new AsyncDeliveryProcessor(processorExecutor);
     }
 
     /**
@@ -57,38 +72,38 @@ public class FileUploadNotificationReceiverLinkHandler extends ReceiverLinkHandl
             if (msg.getBody() instanceof Data)
             {
                 String fileUploadNotificationJson = ((Data) msg.getBody()).getValue().toString();
-                AcknowledgementType messageResult = AcknowledgementType.ABANDON;
+                Supplier<AcknowledgementType> processor = () -> processFileUploadNotification(fileUploadNotificationJson);
 
-                try
+                if (this.asyncDeliveryProcessor != null)
                 {
-                    FileUploadNotificationParser notificationParser = new FileUploadNotificationParser(fileUploadNotificationJson);
-
-                    FileUploadNotification fileUploadNotification = new FileUploadNotification(notificationParser.getDeviceId(),
-                        notificationParser.getBlobUri(), notificationParser.getBlobName(), notificationParser.getLastUpdatedTime(),
-                        notificationParser.getBlobSizeInBytesTag(), notificationParser.getEnqueuedTimeUtc());
-
-                    messageResult = fileUploadNotificationReceivedCallback.apply(fileUploadNotification);
+                    this.asyncDeliveryProcessor.process(delivery, recv, processor, event.getReactor());
                 }
-                catch (Exception e)
+                else
                 {
-                    // this should never happen. However if it does, proton can't handle it. So guard against throwing it at proton.
-                    log.warn("Encountered an exception while handling file upload notification", e);
+                    settle(delivery, processor.get());
+                    recv.flow(1); // flow back the credit so the service can send another message now
                 }
+            }
+        }
+    }
 
-                DeliveryState deliveryState = Accepted.getInstance();
-                if (messageResult == AcknowledgementType.ABANDON)
-                {
-                    deliveryState = Released.getInstance();
-                }
-                else if (messageResult == AcknowledgementType.COMPLETE)
-                {
-                    deliveryState = Accepted.getInstance();
-                }
+    private AcknowledgementType processFileUploadNotification(String fileUploadNotificationJson)
+    {
+        try
+        {
+            FileUploadNotificationParser notificationParser = new FileUploadNotificationParser(fileUploadNotificationJson);
 
-                delivery.disposition(deliveryState);
-                delivery.settle();
-                recv.flow(1); // flow back the credit so the service can send another message now
-            }
+            FileUploadNotification fileUploadNotification = new FileUploadNotification(notificationParser.getDeviceId(),
+                notificationParser.getBlobUri(), notificationParser.getBlobName(), notificationParser.getLastUpdatedTime(),
+                notificationParser.getBlobSizeInBytesTag(), notificationParser.getEnqueuedTimeUtc());
+
+            return fileUploadNotificationReceivedCallback.apply(fileUploadNotification);
+        }
+        catch (Exception e)
+        {
+            // this should never happen. However if it does, proton can't handle it. So guard against throwing it at proton.
+            log.warn("Encountered an exception while handling file upload notification", e);
+            return AcknowledgementType.ABANDON;
         }
     }
 
@@ -8,30 +8,45 @@ import com.microsoft.azure.sdk.iot.service.messaging.FeedbackBatch;
 import com.microsoft.azure.sdk.iot.service.messaging.FeedbackBatchMessage;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.qpid.proton.Proton;
-import org.apache.qpid.proton.amqp.messaging.Accepted;
 import org.apache.qpid.proton.amqp.messaging.Data;
-import org.apache.qpid.proton.amqp.messaging.Released;
-import org.apache.qpid.proton.amqp.transport.DeliveryState;
 import org.apache.qpid.proton.engine.Delivery;
 import org.apache.qpid.proton.engine.Event;
 import org.apache.qpid.proton.engine.Receiver;
 
 import java.util.UUID;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Slf4j
 public class MessageFeedbackReceiverLinkHandler extends ReceiverLinkHandler
 {
     private final Function<FeedbackBatch, AcknowledgementType> feedbackBatchReceivedCallback;
+    private final AsyncDeliveryProcessor asyncDeliveryProcessor; // null if feedback is processed on the reactor thread
 
     public MessageFeedbackReceiverLinkHandler(
         Receiver link,
         LinkStateCallback linkStateCallback,
         Function<FeedbackBatch, AcknowledgementType> feedbackBatchReceivedCallback)
     {
-        super(link, UUID.randomUUID().toString(), linkStateCallback);
+        this(link, linkStateCallback, feedbackBatchReceivedCallback, null);
+    }
+
+    /**
+     * @param processorExecutor the executor to process feedback batches on. If null, feedback batches are processed on
+     * the reactor thread one at a time. Otherwise the link's credit is only returned as feedback batches are settled,
+     * so the credit that the link was opened with limits how many feedback batches are processed at once.
+     */
+    public MessageFeedbackReceiverLinkHandler(
+        Receiver link,
+        LinkStateCallback linkStateCallback,
+        Function<FeedbackBatch, AcknowledgementType> feedbackBatchReceivedCallback,
+        Executor processorExecutor)
+    {
+        super(link, UUID.randomUUID().toString(), linkStateCallback, processorExecutor == null);
 
         this.feedbackBatchReceivedCallback = feedbackBatchReceivedCallback;
+        this.asyncDeliveryProcessor = processorExecutor == null ? null : new AsyncDeliveryProcessor(processorExecutor);
     }
 
     /**
@@ -56,36 +71,37 @@ public class MessageFeedbackReceiverLinkHandler extends ReceiverLinkHandler
 
             if (msg.getBody() instanceof Data)
             {
-                AcknowledgementType messageResult = AcknowledgementType.ABANDON;
-                try
-                {
-                    String feedbackJson = ((Data) msg.getBody()).getValue().toString();
-                    FeedbackBatch feedbackBatch = FeedbackBatchMessage.parse(feedbackJson);
-
-                    messageResult = feedbackBatchReceivedCallback.apply(feedbackBatch);
-                }
-                catch (Exception e)
-                {
-                    log.warn("Encountered an exception while handling feedback batch message", e);
-                }
+                String feedbackJson = ((Data) msg.getBody()).getValue().toString();
+                Supplier<AcknowledgementType> processor = () -> processFeedbackBatch(feedbackJson);
 
-                DeliveryState deliveryState = Accepted.getInstance();
-                if (messageResult == AcknowledgementType.ABANDON)
+                if (this.asyncDeliveryProcessor != null)
                 {
-                    deliveryState = Released.getInstance();
+                    this.asyncDeliveryProcessor.process(delivery, recv, processor, event.getReactor());
                 }
-                else if (messageResult == AcknowledgementType.COMPLETE)
+                else
                 {
-                    deliveryState = Accepted.getInstance();
+                    settle(delivery, processor.get());
+                    recv.flow(1); // flow back the credit so the service can send another message now
                 }
-
-                delivery.disposition(deliveryState);
-                delivery.settle();
-                recv.flow(1); // flow back the credit so the service can send another message now
             }
         }
     }
 
+    private AcknowledgementType processFeedbackBatch(String feedbackJson)
+    {
+        try
+        {
+            FeedbackBatch feedbackBatch = FeedbackBatchMessage.parse(feedbackJson);
+
+            return feedbackBatchReceivedCallback.apply(feedbackBatch);
+        }
+        catch (Exception e)
+        {
+            log.warn("Encountered an exception while handling feedback batch message", e);
+            return AcknowledgementType.ABANDON;
+        }
+    }
+
     @Override
     String getLinkInstanceType()
     {
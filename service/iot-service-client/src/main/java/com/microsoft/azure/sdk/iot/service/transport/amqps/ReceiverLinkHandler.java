@@ -3,10 +3,14 @@
 
 package com.microsoft.azure.sdk.iot.service.transport.amqps;
 
+import com.microsoft.azure.sdk.iot.service.messaging.AcknowledgementType;
 import com.microsoft.azure.sdk.iot.service.transport.TransportUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.qpid.proton.amqp.Symbol;
+import org.apache.qpid.proton.amqp.messaging.Accepted;
+import org.apache.qpid.proton.amqp.messaging.Released;
 import org.apache.qpid.proton.amqp.messaging.Source;
+import org.apache.qpid.proton.amqp.transport.DeliveryState;
 import org.apache.qpid.proton.amqp.transport.ReceiverSettleMode;
 import org.apache.qpid.proton.engine.BaseHandler;
 import org.apache.qpid.proton.engine.Delivery;
@@ -37,10 +41,20 @@ abstract class ReceiverLinkHandler extends BaseHandler
     private final Receiver receiverLink;
 
     private final LinkStateCallback linkStateCallback;
+    private final boolean automaticallyFlowCredit;
 
     abstract String getLinkInstanceType();
 
     ReceiverLinkHandler(Receiver receiver, String linkCorrelationId, LinkStateCallback linkStateCallback)
+    {
+        this(receiver, linkCorrelationId, linkStateCallback, true);
+    }
+
+    /**
+     * @param automaticallyFlowCredit if false, no flow controller is added to this link, and the subclass is responsible
+     * for flowing credit back to the service as it settles deliveries.
+     */
+    ReceiverLinkHandler(Receiver receiver, String linkCorrelationId, LinkStateCallback linkStateCallback, boolean automaticallyFlowCredit)
     {
         this.amqpProperties = new HashMap<>();
         this.amqpProperties.put(Symbol.getSymbol(API_VERSION_KEY), TransportUtils.IOTHUB_API_VERSION);
@@ -48,12 +62,16 @@ abstract class ReceiverLinkHandler extends BaseHandler
         this.linkCorrelationId = linkCorrelationId;
 
         this.linkStateCallback = linkStateCallback;
+        this.automaticallyFlowCredit = automaticallyFlowCredit;
 
         //All events that happen to this receiver link will be handled in this class (onLinkRemoteOpen, for instance)
         BaseHandler.setHandler(receiver, this);
 
-        //This flow controller handles all link credit handling on our behalf
-        add(new LoggingFlowController(this.linkCorrelationId));
+        if (this.automaticallyFlowCredit)
+        {
+            //This flow controller handles all link credit handling on our behalf
+            add(new LoggingFlowController(this.linkCorrelationId));
+        }
     }
 
     @Override
@@ -69,7 +87,7 @@ abstract class ReceiverLinkHandler extends BaseHandler
             hasFlowController |= children.next() instanceof LoggingFlowController;
         }
 
-        if (!hasFlowController)
+        if (this.automaticallyFlowCredit && !hasFlowController)
         {
             log.trace("No flow controller detected in {} link with address {} and link correlation id {}. Adding a new flow controller.", getLinkInstanceType(), this.receiverLinkAddress, this.linkCorrelationId);
             add(new LoggingFlowController(this.linkCorrelationId));
@@ -150,6 +168,27 @@ abstract class ReceiverLinkHandler extends BaseHandler
         }
     }
 
+    /**
+     * Set the disposition of the provided delivery according to the provided acknowledgement type and settle it.
+     * @param delivery the delivery to settle.
+     * @param acknowledgementType how to settle the delivery.
+     */
+    static void settle(Delivery delivery, AcknowledgementType acknowledgementType)
+    {
+        DeliveryState deliveryState = Accepted.getInstance();
+        if (acknowledgementType == AcknowledgementType.ABANDON)
+        {
+            deliveryState = Released.getInstance();
+        }
+        else if (acknowledgementType == AcknowledgementType.COMPLETE)
+        {
+            deliveryState = Accepted.getInstance();
+        }
+
+        delivery.disposition(deliveryState);
+        delivery.settle();
+    }
+
     void close()
     {
         if (this.receiverLink.getLocalState() != EndpointState.CLOSED)
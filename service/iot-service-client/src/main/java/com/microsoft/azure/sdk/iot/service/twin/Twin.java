@@ -5,6 +5,7 @@
 
 package com.microsoft.azure.sdk.iot.service.twin;
 
+import com.google.gson.JsonElement;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
@@ -32,9 +33,9 @@ public class Twin
     @Setter(AccessLevel.PACKAGE)
     private Integer version;
 
-    private final TwinCollection tags = new TwinCollection();
-    private final TwinCollection reportedProperties = new TwinCollection();
-    private final TwinCollection desiredProperties = new TwinCollection();
+    private TwinCollection tags = new TwinCollection();
+    private TwinCollection reportedProperties = new TwinCollection();
+    private TwinCollection desiredProperties = new TwinCollection();
 
     @Getter
     @Setter(AccessLevel.PACKAGE)
@@ -73,43 +74,42 @@ public class Twin
 
     public static Twin fromJson(String json)
     {
-        TwinState twinState = new TwinState(json);
+        return fromTwinState(new TwinState(json));
+    }
+
+    /**
+     * Create a twin from an already parsed JSON with the full twin information, such as one element of a query result.
+     * This avoids serializing the parsed JSON back to a string just to parse it again.
+     *
+     * @param json the {@code JsonElement} with the JSON received from the service. It cannot be {@code null}.
+     * @return the twin.
+     */
+    public static Twin fromJson(JsonElement json)
+    {
+        return fromTwinState(new TwinState(json));
+    }
 
+    private static Twin fromTwinState(TwinState twinState)
+    {
         Twin twin = new Twin(twinState.getDeviceId());
         twin.setVersion(twinState.getVersion());
         twin.setETag(twinState.getETag());
 
-        // Tags
-        twin.getTags().setVersion(twinState.getTags().getVersion());
-        if (twinState.getTags().size() > 0)
-        {
-            twin.getTags().putAll(twinState.getTags());
-        }
-
-        // Desired properties
-        twin.getDesiredProperties().setVersion(twinState.getDesiredProperties().getVersion());
-        if (twinState.getDesiredProperties().size() > 0)
-        {
-            twin.getDesiredProperties().putAll(twinState.getDesiredProperties());
-        }
-
-        twin.getDesiredProperties().setTwinMetadata(twinState.getDesiredProperties().getTwinMetadata());
-        if (twinState.getDesiredProperties().getMetadataMap().size() > 0)
+        // The parsed collections already hold their versions and metadata, so they are used as they are rather than
+        // copied entry by entry into the twin's own collections.
+        if (twinState.getTags() != null)
         {
-            twin.getDesiredProperties().getMetadataMap().putAll(twinState.getDesiredProperties().getMetadataMap());
+            twin.tags = twinState.getTags();
         }
 
-        // Reported properties
-        twin.getReportedProperties().setVersion(twinState.getReportedProperties().getVersion());
-        if (twinState.getReportedProperties().size() > 0)
+        if (twinState.getDesiredProperties() != null)
         {
-            twin.getReportedProperties().putAll(twinState.getReportedProperties());
+            twin.desiredProperties = twinState.getDesiredProperties();
         }
 
-        twin.getReportedProperties().setTwinMetadata(twinState.getReportedProperties().getTwinMetadata());
-        if (twinState.getReportedProperties().getMetadataMap().size() > 0)
+        if (twinState.getReportedProperties() != null)
         {
-            twin.getReportedProperties().getMetadataMap().putAll(twinState.getReportedProperties().getMetadataMap());
+            twin.reportedProperties = twinState.getReportedProperties();
         }
 
         twin.setCapabilities(twinState.getCapabilities());
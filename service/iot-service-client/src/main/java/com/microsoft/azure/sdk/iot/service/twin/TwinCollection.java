@@ -98,14 +98,19 @@ import java.util.Map;
 @SuppressWarnings("unchecked")
 public class TwinCollection extends HashMap<String, Object> {
     // the Twin collection version
-    private static final String VERSION_TAG = "$version";
+    static final String VERSION_TAG = "$version";
     private Integer version;
 
     // the Twin collection metadata
-    private static final String METADATA_TAG = "$metadata";
+    static final String METADATA_TAG = "$metadata";
     private TwinMetadata twinMetadata;
     private final Map<String, TwinMetadata> metadataMap = new HashMap<>();
 
+    // Metadata read by TwinCollectionTypeAdapterFactory stays as json until it is first needed. The metadata of nested
+    // collections is part of the metadata of the outermost collection, which is their metadata owner.
+    private JsonObject unparsedMetadata;
+    private TwinCollection metadataOwner;
+
     /**
      * Constructor
      *
@@ -158,6 +163,7 @@ public class TwinCollection extends HashMap<String, Object> {
      */
     final Map<String, TwinMetadata> getMetadataMap()
     {
+        this.parseDeferredMetadata();
         return metadataMap;
     }
 
@@ -295,6 +301,33 @@ public class TwinCollection extends HashMap<String, Object> {
     }
 
 
+    /**
+     * Add a value read by {@link TwinCollectionTypeAdapterFactory}. Unlike {@link #put(String, Object)}, the value is
+     * neither copied nor validated since the parser only creates values of valid types.
+     */
+    void putParsedValue(String key, Object value) {
+        super.put(key, value);
+    }
+
+    void setUnparsedMetadata(JsonObject unparsedMetadata) {
+        this.unparsedMetadata = unparsedMetadata;
+    }
+
+    void setMetadataOwner(TwinCollection metadataOwner) {
+        this.metadataOwner = metadataOwner;
+    }
+
+    private void parseDeferredMetadata() {
+        TwinCollection owner = this.metadataOwner != null ? this.metadataOwner : this;
+        synchronized (owner.metadataMap) {
+            if (owner.unparsedMetadata != null) {
+                Map<? extends String, Object> metadata = TwinGsonBuilder.getGson().fromJson(owner.unparsedMetadata, Map.class);
+                owner.unparsedMetadata = null;
+                TwinCollection.addMetadata(owner, metadata);
+            }
+        }
+    }
+
     private static void addMetadata(TwinCollection twinCollection, Map<? extends String, Object> metadata) {
         String lastUpdated = null;
         Integer lastUpdatedVersion = null;
@@ -373,6 +406,8 @@ public class TwinCollection extends HashMap<String, Object> {
     }
 
     private void fillJsonMetadata(JsonObject jsonMetadata) {
+        this.parseDeferredMetadata();
+
         if (this.twinMetadata != null) {
             jsonMetadata.addProperty(TwinMetadata.LAST_UPDATE_TAG, ParserUtility.dateTimeUtcToString(this.twinMetadata.getLastUpdated()));
             jsonMetadata.addProperty(TwinMetadata.LAST_UPDATE_VERSION_TAG, this.twinMetadata.getLastUpdatedVersion());
@@ -420,6 +455,7 @@ public class TwinCollection extends HashMap<String, Object> {
      * @return the {@link TwinMetadata} of the Whole TwinCollection. It can be {@code null}.
      */
     public final TwinMetadata getTwinMetadata() {
+        this.parseDeferredMetadata();
         return this.twinMetadata;
     }
 
@@ -429,6 +465,8 @@ public class TwinCollection extends HashMap<String, Object> {
      * @param twinMetadata the metadata to assign to this TwinCollection.
      */
     final void setTwinMetadata(TwinMetadata twinMetadata) {
+        // parse any pending metadata first so that it can't later overwrite the metadata set here
+        this.parseDeferredMetadata();
         this.twinMetadata = twinMetadata;
     }
 
@@ -439,6 +477,7 @@ public class TwinCollection extends HashMap<String, Object> {
      * @return the {@link TwinMetadata} ot the specific entry in the TwinCollection. It can be {@code null}.
      */
     public final TwinMetadata getTwinMetadata(String key) {
+        this.parseDeferredMetadata();
         return this.metadataMap.get(key);
     }
 
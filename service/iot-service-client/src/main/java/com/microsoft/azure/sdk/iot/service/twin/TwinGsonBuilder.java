@@ -9,7 +9,23 @@ import com.google.gson.ToNumberPolicy;
  */
 class TwinGsonBuilder
 {
-    static Gson gson;
+    // Gson instances are thread safe, and this class is only loaded on the first call to getGson(), so a single
+    // eagerly initialized instance is both lazy and safe to share between threads.
+    private static final Gson gson = new GsonBuilder()
+            // gson treats all numbers as doubles unless we set this option. As a result, if a user passed in a desired property value as an int, we would serialize/deserialize it as a double anyways.
+            // See this discussion for more details https://stackoverflow.com/questions/45734769/why-does-gson-parse-an-integer-as-a-double
+            .setObjectToNumberStrategy(ToNumberPolicy.LONG_OR_DOUBLE)
+
+            // The intendend way to delete a desired property from a twin is to update the property to have a
+            // null value, so we need to allow null valued properties to be serialized.
+            .serializeNulls()
+
+            .excludeFieldsWithoutExposeAnnotation()
+            .disableHtmlEscaping()
+
+            // Reads twin collections in a single pass rather than through temporary maps
+            .registerTypeAdapterFactory(new TwinCollectionTypeAdapterFactory())
+            .create();
 
     /**
      * Get the singleton gson instance.
@@ -17,24 +33,6 @@ class TwinGsonBuilder
      */
     static Gson getGson()
     {
-        // intentionally not setting up thread safety precautions here because the worst case scenario is that multiple
-        // instances are made. As soon as each of those instances is overwritten, Java garbage collection will pick them up anyways.
-        if (gson == null)
-        {
-            gson = new GsonBuilder()
-                    // gson treats all numbers as doubles unless we set this option. As a result, if a user passed in a desired property value as an int, we would serialize/deserialize it as a double anyways.
-                    // See this discussion for more details https://stackoverflow.com/questions/45734769/why-does-gson-parse-an-integer-as-a-double
-                    .setObjectToNumberStrategy(ToNumberPolicy.LONG_OR_DOUBLE)
-
-                    // The intendend way to delete a desired property from a twin is to update the property to have a
-                    // null value, so we need to allow null valued properties to be serialized.
-                    .serializeNulls()
-
-                    .excludeFieldsWithoutExposeAnnotation()
-                    .disableHtmlEscaping()
-                    .create();
-        }
-
         return gson;
     }
 }
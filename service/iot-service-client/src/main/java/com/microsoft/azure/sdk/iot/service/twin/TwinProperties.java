@@ -231,6 +231,23 @@ public class TwinProperties
         return toJsonElementWithMetadata().toString();
     }
 
+    /**
+     * Create a TwinProperties from collections that are already organized in the TwinCollection format, such as the ones
+     * read by the twin Gson instance. Unlike {@link #TwinProperties(TwinCollection, TwinCollection)}, the collections
+     * are used as they are, which keeps their versions and metadata.
+     *
+     * @param desired the {@link TwinCollection} with the desired property. It can be {@code null}.
+     * @param reported the {@link TwinCollection} with the reported property. It can be {@code null}.
+     * @return the new TwinProperties.
+     */
+    static TwinProperties createFromCollections(TwinCollection desired, TwinCollection reported)
+    {
+        TwinProperties properties = new TwinProperties();
+        properties.desired = desired;
+        properties.reported = reported;
+        return properties;
+    }
+
     /**
      * Empty constructor
      *
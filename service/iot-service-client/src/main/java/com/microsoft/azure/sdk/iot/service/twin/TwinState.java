@@ -101,6 +101,9 @@ import java.util.Map;
 @SuppressWarnings("unused") // A number of private members are unused but may be filled in or used by serialization
 public class TwinState
 {
+    // Only used to collect the exposed fields for toString, which writes out the tree itself
+    private final transient static Gson exposedFieldsGson = new GsonBuilder().excludeFieldsWithoutExposeAnnotation().disableHtmlEscaping().create();
+
     /**
      * Device name
      * A case-sensitive string (up to 128 char long)
@@ -393,8 +396,7 @@ public class TwinState
     @Override
     public String toString()
     {
-        Gson gson = new GsonBuilder().excludeFieldsWithoutExposeAnnotation().setPrettyPrinting().disableHtmlEscaping().create();
-        JsonObject jsonObject = gson.toJsonTree(this).getAsJsonObject();
+        JsonObject jsonObject = exposedFieldsGson.toJsonTree(this).getAsJsonObject();
 
         if (this.tags != null)
         {
@@ -423,20 +425,33 @@ public class TwinState
 
         Gson gson = TwinGsonBuilder.getGson();
 
-        TwinState result = gson.fromJson(json, TwinState.class);
+        this.copyFrom(gson.fromJson(json, TwinState.class));
+    }
 
-        /*
-         * During the deserialization process, the GSON will convert both tags and
-         * properties to a raw Map, which will includes the $version and $metadata
-         * as part of the collection. So, we need to reorganize this map using the
-         * TwinCollection format. This constructor will do that.
-         */
-        this.tags = new TwinCollection(result.getTags());
-        if (result.properties != null)
+    /**
+     * <p> Create a new instance of the TwinState from an already parsed JSON with the full Twin information.
+     *
+     * @param json the {@code JsonElement} with the JSON received from the service. It cannot be {@code null}.
+     */
+    TwinState(JsonElement json)
+    {
+        if (json == null || json.isJsonNull())
         {
-            this.properties = new TwinProperties(result.properties.getDesired(), result.properties.getReported());
+            throw new IllegalArgumentException("JSON with result is null or empty");
         }
 
+        Gson gson = TwinGsonBuilder.getGson();
+
+        this.copyFrom(gson.fromJson(json, TwinState.class));
+    }
+
+    private void copyFrom(TwinState result)
+    {
+        // The twin Gson instance reads each collection directly into the TwinCollection format, with its $version and
+        // $metadata already separated from its properties, so the collections don't need to be reorganized.
+        this.tags = result.getTags() != null ? result.getTags() : new TwinCollection();
+        this.properties = result.properties;
+
         this.configurations = result.configurations;
         this.deviceScope = result.deviceScope;
         this.parentScopes.addAll(result.parentScopes);
@@ -473,7 +488,7 @@ public class TwinState
         Gson gson = TwinGsonBuilder.getGson();
         TwinCollection result = gson.fromJson(json, TwinCollection.class);
 
-        return new TwinState(null, result, null);
+        return createFromCollections(result, null);
     }
 
     /**
@@ -494,7 +509,7 @@ public class TwinState
         Gson gson = TwinGsonBuilder.getGson();
         TwinCollection result = gson.fromJson(json, TwinCollection.class);
 
-        return new TwinState(null, null, result);
+        return createFromCollections(null, result);
     }
 
     /**
@@ -515,7 +530,18 @@ public class TwinState
         Gson gson = TwinGsonBuilder.getGson();
         TwinProperties result = gson.fromJson(json, TwinProperties.class);
 
-        return new TwinState(null, result.getDesired(), result.getReported());
+        return createFromCollections(result.getDesired(), result.getReported());
+    }
+
+    private static TwinState createFromCollections(TwinCollection desiredProperty, TwinCollection reportedProperty)
+    {
+        TwinState twinState = new TwinState(null, null, null);
+        if (desiredProperty != null || reportedProperty != null)
+        {
+            twinState.properties = TwinProperties.createFromCollections(desiredProperty, reportedProperty);
+        }
+
+        return twinState;
     }
 
     /**
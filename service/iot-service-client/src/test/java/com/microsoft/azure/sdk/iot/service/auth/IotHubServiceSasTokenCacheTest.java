@@ -0,0 +1,147 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.azure.sdk.iot.service.auth;
+
+import mockit.Expectations;
+import mockit.Mocked;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.apache.commons.codec.binary.Base64.encodeBase64String;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class IotHubServiceSasTokenCacheTest
+{
+    private static final String HOST_NAME = "HOSTNAME.b.c.d";
+    private static final String SHARED_ACCESS_KEY_NAME = "ACCESSKEYNAME";
+
+    @Mocked
+    IotHubServiceSasToken mockSasToken;
+
+    @Mocked
+    IotHubServiceSasToken mockSasToken2;
+
+    private static IotHubConnectionString createConnectionString(String keyName, String keyValue)
+    {
+        String sharedAccessKey = encodeBase64String(keyValue.getBytes(StandardCharsets.UTF_8));
+        String connectionString = "HostName=" + HOST_NAME + ";SharedAccessKeyName=" + keyName + ";SharedAccessKey=" + sharedAccessKey;
+        return IotHubConnectionStringBuilder.createIotHubConnectionString(connectionString);
+    }
+
+    @Test (expected = NullPointerException.class)
+    public void constructorThrowsForNullConnectionString()
+    {
+        new IotHubServiceSasTokenCache(null);
+    }
+
+    @Test
+    public void sasTokenCacheCachesToken()
+    {
+        final IotHubConnectionString connectionString = createConnectionString(SHARED_ACCESS_KEY_NAME, "1234567890abcdefghijklmnopqrstvwxyz=");
+        IotHubServiceSasTokenCache cache = new IotHubServiceSasTokenCache(connectionString);
+
+        new Expectations()
+        {
+            {
+                new IotHubServiceSasToken(connectionString);
+                result = mockSasToken;
+                times = 1;
+
+                mockSasToken.getExpiryTimeMillis();
+                result = Long.MAX_VALUE;
+            }
+        };
+
+        IotHubServiceSasToken sasToken = cache.getSasToken();
+        IotHubServiceSasToken sasToken2 = cache.getSasToken();
+
+        assertEquals(mockSasToken, sasToken);
+        assertEquals(mockSasToken, sasToken2);
+    }
+
+    @Test
+    public void sasTokenCacheProactivelyRenewsToken()
+    {
+        final IotHubConnectionString connectionString = createConnectionString(SHARED_ACCESS_KEY_NAME, "1234567890abcdefghijklmnopqrstvwxyz=");
+        IotHubServiceSasTokenCache cache = new IotHubServiceSasTokenCache(connectionString);
+
+        new Expectations()
+        {
+            {
+                new IotHubServiceSasToken(connectionString);
+                result = mockSasToken;
+            }
+        };
+
+        IotHubServiceSasToken sasToken = cache.getSasToken();
+
+        // 8 minutes from the current time, should fit within the proactive renewal range
+        final long milliseconds = System.currentTimeMillis() + (8 * 60 * 1000);
+        new Expectations()
+        {
+            {
+                mockSasToken.getExpiryTimeMillis();
+                result = milliseconds;
+
+                new IotHubServiceSasToken(connectionString);
+                result = mockSasToken2;
+
+                mockSasToken2.getExpiryTimeMillis();
+                result = Long.MAX_VALUE;
+            }
+        };
+
+        // act
+        IotHubServiceSasToken sasToken2 = cache.getSasToken();
+
+        // assert
+        assertEquals(mockSasToken, sasToken);
+        assertEquals(mockSasToken2, sasToken2);
+    }
+
+    @Test
+    public void sasTokenCacheDoesNotRenewTooProactively()
+    {
+        final IotHubConnectionString connectionString = createConnectionString(SHARED_ACCESS_KEY_NAME, "1234567890abcdefghijklmnopqrstvwxyz=");
+        IotHubServiceSasTokenCache cache = new IotHubServiceSasTokenCache(connectionString);
+
+        // 12 minutes from the current time, should not fit within the proactive renewal range, so the cached token shouldn't be renewed
+        final long milliseconds = System.currentTimeMillis() + (12 * 60 * 1000);
+        new Expectations()
+        {
+            {
+                new IotHubServiceSasToken(connectionString);
+                result = mockSasToken;
+                times = 1;
+
+                mockSasToken.getExpiryTimeMillis();
+                result = milliseconds;
+            }
+        };
+
+        // act
+        IotHubServiceSasToken sasToken = cache.getSasToken();
+        IotHubServiceSasToken sasToken2 = cache.getSasToken();
+
+        // assert
+        assertEquals(mockSasToken, sasToken);
+        assertEquals(mockSasToken, sasToken2);
+    }
+
+    @Test
+    public void sharedInstanceIsReusedForSamePolicy()
+    {
+        IotHubServiceSasTokenCache cache = IotHubServiceSasTokenCache.getSharedInstance(createConnectionString(SHARED_ACCESS_KEY_NAME, "sharedKey1"));
+        IotHubServiceSasTokenCache cache2 = IotHubServiceSasTokenCache.getSharedInstance(createConnectionString(SHARED_ACCESS_KEY_NAME, "sharedKey1"));
+        IotHubServiceSasTokenCache cache3 = IotHubServiceSasTokenCache.getSharedInstance(createConnectionString(SHARED_ACCESS_KEY_NAME, "sharedKey2"));
+        IotHubServiceSasTokenCache cache4 = IotHubServiceSasTokenCache.getSharedInstance(createConnectionString("otherPolicy", "sharedKey1"));
+
+        assertSame(cache, cache2);
+        assertNotSame(cache, cache3);
+        assertNotSame(cache, cache4);
+    }
+}
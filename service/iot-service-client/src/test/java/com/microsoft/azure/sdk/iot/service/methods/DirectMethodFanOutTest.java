@@ -0,0 +1,213 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.azure.sdk.iot.service.methods;
+
+import com.microsoft.azure.sdk.iot.service.exceptions.IotHubNotFoundException;
+import mockit.Deencapsulation;
+import mockit.Delegate;
+import mockit.Expectations;
+import mockit.Mocked;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DirectMethodFanOutTest
+{
+    private static final String METHOD_NAME = "reboot";
+
+    @Mocked
+    DirectMethodsClient mockClient;
+
+    @Mocked
+    DirectMethodResponse mockResponse;
+
+    @Test
+    public void invokesMethodOnEveryDevice() throws Exception
+    {
+        // arrange
+        final List<String> deviceIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++)
+        {
+            deviceIds.add("device" + i);
+        }
+
+        new Expectations()
+        {
+            {
+                mockClient.invoke(anyString, METHOD_NAME, (DirectMethodRequestOptions) any);
+                result = mockResponse;
+                times = 20;
+            }
+        };
+
+        ConcurrentLinkedQueue<DirectMethodInvocationResult> results = new ConcurrentLinkedQueue<>();
+        DirectMethodsInvokeAllOptions options = DirectMethodsInvokeAllOptions.builder().maxConcurrency(4).build();
+
+        // act
+        DirectMethodInvocationStatistics statistics =
+            new DirectMethodFanOut(mockClient, deviceIds, METHOD_NAME, options, results::add).start().get();
+
+        // assert
+        assertEquals(20, statistics.getInvocationCount());
+        assertEquals(20, statistics.getSuccessCount());
+        assertEquals(20, results.size());
+        for (DirectMethodInvocationResult result : results)
+        {
+            assertTrue(result.wasSuccessful());
+            assertTrue(deviceIds.contains(result.getDeviceId()));
+        }
+    }
+
+    @Test
+    public void failedInvocationsAreReportedInResults() throws Exception
+    {
+        // arrange
+        final IotHubNotFoundException notFound = new IotHubNotFoundException();
+        new Expectations()
+        {
+            {
+                mockClient.invoke("missingDevice", METHOD_NAME, (DirectMethodRequestOptions) any);
+                result = notFound;
+
+                mockClient.invoke("device", METHOD_NAME, (DirectMethodRequestOptions) any);
+                result = mockResponse;
+            }
+        };
+
+        ConcurrentLinkedQueue<DirectMethodInvocationResult> results = new ConcurrentLinkedQueue<>();
+        DirectMethodsInvokeAllOptions options = DirectMethodsInvokeAllOptions.builder().build();
+
+        // act
+        DirectMethodInvocationStatistics statistics =
+            new DirectMethodFanOut(mockClient, Arrays.asList("missingDevice", "device"), METHOD_NAME, options, results::add).start().get();
+
+        // assert
+        assertEquals(1, statistics.getSuccessCount());
+        assertEquals(1, statistics.getFailureCount());
+        for (DirectMethodInvocationResult result : results)
+        {
+            if (result.getDeviceId().equals("missingDevice"))
+            {
+                assertEquals(notFound, result.getException());
+                assertNull(result.getResponse());
+            }
+            else
+            {
+                assertTrue(result.wasSuccessful());
+            }
+        }
+    }
+
+    @Test
+    public void runtimeExceptionsAreReportedAsFailures() throws Exception
+    {
+        // arrange
+        final IllegalStateException unexpected = new IllegalStateException();
+        new Expectations()
+        {
+            {
+                mockClient.invoke("brokenDevice", METHOD_NAME, (DirectMethodRequestOptions) any);
+                result = unexpected;
+
+                mockClient.invoke("device", METHOD_NAME, (DirectMethodRequestOptions) any);
+                result = mockResponse;
+            }
+        };
+
+        ConcurrentLinkedQueue<DirectMethodInvocationResult> results = new ConcurrentLinkedQueue<>();
+        DirectMethodsInvokeAllOptions options = DirectMethodsInvokeAllOptions.builder().build();
+
+        // act
+        DirectMethodInvocationStatistics statistics =
+            new DirectMethodFanOut(mockClient, Arrays.asList("brokenDevice", "device"), METHOD_NAME, options, results::add).start().get(10, TimeUnit.SECONDS);
+
+        // assert
+        assertEquals(2, statistics.getInvocationCount());
+        assertEquals(1, statistics.getFailureCount());
+        for (DirectMethodInvocationResult result : results)
+        {
+            if (result.getDeviceId().equals("brokenDevice"))
+            {
+                assertEquals(unexpected, result.getException());
+            }
+        }
+    }
+
+    @Test
+    public void cancelLetsInvocationInProgressFinishAndSkipsQueuedInvocations() throws Exception
+    {
+        // arrange
+        final CountDownLatch invocationStarted = new CountDownLatch(1);
+        final CountDownLatch releaseInvocation = new CountDownLatch(1);
+        final AtomicBoolean invocationWasInterrupted = new AtomicBoolean();
+        new Expectations()
+        {
+            {
+                mockClient.invoke("device1", METHOD_NAME, (DirectMethodRequestOptions) any);
+                result = new Delegate<DirectMethodResponse>()
+                {
+                    DirectMethodResponse invoke(String deviceId, String methodName, DirectMethodRequestOptions options)
+                    {
+                        invocationStarted.countDown();
+                        try
+                        {
+                            releaseInvocation.await();
+                        }
+                        catch (InterruptedException e)
+                        {
+                            invocationWasInterrupted.set(true);
+                        }
+
+                        return mockResponse;
+                    }
+                };
+
+                mockClient.invoke("device2", METHOD_NAME, (DirectMethodRequestOptions) any);
+                times = 0;
+            }
+        };
+
+        ConcurrentLinkedQueue<DirectMethodInvocationResult> results = new ConcurrentLinkedQueue<>();
+        DirectMethodsInvokeAllOptions options = DirectMethodsInvokeAllOptions.builder().maxConcurrency(1).build();
+        DirectMethodFanOut fanOut = new DirectMethodFanOut(mockClient, Arrays.asList("device1", "device2"), METHOD_NAME, options, results::add);
+        CompletableFuture<DirectMethodInvocationStatistics> completion = fanOut.start();
+        assertTrue(invocationStarted.await(10, TimeUnit.SECONDS));
+
+        // act
+        completion.cancel(true);
+        releaseInvocation.countDown();
+
+        // assert
+        ExecutorService executor = Deencapsulation.getField(fanOut, "executor");
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertFalse(invocationWasInterrupted.get());
+        assertEquals(1, results.size());
+        assertEquals("device1", results.peek().getDeviceId());
+    }
+
+    @Test
+    public void completesImmediatelyForNoDevices() throws Exception
+    {
+        // act
+        DirectMethodInvocationStatistics statistics =
+            new DirectMethodFanOut(mockClient, Collections.<String>emptyList(), METHOD_NAME, DirectMethodsInvokeAllOptions.builder().build(), null).start().get();
+
+        // assert
+        assertEquals(0, statistics.getInvocationCount());
+    }
+}
@@ -0,0 +1,57 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.azure.sdk.iot.service.methods;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class DirectMethodInvocationStatisticsTest
+{
+    @Test
+    public void statisticsAreComputedFromLatencies()
+    {
+        // arrange
+        long[] latencies = new long[100];
+        for (int i = 0; i < latencies.length; i++)
+        {
+            // unsorted on purpose
+            latencies[i] = 100 - i;
+        }
+
+        // act
+        DirectMethodInvocationStatistics statistics = new DirectMethodInvocationStatistics(latencies, 90, 1234);
+
+        // assert
+        assertEquals(100, statistics.getInvocationCount());
+        assertEquals(90, statistics.getSuccessCount());
+        assertEquals(10, statistics.getFailureCount());
+        assertEquals(1234, statistics.getTotalDurationMilliseconds());
+        assertEquals(1, statistics.getMinLatencyMilliseconds());
+        assertEquals(100, statistics.getMaxLatencyMilliseconds());
+        assertEquals(50.5, statistics.getAverageLatencyMilliseconds(), 0.001);
+        assertEquals(50, statistics.getLatencyPercentileMilliseconds(50));
+        assertEquals(99, statistics.getLatencyPercentileMilliseconds(99));
+        assertEquals(100, statistics.getLatencyPercentileMilliseconds(100));
+    }
+
+    @Test
+    public void statisticsOfNoInvocationsAreZero()
+    {
+        // act
+        DirectMethodInvocationStatistics statistics = new DirectMethodInvocationStatistics(new long[0], 0, 0);
+
+        // assert
+        assertEquals(0, statistics.getInvocationCount());
+        assertEquals(0, statistics.getMaxLatencyMilliseconds());
+        assertEquals(0, statistics.getAverageLatencyMilliseconds(), 0);
+        assertEquals(0, statistics.getLatencyPercentileMilliseconds(99));
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void percentileThrowsForOutOfRangePercentile()
+    {
+        new DirectMethodInvocationStatistics(new long[] { 1 }, 1, 1).getLatencyPercentileMilliseconds(0);
+    }
+}
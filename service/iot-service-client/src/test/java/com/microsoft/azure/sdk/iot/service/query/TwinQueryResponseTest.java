@@ -0,0 +1,261 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.azure.sdk.iot.service.query;
+
+import com.microsoft.azure.sdk.iot.service.exceptions.IotHubBadFormatException;
+import com.microsoft.azure.sdk.iot.service.exceptions.IotHubException;
+import com.microsoft.azure.sdk.iot.service.exceptions.IotHubNotFoundException;
+import com.microsoft.azure.sdk.iot.service.twin.Twin;
+import mockit.Expectations;
+import mockit.Mocked;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TwinQueryResponseTest
+{
+    private static final String QUERY = "SELECT * FROM devices";
+    private static final String CONTINUATION_TOKEN = "someContinuationToken";
+
+    @Mocked
+    QueryClient mockQueryClient;
+
+    private static String twinsJson(String... deviceIds)
+    {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < deviceIds.length; i++)
+        {
+            if (i > 0)
+            {
+                json.append(",");
+            }
+
+            json.append("{\"deviceId\":\"").append(deviceIds[i]).append("\",\"connectionState\":\"Disconnected\",")
+                .append("\"properties\":{\"desired\":{\"a\":").append(i).append(",\"$version\":2},\"reported\":{\"$version\":3}}}");
+        }
+
+        return json.append("]").toString();
+    }
+
+    private TwinQueryResponse page(String continuationToken, String... deviceIds)
+    {
+        TwinQueryResponse response = new TwinQueryResponse(twinsJson(deviceIds), mockQueryClient, QUERY);
+        response.setContinuationToken(continuationToken);
+        return response;
+    }
+
+    @Test
+    public void nextReturnsTwinsOfSinglePage() throws IotHubException, IOException
+    {
+        // arrange
+        TwinQueryResponse response = page(null, "device1", "device2");
+
+        // act
+        Twin twin1 = response.next();
+        Twin twin2 = response.next();
+
+        // assert
+        assertEquals("device1", twin1.getDeviceId());
+        assertEquals(2, (int) twin1.getDesiredProperties().getVersion());
+        assertEquals(3, (int) twin1.getReportedProperties().getVersion());
+        assertEquals("device2", twin2.getDeviceId());
+        assertFalse(response.hasNext());
+    }
+
+    @Test (expected = NoSuchElementException.class)
+    public void nextThrowsWhenQueryIsExhausted() throws IotHubException, IOException
+    {
+        // arrange
+        TwinQueryResponse response = page(null, "device1");
+        response.next();
+
+        // act
+        response.next();
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void constructorThrowsForMalformedJson()
+    {
+        new TwinQueryResponse("{\"not\":\"an array\"}", mockQueryClient, QUERY);
+    }
+
+    @Test
+    public void nextThrowsBadFormatExceptionForMalformedTwinJson() throws IotHubException, IOException
+    {
+        // arrange
+        String json = twinsJson("device1").replaceFirst("]$", ",{\"deviceId\":}]");
+        TwinQueryResponse response = new TwinQueryResponse(json, mockQueryClient, QUERY);
+        response.setContinuationToken(null);
+        response.next();
+
+        // act
+        try
+        {
+            response.next();
+        }
+        catch (IotHubBadFormatException e)
+        {
+            // assert
+            assertTrue(response.hasNext());
+            return;
+        }
+
+        fail("Expected an IotHubBadFormatException");
+    }
+
+    @Test
+    public void streamWrapsMalformedTwinJsonFailures()
+    {
+        // arrange
+        String json = twinsJson("device1", "device2").replaceFirst("]$", "");
+        TwinQueryResponse response = new TwinQueryResponse(json, mockQueryClient, QUERY);
+        response.setContinuationToken(null);
+
+        // act
+        try
+        {
+            response.stream().count();
+        }
+        catch (QueryStreamException e)
+        {
+            // assert
+            assertTrue(e.getCause() instanceof IotHubBadFormatException);
+            return;
+        }
+
+        fail("Expected a QueryStreamException");
+    }
+
+    @Test
+    public void nextRequestsContinuationPage() throws IotHubException, IOException
+    {
+        // arrange
+        TwinQueryResponse response = page(CONTINUATION_TOKEN, "device1");
+        final TwinQueryResponse secondPage = page(null, "device2");
+        new Expectations()
+        {
+            {
+                mockQueryClient.queryTwins(QUERY, (QueryPageOptions) any);
+                result = secondPage;
+                times = 1;
+            }
+        };
+
+        // act
+        Twin twin1 = response.next();
+        Twin twin2 = response.next();
+
+        // assert
+        assertEquals("device1", twin1.getDeviceId());
+        assertEquals("device2", twin2.getDeviceId());
+        assertFalse(response.hasNext());
+    }
+
+    @Test
+    public void nextSkipsEmptyContinuationPages() throws IotHubException, IOException
+    {
+        // arrange
+        TwinQueryResponse response = page(CONTINUATION_TOKEN);
+        final TwinQueryResponse emptyPage = page(CONTINUATION_TOKEN);
+        final TwinQueryResponse lastPage = page(null, "device1");
+        new Expectations()
+        {
+            {
+                mockQueryClient.queryTwins(QUERY, (QueryPageOptions) any);
+                returns(emptyPage, lastPage);
+            }
+        };
+
+        // act
+        Twin twin = response.next();
+
+        // assert
+        assertEquals("device1", twin.getDeviceId());
+        assertFalse(response.hasNext());
+    }
+
+    @Test
+    public void prefetchedPageIsOnlyRequestedOnce() throws IotHubException, IOException
+    {
+        // arrange
+        TwinQueryResponse response = page(CONTINUATION_TOKEN, "device1", "device2");
+        final TwinQueryResponse secondPage = page(null, "device3");
+        QueryPageOptions pageOptions = QueryPageOptions.builder().prefetchNextPage(true).build();
+        new Expectations()
+        {
+            {
+                mockQueryClient.queryTwins(QUERY, (QueryPageOptions) any);
+                result = secondPage;
+                times = 1;
+            }
+        };
+
+        // act
+        response.next(pageOptions);
+        response.next(pageOptions);
+        Twin twin3 = response.next(pageOptions);
+
+        // assert
+        assertEquals("device3", twin3.getDeviceId());
+    }
+
+    @Test
+    public void streamReturnsTwinsOfAllPages() throws IotHubException, IOException
+    {
+        // arrange
+        TwinQueryResponse response = page(CONTINUATION_TOKEN, "device1", "device2");
+        final TwinQueryResponse secondPage = page(null, "device3");
+        new Expectations()
+        {
+            {
+                mockQueryClient.queryTwins(QUERY, (QueryPageOptions) any);
+                result = secondPage;
+            }
+        };
+
+        // act
+        List<String> deviceIds = response.stream().map(Twin::getDeviceId).collect(Collectors.toList());
+
+        // assert
+        assertEquals(3, deviceIds.size());
+        assertEquals("device1", deviceIds.get(0));
+        assertEquals("device3", deviceIds.get(2));
+    }
+
+    @Test
+    public void streamWrapsPageRequestFailures() throws IotHubException, IOException
+    {
+        // arrange
+        TwinQueryResponse response = page(CONTINUATION_TOKEN, "device1");
+        new Expectations()
+        {
+            {
+                mockQueryClient.queryTwins(QUERY, (QueryPageOptions) any);
+                result = new IotHubNotFoundException();
+            }
+        };
+
+        // act
+        try
+        {
+            response.stream().count();
+        }
+        catch (QueryStreamException e)
+        {
+            // assert
+            assertTrue(e.getCause() instanceof IotHubNotFoundException);
+            return;
+        }
+
+        fail("Expected a QueryStreamException");
+    }
+}
@@ -5,7 +5,10 @@
 
 package com.microsoft.azure.sdk.iot.service.registry;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
 import com.microsoft.azure.sdk.iot.service.ProxyOptions;
+import com.microsoft.azure.sdk.iot.service.auth.AuthenticationType;
 import com.microsoft.azure.sdk.iot.service.auth.IotHubConnectionString;
 import com.microsoft.azure.sdk.iot.service.auth.IotHubConnectionStringBuilder;
 import com.microsoft.azure.sdk.iot.service.auth.IotHubServiceSasToken;
@@ -25,7 +28,11 @@ import java.net.Proxy;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static junit.framework.TestCase.assertNotNull;
 import static org.junit.Assert.*;
@@ -476,6 +483,127 @@ public class RegistryClientTest
         assertNotNull(statistics);
     }
 
+    @Test
+    public void bulkApplySendsDevicesInRequestsOf100() throws Exception
+    {
+        // arrange
+        String connectionString = "HostName=aaa.bbb.ccc;SharedAccessKeyName=XXX;SharedAccessKey=YYY";
+        List<String> deviceIds = new ArrayList<>();
+        List<List<String>> requests = Collections.synchronizedList(new ArrayList<>());
+        bulkApplyExpectations(connectionString, requests, requestDeviceIds -> "{\"isSuccessful\":true}");
+        RegistryClient registryClient = new RegistryClient(connectionString);
+
+        // act
+        BulkRegistryOperationResult result = registryClient.bulkApply(createExportImportDevices(250, deviceIds), 1);
+
+        // assert
+        assertTrue(result.isSuccessful());
+        assertEquals(3, requests.size());
+        List<String> sentDeviceIds = new ArrayList<>();
+        for (List<String> request : requests)
+        {
+            assertTrue(request.size() <= 100);
+            sentDeviceIds.addAll(request);
+        }
+
+        // with a concurrency of 1, the requests are sent in order
+        assertEquals(deviceIds, sentDeviceIds);
+    }
+
+    @Test
+    public void bulkApplyDoesNotSendMoreThanMaxConcurrencyRequestsAtOnce() throws Exception
+    {
+        // arrange
+        String connectionString = "HostName=aaa.bbb.ccc;SharedAccessKeyName=XXX;SharedAccessKey=YYY";
+        int maxConcurrency = 2;
+        AtomicInteger inFlightRequestCount = new AtomicInteger();
+        AtomicInteger maxInFlightRequestCount = new AtomicInteger();
+        List<List<String>> requests = Collections.synchronizedList(new ArrayList<>());
+        bulkApplyExpectations(connectionString, requests, requestDeviceIds ->
+        {
+            int inFlight = inFlightRequestCount.incrementAndGet();
+            maxInFlightRequestCount.accumulateAndGet(inFlight, Math::max);
+            try
+            {
+                Thread.sleep(20);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+
+            inFlightRequestCount.decrementAndGet();
+            return "{\"isSuccessful\":true}";
+        });
+        RegistryClient registryClient = new RegistryClient(connectionString);
+
+        // act
+        registryClient.bulkApply(createExportImportDevices(1000, new ArrayList<>()), maxConcurrency);
+
+        // assert
+        assertEquals(10, requests.size());
+        assertTrue(maxInFlightRequestCount.get() <= maxConcurrency);
+    }
+
+    @Test
+    public void bulkApplyMergesResultsOfAllRequests() throws Exception
+    {
+        // arrange
+        String connectionString = "HostName=aaa.bbb.ccc;SharedAccessKeyName=XXX;SharedAccessKey=YYY";
+        IOException requestException = new IOException("request failed");
+        List<List<String>> requests = Collections.synchronizedList(new ArrayList<>());
+        bulkApplyExpectations(connectionString, requests, requestDeviceIds ->
+        {
+            if (requestDeviceIds.contains("device-150"))
+            {
+                throw requestException;
+            }
+
+            // the service reports an error for the first device and a warning for the second device of each request
+            return "{\"isSuccessful\":false," +
+                "\"errors\":[{\"deviceId\":\"" + requestDeviceIds.get(0) + "\",\"errorCode\":\"DeviceAlreadyExists\"}]," +
+                "\"warnings\":[{\"deviceId\":\"" + requestDeviceIds.get(1) + "\",\"warningCode\":\"DeviceRegisteredWithoutTwin\"}]}";
+        });
+        RegistryClient registryClient = new RegistryClient(connectionString);
+
+        // act
+        BulkRegistryOperationResult result = registryClient.bulkApply(createExportImportDevices(300, new ArrayList<>()), 3);
+
+        // assert
+        assertFalse(result.isSuccessful());
+        assertEquals(3, requests.size());
+
+        // 1 error from each of the 2 successful requests, and 1 for each of the 100 devices in the failed request
+        assertEquals(102, result.getErrors().size());
+        assertEquals(2, result.getWarnings().size());
+
+        Map<String, DeviceRegistryOperationError> errorsByDeviceId = new HashMap<>();
+        for (DeviceRegistryOperationError error : result.getErrors())
+        {
+            errorsByDeviceId.put(error.getDeviceId(), error);
+        }
+
+        assertEquals("DeviceAlreadyExists", errorsByDeviceId.get("device-0").getErrorCode());
+        assertNull(errorsByDeviceId.get("device-0").getException());
+        assertEquals("DeviceAlreadyExists", errorsByDeviceId.get("device-200").getErrorCode());
+        for (int i = 100; i < 200; i++)
+        {
+            DeviceRegistryOperationError error = errorsByDeviceId.get("device-" + i);
+            assertNull(error.getErrorCode());
+            assertEquals(requestException, error.getException());
+        }
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void bulkApplyThrowsForMaxConcurrencyLessThanOne() throws Exception
+    {
+        String connectionString = "HostName=aaa.bbb.ccc;SharedAccessKeyName=XXX;SharedAccessKey=YYY";
+        constructorExpectations(connectionString);
+        RegistryClient registryClient = new RegistryClient(connectionString);
+
+        registryClient.bulkApply(new ArrayList<>(), 0);
+    }
+
     // Tests_SRS_SERVICE_SDK_JAVA_REGISTRYMANAGER_28_001: [The constructor shall throw IllegalArgumentException if the input module is null]
     // Assert
     @Test (expected = IllegalArgumentException.class)
@@ -1079,4 +1207,78 @@ public class RegistryClientTest
         };
         assertNotNull(modules);
     }
-}
\ No newline at end of file
+
+    private interface BulkRequestHandler
+    {
+        String handle(List<String> requestDeviceIds) throws IOException;
+    }
+
+    private void bulkApplyExpectations(String connectionString, List<List<String>> requests, BulkRequestHandler handler) throws Exception
+    {
+        // The request and the response body are created and read on the same thread, so they can be matched up per thread
+        ThreadLocal<List<String>> requestDeviceIds = new ThreadLocal<>();
+        ThreadLocal<String> responseBody = new ThreadLocal<>();
+
+        new NonStrictExpectations()
+        {
+            {
+                IotHubConnectionStringBuilder.createIotHubConnectionString(connectionString);
+                result = iotHubConnectionString;
+                iotHubConnectionString.getHostName();
+                result = "aaa.bbb.ccc";
+                IotHubConnectionString.getUrlBulkDeviceOperation(anyString);
+                result = mockUrl;
+                new HttpRequest(mockUrl, HttpMethod.POST, (byte[]) any, anyString, (Proxy) any);
+                result = new Delegate<HttpRequest>()
+                {
+                    @SuppressWarnings("unused")
+                    void delegate(URL url, HttpMethod method, byte[] payload, String authorization, Proxy proxy)
+                    {
+                        List<String> deviceIds = new ArrayList<>();
+                        for (JsonElement device : JsonParser.parseString(new String(payload, StandardCharsets.UTF_8)).getAsJsonArray())
+                        {
+                            deviceIds.add(device.getAsJsonObject().get("id").getAsString());
+                        }
+
+                        requests.add(deviceIds);
+                        requestDeviceIds.set(deviceIds);
+                    }
+                };
+                mockHttpRequest.send();
+                result = new Delegate<HttpResponse>()
+                {
+                    @SuppressWarnings("unused")
+                    HttpResponse send() throws IOException
+                    {
+                        responseBody.set(handler.handle(requestDeviceIds.get()));
+                        return mockHttpResponse;
+                    }
+                };
+                IotHubExceptionManager.httpResponseVerification((HttpResponse) any);
+                mockHttpResponse.getBody();
+                result = new Delegate<byte[]>()
+                {
+                    @SuppressWarnings("unused")
+                    byte[] getBody()
+                    {
+                        return responseBody.get().getBytes(StandardCharsets.UTF_8);
+                    }
+                };
+            }
+        };
+    }
+
+    private static List<ExportImportDevice> createExportImportDevices(int count, List<String> deviceIds)
+    {
+        List<ExportImportDevice> devices = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+        {
+            ExportImportDevice device = new ExportImportDevice("device-" + i, AuthenticationType.SAS);
+            device.setImportMode(ImportMode.CreateOrUpdate);
+            devices.add(device);
+            deviceIds.add(device.getId());
+        }
+
+        return devices;
+    }
+}
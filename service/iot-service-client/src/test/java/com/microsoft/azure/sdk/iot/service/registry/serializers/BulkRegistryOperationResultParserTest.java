@@ -0,0 +1,75 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.azure.sdk.iot.service.registry.serializers;
+
+import com.google.gson.Gson;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BulkRegistryOperationResultParserTest
+{
+    private static final Gson gson = new Gson();
+
+    @Test
+    public void parsesErrorsAndWarnings()
+    {
+        // arrange
+        String json =
+            "{" +
+                "\"isSuccessful\":false," +
+                "\"errors\":[{\"deviceId\":\"device1\",\"errorCode\":\"DeviceAlreadyExists\",\"errorStatus\":\"A device with ID 'device1' is already registered.\"}]," +
+                "\"warnings\":[{\"deviceId\":\"device2\",\"warningCode\":\"DeviceRegisteredWithoutTwin\",\"warningStatus\":\"someStatus\"}]" +
+            "}";
+
+        // act
+        BulkRegistryOperationResultParser parser = gson.fromJson(json, BulkRegistryOperationResultParser.class);
+
+        // assert
+        assertFalse(parser.isSuccessful());
+        assertEquals(1, parser.getErrors().size());
+        assertEquals("device1", parser.getErrors().get(0).getDeviceId());
+        assertEquals("DeviceAlreadyExists", parser.getErrors().get(0).getErrorCode());
+        assertEquals(1, parser.getWarnings().size());
+        assertEquals("device2", parser.getWarnings().get(0).getDeviceId());
+        assertEquals("DeviceRegisteredWithoutTwin", parser.getWarnings().get(0).getWarningCode());
+    }
+
+    @Test
+    public void parsesNumericErrorCodes()
+    {
+        // act
+        BulkRegistryOperationResultParser parser =
+            gson.fromJson("{\"isSuccessful\":false,\"errors\":[{\"deviceId\":\"device1\",\"errorCode\":409001}]}", BulkRegistryOperationResultParser.class);
+
+        // assert
+        assertEquals("409001", parser.getErrors().get(0).getErrorCode());
+    }
+
+    @Test
+    public void missingListsAreEmpty()
+    {
+        // act
+        BulkRegistryOperationResultParser parser = gson.fromJson("{\"isSuccessful\":true}", BulkRegistryOperationResultParser.class);
+
+        // assert
+        assertTrue(parser.isSuccessful());
+        assertTrue(parser.getErrors().isEmpty());
+        assertTrue(parser.getWarnings().isEmpty());
+    }
+
+    @Test
+    public void nullListsAreEmpty()
+    {
+        // act
+        BulkRegistryOperationResultParser parser =
+            gson.fromJson("{\"isSuccessful\":true,\"errors\":null,\"warnings\":null}", BulkRegistryOperationResultParser.class);
+
+        // assert
+        assertTrue(parser.getErrors().isEmpty());
+        assertTrue(parser.getWarnings().isEmpty());
+    }
+}
@@ -0,0 +1,198 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.azure.sdk.iot.service.transport.amqps;
+
+import com.microsoft.azure.sdk.iot.service.messaging.AcknowledgementType;
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.Verifications;
+import org.apache.qpid.proton.amqp.messaging.Accepted;
+import org.apache.qpid.proton.amqp.messaging.Released;
+import org.apache.qpid.proton.engine.Delivery;
+import org.apache.qpid.proton.engine.EndpointState;
+import org.apache.qpid.proton.engine.Event;
+import org.apache.qpid.proton.engine.Receiver;
+import org.apache.qpid.proton.reactor.Reactor;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Unit tests for the AsyncDeliveryProcessor
+ */
+public class AsyncDeliveryProcessorTest
+{
+    @Mocked Delivery mockDelivery;
+    @Mocked Receiver mockReceiver;
+    @Mocked Reactor mockReactor;
+    @Mocked Event mockEvent;
+
+    @Test
+    public void deliveriesAreNotSettledUntilTimerTask()
+    {
+        // arrange
+        List<Runnable> tasks = new ArrayList<>();
+        AsyncDeliveryProcessor asyncDeliveryProcessor = new AsyncDeliveryProcessor(tasks::add);
+
+        // act
+        asyncDeliveryProcessor.process(mockDelivery, mockReceiver, () -> AcknowledgementType.COMPLETE, mockReactor);
+        tasks.forEach(Runnable::run);
+
+        // assert
+        new Verifications()
+        {
+            {
+                mockReactor.schedule(anyInt, asyncDeliveryProcessor);
+                times = 1;
+
+                mockDelivery.settle();
+                times = 0;
+            }
+        };
+    }
+
+    @Test
+    public void timerTaskSettlesProcessedDeliveriesAndFlowsCredit()
+    {
+        // arrange
+        AsyncDeliveryProcessor asyncDeliveryProcessor = new AsyncDeliveryProcessor(Runnable::run);
+
+        new Expectations()
+        {
+            {
+                mockReceiver.getLocalState();
+                result = EndpointState.ACTIVE;
+            }
+        };
+
+        asyncDeliveryProcessor.process(mockDelivery, mockReceiver, () -> AcknowledgementType.COMPLETE, mockReactor);
+
+        // act
+        asyncDeliveryProcessor.onTimerTask(mockEvent);
+
+        // assert
+        new Verifications()
+        {
+            {
+                mockDelivery.disposition(Accepted.getInstance());
+                times = 1;
+
+                mockDelivery.settle();
+                times = 1;
+
+                mockReceiver.flow(1);
+                times = 1;
+
+                // nothing is left to settle, so the timer isn't rescheduled
+                mockReactor.schedule(anyInt, asyncDeliveryProcessor);
+                times = 1;
+            }
+        };
+    }
+
+    @Test
+    public void processorExceptionAbandonsDelivery()
+    {
+        // arrange
+        AsyncDeliveryProcessor asyncDeliveryProcessor = new AsyncDeliveryProcessor(Runnable::run);
+
+        new Expectations()
+        {
+            {
+                mockReceiver.getLocalState();
+                result = EndpointState.ACTIVE;
+            }
+        };
+
+        asyncDeliveryProcessor.process(
+            mockDelivery,
+            mockReceiver,
+            () ->
+            {
+                throw new IllegalStateException();
+            },
+            mockReactor);
+
+        // act
+        asyncDeliveryProcessor.onTimerTask(mockEvent);
+
+        // assert
+        new Verifications()
+        {
+            {
+                mockDelivery.disposition(Released.getInstance());
+                times = 1;
+            }
+        };
+    }
+
+    @Test
+    public void rejectedExecutionAbandonsDelivery()
+    {
+        // arrange
+        AsyncDeliveryProcessor asyncDeliveryProcessor = new AsyncDeliveryProcessor(task ->
+        {
+            throw new RejectedExecutionException();
+        });
+
+        new Expectations()
+        {
+            {
+                mockReceiver.getLocalState();
+                result = EndpointState.ACTIVE;
+            }
+        };
+
+        asyncDeliveryProcessor.process(mockDelivery, mockReceiver, () -> AcknowledgementType.COMPLETE, mockReactor);
+
+        // act
+        asyncDeliveryProcessor.onTimerTask(mockEvent);
+
+        // assert
+        new Verifications()
+        {
+            {
+                mockDelivery.disposition(Released.getInstance());
+                times = 1;
+
+                mockReceiver.flow(1);
+                times = 1;
+            }
+        };
+    }
+
+    @Test
+    public void deliveriesAreNotSettledAfterLinkCloses()
+    {
+        // arrange
+        AsyncDeliveryProcessor asyncDeliveryProcessor = new AsyncDeliveryProcessor(Runnable::run);
+
+        new Expectations()
+        {
+            {
+                mockReceiver.getLocalState();
+                result = EndpointState.CLOSED;
+            }
+        };
+
+        asyncDeliveryProcessor.process(mockDelivery, mockReceiver, () -> AcknowledgementType.COMPLETE, mockReactor);
+
+        // act
+        asyncDeliveryProcessor.onTimerTask(mockEvent);
+
+        // assert
+        new Verifications()
+        {
+            {
+                mockDelivery.settle();
+                times = 0;
+
+                mockReceiver.flow(anyInt);
+                times = 0;
+            }
+        };
+    }
+}
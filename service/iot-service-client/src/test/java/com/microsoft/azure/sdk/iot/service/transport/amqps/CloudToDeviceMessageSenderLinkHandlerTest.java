@@ -0,0 +1,143 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.azure.sdk.iot.service.transport.amqps;
+
+import com.microsoft.azure.sdk.iot.service.messaging.Message;
+import com.microsoft.azure.sdk.iot.service.messaging.SendResult;
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.Verifications;
+import org.apache.qpid.proton.engine.Event;
+import org.apache.qpid.proton.engine.Sender;
+import org.apache.qpid.proton.reactor.Reactor;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Unit tests for the CloudToDeviceMessageSenderLinkHandler
+ */
+public class CloudToDeviceMessageSenderLinkHandlerTest
+{
+    @Mocked Sender mockSender;
+    @Mocked Event mockEvent;
+    @Mocked Reactor mockReactor;
+    @Mocked LinkStateCallback mockLinkStateCallback;
+
+    private CloudToDeviceMessageSenderLinkHandler createLinkHandler(int maxUnacknowledgedMessageCount, int messageCount, List<SendResult> sendResults)
+    {
+        CloudToDeviceMessageSenderLinkHandler linkHandler =
+            new CloudToDeviceMessageSenderLinkHandler(mockSender, "someLinkCorrelationId", mockLinkStateCallback, maxUnacknowledgedMessageCount);
+
+        for (int i = 0; i < messageCount; i++)
+        {
+            linkHandler.sendAsync("someDevice", null, new Message("some payload"), sendResults::add, null);
+        }
+
+        return linkHandler;
+    }
+
+    @Test
+    public void onLinkFlowOnlySendsAsManyMessagesAsLinkCreditAllows()
+    {
+        // arrange
+        CloudToDeviceMessageSenderLinkHandler linkHandler = createLinkHandler(100, 5, new ArrayList<>());
+
+        new Expectations(linkHandler)
+        {
+            {
+                mockSender.getCredit();
+                returns(2, 1, 0);
+
+                linkHandler.sendMessageAndGetDeliveryTag((org.apache.qpid.proton.message.Message) any);
+                returns(0, 1);
+            }
+        };
+
+        // act
+        linkHandler.onLinkFlow(mockEvent);
+
+        // assert
+        assertEquals(3, linkHandler.getQueuedMessageCount());
+        assertEquals(2, linkHandler.getUnacknowledgedMessageCount());
+    }
+
+    @Test
+    public void onLinkFlowDoesNotExceedMaxUnacknowledgedMessageCount()
+    {
+        // arrange
+        CloudToDeviceMessageSenderLinkHandler linkHandler = createLinkHandler(2, 5, new ArrayList<>());
+
+        new Expectations(linkHandler)
+        {
+            {
+                mockSender.getCredit();
+                result = 100;
+
+                linkHandler.sendMessageAndGetDeliveryTag((org.apache.qpid.proton.message.Message) any);
+                returns(0, 1);
+            }
+        };
+
+        // act
+        linkHandler.onLinkFlow(mockEvent);
+
+        // assert
+        assertEquals(3, linkHandler.getQueuedMessageCount());
+        assertEquals(2, linkHandler.getUnacknowledgedMessageCount());
+    }
+
+    @Test
+    public void onLinkFlowOnlySchedulesOneTimer()
+    {
+        // arrange
+        CloudToDeviceMessageSenderLinkHandler linkHandler = createLinkHandler(100, 0, new ArrayList<>());
+
+        // act
+        linkHandler.onLinkFlow(mockEvent);
+        linkHandler.onLinkFlow(mockEvent);
+        linkHandler.onLinkFlow(mockEvent);
+
+        // assert
+        new Verifications()
+        {
+            {
+                mockReactor.schedule(anyInt, linkHandler);
+                times = 1;
+            }
+        };
+    }
+
+    @Test
+    public void messageThatFailsToBeWrittenCompletesWithFailure()
+    {
+        // arrange
+        List<SendResult> sendResults = new ArrayList<>();
+        CloudToDeviceMessageSenderLinkHandler linkHandler = createLinkHandler(100, 1, sendResults);
+
+        new Expectations(linkHandler)
+        {
+            {
+                mockSender.getCredit();
+                result = 100;
+
+                linkHandler.sendMessageAndGetDeliveryTag((org.apache.qpid.proton.message.Message) any);
+                result = -1;
+            }
+        };
+
+        // act
+        linkHandler.onLinkFlow(mockEvent);
+
+        // assert
+        assertEquals(1, sendResults.size());
+        assertFalse(sendResults.get(0).wasSentSuccessfully());
+        assertEquals(0, linkHandler.getQueuedMessageCount());
+        assertEquals(0, linkHandler.getUnacknowledgedMessageCount());
+    }
+}
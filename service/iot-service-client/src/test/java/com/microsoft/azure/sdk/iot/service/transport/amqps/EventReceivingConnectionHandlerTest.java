@@ -175,4 +175,27 @@ public class EventReceivingConnectionHandlerTest
         // Act
         Deencapsulation.invoke(amqpReceiveHandler, "verifyConnectionWasOpened");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void setProcessorExecutorIgnoresConcurrencyLimitWithoutExecutor()
+    {
+        // Arrange
+        EventReceivingConnectionHandler amqpReceiveHandler = new EventReceivingConnectionHandler("aaa", IotHubServiceClientProtocol.AMQPS, fileUploadNotificationReceivedCallback, null, null, mockedProxyOptions, mockedSslContext, 230);
+
+        // Act
+        amqpReceiveHandler.setProcessorExecutor(null, 0);
+
+        // Assert
+        assertEquals(1, (int) Deencapsulation.invoke(amqpReceiveHandler, "getInitialLinkCredit"));
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void setProcessorExecutorThrowsForConcurrencyLimitBelowOneWithExecutor()
+    {
+        // Arrange
+        EventReceivingConnectionHandler amqpReceiveHandler = new EventReceivingConnectionHandler("aaa", IotHubServiceClientProtocol.AMQPS, fileUploadNotificationReceivedCallback, null, null, mockedProxyOptions, mockedSslContext, 230);
+
+        // Act
+        amqpReceiveHandler.setProcessorExecutor(Runnable::run, 0);
+    }
+}
@@ -0,0 +1,111 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.azure.sdk.iot.service.twin;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the TwinCollectionTypeAdapterFactory
+ */
+public class TwinCollectionTypeAdapterFactoryTest
+{
+    private static final String COLLECTION_JSON =
+        "{" +
+            "\"Brand\":\"NiceCar\"," +
+            "\"Doors\":4," +
+            "\"Electric\":true," +
+            "\"Trim\":null," +
+            "\"Colors\":[\"Red\",\"Blue\"]," +
+            "\"MaxSpeed\":{\"Value\":500.5,\"$version\":1}," +
+            "\"$version\":4," +
+            "\"$metadata\":{" +
+                "\"$lastUpdated\":\"2017-09-21T02:07:44.238Z\"," +
+                "\"$lastUpdatedVersion\":4," +
+                "\"Brand\":{\"$lastUpdated\":\"2017-09-21T02:07:44.238Z\",\"$lastUpdatedVersion\":2}," +
+                "\"MaxSpeed\":{" +
+                    "\"$lastUpdated\":\"2017-09-21T02:07:44.238Z\"," +
+                    "\"$lastUpdatedVersion\":3," +
+                    "\"Value\":{\"$lastUpdated\":\"2017-09-21T02:07:44.238Z\",\"$lastUpdatedVersion\":3}" +
+                "}" +
+            "}" +
+        "}";
+
+    @Test
+    public void readsValuesAndVersion()
+    {
+        // act
+        TwinCollection twinCollection = TwinGsonBuilder.getGson().fromJson(COLLECTION_JSON, TwinCollection.class);
+
+        // assert
+        assertEquals(4, (int) twinCollection.getVersion());
+        assertEquals(6, twinCollection.size());
+        assertEquals("NiceCar", twinCollection.get("Brand"));
+        assertEquals(4L, twinCollection.get("Doors"));
+        assertEquals(true, twinCollection.get("Electric"));
+        assertTrue(twinCollection.containsKey("Trim"));
+        assertNull(twinCollection.get("Trim"));
+        assertEquals(2, ((List<?>) twinCollection.get("Colors")).size());
+        assertFalse(twinCollection.containsKey("$metadata"));
+
+        // $version is only a tag on the outermost collection
+        TwinCollection maxSpeed = (TwinCollection) twinCollection.get("MaxSpeed");
+        assertEquals(500.5, maxSpeed.get("Value"));
+        assertEquals(1L, maxSpeed.get("$version"));
+        assertNull(maxSpeed.getVersion());
+    }
+
+    @Test
+    public void readsMetadataOfNestedCollections()
+    {
+        // act
+        TwinCollection twinCollection = TwinGsonBuilder.getGson().fromJson(COLLECTION_JSON, TwinCollection.class);
+        TwinCollection maxSpeed = (TwinCollection) twinCollection.get("MaxSpeed");
+
+        // assert
+        assertEquals(3, (int) maxSpeed.getTwinMetadata().getLastUpdatedVersion());
+        assertEquals(3, (int) maxSpeed.getTwinMetadata("Value").getLastUpdatedVersion());
+        assertEquals(4, (int) twinCollection.getTwinMetadata().getLastUpdatedVersion());
+        assertEquals(2, (int) twinCollection.getTwinMetadata("Brand").getLastUpdatedVersion());
+    }
+
+    @Test
+    public void readsSameCollectionAsRawCollection()
+    {
+        // arrange
+        TwinCollection rawCollection = TwinCollection.createFromRawCollection(new Gson().fromJson(COLLECTION_JSON, TwinCollection.class));
+
+        // act
+        TwinCollection twinCollection = TwinGsonBuilder.getGson().fromJson(COLLECTION_JSON, TwinCollection.class);
+
+        // assert
+        assertEquals(rawCollection.toJsonElementWithMetadata(), twinCollection.toJsonElementWithMetadata());
+    }
+
+    @Test
+    public void readsNull()
+    {
+        assertNull(TwinGsonBuilder.getGson().fromJson("null", TwinCollection.class));
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void throwsOnNonNumericVersion()
+    {
+        TwinGsonBuilder.getGson().fromJson("{\"$version\":\"4\"}", TwinCollection.class);
+    }
+
+    @Test (expected = JsonSyntaxException.class)
+    public void throwsOnMalformedJson()
+    {
+        TwinGsonBuilder.getGson().fromJson("{\"Brand\":}", TwinCollection.class);
+    }
+}
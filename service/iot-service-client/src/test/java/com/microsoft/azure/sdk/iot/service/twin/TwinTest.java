@@ -660,4 +660,26 @@ public class TwinTest
         //assert
         assertEquals(expectedModuleId, Deencapsulation.getField(testTwin, "moduleId"));
     }
+
+    @Test
+    public void fromJsonWithoutTagsHasEmptyTags(@Mocked final TwinState mockedTwinState)
+    {
+        //arrange
+        new NonStrictExpectations()
+        {
+            {
+                mockedTwinState.getDeviceId();
+                result = "testDevice";
+                mockedTwinState.getTags();
+                result = null;
+            }
+        };
+
+        //act
+        Twin twin = Twin.fromJson("{\"deviceId\":\"testDevice\"}");
+
+        //assert
+        assertNotNull(twin.getTags());
+        assertEquals(0, twin.getTags().size());
+    }
 }